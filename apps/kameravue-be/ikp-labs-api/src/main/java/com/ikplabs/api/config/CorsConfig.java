@@ -89,7 +89,8 @@ public class CorsConfig {
             "Origin",              // Request origin
             "Access-Control-Request-Method",    // Preflight
             "Access-Control-Request-Headers",   // Preflight
-            "X-Requested-With"     // AJAX identifier
+            "X-Requested-With",    // AJAX identifier
+            "If-None-Match"        // Conditional GET (gallery ETag)
         ));
 
         // === EXPOSED HEADERS ===
@@ -97,7 +98,8 @@ public class CorsConfig {
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
-            "Authorization"
+            "Authorization",
+            "ETag"                 // Version of gallery feeds / photo detail
         ));
 
         // === CREDENTIALS ===
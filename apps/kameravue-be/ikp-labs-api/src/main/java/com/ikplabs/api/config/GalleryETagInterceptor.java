@@ -0,0 +1,136 @@
+package com.ikplabs.api.config;
+
+import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.GalleryVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * GalleryETagInterceptor - Conditional GET (ETag / If-None-Match) for gallery reads
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Client yang polling seperti pelanggan yang setiap menit bertanya
+ * "ada koran baru?". Dulu petugas mencetak ulang seluruh koran (SQL + JSON)
+ * setiap kali ditanya. Sekarang petugas cukup melirik nomor edisi (GalleryVersions):
+ * nomor sama → jawab "304, belum ada yang baru" tanpa membuka gudang sama sekali.
+ *
+ * Endpoint yang dilindungi (GET saja):
+ * - /api/gallery/public               → versi public feed
+ * - /api/gallery/my-photos            → versi gallery milik viewer
+ * - /api/gallery/user/{userId}/public → versi gallery milik userId
+ * - /api/gallery/photo/{photoId}      → versi foto
+ *
+ * ETag (strong): "epoch.global.sort.scope.viewer"
+ * - sort = versi urutan sortBy (GalleryVersions.getSortVersion), 0 untuk newest/oldest
+ * - viewer ikut karena isLikedByUser / isFavoritedByUser berbeda per user
+ * - query string (page, sort, cursor) tidak ikut: ETag selalu dibandingkan per URL
+ *
+ * Versi dibaca SEBELUM controller membaca data. Kalau ada write di antaranya,
+ * client menerima data baru dengan ETag lama → poll berikutnya tetap 200.
+ * Arah sebaliknya (ETag baru, data lama) tidak mungkin karena versi baru
+ * dinaikkan setelah commit.
+ *
+ * Cache-Control "private, no-cache": browser boleh menyimpan, tapi wajib
+ * revalidate; shared cache tidak boleh mencampur response antar viewer.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class GalleryETagInterceptor implements HandlerInterceptor {
+
+    static final String PUBLIC_FEED = "/api/gallery/public";
+    static final String MY_PHOTOS = "/api/gallery/my-photos";
+    static final String USER_PUBLIC = "/api/gallery/user/{userId}/public";
+    static final String PHOTO_DETAIL = "/api/gallery/photo/{photoId}";
+
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    /**
+     * Answer 304 when the client's ETag is still current, otherwise attach the ETag
+     *
+     * @return false if the response is already complete (304)
+     */
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        Long viewerId = currentViewerId();
+        Long scopeVersion = scopeVersion(request, viewerId);
+        if (scopeVersion == null) {
+            return true;
+        }
+
+        String etag = "\"" + galleryVersions.getEpoch()
+                + "." + galleryVersions.getGlobalVersion()
+                + "." + galleryVersions.getSortVersion(request.getParameter("sortBy"))
+                + "." + scopeVersion
+                + "." + (viewerId != null ? viewerId : 0) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Sets ETag header; returns true (status 304, empty body) if If-None-Match matches
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    /**
+     * Version of the feed/photo behind the matched endpoint (null = not versioned)
+     */
+    private Long scopeVersion(HttpServletRequest request, Long viewerId) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (PUBLIC_FEED.equals(pattern)) {
+            return galleryVersions.getPublicFeedVersion();
+        }
+        if (MY_PHOTOS.equals(pattern)) {
+            return viewerId != null ? galleryVersions.getUserGalleryVersion(viewerId) : null;
+        }
+        if (USER_PUBLIC.equals(pattern)) {
+            Long userId = pathId(request, "userId");
+            return userId != null ? galleryVersions.getUserGalleryVersion(userId) : null;
+        }
+        if (PHOTO_DETAIL.equals(pattern)) {
+            Long photoId = pathId(request, "photoId");
+            return photoId != null ? galleryVersions.getPhotoVersion(photoId) : null;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long pathId(HttpServletRequest request, String name) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(((Map<String, String>) variables).get(name));
+        } catch (NumberFormatException e) {
+            return null; // Let the controller report the bad path variable
+        }
+    }
+
+    private static Long currentViewerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
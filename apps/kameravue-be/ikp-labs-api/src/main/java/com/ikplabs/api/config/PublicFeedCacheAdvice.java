@@ -0,0 +1,93 @@
+package com.ikplabs.api.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ikplabs.api.dto.GalleryListResponse;
+import com.ikplabs.api.service.PublicFeedPageCache;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * PublicFeedCacheAdvice - Serialize a public feed miss once, cache it, write the bytes
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Pada miss, controller sudah menyusun GalleryListResponse. Daripada Jackson
+ * menulis JSON ke response lalu kita men-serialize lagi untuk cache, JSON dicetak
+ * SEKALI ke byte[]: disimpan di PublicFeedPageCache, lalu byte yang sama ditulis
+ * ke response. Return null = Spring tidak menulis body lagi.
+ *
+ * Hanya aktif untuk request yang ditandai PublicFeedCacheInterceptor
+ * (anonymous GET /api/gallery/public). Error response (ErrorResponse) tidak disentuh.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@ControllerAdvice
+public class PublicFeedCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private PublicFeedPageCache publicFeedPageCache;
+
+    /**
+     * Same ObjectMapper as the JSON message converter → identical bytes
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request,
+                                  @NonNull ServerHttpResponse response) {
+        if (!(body instanceof GalleryListResponse)
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        Object key = httpRequest.getAttribute(PublicFeedCacheInterceptor.KEY_ATTRIBUTE);
+        Object stamp = httpRequest.getAttribute(PublicFeedCacheInterceptor.STAMP_ATTRIBUTE);
+        if (!(key instanceof String) || !(stamp instanceof PublicFeedPageCache.Stamp)) {
+            return body;
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return body; // Let the converter report it
+        }
+
+        PublicFeedPageCache.Page page = publicFeedPageCache.put((String) key, (PublicFeedPageCache.Stamp) stamp, json);
+        try {
+            PublicFeedCacheInterceptor.write(httpRequest, servletResponse.getServletResponse(), page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+}
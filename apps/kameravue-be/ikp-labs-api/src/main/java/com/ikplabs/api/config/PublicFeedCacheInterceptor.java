@@ -0,0 +1,165 @@
+package com.ikplabs.api.config;
+
+import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.PublicFeedPageCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * PublicFeedCacheInterceptor - Serve anonymous public feed pages from serialized bytes
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Loket depan untuk tamu tanpa kartu member: kalau brosur halaman yang diminta
+ * sudah tercetak (PublicFeedPageCache), langsung diserahkan — tanpa memanggil
+ * petugas gudang (controller, database) dan tanpa mencetak ulang (Jackson).
+ *
+ * Alur GET /api/gallery/public (setelah GalleryETagInterceptor, jadi 304 dicek dulu):
+ * 1. Viewer login → lewat (flag like/favorite per user)
+ * 2. Query parameter → key (default sama dengan @RequestParam controller,
+ *    plus versi urutan sortBy); parameter tidak valid → lewat, controller yang melapor error
+ * 3. Hit → bytes JSON (atau gzip kalau client menerima) ditulis langsung ke
+ *    output stream, return false
+ * 4. Miss → key + stamp disimpan di request attribute untuk PublicFeedCacheAdvice
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class PublicFeedCacheInterceptor implements HandlerInterceptor {
+
+    static final String KEY_ATTRIBUTE = PublicFeedCacheInterceptor.class.getName() + ".key";
+    static final String STAMP_ATTRIBUTE = PublicFeedCacheInterceptor.class.getName() + ".stamp";
+
+    @Autowired
+    private PublicFeedPageCache publicFeedPageCache;
+
+    /**
+     * Write a cached page, or mark the request so the advice can cache its response
+     *
+     * @return false if the response was served from the cache
+     */
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        if (!"GET".equals(request.getMethod()) || !publicFeedPageCache.isEnabled() || isLoggedIn()) {
+            return true;
+        }
+
+        // Stamp before the sort version: both are read before the controller reads data
+        PublicFeedPageCache.Stamp stamp = publicFeedPageCache.currentStamp();
+        String key = cacheKey(request);
+        if (key == null) {
+            return true;
+        }
+
+        PublicFeedPageCache.Page page = publicFeedPageCache.get(key, stamp);
+        if (page != null) {
+            write(request, response, page);
+            return false;
+        }
+
+        request.setAttribute(KEY_ATTRIBUTE, key);
+        request.setAttribute(STAMP_ATTRIBUTE, stamp);
+        return true;
+    }
+
+    /**
+     * Write a serialized page as the 200 response (gzip if the client accepts it)
+     */
+    static void write(HttpServletRequest request, HttpServletResponse response,
+                      PublicFeedPageCache.Page page) throws IOException {
+        byte[] body = page.getJson();
+        if (page.getGzip() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                body = page.getGzip();
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    /**
+     * Key from the query string with the controller's defaults (null = do not cache)
+     */
+    String cacheKey(HttpServletRequest request) {
+        try {
+            String sortParam = request.getParameter("sortBy");
+            String sortBy = sortParam != null ? sortParam : "newest";
+            String page = request.getParameter("page");
+            String size = request.getParameter("size");
+            String withTotal = request.getParameter("withTotal");
+            return PublicFeedPageCache.key(
+                    sortBy,
+                    publicFeedPageCache.sortVersion(sortBy),
+                    page != null ? Integer.parseInt(page.trim()) : 0,
+                    size != null ? Integer.parseInt(size.trim()) : 12,
+                    request.getParameter("cursor"),
+                    withTotal == null || parseBoolean(withTotal));
+        } catch (IllegalArgumentException e) {
+            return null; // Let the controller report the bad parameter
+        }
+    }
+
+    /**
+     * "gzip" listed in Accept-Encoding without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same values Spring's boolean conversion accepts for @RequestParam
+     */
+    private static boolean parseBoolean(String value) {
+        switch (value.trim().toLowerCase()) {
+            case "true", "on", "yes", "1":
+                return true;
+            case "false", "off", "no", "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid boolean value: " + value);
+        }
+    }
+
+    private static boolean isLoggedIn() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal;
+    }
+}
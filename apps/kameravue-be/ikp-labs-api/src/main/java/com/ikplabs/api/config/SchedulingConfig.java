@@ -0,0 +1,35 @@
+package com.ikplabs.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig - Enable Spring @Scheduled background jobs
+ *
+ * Jobs yang terdaftar:
+ * - EngagementCounterReconciler → koreksi like_count / favorite_count (cron)
+ * - PublicFeedIndex → rebuild index feed publik in-memory (fixed delay)
+ * - TrendingScoreUpdater → decay + tambah hot_score untuk sortBy=trending (fixed delay)
+ * - LikeLeaderboard → rebuild papan skor top-K most liked (fixed delay)
+ * - CounterShardCompactor → fold photo_counter_shards ke kolom counter (fixed delay)
+ * - LiveLikeCounts → kirim like count terbaru ke SSE stream yang terbuka (fixed delay)
+ * - EngagementWriteBuffer → flush like/favorite yang di-buffer ke database (fixed delay)
+ * - EngagementCounters → reconcile like/favorite count in-memory (fixed delay)
+ * - PhotoTagIndex → rebuild index tag in-memory (fixed delay)
+ *
+ * Default Spring hanya SATU scheduler thread untuk semua job di atas:
+ * spring.task.scheduling.pool.size (application.properties) memberi beberapa thread,
+ * supaya rebuild / reconcile yang lama tidak menahan flush 50 ms dan window 1 detik.
+ * Job tetap tidak boleh melakukan I/O ke client di thread ini (LiveLikeCounts
+ * menulis lewat sender pool sendiri).
+ *
+ * Dipisah dari IkpLabsApiApplication supaya jelas di mana scheduling di-enable,
+ * sama seperti SecurityConfig, CorsConfig, WebConfig.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
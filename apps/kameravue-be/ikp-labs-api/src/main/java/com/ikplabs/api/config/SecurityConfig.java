@@ -124,10 +124,19 @@ public class SecurityConfig {
                 .requestMatchers("/api/gallery/public").permitAll()           // View all public photos
                 .requestMatchers("/api/gallery/user/*/public").permitAll()    // View user's public photos
                 .requestMatchers("/api/gallery/photo/*").permitAll()          // View photo detail
+                .requestMatchers("/api/gallery/photo/*/likes/stream").permitAll() // Live like count (SSE)
+                .requestMatchers("/api/gallery/photos").permitAll()           // Bulk photo lookup by ids
+                .requestMatchers("/api/gallery/leaderboard").permitAll()      // Top liked photos widget
+                .requestMatchers("/api/gallery/search").permitAll()           // Full-text photo search
+                .requestMatchers("/api/gallery/tagged").permitAll()           // Public photos by tags
 
                 // GALLERY PROTECTED ENDPOINTS - Protected (perlu login)
                 .requestMatchers("/api/gallery/**").authenticated()           // Upload, my-photos, update, delete
 
+                // ACTUATOR - health public, metrics (cache stats) perlu login
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").authenticated()
+
                 // PROTECTED ENDPOINTS - Area hotel (perlu key card)
                 .requestMatchers("/api/user/**").authenticated()    // User profile endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")  // Admin only areas
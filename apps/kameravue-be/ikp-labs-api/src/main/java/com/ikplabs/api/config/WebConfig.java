@@ -1,8 +1,10 @@
 package com.ikplabs.api.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -98,6 +100,40 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${file.upload.directory:uploads/profiles/}")
     private String uploadDirectory;
 
+    /**
+     * Conditional GET (ETag → 304) for gallery feeds and photo detail
+     */
+    @Autowired
+    private GalleryETagInterceptor galleryETagInterceptor;
+
+    /**
+     * Serialized-bytes cache of anonymous public feed pages
+     */
+    @Autowired
+    private PublicFeedCacheInterceptor publicFeedCacheInterceptor;
+
+    /**
+     * Register Interceptors
+     *
+     * GalleryETagInterceptor jalan setelah security filter (viewer sudah diketahui)
+     * dan sebelum controller (304 tanpa query ke database).
+     * PublicFeedCacheInterceptor didaftarkan SETELAHNYA: 304 dicek dulu,
+     * baru bytes dari cache (header ETag sudah terpasang).
+     *
+     * @param registry InterceptorRegistry untuk register interceptors
+     */
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(galleryETagInterceptor)
+                .addPathPatterns(
+                        GalleryETagInterceptor.PUBLIC_FEED,
+                        GalleryETagInterceptor.MY_PHOTOS,
+                        GalleryETagInterceptor.USER_PUBLIC,
+                        GalleryETagInterceptor.PHOTO_DETAIL);
+        registry.addInterceptor(publicFeedCacheInterceptor)
+                .addPathPatterns(GalleryETagInterceptor.PUBLIC_FEED);
+    }
+
     /**
      * Configure Resource Handlers
      *
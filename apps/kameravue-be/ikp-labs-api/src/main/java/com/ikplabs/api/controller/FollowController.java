@@ -0,0 +1,101 @@
+package com.ikplabs.api.controller;
+
+import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * FollowController - REST API endpoints for follow/unfollow
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * FollowController seperti "Loket Langganan":
+ * - User tekan "Follow" → "OK, foto public dia akan muncul di timeline kamu"
+ * - User tekan "Following" lagi → "OK, berhenti langganan"
+ *
+ * Timeline-nya sendiri dibaca lewat GET /api/gallery/timeline (GalleryController).
+ *
+ * REST API ENDPOINTS (2 total):
+ * ==============================
+ * 1. POST   /api/users/{userId}/follow → Follow a user
+ * 2. DELETE /api/users/{userId}/follow → Unfollow a user
+ *
+ * HTTP STATUS CODES:
+ * ==================
+ * 201 Created      → Follow added successfully
+ * 204 No Content   → Follow removed successfully
+ * 400 Bad Request  → Follow yourself, user not found, not following, already following
+ * 401 Unauthorized → Missing or invalid JWT token
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = {"http://localhost:3002", "http://localhost:3005"})
+public class FollowController {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    /**
+     * ENDPOINT 1: FOLLOW A USER
+     * =========================
+     * POST /api/users/{userId}/follow
+     *
+     * Example request:
+     * ```
+     * POST /api/users/83/follow
+     * Authorization: Bearer <jwt-token>
+     * ```
+     *
+     * Response (201 Created): empty body
+     *
+     * @param userId ID of user to follow (from URL path)
+     * @param currentUser Current logged-in user (from JWT)
+     * @return ResponseEntity with 201 Created status (empty body)
+     * @throws IllegalArgumentException if following yourself or user not found
+     * @throws IllegalStateException if already following
+     */
+    @PostMapping("/{userId}/follow")
+    public ResponseEntity<Void> follow(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        timelineService.follow(currentUser.getId(), userId);
+
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    /**
+     * ENDPOINT 2: UNFOLLOW A USER
+     * ===========================
+     * DELETE /api/users/{userId}/follow
+     *
+     * Example request:
+     * ```
+     * DELETE /api/users/83/follow
+     * Authorization: Bearer <jwt-token>
+     * ```
+     *
+     * Response (204 No Content): empty body
+     *
+     * @param userId ID of user to unfollow (from URL path)
+     * @param currentUser Current logged-in user (from JWT)
+     * @return ResponseEntity with 204 No Content status (empty body)
+     * @throws IllegalArgumentException if not following
+     */
+    @DeleteMapping("/{userId}/follow")
+    public ResponseEntity<Void> unfollow(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        timelineService.unfollow(currentUser.getId(), userId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,26 +4,44 @@ import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoDetailResponse;
 import com.ikplabs.api.dto.GalleryPhotoRequest;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.GalleryPhotoSlice;
+import com.ikplabs.api.dto.LeaderboardEntry;
+import com.ikplabs.api.dto.LeaderboardResponse;
+import com.ikplabs.api.dto.PhotoBatchResponse;
 import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.enums.LeaderboardPeriod;
 import com.ikplabs.api.enums.SortBy;
 import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.GalleryExportService;
 import com.ikplabs.api.service.GalleryService;
+import com.ikplabs.api.service.LikeLeaderboard;
+import com.ikplabs.api.service.LiveLikeCounts;
 import com.ikplabs.api.service.PhotoLikeService;
 import com.ikplabs.api.service.PhotoFavoriteService;
+import com.ikplabs.api.service.PhotoEngagementService;
+import com.ikplabs.api.service.PhotoDetailCache;
+import com.ikplabs.api.service.PhotoTagService;
+import com.ikplabs.api.util.LookAheadPageRequest;
 import com.ikplabs.api.util.PaginationUtil;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -42,7 +60,7 @@ import java.util.stream.Collectors;
  * - Hapus foto → "Yakin mau hapus? OK, dihapus!"
  * - Toggle privacy → "Mau ubah jadi public/private? OK!"
  *
- * REST API ENDPOINTS (8 total):
+ * REST API ENDPOINTS (15 total):
  * ==============================
  * 1. POST   /api/gallery/upload           → Upload new photo
  * 2. GET    /api/gallery/my-photos        → Get my photos (all, including private)
@@ -52,6 +70,13 @@ import java.util.stream.Collectors;
  * 6. PUT    /api/gallery/photo/{photoId}  → Update photo metadata
  * 7. DELETE /api/gallery/photo/{photoId}  → Delete photo
  * 8. PUT    /api/gallery/photo/{photoId}/toggle-privacy → Toggle public/private
+ * 9. GET    /api/gallery/leaderboard      → Top most-liked public photos (week / all time)
+ * 10. GET   /api/gallery/my-photos/export → Stream all my photos as NDJSON
+ * 11. GET   /api/gallery/photos?ids=1,2,3 → Many photos by ID in one request
+ * 12. GET   /api/gallery/timeline     → Public photos of users I follow (cursor mode)
+ * 13. GET   /api/gallery/search?q=    → Full-text search over title + description (cursor mode)
+ * 14. GET   /api/gallery/tagged?q=    → Public photos by tags, e.g. "sunset AND beach NOT night" (cursor mode)
+ * 15. GET   /api/gallery/photo/{photoId}/likes/stream → Live like count (Server-Sent Events)
  *
  * All endpoints require authentication (JWT token in header).
  *
@@ -73,6 +98,24 @@ public class GalleryController {
     @Autowired
     private PhotoFavoriteService photoFavoriteService;
 
+    @Autowired
+    private PhotoEngagementService photoEngagementService;
+
+    @Autowired
+    private LikeLeaderboard likeLeaderboard;
+
+    @Autowired
+    private GalleryExportService galleryExportService;
+
+    @Autowired
+    private PhotoDetailCache photoDetailCache;
+
+    @Autowired
+    private LiveLikeCounts liveLikeCounts;
+
+    @Autowired
+    private PhotoTagService photoTagService;
+
     /**
      * ENDPOINT 1: UPLOAD PHOTO
      * ========================
@@ -157,6 +200,14 @@ public class GalleryController {
      *   * "oldest": oldest first (createdAt ASC)
      *   * "mostLiked": most liked first (likeCount DESC)
      *   * "mostFavorited": most favorited first (favoriteCount DESC)
+     *   * "trending": trending first (hotScore DESC, time-decayed likes + favorites)
+     * - cursor: string (optional) - keyset pagination mode
+     *   * Absent: classic page/size (OFFSET) mode
+     *   * Empty ("?cursor="): first slice in cursor mode
+     *   * Value from previous response's nextCursor: next slice (constant cost at any depth)
+     * - withTotal: boolean (default true) - run COUNT(*) for totalPhotos/totalPages
+     *   * false: count-free mode for infinite scroll, fetches size + 1 rows for hasNext,
+     *     totalPhotos/totalPages left out of the JSON
      *
      * Example request:
      * ```
@@ -180,6 +231,8 @@ public class GalleryController {
      * @param page Page number (0-indexed, default 0)
      * @param size Photos per page (default 12)
      * @param sortBy Sort order (default "newest")
+     * @param cursor Keyset cursor (optional, enables cursor mode)
+     * @param withTotal false = count-free mode (no COUNT(*), totals omitted)
      * @param currentUser Current logged-in user (from JWT)
      * @return GalleryListResponse with paginated photos
      */
@@ -188,6 +241,8 @@ public class GalleryController {
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "12") int size,
             @RequestParam(value = "sortBy", defaultValue = "newest") String sortBy,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal,
             @AuthenticationPrincipal UserPrincipal currentUser) {
 
         // Validate sortBy parameter using SortBy enum
@@ -197,23 +252,34 @@ public class GalleryController {
             );
         }
 
-        // Sorting handled by native SQL query, not by Pageable
-        Pageable pageable = PageRequest.of(page, size);
-        List<GalleryPhoto> photos = galleryService.getMyPhotos(currentUser.getId(), sortBy, pageable);
-
         Long currentUserId = currentUser.getId();
 
-        List<GalleryPhotoResponse> photoResponses = photos.stream()
-                .map(photo -> {
-                    long likeCount = photoLikeService.getLikeCount(photo.getId());
-                    boolean isLikedByUser = photoLikeService.isLikedByUser(photo.getId(), currentUserId);
-                    boolean isFavoritedByUser = photoFavoriteService.isFavoritedByUser(photo.getId(), currentUserId);
+        // Cursor mode: seek after last seen (sort key, id), no OFFSET
+        if (cursor != null) {
+            GalleryPhotoSlice slice = galleryService.getMyPhotosAfter(currentUserId, sortBy, cursor, size);
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+            long totalPhotos = withTotal ? galleryService.countMyPhotos(currentUserId) : GalleryListResponse.UNKNOWN_TOTAL;
+            return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                    photoResponses, totalPhotos, size, slice.getNextCursor(), !cursor.isBlank()
+            ));
+        }
 
-                    GalleryPhotoResponse response = GalleryPhotoResponse.fromEntityWithLikes(photo, currentUserId, likeCount, isLikedByUser);
-                    response.setIsFavoritedByUser(isFavoritedByUser);
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Count-free mode: fetch size + 1 rows, hasNext = look-ahead row exists
+        if (!withTotal) {
+            List<GalleryPhotoResponse> fetched = galleryService.getMyPhotos(currentUserId, sortBy, new LookAheadPageRequest(page, size));
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(
+                    PaginationUtil.withoutLookAhead(fetched, size), currentUserId);
+            return ResponseEntity.ok(PaginationUtil.buildLookAheadResponse(
+                    photoResponses, page, size, fetched.size() > size, OptionalLong.empty()
+            ));
+        }
+
+        // Sorting handled by native SQL query, not by Pageable
+        Pageable pageable = PageRequest.of(page, size);
+        List<GalleryPhotoResponse> photos = galleryService.getMyPhotos(currentUserId, sortBy, pageable);
+
+        // Like count + liked/favorited flags for the whole page in 2 grouped queries
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(photos, currentUserId);
 
         long totalPhotos = galleryService.countMyPhotos(currentUser.getId());
         GalleryListResponse response = PaginationUtil.buildPaginatedResponse(
@@ -239,6 +305,14 @@ public class GalleryController {
      *   * "oldest": oldest first (createdAt ASC)
      *   * "mostLiked": most liked first (likeCount DESC)
      *   * "mostFavorited": most favorited first (favoriteCount DESC)
+     *   * "trending": trending first (hotScore DESC, time-decayed likes + favorites)
+     * - cursor: string (optional) - keyset pagination mode
+     *   * Absent: classic page/size (OFFSET) mode
+     *   * Empty ("?cursor="): first slice in cursor mode
+     *   * Value from previous response's nextCursor: next slice (constant cost at any depth)
+     * - withTotal: boolean (default true) - run COUNT(*) for totalPhotos/totalPages
+     *   * false: count-free mode for infinite scroll, fetches size + 1 rows for hasNext,
+     *     totalPhotos/totalPages left out of the JSON
      *
      * Example request:
      * ```
@@ -251,6 +325,8 @@ public class GalleryController {
      * @param page Page number (0-indexed, default 0)
      * @param size Photos per page (default 12)
      * @param sortBy Sort order (default "newest")
+     * @param cursor Keyset cursor (optional, enables cursor mode)
+     * @param withTotal false = count-free mode (no COUNT(*), totals omitted)
      * @return GalleryListResponse with paginated public photos
      */
     @GetMapping("/public")
@@ -258,6 +334,8 @@ public class GalleryController {
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "12") int size,
             @RequestParam(value = "sortBy", defaultValue = "newest") String sortBy,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal,
             @AuthenticationPrincipal UserPrincipal currentUser) {
 
         // Validate sortBy parameter using SortBy enum
@@ -267,25 +345,36 @@ public class GalleryController {
             );
         }
 
-        // Sorting handled by native SQL query, not by Pageable
-        Pageable pageable = PageRequest.of(page, size);
-        List<GalleryPhoto> photos = galleryService.getPublicPhotos(sortBy, pageable);
-
         // For public endpoint, currentUser may be null (anonymous access)
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
 
-        List<GalleryPhotoResponse> photoResponses = photos.stream()
-                .map(photo -> {
-                    long likeCount = photoLikeService.getLikeCount(photo.getId());
-                    // For anonymous users, isLikedByUser and isFavoritedByUser are always false
-                    boolean isLikedByUser = currentUserId != null && photoLikeService.isLikedByUser(photo.getId(), currentUserId);
-                    boolean isFavoritedByUser = currentUserId != null && photoFavoriteService.isFavoritedByUser(photo.getId(), currentUserId);
+        // Cursor mode: seek after last seen (sort key, id), no OFFSET
+        if (cursor != null) {
+            GalleryPhotoSlice slice = galleryService.getPublicPhotosAfter(sortBy, cursor, size);
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+            long totalPhotos = withTotal ? galleryService.countPublicPhotos() : GalleryListResponse.UNKNOWN_TOTAL;
+            return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                    photoResponses, totalPhotos, size, slice.getNextCursor(), !cursor.isBlank()
+            ));
+        }
 
-                    GalleryPhotoResponse response = GalleryPhotoResponse.fromEntityWithLikes(photo, currentUserId, likeCount, isLikedByUser);
-                    response.setIsFavoritedByUser(isFavoritedByUser);
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Count-free mode: fetch size + 1 rows; total only if PublicFeedIndex has it in memory
+        if (!withTotal) {
+            List<GalleryPhotoResponse> fetched = galleryService.getPublicPhotos(sortBy, new LookAheadPageRequest(page, size));
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(
+                    PaginationUtil.withoutLookAhead(fetched, size), currentUserId);
+            return ResponseEntity.ok(PaginationUtil.buildLookAheadResponse(
+                    photoResponses, page, size, fetched.size() > size, galleryService.peekPublicPhotoCount()
+            ));
+        }
+
+        // Sorting handled by native SQL query, not by Pageable
+        Pageable pageable = PageRequest.of(page, size);
+        List<GalleryPhotoResponse> photos = galleryService.getPublicPhotos(sortBy, pageable);
+
+        // Like count + liked/favorited flags for the whole page in 2 grouped queries
+        // (anonymous viewers simply get false flags)
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(photos, currentUserId);
 
         long totalPhotos = galleryService.countPublicPhotos();
         GalleryListResponse response = PaginationUtil.buildPaginatedResponse(
@@ -309,6 +398,8 @@ public class GalleryController {
      * Query parameters:
      * - page: int (default 0) - page number (0-indexed)
      * - size: int (default 12) - photos per page
+     * - cursor: string (optional) - keyset pagination mode (newest first), see GET /my-photos
+     * - withTotal: boolean (default true) - false = count-free mode, see GET /my-photos
      *
      * Example request:
      * ```
@@ -321,6 +412,8 @@ public class GalleryController {
      * @param userId User ID to get photos from
      * @param page Page number (0-indexed, default 0)
      * @param size Photos per page (default 12)
+     * @param cursor Keyset cursor (optional, enables cursor mode)
+     * @param withTotal false = count-free mode (no COUNT(*), totals omitted)
      * @return GalleryListResponse with paginated user's public photos
      */
     @GetMapping("/user/{userId}/public")
@@ -328,26 +421,39 @@ public class GalleryController {
             @PathVariable Long userId,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "12") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal,
             @AuthenticationPrincipal UserPrincipal currentUser) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        List<GalleryPhoto> photos = galleryService.getUserPublicPhotos(userId, pageable);
-
         // For public endpoint, currentUser may be null (anonymous access)
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
 
-        List<GalleryPhotoResponse> photoResponses = photos.stream()
-                .map(photo -> {
-                    long likeCount = photoLikeService.getLikeCount(photo.getId());
-                    // For anonymous users, isLikedByUser and isFavoritedByUser are always false
-                    boolean isLikedByUser = currentUserId != null && photoLikeService.isLikedByUser(photo.getId(), currentUserId);
-                    boolean isFavoritedByUser = currentUserId != null && photoFavoriteService.isFavoritedByUser(photo.getId(), currentUserId);
+        // Cursor mode: seek after last seen (created_at, id), no OFFSET
+        if (cursor != null) {
+            GalleryPhotoSlice slice = galleryService.getUserPublicPhotosAfter(userId, cursor, size);
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+            long totalPhotos = withTotal ? galleryService.countUserPublicPhotos(userId) : GalleryListResponse.UNKNOWN_TOTAL;
+            return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                    photoResponses, totalPhotos, size, slice.getNextCursor(), !cursor.isBlank()
+            ));
+        }
 
-                    GalleryPhotoResponse response = GalleryPhotoResponse.fromEntityWithLikes(photo, currentUserId, likeCount, isLikedByUser);
-                    response.setIsFavoritedByUser(isFavoritedByUser);
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Count-free mode: fetch size + 1 rows, hasNext = look-ahead row exists
+        if (!withTotal) {
+            List<GalleryPhotoResponse> fetched = galleryService.getUserPublicPhotos(userId, new LookAheadPageRequest(page, size));
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(
+                    PaginationUtil.withoutLookAhead(fetched, size), currentUserId);
+            return ResponseEntity.ok(PaginationUtil.buildLookAheadResponse(
+                    photoResponses, page, size, fetched.size() > size, OptionalLong.empty()
+            ));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        List<GalleryPhotoResponse> photos = galleryService.getUserPublicPhotos(userId, pageable);
+
+        // Like count + liked/favorited flags for the whole page in 2 grouped queries
+        // (anonymous viewers simply get false flags)
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(photos, currentUserId);
 
         long totalPhotos = galleryService.countUserPublicPhotos(userId);
         GalleryListResponse response = PaginationUtil.buildPaginatedResponse(
@@ -367,6 +473,9 @@ public class GalleryController {
      * - Public photo → Anyone can view
      * - Private photo → Only owner can view
      *
+     * Photo, owner and like count come from PhotoDetailCache (shared by all viewers);
+     * only isLikedByUser / isFavoritedByUser are queried per logged-in viewer.
+     *
      * Path variable:
      * - photoId: Long - photo ID to get
      *
@@ -409,17 +518,23 @@ public class GalleryController {
         // For public endpoint, currentUser may be null (anonymous access)
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
 
-        GalleryPhoto photo = galleryService.getPhotoById(photoId, currentUserId);
+        // Viewer-independent part: cached, loaded (with privacy check) on a miss
+        GalleryPhotoDetailResponse response = photoDetailCache.getOrLoad(photoId, () -> {
+            GalleryPhoto photo = galleryService.getPhotoById(photoId, currentUserId);
+            long likeCount = photoLikeService.getLikeCount(photo.getId());
+            GalleryPhotoDetailResponse detail = GalleryPhotoDetailResponse.fromEntityWithLikes(photo, currentUserId, likeCount, false);
+            detail.setTags(photoTagService.getTags(photo.getId()));
+            return detail;
+        });
 
-        long likeCount = photoLikeService.getLikeCount(photo.getId());
-        // For anonymous users, isLikedByUser and isFavoritedByUser are always false
-        boolean isLikedByUser = currentUserId != null && photoLikeService.isLikedByUser(photo.getId(), currentUserId);
-        boolean isFavoritedByUser = currentUserId != null && photoFavoriteService.isFavoritedByUser(photo.getId(), currentUserId);
+        // Cached entries are shared, so private photos are checked on every request
+        galleryService.checkCanView(response.getIsPublic(), response.getUserId(), currentUserId);
 
-        GalleryPhotoDetailResponse response = GalleryPhotoDetailResponse.fromEntityWithLikes(
-                photo, currentUserId, likeCount, isLikedByUser
-        );
-        response.setIsFavoritedByUser(isFavoritedByUser);
+        // For anonymous users, isLikedByUser and isFavoritedByUser are always false
+        if (currentUserId != null) {
+            response.setIsLikedByUser(photoLikeService.isLikedByUser(photoId, currentUserId));
+            response.setIsFavoritedByUser(photoFavoriteService.isFavoritedByUser(photoId, currentUserId));
+        }
         return ResponseEntity.ok(response);
     }
 
@@ -428,7 +543,7 @@ public class GalleryController {
      * ========================
      * PUT /api/gallery/photo/{photoId}
      *
-     * Update photo metadata (title, description, privacy).
+     * Update photo metadata (title, description, privacy, tags).
      * Only owner can update their photos.
      *
      * Path variable:
@@ -439,10 +554,12 @@ public class GalleryController {
      * {
      *   "title": "New Title",
      *   "description": "New description",
-     *   "isPublic": true
+     *   "isPublic": true,
+     *   "tags": ["sunset", "beach"]
      * }
      * ```
      * All fields are optional (partial update supported).
+     * tags replaces the whole tag list (null/absent = unchanged, [] = remove all).
      *
      * Example request:
      * ```
@@ -478,7 +595,8 @@ public class GalleryController {
                 currentUser.getId(),
                 request.getTitle(),
                 request.getDescription(),
-                request.getIsPublic()
+                request.getIsPublic(),
+                request.getTags()
         );
         GalleryPhotoResponse response = GalleryPhotoResponse.fromEntity(photo);
         return ResponseEntity.ok(response);
@@ -564,6 +682,357 @@ public class GalleryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * ENDPOINT 9: GET LEADERBOARD
+     * ===========================
+     * GET /api/gallery/leaderboard
+     *
+     * Top most-liked public photos, served from the in-memory LikeLeaderboard
+     * (no sort over gallery_photos per request, only a primary-key load of the rows).
+     *
+     * Query parameters:
+     * - period: string (default "week") - "week" (likes in the last 7 days) or "allTime"
+     * - limit: int (default 50) - number of entries, capped at gallery.leaderboard.size
+     *
+     * Example request:
+     * ```
+     * GET /api/gallery/leaderboard?period=week&limit=10
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "period": "week",
+     *   "entries": [
+     *     { "rank": 1, "periodLikes": 42, "photo": { "id": 123, "likeCount": 310, ... } },
+     *     ...
+     *   ]
+     * }
+     * ```
+     *
+     * @param period Leaderboard period (default "week")
+     * @param limit Maximum number of entries (default 50)
+     * @param currentUser Current user (nullable, only used for liked/favorited flags)
+     * @return LeaderboardResponse ranked best first
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @RequestParam(value = "period", defaultValue = "week") String period,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        LeaderboardPeriod leaderboardPeriod = LeaderboardPeriod.fromValue(period);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+
+        List<LeaderboardEntry> entries = likeLeaderboard.getLeaderboard(
+                leaderboardPeriod, Math.min(limit, likeLeaderboard.getSize()));
+
+        // Like count + liked/favorited flags for all rows in 2 grouped queries
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+        List<GalleryPhotoResponse> photos = entries.stream().map(LeaderboardEntry::getPhoto).toList();
+        photoEngagementService.applyEngagement(photos, currentUserId);
+
+        return ResponseEntity.ok(new LeaderboardResponse(leaderboardPeriod.getValue(), entries));
+    }
+
+    /**
+     * ENDPOINT 10: EXPORT MY PHOTOS
+     * =============================
+     * GET /api/gallery/my-photos/export
+     *
+     * Seluruh galeri user (termasuk private) dalam SATU response, newest first,
+     * sebagai NDJSON: satu JSON object per baris (GalleryPhotoExportRow).
+     * Pengganti jalan halaman per halaman lewat GET /my-photos.
+     *
+     * Body ditulis oleh StreamingResponseBody di thread async: database dibaca
+     * lewat JDBC cursor dan setiap baris langsung ditulis ke response,
+     * jadi memory server tidak bertambah dengan jumlah foto.
+     *
+     * Example request:
+     * ```
+     * GET /api/gallery/my-photos/export
+     * Authorization: Bearer <jwt-token>
+     * ```
+     *
+     * Response (200 OK, application/x-ndjson):
+     * ```
+     * {"id":124,"title":"Sunrise","description":"...","filePath":"...","isPublic":true,"likeCount":3,"favoriteCount":1,...}
+     * {"id":123,"title":"Sunset at Beach","description":"...","filePath":"...","isPublic":false,"likeCount":0,...}
+     * ```
+     *
+     * @param currentUser Current logged-in user (from JWT)
+     * @return Streaming NDJSON body (attachment gallery-export.ndjson)
+     */
+    @GetMapping("/my-photos/export")
+    public ResponseEntity<StreamingResponseBody> exportMyPhotos(
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        // Resolve user on the request thread; the body is written on an async thread
+        Long currentUserId = currentUser.getId();
+        StreamingResponseBody body = out -> galleryExportService.exportUserPhotos(currentUserId, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"gallery-export.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * ENDPOINT 11: GET PHOTOS BY IDS
+     * ==============================
+     * GET /api/gallery/photos?ids=123,124,125
+     *
+     * Banyak foto sekaligus untuk widget favorites / preview notifikasi,
+     * pengganti N kali GET /photo/{photoId} (masing-masing beberapa query).
+     *
+     * Query count tetap, berapapun jumlah ID:
+     * 1. Grid rows semua ID (satu query, owner name di-JOIN)
+     * 2-3. Like count + liked/favorited flags (PhotoEngagementService, 2 grouped queries)
+     *
+     * Privacy sama dengan GET /photo/{photoId}: private hanya untuk owner.
+     * Foto yang tidak ada / tidak boleh dilihat tidak error, tapi masuk missingIds.
+     *
+     * Query parameters:
+     * - ids: comma-separated photo IDs (required, max GalleryService.MAX_BULK_IDS distinct)
+     *
+     * Example request:
+     * ```
+     * GET /api/gallery/photos?ids=124,123,999
+     * Authorization: Bearer <jwt-token> (optional)
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "photos": [ { "id": 124, ... }, { "id": 123, ... } ],
+     *   "missingIds": [999]
+     * }
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: no ids, or too many ids
+     *
+     * @param ids Requested photo IDs (order is kept in the response)
+     * @param currentUser Current user (nullable, private photos + liked/favorited flags)
+     * @return PhotoBatchResponse in the requested order
+     */
+    @GetMapping("/photos")
+    public ResponseEntity<PhotoBatchResponse> getPhotosByIds(
+            @RequestParam("ids") List<Long> ids,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+        List<GalleryPhotoResponse> photos = galleryService.getPhotosByIds(ids, currentUserId);
+
+        // Like count + liked/favorited flags for all rows in 2 grouped queries
+        photoEngagementService.applyEngagement(photos, currentUserId);
+
+        Set<Long> found = photos.stream().map(GalleryPhotoResponse::getId).collect(Collectors.toSet());
+        List<Long> missingIds = ids.stream()
+                .filter(id -> id != null && !found.contains(id))
+                .distinct()
+                .toList();
+
+        return ResponseEntity.ok(new PhotoBatchResponse(photos, missingIds));
+    }
+
+    /**
+     * ENDPOINT 12: GET HOME TIMELINE
+     * ==============================
+     * GET /api/gallery/timeline?cursor=&size=12
+     *
+     * Foto public terbaru dari user yang saya follow (follow lewat
+     * POST /api/users/{userId}/follow), newest first.
+     *
+     * Selalu cursor mode: ID foto sudah di-push ke home_timeline saat upload
+     * (TimelineService), jadi satu halaman = satu keyset read + load by ID.
+     * Tidak ada total (GalleryListResponse.UNKNOWN_TOTAL).
+     *
+     * Query parameters:
+     * - cursor: nextCursor dari response sebelumnya (optional, kosong = halaman pertama)
+     * - size: photos per page (default 12)
+     *
+     * Example request:
+     * ```
+     * GET /api/gallery/timeline?size=12
+     * Authorization: Bearer <jwt-token>
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: invalid cursor or size
+     * - 401 Unauthorized: no/invalid token
+     *
+     * @param cursor Keyset cursor (optional)
+     * @param size Photos per page
+     * @param currentUser Current authenticated user (reader of the timeline)
+     * @return GalleryListResponse with one timeline page
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<GalleryListResponse> getTimeline(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        Long currentUserId = currentUser.getId();
+        GalleryPhotoSlice slice = galleryService.getTimelineAfter(currentUserId, cursor, size);
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+
+        return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                photoResponses, GalleryListResponse.UNKNOWN_TOTAL, size, slice.getNextCursor(),
+                cursor != null && !cursor.isBlank()
+        ));
+    }
+
+    /**
+     * ENDPOINT 13: SEARCH PHOTOS
+     * ==========================
+     * GET /api/gallery/search?q=sunset beach&cursor=&size=12
+     *
+     * Full-text search di title + description (PostgreSQL tsvector + GIN index),
+     * paling relevan dulu (title lebih berat dari description).
+     * Syntax q seperti mesin pencari: kata biasa (AND), "frasa persis", -kecuali, or.
+     *
+     * Privacy sama dengan GET /photo/{photoId}: anonymous hanya foto public,
+     * user login juga melihat foto private miliknya sendiri.
+     *
+     * Selalu cursor mode, tanpa total (menghitung semua hasil = kerja ekstra per request).
+     *
+     * Query parameters:
+     * - q: search text (required, max GalleryService.MAX_SEARCH_QUERY_LENGTH)
+     * - cursor: nextCursor dari response sebelumnya (optional)
+     * - size: photos per page (default 12)
+     *
+     * Error responses:
+     * - 400 Bad Request: blank or too long q, invalid cursor or size
+     * - 503 Service Unavailable: gallery_photos.search_vector missing (see FullTextSearchSchema)
+     *
+     * @param q Search text
+     * @param cursor Keyset cursor (optional)
+     * @param size Photos per page
+     * @param currentUser Current user (nullable, own private photos + liked/favorited flags)
+     * @return GalleryListResponse with one page of search results
+     */
+    @GetMapping("/search")
+    public ResponseEntity<GalleryListResponse> searchPhotos(
+            @RequestParam("q") String q,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+        GalleryPhotoSlice slice = galleryService.searchPhotos(q, cursor, size, currentUserId);
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+
+        return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                photoResponses, GalleryListResponse.UNKNOWN_TOTAL, size, slice.getNextCursor(),
+                cursor != null && !cursor.isBlank()
+        ));
+    }
+
+    /**
+     * ENDPOINT 14: GET PUBLIC PHOTOS BY TAGS
+     * ======================================
+     * GET /api/gallery/tagged?q=sunset AND beach NOT night&cursor=&size=12
+     *
+     * Foto public yang punya SEMUA tag include dan TIDAK punya tag exclude,
+     * newest first. Syntax q: lihat TagQuery ("sunset beach -night" juga boleh,
+     * OR tidak didukung).
+     *
+     * Filter dievaluasi di memori (PhotoTagIndex, bitmap per tag), database
+     * hanya dipakai untuk load foto halaman ini by ID.
+     * Selalu cursor mode, tanpa total.
+     *
+     * Query parameters:
+     * - q: tag filter (required, max TagQuery.MAX_TERMS tags)
+     * - cursor: nextCursor dari response sebelumnya (optional)
+     * - size: photos per page (default 12)
+     *
+     * Error responses:
+     * - 400 Bad Request: invalid tag, OR, no included tag, invalid cursor or size
+     *
+     * @param q Tag filter
+     * @param cursor Keyset cursor (optional)
+     * @param size Photos per page
+     * @param currentUser Current user (nullable, only for liked/favorited flags)
+     * @return GalleryListResponse with one page of tagged public photos
+     */
+    @GetMapping("/tagged")
+    public ResponseEntity<GalleryListResponse> getTaggedPhotos(
+            @RequestParam("q") String q,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+        GalleryPhotoSlice slice = galleryService.getTaggedPhotosAfter(q, cursor, size);
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(slice.getPhotos(), currentUserId);
+
+        return ResponseEntity.ok(PaginationUtil.buildCursorResponse(
+                photoResponses, GalleryListResponse.UNKNOWN_TOTAL, size, slice.getNextCursor(),
+                cursor != null && !cursor.isBlank()
+        ));
+    }
+
+    /**
+     * ENDPOINT 15: STREAM LIVE LIKE COUNT
+     * ===================================
+     * GET /api/gallery/photo/{photoId}/likes/stream
+     *
+     * Server-Sent Events untuk halaman detail foto yang sedang terbuka:
+     * pengganti polling GET /photo/{photoId} hanya untuk angka like.
+     *
+     * - Event pertama = count saat ini, lalu satu event setiap count berubah,
+     *   paling banyak satu per foto per gallery.live-likes.window-ms (LiveLikeCounts)
+     * - Koneksi idle tidak memegang request thread (async servlet)
+     * - Stream ditutup server saat timeout, foto dihapus, atau dijadikan private;
+     *   EventSource browser otomatis reconnect (privacy dicek ulang)
+     *
+     * Privacy sama dengan GET /photo/{photoId}: private hanya untuk owner.
+     *
+     * Example request:
+     * ```
+     * GET /api/gallery/photo/123/likes/stream
+     * Accept: text/event-stream
+     * ```
+     *
+     * Response (200 OK, text/event-stream):
+     * ```
+     * event:likes
+     * data:{"photoId":123,"likeCount":5}
+     *
+     * event:likes
+     * data:{"photoId":123,"likeCount":8}
+     *
+     * :ping
+     * ```
+     *
+     * Error responses:
+     * - 404 Not Found: Photo doesn't exist
+     * - 403 Forbidden: Private photo, not owner
+     * - 503 Service Unavailable: Live counts disabled or too many open streams
+     *
+     * @param photoId Photo ID to watch
+     * @param currentUser Current user (nullable, only for private photos)
+     * @return SseEmitter that stays open until the client leaves
+     */
+    @GetMapping(value = "/photo/{photoId}/likes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLikeCount(
+            @PathVariable Long photoId,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+
+        // Throws 404 / 403 before any stream is opened
+        GalleryPhoto photo = galleryService.getPhotoById(photoId, currentUserId);
+        long likeCount = photoLikeService.getLikeCount(photo.getId());
+
+        return liveLikeCounts.subscribe(photo.getId(), likeCount)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     /**
      * NOTES UNTUK PEMAHAMAN:
      * ======================
@@ -1,13 +1,16 @@
 package com.ikplabs.api.controller;
 
+import com.ikplabs.api.dto.BulkEngagementRequest;
+import com.ikplabs.api.dto.BulkEngagementResponse;
 import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
-import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.enums.SortBy;
 import com.ikplabs.api.security.UserPrincipal;
 import com.ikplabs.api.service.PhotoFavoriteService;
-import com.ikplabs.api.service.PhotoLikeService;
+import com.ikplabs.api.service.PhotoEngagementService;
+import com.ikplabs.api.util.LookAheadPageRequest;
 import com.ikplabs.api.util.PaginationUtil;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,7 +20,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
 
 /**
  * PhotoFavoriteController - REST API endpoints for photo favorite/unfavorite feature
@@ -31,11 +34,13 @@ import java.util.stream.Collectors;
  * - User tekan ⭐ lagi → "OK, bookmark dihapus! Sekarang ☆"
  * - User mau lihat favorited photos → "Ini semua foto yang kamu bookmark (PRIVATE)"
  *
- * REST API ENDPOINTS (3 total):
+ * REST API ENDPOINTS (5 total):
  * ==============================
  * 1. POST   /api/gallery/photo/{photoId}/favorite     → Favorite a photo
  * 2. DELETE /api/gallery/photo/{photoId}/favorite     → Unfavorite a photo
  * 3. GET    /api/gallery/favorited-photos             → Get all favorited photos
+ * 4. POST   /api/gallery/photos/favorite              → Favorite many photos (per-ID results)
+ * 5. POST   /api/gallery/photos/unfavorite            → Unfavorite many photos (per-ID results)
  *
  * PERBEDAAN dengan PhotoLikeController:
  * ======================================
@@ -78,7 +83,7 @@ public class PhotoFavoriteController {
     private PhotoFavoriteService photoFavoriteService;
 
     @Autowired
-    private PhotoLikeService photoLikeService;
+    private PhotoEngagementService photoEngagementService;
 
     /**
      * ENDPOINT 1: FAVORITE A PHOTO
@@ -216,6 +221,9 @@ public class PhotoFavoriteController {
      *   * "oldest": oldest first (createdAt ASC)
      *   * "mostLiked": most liked first (likeCount DESC)
      *   * "mostFavorited": most favorited first (favoriteCount DESC)
+     *   * "trending": trending first (hotScore DESC, time-decayed likes + favorites)
+     * - withTotal: boolean (default true) - false = count-free mode for infinite scroll
+     *   (fetches size + 1 rows for hasNext, totalPhotos/totalPages left out)
      *
      * Example request:
      * ```
@@ -266,8 +274,8 @@ public class PhotoFavoriteController {
      * 1. Spring Security validates JWT token
      * 2. Extract user ID from UserPrincipal
      * 3. Create Pageable for pagination
-     * 4. Service fetches favorited photos from database (JOIN query)
-     * 5. Convert entities to DTOs
+     * 4. Service fetches favorited photos as grid rows (JOIN query, owner name included)
+     * 5. Fill like count + viewer flags on the rows
      * 6. Build GalleryListResponse with pagination metadata
      * 7. Return 200 OK with JSON response
      * 8. Frontend displays photos in grid layout (private collection!)
@@ -275,6 +283,7 @@ public class PhotoFavoriteController {
      * @param page Page number (0-indexed, default 0)
      * @param size Photos per page (default 12)
      * @param sortBy Sort order (default "newest")
+     * @param withTotal false = count-free mode (no COUNT(*), totals omitted)
      * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
      * @return ResponseEntity with GalleryListResponse (photos + pagination metadata)
      */
@@ -283,6 +292,7 @@ public class PhotoFavoriteController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "newest") String sortBy,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @AuthenticationPrincipal UserPrincipal currentUser) {
 
         // Validate sortBy parameter using SortBy enum
@@ -295,31 +305,26 @@ public class PhotoFavoriteController {
         // Extract user ID from authenticated user
         Long userId = currentUser.getId();
 
+        // Count-free mode (?withTotal=false): fetch size + 1 rows, no COUNT(*) query
+        if (!withTotal) {
+            List<GalleryPhotoResponse> fetched = photoFavoriteService.getFavoritedPhotos(userId, sortBy, new LookAheadPageRequest(page, size));
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(
+                    PaginationUtil.withoutLookAhead(fetched, size), userId);
+            return ResponseEntity.ok(PaginationUtil.buildLookAheadResponse(
+                    photoResponses, page, size, fetched.size() > size, OptionalLong.empty()
+            ));
+        }
+
         // Create Pageable for pagination
         Pageable pageable = PageRequest.of(page, size);
 
         // Fetch favorited photos from service (only THIS user's favorites!)
-        List<GalleryPhoto> favoritedPhotos = photoFavoriteService.getFavoritedPhotos(userId, sortBy, pageable);
+        List<GalleryPhotoResponse> favoritedPhotos = photoFavoriteService.getFavoritedPhotos(userId, sortBy, pageable);
 
-        // Convert GalleryPhoto entities to DTOs with like data AND favorite data
+        // Fill like data AND favorite data on the rows
+        // (batch-hydrated, 2 queries per page instead of 2 per photo)
         // All photos in this list are favorited by current user (isFavoritedByUser = true)
-        List<GalleryPhotoResponse> photoResponses = favoritedPhotos.stream()
-                .map(photo -> {
-                    // Get like data for this photo
-                    long likeCount = photoLikeService.getLikeCount(photo.getId());
-                    boolean isLikedByUser = photoLikeService.isLikedByUser(photo.getId(), userId);
-
-                    // Create response with like data
-                    GalleryPhotoResponse response = GalleryPhotoResponse.fromEntityWithLikes(
-                        photo, userId, likeCount, isLikedByUser
-                    );
-
-                    // Set isFavoritedByUser = true (all photos in favorited list are favorited!)
-                    response.setIsFavoritedByUser(true);
-
-                    return response;
-                })
-                .collect(Collectors.toList());
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(favoritedPhotos, userId);
 
         // Manually build pagination metadata (same pattern as GalleryController)
         long totalPhotos = photoFavoriteService.countFavoritedPhotosByUserId(userId);
@@ -331,6 +336,108 @@ public class PhotoFavoriteController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * ENDPOINT 4: FAVORITE MANY PHOTOS
+     * ================================
+     * POST /api/gallery/photos/favorite
+     *
+     * Bulk favorite untuk "select many → favorite", pengganti N kali POST /photo/{photoId}/favorite
+     * (N transaksi). Satu transaksi, query count tetap berapapun jumlah ID:
+     * 1. Satu multi-row statement untuk semua ID (PhotoFavoriteService.favoritePhotos)
+     * 2. Satu diagnose query, hanya kalau ada ID yang gagal
+     *
+     * Setiap ID dapat hasil sendiri; ID yang gagal tidak membatalkan yang lain.
+     * Pesan error per ID sama dengan endpoint satu foto.
+     *
+     * Example request:
+     * ```
+     * POST /api/gallery/photos/favorite
+     * Authorization: Bearer <jwt-token>
+     * Content-Type: application/json
+     *
+     * { "photoIds": [123, 124, 999] }
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "results": [
+     *     { "photoId": 123, "success": true,  "error": null },
+     *     { "photoId": 124, "success": false, "error": "You have already favorited this photo" },
+     *     { "photoId": 999, "success": false, "error": "Photo not found with id: 999" }
+     *   ],
+     *   "succeeded": 1,
+     *   "failed": 2
+     * }
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: no photo ids, or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     * - 401 Unauthorized: No JWT token or invalid token
+     *
+     * @param request Photo IDs (duplicates handled once)
+     * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
+     * @return ResponseEntity with a result per photo ID
+     */
+    @PostMapping("/photos/favorite")
+    public ResponseEntity<BulkEngagementResponse> favoritePhotos(
+            @Valid @RequestBody BulkEngagementRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        return ResponseEntity.ok(photoFavoriteService.favoritePhotos(request.getPhotoIds(), currentUser.getId()));
+    }
+
+    /**
+     * ENDPOINT 5: UNFAVORITE MANY PHOTOS
+     * ==================================
+     * POST /api/gallery/photos/unfavorite
+     *
+     * Bulk unfavorite untuk "select many → unfavorite", pengganti N kali DELETE /photo/{photoId}/favorite
+     * (N transaksi). Satu transaksi, query count tetap berapapun jumlah ID:
+     * 1. Satu multi-row statement untuk semua ID (PhotoFavoriteService.unfavoritePhotos)
+     * 2. Satu diagnose query, hanya kalau ada ID yang gagal
+     *
+     * Setiap ID dapat hasil sendiri; ID yang gagal tidak membatalkan yang lain.
+     * Pesan error per ID sama dengan endpoint satu foto.
+     *
+     * Example request:
+     * ```
+     * POST /api/gallery/photos/unfavorite
+     * Authorization: Bearer <jwt-token>
+     * Content-Type: application/json
+     *
+     * { "photoIds": [123, 124, 999] }
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "results": [
+     *     { "photoId": 123, "success": true,  "error": null },
+     *     { "photoId": 124, "success": false, "error": "You have not favorited this photo" },
+     *     { "photoId": 999, "success": false, "error": "Photo not found with id: 999" }
+     *   ],
+     *   "succeeded": 1,
+     *   "failed": 2
+     * }
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: no photo ids, or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     * - 401 Unauthorized: No JWT token or invalid token
+     *
+     * @param request Photo IDs (duplicates handled once)
+     * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
+     * @return ResponseEntity with a result per photo ID
+     */
+    @PostMapping("/photos/unfavorite")
+    public ResponseEntity<BulkEngagementResponse> unfavoritePhotos(
+            @Valid @RequestBody BulkEngagementRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        return ResponseEntity.ok(photoFavoriteService.unfavoritePhotos(request.getPhotoIds(), currentUser.getId()));
+    }
+
     /**
      * NOTES UNTUK PEMAHAMAN:
      * ======================
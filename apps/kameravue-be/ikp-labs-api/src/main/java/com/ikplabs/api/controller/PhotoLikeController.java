@@ -1,12 +1,16 @@
 package com.ikplabs.api.controller;
 
+import com.ikplabs.api.dto.BulkEngagementRequest;
+import com.ikplabs.api.dto.BulkEngagementResponse;
 import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
-import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.enums.SortBy;
 import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.PhotoEngagementService;
 import com.ikplabs.api.service.PhotoLikeService;
+import com.ikplabs.api.util.LookAheadPageRequest;
 import com.ikplabs.api.util.PaginationUtil;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,7 +20,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
 
 /**
  * PhotoLikeController - REST API endpoints for photo like/unlike feature
@@ -30,11 +34,13 @@ import java.util.stream.Collectors;
  * - User tekan ❤️ lagi → "OK, like dihapus! Sekarang ♡"
  * - User mau lihat liked photos → "Ini semua foto yang kamu like"
  *
- * REST API ENDPOINTS (3 total):
+ * REST API ENDPOINTS (5 total):
  * ==============================
  * 1. POST   /api/gallery/photo/{photoId}/like     → Like a photo
  * 2. DELETE /api/gallery/photo/{photoId}/like     → Unlike a photo
  * 3. GET    /api/gallery/liked-photos              → Get all liked photos
+ * 4. POST   /api/gallery/photos/like               → Like many photos (per-ID results)
+ * 5. POST   /api/gallery/photos/unlike             → Unlike many photos (per-ID results)
  *
  * All endpoints require authentication (JWT token).
  * Spring Security automatically validates JWT and provides UserPrincipal.
@@ -61,6 +67,9 @@ public class PhotoLikeController {
     @Autowired
     private PhotoLikeService photoLikeService;
 
+    @Autowired
+    private PhotoEngagementService photoEngagementService;
+
     /**
      * ENDPOINT 1: LIKE A PHOTO
      * =========================
@@ -184,6 +193,9 @@ public class PhotoLikeController {
      *   * "oldest": oldest first (createdAt ASC)
      *   * "mostLiked": most liked first (likeCount DESC)
      *   * "mostFavorited": most favorited first (favoriteCount DESC)
+     *   * "trending": trending first (hotScore DESC, time-decayed likes + favorites)
+     * - withTotal: boolean (default true) - false = count-free mode for infinite scroll
+     *   (fetches size + 1 rows for hasNext, totalPhotos/totalPages left out)
      *
      * Example request:
      * ```
@@ -234,8 +246,8 @@ public class PhotoLikeController {
      * 1. Spring Security validates JWT token
      * 2. Extract user ID from UserPrincipal
      * 3. Create Pageable for pagination
-     * 4. Service fetches liked photos from database (JOIN query)
-     * 5. Convert entities to DTOs
+     * 4. Service fetches liked photos as grid rows (JOIN query, owner name included)
+     * 5. Fill like count + viewer flags on the rows
      * 6. Build GalleryListResponse with pagination metadata
      * 7. Return 200 OK with JSON response
      * 8. Frontend displays photos in grid layout
@@ -243,6 +255,7 @@ public class PhotoLikeController {
      * @param page Page number (0-indexed, default 0)
      * @param size Photos per page (default 12)
      * @param sortBy Sort order (default "newest")
+     * @param withTotal false = count-free mode (no COUNT(*), totals omitted)
      * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
      * @return ResponseEntity with GalleryListResponse (photos + pagination metadata)
      */
@@ -251,6 +264,7 @@ public class PhotoLikeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "newest") String sortBy,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @AuthenticationPrincipal UserPrincipal currentUser) {
 
         // Validate sortBy parameter using SortBy enum
@@ -263,21 +277,25 @@ public class PhotoLikeController {
         // Extract user ID from authenticated user
         Long userId = currentUser.getId();
 
+        // Count-free mode (?withTotal=false): fetch size + 1 rows, no COUNT(*) query
+        if (!withTotal) {
+            List<GalleryPhotoResponse> fetched = photoLikeService.getLikedPhotos(userId, sortBy, new LookAheadPageRequest(page, size));
+            List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(
+                    PaginationUtil.withoutLookAhead(fetched, size), userId);
+            return ResponseEntity.ok(PaginationUtil.buildLookAheadResponse(
+                    photoResponses, page, size, fetched.size() > size, OptionalLong.empty()
+            ));
+        }
+
         // Create Pageable for pagination (page, size, no sorting needed - handled by repository)
         Pageable pageable = PageRequest.of(page, size);
 
-        // Get liked photos from service (returns List<GalleryPhoto>)
-        List<GalleryPhoto> likedPhotos = photoLikeService.getLikedPhotos(userId, sortBy, pageable);
+        // Get liked photos from service (grid rows, no entities)
+        List<GalleryPhotoResponse> likedPhotos = photoLikeService.getLikedPhotos(userId, sortBy, pageable);
 
-        // Convert entities to DTOs with like data
+        // Fill like data on the rows (batch-hydrated, 2 queries per page)
         // All photos in this list are liked by current user (isLikedByUser = true)
-        List<GalleryPhotoResponse> photoResponses = likedPhotos.stream()
-                .map(photo -> {
-                    long likeCount = photoLikeService.getLikeCount(photo.getId());
-                    // isLikedByUser is always true for liked photos list
-                    return GalleryPhotoResponse.fromEntityWithLikes(photo, userId, likeCount, true);
-                })
-                .collect(Collectors.toList());
+        List<GalleryPhotoResponse> photoResponses = photoEngagementService.applyEngagement(likedPhotos, userId);
 
         // Manually build pagination metadata (same pattern as GalleryController)
         long totalPhotos = photoLikeService.countLikedPhotosByUserId(userId);
@@ -289,6 +307,108 @@ public class PhotoLikeController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * ENDPOINT 4: LIKE MANY PHOTOS
+     * ============================
+     * POST /api/gallery/photos/like
+     *
+     * Bulk like untuk "select many → like", pengganti N kali POST /photo/{photoId}/like
+     * (N transaksi). Satu transaksi, query count tetap berapapun jumlah ID:
+     * 1. Satu multi-row statement untuk semua ID (PhotoLikeService.likePhotos)
+     * 2. Satu diagnose query, hanya kalau ada ID yang gagal
+     *
+     * Setiap ID dapat hasil sendiri; ID yang gagal tidak membatalkan yang lain.
+     * Pesan error per ID sama dengan endpoint satu foto.
+     *
+     * Example request:
+     * ```
+     * POST /api/gallery/photos/like
+     * Authorization: Bearer <jwt-token>
+     * Content-Type: application/json
+     *
+     * { "photoIds": [123, 124, 999] }
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "results": [
+     *     { "photoId": 123, "success": true,  "error": null },
+     *     { "photoId": 124, "success": false, "error": "You have already liked this photo" },
+     *     { "photoId": 999, "success": false, "error": "Photo not found with id: 999" }
+     *   ],
+     *   "succeeded": 1,
+     *   "failed": 2
+     * }
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: no photo ids, or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     * - 401 Unauthorized: No JWT token or invalid token
+     *
+     * @param request Photo IDs (duplicates handled once)
+     * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
+     * @return ResponseEntity with a result per photo ID
+     */
+    @PostMapping("/photos/like")
+    public ResponseEntity<BulkEngagementResponse> likePhotos(
+            @Valid @RequestBody BulkEngagementRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        return ResponseEntity.ok(photoLikeService.likePhotos(request.getPhotoIds(), currentUser.getId()));
+    }
+
+    /**
+     * ENDPOINT 5: UNLIKE MANY PHOTOS
+     * ==============================
+     * POST /api/gallery/photos/unlike
+     *
+     * Bulk unlike untuk "select many → unlike", pengganti N kali DELETE /photo/{photoId}/like
+     * (N transaksi). Satu transaksi, query count tetap berapapun jumlah ID:
+     * 1. Satu multi-row statement untuk semua ID (PhotoLikeService.unlikePhotos)
+     * 2. Satu diagnose query, hanya kalau ada ID yang gagal
+     *
+     * Setiap ID dapat hasil sendiri; ID yang gagal tidak membatalkan yang lain.
+     * Pesan error per ID sama dengan endpoint satu foto.
+     *
+     * Example request:
+     * ```
+     * POST /api/gallery/photos/unlike
+     * Authorization: Bearer <jwt-token>
+     * Content-Type: application/json
+     *
+     * { "photoIds": [123, 124, 999] }
+     * ```
+     *
+     * Response (200 OK):
+     * ```json
+     * {
+     *   "results": [
+     *     { "photoId": 123, "success": true,  "error": null },
+     *     { "photoId": 124, "success": false, "error": "You have not liked this photo" },
+     *     { "photoId": 999, "success": false, "error": "Photo not found with id: 999" }
+     *   ],
+     *   "succeeded": 1,
+     *   "failed": 2
+     * }
+     * ```
+     *
+     * Error responses:
+     * - 400 Bad Request: no photo ids, or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     * - 401 Unauthorized: No JWT token or invalid token
+     *
+     * @param request Photo IDs (duplicates handled once)
+     * @param currentUser Current logged-in user (from JWT, injected by Spring Security)
+     * @return ResponseEntity with a result per photo ID
+     */
+    @PostMapping("/photos/unlike")
+    public ResponseEntity<BulkEngagementResponse> unlikePhotos(
+            @Valid @RequestBody BulkEngagementRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+
+        return ResponseEntity.ok(photoLikeService.unlikePhotos(request.getPhotoIds(), currentUser.getId()));
+    }
+
     /**
      * NOTES FOR UNDERSTANDING:
      * ========================
@@ -0,0 +1,58 @@
+package com.ikplabs.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * BulkEngagementRequest - DTO for bulk like / favorite requests
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Satu formulir berisi banyak nomor foto ("select many → add to favorites"),
+ * bukan satu formulir per foto.
+ *
+ * Request body:
+ * {
+ *   "photoIds": [123, 124, 125]
+ * }
+ *
+ * Use Case:
+ * - POST /api/gallery/photos/favorite    → favorite many photos
+ * - POST /api/gallery/photos/unfavorite  → unfavorite many photos
+ * - POST /api/gallery/photos/like        → like many photos
+ * - POST /api/gallery/photos/unlike      → unlike many photos
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class BulkEngagementRequest {
+
+    /**
+     * Maximum number of photo IDs per bulk request
+     */
+    public static final int MAX_PHOTO_IDS = 300;
+
+    /**
+     * Photo IDs (duplicates are handled once, order kept in the response)
+     */
+    @NotEmpty(message = "At least one photo id is required")
+    @Size(max = MAX_PHOTO_IDS, message = "At most " + MAX_PHOTO_IDS + " photo ids per request")
+    private List<Long> photoIds;
+
+    public BulkEngagementRequest() {
+    }
+
+    public BulkEngagementRequest(List<Long> photoIds) {
+        this.photoIds = photoIds;
+    }
+
+    public List<Long> getPhotoIds() {
+        return photoIds;
+    }
+
+    public void setPhotoIds(List<Long> photoIds) {
+        this.photoIds = photoIds;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ikplabs.api.dto;
+
+import java.util.List;
+
+/**
+ * BulkEngagementResponse - DTO for the result of a bulk like / favorite request
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Struk belanja per barang: setiap foto dapat baris sendiri, berhasil atau
+ * gagal dengan alasan yang sama seperti endpoint satu foto.
+ * Satu foto gagal tidak membatalkan foto lain.
+ *
+ * Response structure:
+ * {
+ *   "results": [
+ *     { "photoId": 123, "success": true,  "error": null },
+ *     { "photoId": 124, "success": false, "error": "You have already favorited this photo" },
+ *     { "photoId": 999, "success": false, "error": "Photo not found with id: 999" }
+ *   ],
+ *   "succeeded": 1,
+ *   "failed": 2
+ * }
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class BulkEngagementResponse {
+
+    private List<Result> results;
+    private int succeeded;
+    private int failed;
+
+    public BulkEngagementResponse() {
+    }
+
+    public BulkEngagementResponse(List<Result> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(Result::isSuccess).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Outcome for one photo ID
+     */
+    public static class Result {
+
+        private Long photoId;
+        private boolean success;
+        private String error;
+
+        public Result() {
+        }
+
+        public Result(Long photoId, boolean success, String error) {
+            this.photoId = photoId;
+            this.success = success;
+            this.error = error;
+        }
+
+        public static Result ok(Long photoId) {
+            return new Result(photoId, true, null);
+        }
+
+        public static Result failed(Long photoId, String error) {
+            return new Result(photoId, false, error);
+        }
+
+        public Long getPhotoId() {
+            return photoId;
+        }
+
+        public void setPhotoId(Long photoId) {
+            this.photoId = photoId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
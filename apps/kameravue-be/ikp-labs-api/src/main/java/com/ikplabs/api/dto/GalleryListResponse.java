@@ -1,5 +1,7 @@
 package com.ikplabs.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
@@ -35,9 +37,15 @@ import java.util.List;
  * - GET /api/gallery/my-photos?page=0&size=12
  * - GET /api/gallery/public?page=2&size=12
  * - GET /api/gallery/user/83/public?page=0&size=12
+ * - GET /api/gallery/public?page=2&size=12&withTotal=false  (count-free: no totalPhotos/totalPages)
  */
 public class GalleryListResponse {
 
+    /**
+     * Marker for totalPhotos/totalPages when no COUNT(*) was run (count-free mode)
+     */
+    public static final int UNKNOWN_TOTAL = -1;
+
     /**
      * List of photos for current page
      *
@@ -66,7 +74,10 @@ public class GalleryListResponse {
      * Example: 48 photos / 12 per page = 4 pages
      *
      * Used for pagination UI (show page numbers)
+     *
+     * UNKNOWN_TOTAL (-1) di count-free mode (?withTotal=false) → tidak muncul di JSON.
      */
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnknownTotalFilter.class)
     private int totalPages;
 
     /**
@@ -76,7 +87,10 @@ public class GalleryListResponse {
      * Example: User has 48 photos total
      *
      * Used for display: "Showing 1-12 of 48 photos"
+     *
+     * UNKNOWN_TOTAL (-1) di count-free mode (?withTotal=false) → tidak muncul di JSON.
      */
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnknownTotalFilter.class)
     private long totalPhotos;
 
     /**
@@ -109,6 +123,18 @@ public class GalleryListResponse {
      */
     private boolean hasPrevious;
 
+    /**
+     * Opaque cursor for the next page (cursor/keyset mode only)
+     *
+     * Berisi sort key + id dari foto terakhir di halaman ini (Base64, jangan di-parse di frontend).
+     * Kirim balik sebagai ?cursor=... untuk ambil halaman berikutnya tanpa OFFSET.
+     *
+     * null = tidak ada halaman berikutnya, atau request pakai page/size mode biasa.
+     * Tidak muncul di JSON kalau null.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     /**
      * Default constructor - required by Spring for serialization
      */
@@ -234,6 +260,14 @@ public class GalleryListResponse {
         this.hasPrevious = hasPrevious;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * toString for debugging
      */
@@ -247,9 +281,28 @@ public class GalleryListResponse {
                 ", pageSize=" + pageSize +
                 ", hasNext=" + hasNext +
                 ", hasPrevious=" + hasPrevious +
+                ", nextCursor=" + nextCursor +
                 '}';
     }
 
+    /**
+     * Jackson value filter: hide totals that were not computed (UNKNOWN_TOTAL)
+     *
+     * Jackson memanggil equals(value); true = field tidak ditulis ke JSON.
+     */
+    static final class UnknownTotalFilter {
+
+        @Override
+        public boolean equals(Object value) {
+            return value instanceof Number && ((Number) value).longValue() == UNKNOWN_TOTAL;
+        }
+
+        @Override
+        public int hashCode() {
+            return UNKNOWN_TOTAL;
+        }
+    }
+
     /**
      * NOTES UNTUK PEMAHAMAN:
      * ======================
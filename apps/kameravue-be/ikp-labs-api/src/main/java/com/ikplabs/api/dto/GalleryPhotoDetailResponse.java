@@ -3,6 +3,7 @@ package com.ikplabs.api.dto;
 import com.ikplabs.api.entity.GalleryPhoto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * GalleryPhotoDetailResponse - DTO for detailed single photo response
@@ -193,6 +194,14 @@ public class GalleryPhotoDetailResponse {
      */
     private Boolean isFavoritedByUser;
 
+    /**
+     * Tags of the photo, alphabetical
+     *
+     * Tag yang sudah dinormalisasi (lowercase), contoh: ["beach", "sunset"].
+     * Klik tag di UI → GET /api/gallery/tagged?q=<tag>.
+     */
+    private List<String> tags = List.of();
+
     /**
      * Default constructor - required by Spring for serialization
      */
@@ -415,6 +424,14 @@ public class GalleryPhotoDetailResponse {
         this.isFavoritedByUser = isFavoritedByUser;
     }
 
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags != null ? List.copyOf(tags) : List.of();
+    }
+
     /**
      * toString for debugging
      */
@@ -435,6 +452,7 @@ public class GalleryPhotoDetailResponse {
                 ", likeCount=" + likeCount +
                 ", isLikedByUser=" + isLikedByUser +
                 ", isFavoritedByUser=" + isFavoritedByUser +
+                ", tags=" + tags +
                 '}';
     }
 
@@ -0,0 +1,85 @@
+package com.ikplabs.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * GalleryPhotoExportRow - One line of the NDJSON gallery export
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Seperti satu baris di "daftar inventaris" galeri: semua data foto
+ * (termasuk description penuh dan jumlah like/favorite) dalam satu objek,
+ * ditulis satu per baris ke file export.
+ *
+ * Example line:
+ * {"id":123,"title":"Sunset","description":"...","filePath":"gallery/user-83/photo-123.jpg",
+ *  "isPublic":true,"likeCount":42,"favoriteCount":7,"createdAt":"2025-11-12T14:30:00",
+ *  "updatedAt":"2025-11-12T14:30:00"}
+ *
+ * Immutable (dibuat langsung dari baris JDBC cursor, tidak pernah diubah).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class GalleryPhotoExportRow {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String filePath;
+    private final Boolean isPublic;
+    private final long likeCount;
+    private final long favoriteCount;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public GalleryPhotoExportRow(Long id, String title, String description, String filePath, Boolean isPublic,
+                                 long likeCount, long favoriteCount,
+                                 LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.filePath = filePath;
+        this.isPublic = isPublic;
+        this.likeCount = likeCount;
+        this.favoriteCount = favoriteCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
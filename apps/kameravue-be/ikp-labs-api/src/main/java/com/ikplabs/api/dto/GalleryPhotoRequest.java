@@ -2,6 +2,8 @@ package com.ikplabs.api.dto;
 
 import jakarta.validation.constraints.Size;
 
+import java.util.List;
+
 /**
  * GalleryPhotoRequest - DTO for photo upload/update requests
  *
@@ -13,6 +15,7 @@ import jakarta.validation.constraints.Size;
  * - Judul foto: "Sunset at Beach"
  * - Deskripsi: "Beautiful sunset during vacation"
  * - Privacy: Public atau Private?
+ * - Tags: ["sunset", "beach"]
  *
  * Backend terima formulir ini dan process request.
  *
@@ -64,6 +67,21 @@ public class GalleryPhotoRequest {
      */
     private Boolean isPublic;
 
+    /**
+     * Tags (optional, update only)
+     *
+     * - null = tags unchanged
+     * - [] = remove all tags
+     * - ["sunset", "Beach"] = replace with exactly these tags
+     *
+     * Validation:
+     * - Max 10 entries (PhotoTagService.MAX_TAGS_PER_PHOTO)
+     * - Format checked in service: normalized to lowercase,
+     *   1-30 characters of a-z, 0-9, '_' or '-' (invalid → 400)
+     */
+    @Size(max = 10, message = "A photo can have at most 10 tags")
+    private List<String> tags;
+
     /**
      * Default constructor - required by Spring for deserialization
      */
@@ -105,6 +123,14 @@ public class GalleryPhotoRequest {
         this.isPublic = isPublic;
     }
 
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
     /**
      * toString for debugging
      */
@@ -114,6 +140,7 @@ public class GalleryPhotoRequest {
                 "title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", isPublic=" + isPublic +
+                ", tags=" + tags +
                 '}';
     }
 
@@ -145,7 +172,8 @@ public class GalleryPhotoRequest {
      *    {
      *      "title": "Sunset at Beach",
      *      "description": "Beautiful sunset",
-     *      "isPublic": true
+     *      "isPublic": true,
+     *      "tags": ["sunset", "beach"]
      *    }
      *
      * 6. Example Partial Update (JSON):
@@ -150,9 +150,11 @@ public class GalleryPhotoResponse {
     }
 
     /**
-     * Constructor with all fields
+     * Constructor with all fields (except like data)
      *
-     * Untuk manual creation (jarang dipakai).
+     * Dipakai oleh grid row projections (GalleryFeedQueries): JPQL constructor
+     * expression dan native row mapper di GalleryPhotoRepositoryImpl.
+     * likeCount dan viewer flags diisi kemudian oleh PhotoEngagementService.
      */
     public GalleryPhotoResponse(Long id, Long userId, String ownerName, String title,
                                 String description, String filePath, Boolean isPublic,
@@ -247,6 +249,29 @@ public class GalleryPhotoResponse {
         return response;
     }
 
+    /**
+     * Static factory method - Convert Entity to DTO (WITH batch-hydrated engagement)
+     *
+     * Dipakai list endpoints setelah PhotoEngagementService.hydrate()
+     * mengambil like count + viewer flags untuk satu halaman sekaligus.
+     *
+     * NOTE: favoriteCount sengaja TIDAK di-copy (favorites bersifat private).
+     *
+     * @param photo GalleryPhoto entity
+     * @param engagement Hydrated like/favorite state (use PhotoEngagement.NONE if absent)
+     * @return GalleryPhotoResponse DTO with like count and viewer flags
+     */
+    public static GalleryPhotoResponse fromEntityWithEngagement(
+            GalleryPhoto photo,
+            PhotoEngagement engagement) {
+
+        GalleryPhotoResponse response = fromEntity(photo);
+        response.setLikeCount(engagement.getLikeCount());
+        response.setIsLikedByUser(engagement.isLikedByViewer());
+        response.setIsFavoritedByUser(engagement.isFavoritedByViewer());
+        return response;
+    }
+
     // Getters and Setters
 
     public Long getId() {
@@ -0,0 +1,37 @@
+package com.ikplabs.api.dto;
+
+import java.util.List;
+
+/**
+ * GalleryPhotoSlice - One keyset (cursor) page of photos
+ *
+ * Hasil dari GalleryService untuk cursor mode: grid rows di halaman ini
+ * (sudah urut, belum ada like data) + cursor untuk halaman berikutnya.
+ *
+ * nextCursor null = ini halaman terakhir.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class GalleryPhotoSlice {
+
+    private final List<GalleryPhotoResponse> photos;
+    private final String nextCursor;
+
+    public GalleryPhotoSlice(List<GalleryPhotoResponse> photos, String nextCursor) {
+        this.photos = photos;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GalleryPhotoResponse> getPhotos() {
+        return photos;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
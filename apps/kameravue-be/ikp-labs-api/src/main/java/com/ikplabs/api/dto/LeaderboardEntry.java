@@ -0,0 +1,54 @@
+package com.ikplabs.api.dto;
+
+/**
+ * LeaderboardEntry - One row of the most-liked leaderboard
+ *
+ * Response structure:
+ * {
+ *   "rank": 1,                 // Posisi di papan skor (1 = teratas)
+ *   "periodLikes": 42,         // Like dalam periode (minggu ini / all time)
+ *   "photo": { ... }           // GalleryPhotoResponse (likeCount = total all-time)
+ * }
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class LeaderboardEntry {
+
+    private int rank;
+    private long periodLikes;
+    private GalleryPhotoResponse photo;
+
+    public LeaderboardEntry() {
+    }
+
+    public LeaderboardEntry(int rank, long periodLikes, GalleryPhotoResponse photo) {
+        this.rank = rank;
+        this.periodLikes = periodLikes;
+        this.photo = photo;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public long getPeriodLikes() {
+        return periodLikes;
+    }
+
+    public void setPeriodLikes(long periodLikes) {
+        this.periodLikes = periodLikes;
+    }
+
+    public GalleryPhotoResponse getPhoto() {
+        return photo;
+    }
+
+    public void setPhoto(GalleryPhotoResponse photo) {
+        this.photo = photo;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ikplabs.api.dto;
+
+import java.util.List;
+
+/**
+ * LeaderboardResponse - DTO for GET /api/gallery/leaderboard
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Papan "Top 50" di lobi galeri: foto paling banyak di-like
+ * minggu ini atau sepanjang masa, sudah urut dari yang teratas.
+ *
+ * Response structure:
+ * {
+ *   "period": "week",          // "week" atau "allTime"
+ *   "entries": [...]           // LeaderboardEntry, urut rank 1..n
+ * }
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class LeaderboardResponse {
+
+    private String period;
+    private List<LeaderboardEntry> entries;
+
+    public LeaderboardResponse() {
+    }
+
+    public LeaderboardResponse(String period, List<LeaderboardEntry> entries) {
+        this.period = period;
+        this.entries = entries;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<LeaderboardEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ikplabs.api.dto;
+
+import java.util.List;
+
+/**
+ * PhotoBatchResponse - DTO for GET /api/gallery/photos?ids=...
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Daftar belanja foto: frontend menyerahkan daftar ID (widget favorites,
+ * preview notifikasi), petugas mengambil semuanya sekali jalan dan
+ * mengembalikannya dengan urutan yang sama seperti daftar.
+ *
+ * Response structure:
+ * {
+ *   "photos": [...],        // GalleryPhotoResponse, urutan sesuai ?ids=
+ *   "missingIds": [7, 9]    // tidak ada ATAU private milik orang lain (tidak dibedakan)
+ * }
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class PhotoBatchResponse {
+
+    private List<GalleryPhotoResponse> photos;
+    private List<Long> missingIds;
+
+    public PhotoBatchResponse() {
+    }
+
+    public PhotoBatchResponse(List<GalleryPhotoResponse> photos, List<Long> missingIds) {
+        this.photos = photos;
+        this.missingIds = missingIds;
+    }
+
+    public List<GalleryPhotoResponse> getPhotos() {
+        return photos;
+    }
+
+    public void setPhotos(List<GalleryPhotoResponse> photos) {
+        this.photos = photos;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ikplabs.api.dto;
+
+/**
+ * PhotoEngagement - Viewer-aware like/favorite state for one photo
+ *
+ * Hasil hydration dari PhotoEngagementService: like count, favorite count,
+ * dan apakah viewer sudah like/favorite foto ini.
+ *
+ * Immutable value object. Foto tanpa like/favorite sama sekali
+ * direpresentasikan dengan {@link #NONE}.
+ *
+ * NOTE: favoriteCount hanya untuk kebutuhan internal (sorting, metrics).
+ * Favorites bersifat private, jadi angka ini TIDAK dikirim ke frontend.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class PhotoEngagement {
+
+    /**
+     * Engagement kosong: 0 likes, 0 favorites, viewer belum like/favorite
+     */
+    public static final PhotoEngagement NONE = new PhotoEngagement(0L, 0L, false, false);
+
+    private final long likeCount;
+    private final long favoriteCount;
+    private final boolean likedByViewer;
+    private final boolean favoritedByViewer;
+
+    public PhotoEngagement(long likeCount, long favoriteCount,
+                           boolean likedByViewer, boolean favoritedByViewer) {
+        this.likeCount = likeCount;
+        this.favoriteCount = favoriteCount;
+        this.likedByViewer = likedByViewer;
+        this.favoritedByViewer = favoritedByViewer;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    public boolean isFavoritedByViewer() {
+        return favoritedByViewer;
+    }
+
+    @Override
+    public String toString() {
+        return "PhotoEngagement{" +
+                "likeCount=" + likeCount +
+                ", favoriteCount=" + favoriteCount +
+                ", likedByViewer=" + likedByViewer +
+                ", favoritedByViewer=" + favoritedByViewer +
+                '}';
+    }
+}
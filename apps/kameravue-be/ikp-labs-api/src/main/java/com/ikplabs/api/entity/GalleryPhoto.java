@@ -1,6 +1,7 @@
 package com.ikplabs.api.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 /**
@@ -114,6 +115,41 @@ public class GalleryPhoto {
     @Column(name = "upload_order")
     private Integer uploadOrder = 0;
 
+    /**
+     * Like Count - Denormalized number of rows in photo_likes for this photo
+     *
+     * Dijaga oleh PhotoLikeService (increment/decrement di transaksi yang sama
+     * dengan insert/delete like), dan dikoreksi berkala oleh EngagementCounterReconciler.
+     *
+     * updatable = false: save() biasa (edit title, toggle privacy) TIDAK boleh
+     * menimpa counter dengan nilai stale dari entity. Counter hanya berubah lewat
+     * atomic UPDATE ... SET like_count = like_count + 1 di repository.
+     */
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private Long likeCount = 0L;
+
+    /**
+     * Favorite Count - Denormalized number of rows in photo_favorites for this photo
+     *
+     * Sama seperti likeCount, tapi dijaga oleh PhotoFavoriteService.
+     * Hanya untuk sorting (mostFavorited), TIDAK dikirim ke frontend (favorites private).
+     */
+    @ColumnDefault("0")
+    @Column(name = "favorite_count", nullable = false, updatable = false)
+    private Long favoriteCount = 0L;
+
+    /**
+     * Hot Score - Time-decayed engagement score for sortBy=trending
+     *
+     * Dijaga oleh TrendingScoreUpdater (scheduled job): like/favorite baru sejak
+     * checkpoint terakhir ditambahkan, skor lama meluruh eksponensial (half-life).
+     * updatable = false dengan alasan yang sama seperti likeCount.
+     */
+    @ColumnDefault("0")
+    @Column(name = "hot_score", nullable = false, updatable = false)
+    private Double hotScore = 0.0;
+
     /**
      * Created At - Timestamp when photo was uploaded
      *
@@ -244,6 +280,30 @@ public class GalleryPhoto {
         this.uploadOrder = uploadOrder;
     }
 
+    public Long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public Long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public void setFavoriteCount(Long favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
+    public Double getHotScore() {
+        return hotScore;
+    }
+
+    public void setHotScore(Double hotScore) {
+        this.hotScore = hotScore;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -332,5 +392,11 @@ public class GalleryPhoto {
      *    - Gallery photo: "gallery/user-{userId}/photo-{photoId}-{timestamp}.jpg"
      *    - Different directories prevent conflicts
      *    - photoId + timestamp ensures uniqueness
+     *
+     * 8. Why likeCount / favoriteCount columns?
+     *    - Sort mostLiked/mostFavorited tanpa JOIN + GROUP BY ke photo_likes/photo_favorites
+     *    - Index (is_public, like_count DESC, id DESC) → popularity sort = index scan
+     *    - Source of truth tetap tabel photo_likes/photo_favorites
+     *    - Counter = cache yang dijaga transaksional + reconciliation job
      */
 }
@@ -0,0 +1,102 @@
+package com.ikplabs.api.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * HomeTimelineEntry Entity - represents 'home_timeline' table in database
+ *
+ * Satu baris = "foto photoId ada di timeline userId". Baris ditulis saat upload
+ * (fan-out on write ke semua follower pemilik foto) dan dibaca per halaman dengan
+ * satu keyset scan di primary key (user_id, photo_id DESC).
+ *
+ * Tidak ada kolom lain: urutan timeline = photo_id (ID naik seiring waktu upload),
+ * data foto sendiri dibaca dari gallery_photos saat halaman di-render.
+ *
+ * Ditulis lewat native INSERT ... SELECT di HomeTimelineRepository (satu statement
+ * untuk semua follower), entity ini terutama untuk mapping/DDL.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Entity
+@Table(name = "home_timeline")
+@IdClass(HomeTimelineEntry.Key.class)
+public class HomeTimelineEntry {
+
+    /**
+     * Reader of the timeline
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Photo pushed into the reader's timeline
+     */
+    @Id
+    @Column(name = "photo_id")
+    private Long photoId;
+
+    /**
+     * Default Constructor - Required by JPA
+     */
+    public HomeTimelineEntry() {
+    }
+
+    public HomeTimelineEntry(Long userId, Long photoId) {
+        this.userId = userId;
+        this.photoId = photoId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getPhotoId() {
+        return photoId;
+    }
+
+    public void setPhotoId(Long photoId) {
+        this.photoId = photoId;
+    }
+
+    /**
+     * Composite primary key (user_id, photo_id)
+     */
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private Long photoId;
+
+        public Key() {
+        }
+
+        public Key(Long userId, Long photoId) {
+            this.userId = userId;
+            this.photoId = photoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(userId, other.userId) && Objects.equals(photoId, other.photoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, photoId);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ikplabs.api.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * PhotoCounterShard Entity - represents 'photo_counter_shards' table in database
+ *
+ * Satu baris per (foto, slot): delta like/favorite yang belum dilipat ke
+ * gallery_photos.like_count / favorite_count oleh CounterShardCompactor.
+ * Slot dipilih dari user_id % gallery.counter-shards.count.
+ *
+ * Semua tulis/baca lewat native query (EngagementWriteQueries,
+ * GalleryPhotoRepository); entity ini ada supaya ddl-auto=update membuat tabelnya
+ * di environment tanpa migration (sama seperti tabel lain, lihat V11).
+ * Tanpa FK ke gallery_photos: slot dari foto yang sudah dihapus tetap
+ * dikosongkan oleh compactor, UPDATE-nya saja yang tidak menemukan baris.
+ */
+@Entity
+@Table(name = "photo_counter_shards")
+@IdClass(PhotoCounterShard.Key.class)
+public class PhotoCounterShard {
+
+    @Id
+    @Column(name = "photo_id")
+    private Long photoId;
+
+    @Id
+    @Column(name = "shard")
+    private Short shard;
+
+    /**
+     * Likes minus unlikes not yet added to like_count (may be negative)
+     */
+    @Column(name = "like_delta", nullable = false)
+    private Long likeDelta = 0L;
+
+    /**
+     * Favorites minus unfavorites not yet added to favorite_count (may be negative)
+     */
+    @Column(name = "favorite_delta", nullable = false)
+    private Long favoriteDelta = 0L;
+
+    /**
+     * Default Constructor - Required by JPA
+     */
+    public PhotoCounterShard() {
+    }
+
+    // Getter and Setter methods - Required by JPA
+
+    public Long getPhotoId() {
+        return photoId;
+    }
+
+    public void setPhotoId(Long photoId) {
+        this.photoId = photoId;
+    }
+
+    public Short getShard() {
+        return shard;
+    }
+
+    public void setShard(Short shard) {
+        this.shard = shard;
+    }
+
+    public Long getLikeDelta() {
+        return likeDelta;
+    }
+
+    public void setLikeDelta(Long likeDelta) {
+        this.likeDelta = likeDelta;
+    }
+
+    public Long getFavoriteDelta() {
+        return favoriteDelta;
+    }
+
+    public void setFavoriteDelta(Long favoriteDelta) {
+        this.favoriteDelta = favoriteDelta;
+    }
+
+    /**
+     * Composite primary key (photo_id, shard)
+     */
+    public static class Key implements Serializable {
+
+        private Long photoId;
+
+        private Short shard;
+
+        public Key() {
+        }
+
+        public Key(Long photoId, Short shard) {
+            this.photoId = photoId;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(photoId, other.photoId) && Objects.equals(shard, other.shard);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(photoId, shard);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PhotoCounterShard{" +
+                "photoId=" + photoId +
+                ", shard=" + shard +
+                ", likeDelta=" + likeDelta +
+                ", favoriteDelta=" + favoriteDelta +
+                '}';
+    }
+}
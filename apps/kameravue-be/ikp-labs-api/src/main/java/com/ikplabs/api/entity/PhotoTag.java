@@ -0,0 +1,102 @@
+package com.ikplabs.api.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * PhotoTag Entity - represents 'photo_tags' table in database
+ *
+ * Satu baris = "foto photoId punya tag tag". Tag sudah dinormalisasi
+ * (lowercase, a-z 0-9 _ -) oleh PhotoTagService sebelum disimpan.
+ *
+ * Query filter tag tidak membaca tabel ini per request: PhotoTagIndex
+ * memuat semuanya sekali ke memori (bitmap per tag). Tabel ini adalah
+ * sumber kebenaran untuk rebuild index dan untuk fallback SQL.
+ *
+ * Ditulis lewat native INSERT/DELETE di PhotoTagRepository, entity ini
+ * terutama untuk mapping/DDL.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Entity
+@Table(name = "photo_tags")
+@IdClass(PhotoTag.Key.class)
+public class PhotoTag {
+
+    /**
+     * Tagged photo
+     */
+    @Id
+    @Column(name = "photo_id")
+    private Long photoId;
+
+    /**
+     * Normalized tag, e.g. "sunset", "golden-hour"
+     */
+    @Id
+    @Column(name = "tag", length = 30)
+    private String tag;
+
+    /**
+     * Default Constructor - Required by JPA
+     */
+    public PhotoTag() {
+    }
+
+    public PhotoTag(Long photoId, String tag) {
+        this.photoId = photoId;
+        this.tag = tag;
+    }
+
+    public Long getPhotoId() {
+        return photoId;
+    }
+
+    public void setPhotoId(Long photoId) {
+        this.photoId = photoId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Composite primary key (photo_id, tag)
+     */
+    public static class Key implements Serializable {
+
+        private Long photoId;
+        private String tag;
+
+        public Key() {
+        }
+
+        public Key(Long photoId, String tag) {
+            this.photoId = photoId;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(photoId, other.photoId) && Objects.equals(tag, other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(photoId, tag);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ikplabs.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * TrendingCheckpoint Entity - represents 'trending_checkpoint' table in database
+ *
+ * Satu baris saja (id = 1): sampai mana TrendingScoreUpdater sudah memproses
+ * photo_likes / photo_favorites, dan kapan hot_score terakhir dihitung.
+ *
+ * Run berikutnya:
+ * - Meluruhkan hot_score sebesar waktu sejak scoredAt
+ * - Hanya membaca like/favorite dengan id > lastLikeId / lastFavoriteId
+ *
+ * Disimpan di database (bukan memori) supaya restart aplikasi tidak
+ * menghitung ulang like yang sudah masuk ke skor.
+ */
+@Entity
+@Table(name = "trending_checkpoint")
+public class TrendingCheckpoint {
+
+    /**
+     * Primary key of the single checkpoint row
+     */
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id = SINGLETON_ID;
+
+    /**
+     * Highest photo_likes.id already added to hot_score
+     */
+    @Column(name = "last_like_id", nullable = false)
+    private Long lastLikeId = 0L;
+
+    /**
+     * Highest photo_favorites.id already added to hot_score
+     */
+    @Column(name = "last_favorite_id", nullable = false)
+    private Long lastFavoriteId = 0L;
+
+    /**
+     * Reference time of the last run (null = never scored, nothing to decay)
+     */
+    @Column(name = "scored_at")
+    private LocalDateTime scoredAt;
+
+    /**
+     * Default Constructor - Required by JPA, also the "never ran" checkpoint
+     */
+    public TrendingCheckpoint() {
+    }
+
+    // Getter and Setter methods - Required by JPA
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLastLikeId() {
+        return lastLikeId;
+    }
+
+    public void setLastLikeId(Long lastLikeId) {
+        this.lastLikeId = lastLikeId;
+    }
+
+    public Long getLastFavoriteId() {
+        return lastFavoriteId;
+    }
+
+    public void setLastFavoriteId(Long lastFavoriteId) {
+        this.lastFavoriteId = lastFavoriteId;
+    }
+
+    public LocalDateTime getScoredAt() {
+        return scoredAt;
+    }
+
+    public void setScoredAt(LocalDateTime scoredAt) {
+        this.scoredAt = scoredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingCheckpoint{" +
+                "lastLikeId=" + lastLikeId +
+                ", lastFavoriteId=" + lastFavoriteId +
+                ", scoredAt=" + scoredAt +
+                '}';
+    }
+}
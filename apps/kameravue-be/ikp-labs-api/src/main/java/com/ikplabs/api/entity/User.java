@@ -1,6 +1,7 @@
 package com.ikplabs.api.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 /**
@@ -76,6 +77,20 @@ public class User {
     @Column(name = "profile_picture", length = 255)
     private String profilePicture;
 
+    /**
+     * Follower Count - Denormalized number of rows in user_follows with followee_id = id
+     *
+     * Dijaga oleh TimelineService (increment/decrement di transaksi yang sama dengan
+     * follow/unfollow). Dipakai untuk memilih strategi timeline: akun dengan follower
+     * sangat banyak tidak di-fan-out saat upload, tapi di-merge saat timeline dibaca.
+     *
+     * updatable = false: save() biasa (update profil) tidak boleh menimpa counter
+     * dengan nilai stale. Counter hanya berubah lewat atomic UPDATE di UserRepository.
+     */
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private Long followerCount = 0L;
+
     /**
      * Default Constructor - wajib ada untuk JPA
      */
@@ -170,6 +185,14 @@ public class User {
         this.profilePicture = profilePicture;
     }
 
+    public Long getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(Long followerCount) {
+        this.followerCount = followerCount;
+    }
+
     /**
      * toString method - untuk debugging dan logging
      */
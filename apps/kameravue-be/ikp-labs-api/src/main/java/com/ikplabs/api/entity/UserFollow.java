@@ -0,0 +1,123 @@
+package com.ikplabs.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * UserFollow Entity - represents 'user_follows' table in database
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * UserFollow seperti "Langganan Majalah":
+ *
+ * Setiap langganan mencatat:
+ * - Siapa yang berlangganan (follower_id)
+ * - Majalah siapa yang dilangganin (followee_id)
+ * - Kapan mulai berlangganan (created_at)
+ *
+ * Setiap kali followee upload foto public, foto itu "dikirim" ke kotak surat
+ * (home_timeline) semua follower-nya — lihat TimelineService.
+ *
+ * Aturan penting:
+ * - 1 user hanya bisa follow user lain sekali (UNIQUE(follower_id, followee_id))
+ * - Tidak bisa follow diri sendiri (CHECK follower_id <> followee_id)
+ * - User dihapus → semua follow-nya ikut terhapus (ON DELETE CASCADE)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Entity
+@Table(name = "user_follows", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"follower_id", "followee_id"})
+})
+public class UserFollow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * User who follows (the reader of the home timeline)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    private User follower;
+
+    /**
+     * User being followed (whose photos appear in the follower's timeline)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false)
+    private User followee;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default Constructor - Required by JPA
+     */
+    public UserFollow() {
+    }
+
+    /**
+     * @param follower User who follows
+     * @param followee User being followed
+     */
+    public UserFollow(User follower, User followee) {
+        this.follower = follower;
+        this.followee = followee;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getter and Setter methods - Required by JPA
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getFollower() {
+        return follower;
+    }
+
+    public void setFollower(User follower) {
+        this.follower = follower;
+    }
+
+    public User getFollowee() {
+        return followee;
+    }
+
+    public void setFollowee(User followee) {
+        this.followee = followee;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Only IDs, to avoid lazy loading
+     */
+    @Override
+    public String toString() {
+        return "UserFollow{" +
+                "id=" + id +
+                ", followerId=" + (follower != null ? follower.getId() : null) +
+                ", followeeId=" + (followee != null ? followee.getId() : null) +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.ikplabs.api.enums;
+
+/**
+ * LeaderboardPeriod Enum - Valid periods for the most-liked leaderboard
+ *
+ * Used by:
+ * - GalleryController (GET /api/gallery/leaderboard?period=...)
+ * - LikeLeaderboard (one in-memory board per period)
+ *
+ * Usage:
+ * - Validation: LeaderboardPeriod.isValid(periodString)
+ * - Conversion: LeaderboardPeriod.fromValue("week")
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public enum LeaderboardPeriod {
+
+    /**
+     * Likes given in the last 7 days
+     */
+    WEEK("week"),
+
+    /**
+     * All likes (gallery_photos.like_count)
+     */
+    ALL_TIME("allTime");
+
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param value The string value used in API requests
+     */
+    LeaderboardPeriod(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the string value of this enum
+     *
+     * @return The string value (e.g., "week", "allTime")
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Validate if a string is a valid LeaderboardPeriod value
+     *
+     * @param value The string value to validate
+     * @return true if the value matches any LeaderboardPeriod constant, false otherwise
+     */
+    public static boolean isValid(String value) {
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (period.value.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get LeaderboardPeriod enum from string value
+     *
+     * @param value The string value to convert
+     * @return LeaderboardPeriod enum constant
+     * @throws IllegalArgumentException if value is not valid
+     */
+    public static LeaderboardPeriod fromValue(String value) {
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (period.value.equals(value)) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Invalid period parameter. Allowed values: " + getAllowedValues()
+        );
+    }
+
+    /**
+     * Get all allowed period values as comma-separated string
+     * Used for error messages
+     *
+     * @return Comma-separated string of allowed values ("week, allTime")
+     */
+    public static String getAllowedValues() {
+        StringBuilder sb = new StringBuilder();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(period.value);
+        }
+        return sb.toString();
+    }
+}
@@ -38,7 +38,12 @@ public enum SortBy {
     /**
      * Sort by most favorited first (favoriteCount DESC)
      */
-    MOST_FAVORITED("mostFavorited");
+    MOST_FAVORITED("mostFavorited"),
+
+    /**
+     * Sort by trending first (hotScore DESC, time-decayed likes + favorites)
+     */
+    TRENDING("trending");
 
     private final String value;
 
@@ -99,7 +104,7 @@ public enum SortBy {
      * Get all allowed sortBy values as comma-separated string
      * Used for error messages
      *
-     * @return Comma-separated string of allowed values (e.g., "newest, oldest, mostLiked, mostFavorited")
+     * @return Comma-separated string of allowed values (e.g., "newest, oldest, mostLiked, mostFavorited, trending")
      */
     public static String getAllowedValues() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,95 @@
+package com.ikplabs.api.event;
+
+/**
+ * GalleryEvent - One committed gallery mutation (slot of the GalleryEventBus ring buffer)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Formulir kosong yang sudah dicetak sebelumnya dan dipakai berulang-ulang:
+ * bus mengisi formulir saat ada perubahan, subscriber membacanya, lalu formulir
+ * yang sama diisi lagi untuk perubahan berikutnya (tanpa alokasi per event).
+ *
+ * Karena itu: JANGAN simpan referensi GalleryEvent setelah onEvents() selesai.
+ * Salin field yang dibutuhkan (photoId, count, dll.).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class GalleryEvent {
+
+    private GalleryEventType type;
+    private long photoId;
+    private long ownerId;
+    private long actorId;
+    private boolean isPublic;
+    private long timestamp;
+
+    GalleryEvent() {
+    }
+
+    /**
+     * Fill the slot (GalleryEventBus only, on the publishing thread)
+     */
+    void set(GalleryEventType type, long photoId, long ownerId, long actorId, boolean isPublic, long timestamp) {
+        this.type = type;
+        this.photoId = photoId;
+        this.ownerId = ownerId;
+        this.actorId = actorId;
+        this.isPublic = isPublic;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return What happened
+     */
+    public GalleryEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return Affected photo
+     */
+    public long getPhotoId() {
+        return photoId;
+    }
+
+    /**
+     * @return Owner of the photo
+     */
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * @return User who made the change (owner for photo events, liker/favoriter otherwise)
+     */
+    public long getActorId() {
+        return actorId;
+    }
+
+    /**
+     * @return Whether the photo is public (before the delete for PHOTO_DELETED)
+     */
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    /**
+     * @return Commit time in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "GalleryEvent{" +
+                "type=" + type +
+                ", photoId=" + photoId +
+                ", ownerId=" + ownerId +
+                ", actorId=" + actorId +
+                ", isPublic=" + isPublic +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+package com.ikplabs.api.event;
+
+import com.ikplabs.api.util.BatchingRingBuffer;
+import com.ikplabs.api.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * GalleryEventBus - In-process, after-commit pipeline of gallery mutations
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu setiap service harus "menelepon" satu per satu semua pihak yang peduli
+ * (cache, counter, feed, search). Sekarang service cukup menempel pengumuman
+ * di papan (publish); siapa pun yang peduli membaca papan itu sendiri,
+ * di thread sendiri, banyak pengumuman sekaligus.
+ *
+ * Event (GalleryEventType):
+ * - PHOTO_UPLOADED, PRIVACY_TOGGLED, PHOTO_DELETED   → GalleryService
+ * - LIKED, UNLIKED                                   → PhotoLikeService
+ * - FAVORITED, UNFAVORITED                           → PhotoFavoriteService
+ *
+ * Jaminan:
+ * - Hanya perubahan yang COMMIT yang dipublish (rollback → tidak ada event)
+ * - Publish di request thread = isi satu slot ring buffer (BatchingRingBuffer),
+ *   biayanya sama untuk 0 atau 10 subscriber
+ * - Setiap GalleryEventListener bean punya consumer thread sendiri dan menerima
+ *   event dalam batch, urut sesuai publish
+ * - In-process saja: event hilang saat restart (subscriber yang butuh kebenaran
+ *   tetap bisa rebuild dari database, seperti PublicFeedIndex)
+ *
+ * Subscriber:
+ * - LiveLikeCounts → like count terbaru ke SSE stream halaman foto yang terbuka
+ *
+ * Tanpa subscriber: ring buffer tidak dibuat, publish langsung return.
+ *
+ * Configuration (application.properties):
+ * - gallery.events.enabled      → matikan bus (publish jadi no-op)
+ * - gallery.events.buffer-size  → jumlah slot (dibulatkan ke pangkat 2)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class GalleryEventBus implements SmartInitializingSingleton {
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private ObjectProvider<GalleryEventListener> listeners;
+
+    @Value("${gallery.events.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.events.buffer-size:8192}")
+    private int bufferSize = 8192;
+
+    private volatile BatchingRingBuffer<GalleryEvent> ring;
+
+    /**
+     * Subscribers are resolved after every singleton exists, so a listener may depend
+     * on services that publish (no circular reference through the bus)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        List<GalleryEventListener> subscribers = listeners.orderedStream().collect(Collectors.toList());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        BatchingRingBuffer<GalleryEvent> buffer = new BatchingRingBuffer<>(bufferSize, GalleryEvent::new);
+        for (GalleryEventListener subscriber : subscribers) {
+            String name = "gallery-events-" + ClassUtils.getUserClass(subscriber).getSimpleName();
+            buffer.addConsumer(name, subscriber::onEvents);
+        }
+        buffer.start();
+        ring = buffer;
+        System.out.println("✅ Gallery event bus started: " + subscribers.size()
+                + " subscriber(s), " + buffer.capacity() + " slots");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        BatchingRingBuffer<GalleryEvent> buffer = ring;
+        ring = null;
+        if (buffer != null) {
+            buffer.stop(STOP_TIMEOUT_MILLIS);
+        }
+    }
+
+    public void photoUploaded(Long photoId, Long ownerId, boolean isPublic) {
+        publish(GalleryEventType.PHOTO_UPLOADED, photoId, ownerId, ownerId, isPublic);
+    }
+
+    public void privacyToggled(Long photoId, Long ownerId, boolean isPublic) {
+        publish(GalleryEventType.PRIVACY_TOGGLED, photoId, ownerId, ownerId, isPublic);
+    }
+
+    public void photoDeleted(Long photoId, Long ownerId, boolean wasPublic) {
+        publish(GalleryEventType.PHOTO_DELETED, photoId, ownerId, ownerId, wasPublic);
+    }
+
+    /**
+     * Like/unlike or favorite/unfavorite
+     *
+     * @param type LIKED, UNLIKED, FAVORITED or UNFAVORITED
+     * @param photoId Photo
+     * @param ownerId Owner of the photo
+     * @param userId User who liked / favorited
+     * @param isPublic Whether the photo is public
+     * @throws IllegalArgumentException if type is not an engagement event
+     */
+    public void engaged(GalleryEventType type, Long photoId, Long ownerId, Long userId, boolean isPublic) {
+        if (!type.isEngagement()) {
+            throw new IllegalArgumentException("Not an engagement event: " + type);
+        }
+        publish(type, photoId, ownerId, userId, isPublic);
+    }
+
+    /**
+     * Events published but not yet handled by the slowest subscriber
+     */
+    public long backlog() {
+        BatchingRingBuffer<GalleryEvent> buffer = ring;
+        return buffer == null ? 0 : buffer.backlog();
+    }
+
+    private void publish(GalleryEventType type, Long photoId, Long ownerId, Long actorId, boolean isPublic) {
+        if (ring == null) {
+            return;
+        }
+        long photo = photoId;
+        long owner = ownerId;
+        long actor = actorId;
+        TransactionHooks.afterCommit(() -> {
+            BatchingRingBuffer<GalleryEvent> buffer = ring;
+            if (buffer != null) {
+                long now = System.currentTimeMillis();
+                buffer.publish(event -> event.set(type, photo, owner, actor, isPublic, now));
+            }
+        });
+    }
+}
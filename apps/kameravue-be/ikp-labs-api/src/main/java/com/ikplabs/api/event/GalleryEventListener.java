@@ -0,0 +1,30 @@
+package com.ikplabs.api.event;
+
+import java.util.List;
+
+/**
+ * GalleryEventListener - Subscriber of committed gallery mutations
+ *
+ * Setiap Spring bean yang mengimplementasikan interface ini otomatis didaftarkan
+ * ke GalleryEventBus saat startup dan mendapat thread consumer sendiri.
+ *
+ * Kontrak:
+ * - onEvents dipanggil dari SATU thread (bukan request thread), berurutan sesuai publish
+ * - Setiap listener menerima SEMUA event; filter sendiri berdasarkan getType()
+ * - List dan event di dalamnya dipakai ulang setelah method return: salin yang perlu disimpan
+ * - Exception → batch itu dilewati untuk listener ini saja, listener lain tidak terpengaruh
+ * - Listener lambat tidak memperlambat request, kecuali ring buffer penuh
+ *   (gallery.events.buffer-size event belum diproses)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface GalleryEventListener {
+
+    /**
+     * Handle a batch of consecutive events
+     *
+     * @param events Events in publish order (view of the ring buffer, valid only during this call)
+     */
+    void onEvents(List<GalleryEvent> events);
+}
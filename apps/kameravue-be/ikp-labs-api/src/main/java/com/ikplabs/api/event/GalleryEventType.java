@@ -0,0 +1,55 @@
+package com.ikplabs.api.event;
+
+/**
+ * GalleryEventType - Kind of committed gallery mutation carried by a GalleryEvent
+ *
+ * Dipublish oleh GalleryService, PhotoLikeService dan PhotoFavoriteService
+ * lewat GalleryEventBus (setelah commit).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public enum GalleryEventType {
+
+    /**
+     * New photo saved (actor = owner)
+     */
+    PHOTO_UPLOADED,
+
+    /**
+     * Photo switched public ↔ private (isPublic = new value)
+     */
+    PRIVACY_TOGGLED,
+
+    /**
+     * Photo removed (isPublic = value before delete)
+     */
+    PHOTO_DELETED,
+
+    /**
+     * Actor liked the photo
+     */
+    LIKED,
+
+    /**
+     * Actor removed their like
+     */
+    UNLIKED,
+
+    /**
+     * Actor favorited the photo
+     */
+    FAVORITED,
+
+    /**
+     * Actor removed their favorite
+     */
+    UNFAVORITED;
+
+    /**
+     * @return true for like/unlike/favorite/unfavorite
+     */
+    public boolean isEngagement() {
+        return this == LIKED || this == UNLIKED || this == FAVORITED || this == UNFAVORITED;
+    }
+}
@@ -147,6 +147,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
     }
 
+    /**
+     * Handle Search Unavailable (503)
+     *
+     * GET /api/gallery/search saat kolom search_vector tidak ada di database
+     * (lihat FullTextSearchSchema). Client boleh mencoba lagi nanti.
+     *
+     * @param ex SearchUnavailableException dari GalleryService.searchPhotos
+     * @return ResponseEntity dengan 503 status dan error message
+     */
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleSearchUnavailable(SearchUnavailableException ex) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            ex.getMessage(),                       // Error message
+            "SEARCH_UNAVAILABLE",                 // Error code untuk frontend
+            LocalDateTime.now()                   // Timestamp
+        );
+
+        // Return HTTP 503 Service Unavailable
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     /**
      * Handle General Gallery Exceptions (400)
      *
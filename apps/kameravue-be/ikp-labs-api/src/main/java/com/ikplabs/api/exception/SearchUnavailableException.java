@@ -0,0 +1,30 @@
+package com.ikplabs.api.exception;
+
+/**
+ * SearchUnavailableException - Exception when full-text search cannot run on this database
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Loket "cari buku" dengan papan "sedang tidak tersedia": permintaannya benar,
+ * tapi katalog indeksnya (kolom search_vector) belum ada.
+ *
+ * Exception Hierarchy:
+ * RuntimeException (Java built-in)
+ *   └── GalleryException (base - general errors)
+ *         └── SearchUnavailableException (specific - search_vector missing)
+ *
+ * HTTP Status Code: 503 Service Unavailable
+ * - Different from 400 Bad Request (request is fine, the server is not ready)
+ * - Checked once at startup by FullTextSearchSchema, not by failing SQL per request
+ */
+public class SearchUnavailableException extends GalleryException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing why search is unavailable
+     */
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ikplabs.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EngagementBatchRepository - Batched like/favorite writes for the write-behind flush
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Tukang pos tidak mengantar surat satu per satu setiap kali ada yang masuk;
+ * surat dikumpulkan beberapa milidetik lalu diantar sekaligus dalam satu karung.
+ *
+ * Satu flush = satu transaksi, per EngagementKind:
+ * 1. INSERT ... ON CONFLICT DO NOTHING untuk semua like baru   → satu JDBC batch
+ * 2. DELETE untuk semua unlike                                 → satu JDBC batch
+ * 3. UPDATE counter sekali per foto dengan delta bersih        → satu JDBC batch
+ *
+ * Delta dihitung dari row count batch (bukan dari jumlah event), jadi event yang
+ * di-replay dua kali setelah crash tidak menggeser counter.
+ * pgjdbc mengembalikan row count per statement selama reWriteBatchedInserts
+ * tidak diaktifkan; SUCCESS_NO_INFO dihitung 0 dan dibetulkan oleh
+ * EngagementCounterReconciler.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Repository
+public class EngagementBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Apply the final state of each (kind, photo, user) in one transaction
+     *
+     * @param writes Writes, at most one per (kind, photo, user)
+     * @return Number of like/favorite rows actually inserted or deleted
+     */
+    @Transactional
+    public int applyBatch(Collection<EngagementWrite> writes) {
+        int[] changed = {0};
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (EngagementKind kind : EngagementKind.values()) {
+                changed[0] += apply(connection, kind, writes);
+            }
+        });
+        return changed[0];
+    }
+
+    private static int apply(Connection connection, EngagementKind kind, Collection<EngagementWrite> writes)
+            throws SQLException {
+        List<EngagementWrite> inserts = new ArrayList<>();
+        List<EngagementWrite> deletes = new ArrayList<>();
+        for (EngagementWrite write : writes) {
+            if (write.getKind() == kind) {
+                (write.isEngaged() ? inserts : deletes).add(write);
+            }
+        }
+
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        int changed = 0;
+        if (!inserts.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(EngagementWriteQueries.batchInsert(kind))) {
+                for (EngagementWrite write : inserts) {
+                    statement.setTimestamp(1, Timestamp.valueOf(write.getCreatedAt()));
+                    statement.setLong(2, write.getUserId());
+                    statement.setLong(3, write.getPhotoId());
+                    statement.addBatch();
+                }
+                changed += collect(statement.executeBatch(), inserts, deltas, 1);
+            }
+        }
+        if (!deletes.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(EngagementWriteQueries.batchDelete(kind))) {
+                for (EngagementWrite write : deletes) {
+                    statement.setLong(1, write.getPhotoId());
+                    statement.setLong(2, write.getUserId());
+                    statement.addBatch();
+                }
+                changed += collect(statement.executeBatch(), deletes, deltas, -1);
+            }
+        }
+
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(EngagementWriteQueries.batchAdjustCounter(kind))) {
+                for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                    statement.setLong(1, delta.getValue());
+                    statement.setLong(2, delta.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Add the rows each statement of a batch changed to its photo's counter delta
+     */
+    private static int collect(int[] counts, List<EngagementWrite> writes, Map<Long, Long> deltas, int sign) {
+        int changed = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int rows = Math.max(counts[i], 0);
+            if (rows > 0) {
+                deltas.merge(writes.get(i).getPhotoId(), (long) sign * rows, Long::sum);
+                changed += rows;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ikplabs.api.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * EngagementChange - Result row of a successful like/unlike or favorite/unfavorite
+ *
+ * Dikembalikan oleh statement di EngagementWriteQueries (RETURNING), jadi
+ * service tidak perlu me-load GalleryPhoto hanya untuk owner dan privacy.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class EngagementChange {
+
+    private final Long ownerId;
+    private final boolean isPublic;
+    private final LocalDateTime createdAt;
+
+    public EngagementChange(Long ownerId, boolean isPublic, LocalDateTime createdAt) {
+        this.ownerId = ownerId;
+        this.isPublic = isPublic;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * First row of a RETURNING (user_id, is_public, created_at), empty if no row changed
+     */
+    static Optional<EngagementChange> fromRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new EngagementChange(
+                ((Number) row[0]).longValue(),
+                Boolean.TRUE.equals(row[1]),
+                toLocalDateTime(row[2])));
+    }
+
+    /**
+     * Rows of a bulk RETURNING (photo_id, user_id, is_public, created_at), keyed by photo ID
+     */
+    static Map<Long, EngagementChange> byPhotoId(List<Object[]> rows) {
+        Map<Long, EngagementChange> changes = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            changes.put(((Number) row[0]).longValue(), new EngagementChange(
+                    ((Number) row[1]).longValue(),
+                    Boolean.TRUE.equals(row[2]),
+                    toLocalDateTime(row[3])));
+        }
+        return changes;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    /**
+     * @return ID of the photo owner
+     */
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * @return Whether the photo is public (decides which feeds change)
+     */
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    /**
+     * @return When the like/favorite was given (inserted or deleted row)
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
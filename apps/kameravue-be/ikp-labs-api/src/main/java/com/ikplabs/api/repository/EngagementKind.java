@@ -0,0 +1,15 @@
+package com.ikplabs.api.repository;
+
+/**
+ * EngagementKind - Like or favorite
+ *
+ * Dipakai write-behind buffer (EngagementWriteBuffer) dan EngagementBatchRepository
+ * untuk memilih tabel (photo_likes / photo_favorites) dan counter-nya.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public enum EngagementKind {
+    LIKE,
+    FAVORITE
+}
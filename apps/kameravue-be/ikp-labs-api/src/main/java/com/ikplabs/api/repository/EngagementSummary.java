@@ -0,0 +1,32 @@
+package com.ikplabs.api.repository;
+
+/**
+ * EngagementSummary - Projection row for batched like/favorite aggregation
+ *
+ * Satu row per photo, hasil dari GROUP BY photo_id atas photo_likes
+ * atau photo_favorites untuk sekumpulan photo ID sekaligus.
+ *
+ * Dipakai oleh PhotoLikeRepository.summarizeByPhotoIds dan
+ * PhotoFavoriteRepository.summarizeByPhotoIds supaya satu halaman
+ * gallery cukup di-hydrate dengan 2 query (bukan 3 query per foto).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface EngagementSummary {
+
+    /**
+     * @return ID foto yang di-aggregate
+     */
+    Long getPhotoId();
+
+    /**
+     * @return Total rows (likes atau favorites) untuk foto ini
+     */
+    Long getTotalCount();
+
+    /**
+     * @return Jumlah rows milik viewer (0 atau 1 karena UNIQUE constraint)
+     */
+    Long getViewerCount();
+}
@@ -0,0 +1,114 @@
+package com.ikplabs.api.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * EngagementTarget - Why a like/favorite write changed no row
+ *
+ * Hanya di-query setelah statement di EngagementWriteQueries mengembalikan 0 baris,
+ * supaya service bisa melempar exception yang sama seperti validasi lama
+ * (photo not found, private, own photo, already liked, user not found).
+ * Mode write-behind (EngagementWriteBuffer) memakai query yang sama sebagai validasi
+ * sebelum event di-journal.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class EngagementTarget {
+
+    private final Long ownerId;
+    private final boolean isPublic;
+    private final boolean engaged;
+    private final boolean userExists;
+    private final LocalDateTime engagedAt;
+
+    public EngagementTarget(Long ownerId, boolean isPublic, boolean engaged, boolean userExists) {
+        this(ownerId, isPublic, engaged, userExists, null);
+    }
+
+    public EngagementTarget(Long ownerId, boolean isPublic, boolean engaged, boolean userExists,
+                            LocalDateTime engagedAt) {
+        this.ownerId = ownerId;
+        this.isPublic = isPublic;
+        this.engaged = engaged;
+        this.userExists = userExists;
+        this.engagedAt = engagedAt;
+    }
+
+    /**
+     * First row of a *_TARGET query, empty if the photo does not exist
+     */
+    static Optional<EngagementTarget> fromRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(fromRow(rows.get(0), 0));
+    }
+
+    /**
+     * Rows of a *_TARGETS query (photo ID first), keyed by photo ID; missing photos have no entry
+     */
+    static Map<Long, EngagementTarget> byPhotoId(List<Object[]> rows) {
+        Map<Long, EngagementTarget> targets = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            targets.put(((Number) row[0]).longValue(), fromRow(row, 1));
+        }
+        return targets;
+    }
+
+    private static EngagementTarget fromRow(Object[] row, int offset) {
+        return new EngagementTarget(
+                ((Number) row[offset]).longValue(),
+                Boolean.TRUE.equals(row[offset + 1]),
+                Boolean.TRUE.equals(row[offset + 2]),
+                Boolean.TRUE.equals(row[offset + 3]),
+                toLocalDateTime(row[offset + 4]));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    /**
+     * @return ID of the photo owner
+     */
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * @return Whether the photo is public
+     */
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    /**
+     * @return Whether the user already liked/favorited the photo
+     */
+    public boolean isEngaged() {
+        return engaged;
+    }
+
+    /**
+     * @return Whether the user still exists
+     */
+    public boolean isUserExists() {
+        return userExists;
+    }
+
+    /**
+     * @return When the user liked/favorited the photo, null if not engaged
+     */
+    public LocalDateTime getEngagedAt() {
+        return engagedAt;
+    }
+}
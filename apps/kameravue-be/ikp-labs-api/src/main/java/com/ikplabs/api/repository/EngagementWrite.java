@@ -0,0 +1,61 @@
+package com.ikplabs.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * EngagementWrite - Final state of one (photo, user) like/favorite to write to the database
+ *
+ * Dihasilkan EngagementWriteBuffer saat flush: semua event untuk pasangan
+ * (kind, photo, user) sudah digabung jadi satu state akhir
+ * (like lalu unlike sebelum flush = tidak ada write sama sekali).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class EngagementWrite {
+
+    private final EngagementKind kind;
+    private final Long photoId;
+    private final Long userId;
+    private final boolean engaged;
+    private final LocalDateTime createdAt;
+
+    public EngagementWrite(EngagementKind kind, Long photoId, Long userId, boolean engaged, LocalDateTime createdAt) {
+        this.kind = kind;
+        this.photoId = photoId;
+        this.userId = userId;
+        this.engaged = engaged;
+        this.createdAt = createdAt;
+    }
+
+    public EngagementKind getKind() {
+        return kind;
+    }
+
+    public Long getPhotoId() {
+        return photoId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return true = row must exist (INSERT), false = row must not exist (DELETE)
+     */
+    public boolean isEngaged() {
+        return engaged;
+    }
+
+    /**
+     * @return created_at of the inserted row (when the user liked/favorited)
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EngagementWrite{" + kind + (engaged ? " +" : " -") + " photoId=" + photoId + ", userId=" + userId + '}';
+    }
+}
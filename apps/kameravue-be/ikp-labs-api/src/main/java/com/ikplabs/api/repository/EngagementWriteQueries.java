@@ -0,0 +1,340 @@
+package com.ikplabs.api.repository;
+
+/**
+ * EngagementWriteQueries - Single-statement SQL for like/unlike and favorite/unfavorite
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu like = antri di 5 loket: cek foto, cek sudah like, cek user, simpan like,
+ * tambah counter. Sekarang satu formulir yang langsung diproses di loket
+ * yang sama: "tambahkan like SAYA ke foto ini, kalau boleh, lalu naikkan counter".
+ *
+ *   WITH inserted AS (
+ *       INSERT INTO {table} (photo_id, user_id, created_at)
+ *       SELECT p.id, u.id, CURRENT_TIMESTAMP
+ *       FROM gallery_photos p JOIN users u ON u.id = :userId
+ *       WHERE p.id = :photoId AND {rule}            -- public / bukan owner (like)
+ *       ON CONFLICT (photo_id, user_id) DO NOTHING  -- sudah like → 0 baris
+ *       RETURNING photo_id, created_at)
+ *   UPDATE gallery_photos p SET {counter} = p.{counter} + 1
+ *   FROM inserted i WHERE p.id = i.photo_id
+ *   RETURNING p.user_id, p.is_public, i.created_at
+ *
+ * Unlike/unfavorite = DELETE ... RETURNING di CTE + decrement counter yang sama.
+ *
+ * Satu baris hasil = berhasil (owner + privacy untuk GalleryVersions, created_at
+ * untuk LikeLeaderboard). Nol baris = ditolak; HANYA di jalur gagal itu service
+ * menjalankan *_TARGET untuk memilih pesan error yang sama seperti dulu.
+ *
+ * Idempotent di bawah request paralel: dua like bersamaan → UNIQUE (photo_id, user_id)
+ * + ON CONFLICT membuat satu INSERT dapat 0 baris (bukan DataIntegrityViolationException),
+ * jadi counter tidak pernah naik dua kali.
+ *
+ * Decrement memakai GREATEST(..., 0) tanpa filter: counter yang drift tidak boleh
+ * membuat unlike gagal setelah barisnya sudah terhapus.
+ *
+ * *_MANY / *_TARGETS: versi bulk (POST /api/gallery/photos/like dll.) untuk banyak
+ * foto sekaligus: satu INSERT ... SELECT multi-row (atau DELETE ... USING) + satu
+ * UPDATE counter, RETURNING photo_id per baris yang berubah. Baris gallery_photos
+ * dikunci dulu dengan urutan id (ORDER BY id FOR NO KEY UPDATE), jadi dua bulk
+ * request yang overlap tidak bisa deadlock; FOR NO KEY UPDATE tidak bentrok dengan
+ * KEY SHARE dari foreign key insert like tunggal.
+ *
+ * *_SHARDED: versi single-write untuk foto viral (gallery.counter-shards.enabled).
+ * Counter di gallery_photos tidak di-UPDATE; delta +1/-1 di-upsert ke salah satu
+ * dari N baris photo_counter_shards (slot = user_id % N) di statement yang sama.
+ * Seribu like bersamaan ke satu foto tidak lagi antri di SATU row lock sampai commit,
+ * tapi tersebar di N baris. Jumlah = kolom counter + SUM(delta slot); COMPACT_SHARDS
+ * (CounterShardCompactor) memindahkan delta ke kolom counter secara berkala.
+ *
+ * batch*: versi positional (?) untuk write-behind flush (EngagementWriteBuffer):
+ * INSERT/DELETE per event dikirim sebagai satu JDBC batch, counter di-update
+ * sekali per foto dengan delta bersih dari row count batch.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+final class EngagementWriteQueries {
+
+    /**
+     * Like: public photo, bukan foto sendiri
+     */
+    private static final String LIKE_RULE = "p.is_public = TRUE AND p.user_id <> u.id";
+
+    /**
+     * Favorite: public photo ATAU foto sendiri (boleh private)
+     */
+    private static final String FAVORITE_RULE = "(p.is_public = TRUE OR p.user_id = u.id)";
+
+    static final String LIKE = insert("photo_likes", "like_count", LIKE_RULE);
+
+    static final String UNLIKE = delete("photo_likes", "like_count");
+
+    static final String LIKE_TARGET = target("photo_likes");
+
+    static final String FAVORITE = insert("photo_favorites", "favorite_count", FAVORITE_RULE);
+
+    static final String UNFAVORITE = delete("photo_favorites", "favorite_count");
+
+    static final String FAVORITE_TARGET = target("photo_favorites");
+
+    // Sharded counters: same parameters + :shard (slot of the user, see shard())
+
+    static final String LIKE_SHARDED = insertSharded("photo_likes", "like_delta", LIKE_RULE);
+
+    static final String UNLIKE_SHARDED = deleteSharded("photo_likes", "like_delta");
+
+    static final String FAVORITE_SHARDED = insertSharded("photo_favorites", "favorite_delta", FAVORITE_RULE);
+
+    static final String UNFAVORITE_SHARDED = deleteSharded("photo_favorites", "favorite_delta");
+
+    /**
+     * Fold up to :limit slot rows into the counter columns and delete them.
+     * Rows locked by a like in flight are skipped (picked up next run).
+     * Returns the number of slot rows drained (folded runs even though it is not read).
+     */
+    static final String COMPACT_SHARDS = """
+        WITH drained AS (
+            DELETE FROM photo_counter_shards s
+            WHERE (s.photo_id, s.shard) IN (
+                SELECT photo_id, shard
+                FROM photo_counter_shards
+                ORDER BY photo_id, shard
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING s.photo_id, s.like_delta, s.favorite_delta
+        ),
+        folded AS (
+            UPDATE gallery_photos p
+            SET like_count = GREATEST(p.like_count + t.like_delta, 0),
+                favorite_count = GREATEST(p.favorite_count + t.favorite_delta, 0)
+            FROM (
+                SELECT photo_id, SUM(like_delta) AS like_delta, SUM(favorite_delta) AS favorite_delta
+                FROM drained
+                GROUP BY photo_id
+                HAVING SUM(like_delta) <> 0 OR SUM(favorite_delta) <> 0
+            ) t
+            WHERE p.id = t.photo_id
+            RETURNING p.id
+        )
+        SELECT COUNT(*) FROM drained
+        """;
+
+    // Bulk writes: :photoIds (collection) + :userId, one row per changed photo
+
+    static final String LIKE_MANY = insertMany("photo_likes", "like_count", LIKE_RULE);
+
+    static final String UNLIKE_MANY = deleteMany("photo_likes", "like_count");
+
+    static final String LIKE_TARGETS = targets("photo_likes");
+
+    static final String FAVORITE_MANY = insertMany("photo_favorites", "favorite_count", FAVORITE_RULE);
+
+    static final String UNFAVORITE_MANY = deleteMany("photo_favorites", "favorite_count");
+
+    static final String FAVORITE_TARGETS = targets("photo_favorites");
+
+    // Write-behind flush (EngagementBatchRepository): JDBC batches, positional parameters
+
+    /**
+     * Parameters: created_at, user_id, photo_id. Same rule as LIKE/FAVORITE, so a photo
+     * that went private before the flush does not get the buffered like.
+     */
+    static String batchInsert(EngagementKind kind) {
+        return """
+            INSERT INTO {table} (photo_id, user_id, created_at)
+            SELECT p.id, u.id, ?
+            FROM gallery_photos p
+            JOIN users u ON u.id = ?
+            WHERE p.id = ? AND {rule}
+            ON CONFLICT (photo_id, user_id) DO NOTHING
+            """.replace("{table}", table(kind)).replace("{rule}", kind == EngagementKind.LIKE ? LIKE_RULE : FAVORITE_RULE);
+    }
+
+    /**
+     * Parameters: photo_id, user_id
+     */
+    static String batchDelete(EngagementKind kind) {
+        return "DELETE FROM " + table(kind) + " WHERE photo_id = ? AND user_id = ?";
+    }
+
+    /**
+     * Parameters: delta, photo_id (net change of one photo over the whole batch)
+     */
+    static String batchAdjustCounter(EngagementKind kind) {
+        String counter = kind == EngagementKind.LIKE ? "like_count" : "favorite_count";
+        return "UPDATE gallery_photos SET " + counter + " = GREATEST(" + counter + " + ?, 0) WHERE id = ?";
+    }
+
+    /**
+     * Slot of a user's counter deltas (same user → same slot, so a like and its
+     * unlike land on the same row)
+     */
+    static int shard(Long userId, int shardCount) {
+        return (int) Math.floorMod(userId, (long) Math.max(1, shardCount));
+    }
+
+    private static String table(EngagementKind kind) {
+        return kind == EngagementKind.LIKE ? "photo_likes" : "photo_favorites";
+    }
+
+    private EngagementWriteQueries() {
+    }
+
+    private static String insert(String table, String counter, String rule) {
+        return """
+            WITH inserted AS (
+                INSERT INTO {table} (photo_id, user_id, created_at)
+                SELECT p.id, u.id, CURRENT_TIMESTAMP
+                FROM gallery_photos p
+                JOIN users u ON u.id = :userId
+                WHERE p.id = :photoId AND {rule}
+                ON CONFLICT (photo_id, user_id) DO NOTHING
+                RETURNING photo_id, created_at
+            )
+            UPDATE gallery_photos p
+            SET {counter} = p.{counter} + 1
+            FROM inserted i
+            WHERE p.id = i.photo_id
+            RETURNING p.user_id, p.is_public, i.created_at
+            """.replace("{table}", table).replace("{counter}", counter).replace("{rule}", rule);
+    }
+
+    private static String delete(String table, String counter) {
+        return """
+            WITH deleted AS (
+                DELETE FROM {table}
+                WHERE photo_id = :photoId AND user_id = :userId
+                RETURNING photo_id, created_at
+            )
+            UPDATE gallery_photos p
+            SET {counter} = GREATEST(p.{counter} - 1, 0)
+            FROM deleted d
+            WHERE p.id = d.photo_id
+            RETURNING p.user_id, p.is_public, d.created_at
+            """.replace("{table}", table).replace("{counter}", counter);
+    }
+
+    private static String insertSharded(String table, String delta, String rule) {
+        return """
+            WITH inserted AS (
+                INSERT INTO {table} (photo_id, user_id, created_at)
+                SELECT p.id, u.id, CURRENT_TIMESTAMP
+                FROM gallery_photos p
+                JOIN users u ON u.id = :userId
+                WHERE p.id = :photoId AND {rule}
+                ON CONFLICT (photo_id, user_id) DO NOTHING
+                RETURNING photo_id, created_at
+            ),
+            counted AS (
+                INSERT INTO photo_counter_shards (photo_id, shard, {delta})
+                SELECT i.photo_id, CAST(:shard AS SMALLINT), 1
+                FROM inserted i
+                ON CONFLICT (photo_id, shard) DO UPDATE
+                SET {delta} = photo_counter_shards.{delta} + EXCLUDED.{delta}
+            )
+            SELECT p.user_id, p.is_public, i.created_at
+            FROM inserted i
+            JOIN gallery_photos p ON p.id = i.photo_id
+            """.replace("{table}", table).replace("{delta}", delta).replace("{rule}", rule);
+    }
+
+    private static String deleteSharded(String table, String delta) {
+        return """
+            WITH deleted AS (
+                DELETE FROM {table}
+                WHERE photo_id = :photoId AND user_id = :userId
+                RETURNING photo_id, created_at
+            ),
+            counted AS (
+                INSERT INTO photo_counter_shards (photo_id, shard, {delta})
+                SELECT d.photo_id, CAST(:shard AS SMALLINT), -1
+                FROM deleted d
+                ON CONFLICT (photo_id, shard) DO UPDATE
+                SET {delta} = photo_counter_shards.{delta} + EXCLUDED.{delta}
+            )
+            SELECT p.user_id, p.is_public, d.created_at
+            FROM deleted d
+            JOIN gallery_photos p ON p.id = d.photo_id
+            """.replace("{table}", table).replace("{delta}", delta);
+    }
+
+    private static String insertMany(String table, String counter, String rule) {
+        return """
+            WITH locked AS (
+                SELECT p.id, p.user_id, p.is_public
+                FROM gallery_photos p
+                WHERE p.id IN (:photoIds)
+                ORDER BY p.id
+                FOR NO KEY UPDATE
+            ),
+            inserted AS (
+                INSERT INTO {table} (photo_id, user_id, created_at)
+                SELECT p.id, u.id, CURRENT_TIMESTAMP
+                FROM locked p
+                JOIN users u ON u.id = :userId
+                WHERE {rule}
+                ON CONFLICT (photo_id, user_id) DO NOTHING
+                RETURNING photo_id, created_at
+            )
+            UPDATE gallery_photos p
+            SET {counter} = p.{counter} + 1
+            FROM inserted i
+            WHERE p.id = i.photo_id
+            RETURNING p.id, p.user_id, p.is_public, i.created_at
+            """.replace("{table}", table).replace("{counter}", counter).replace("{rule}", rule);
+    }
+
+    private static String deleteMany(String table, String counter) {
+        return """
+            WITH locked AS (
+                SELECT p.id
+                FROM gallery_photos p
+                WHERE p.id IN (:photoIds)
+                ORDER BY p.id
+                FOR NO KEY UPDATE
+            ),
+            deleted AS (
+                DELETE FROM {table} e
+                USING locked l
+                WHERE e.photo_id = l.id AND e.user_id = :userId
+                RETURNING e.photo_id, e.created_at
+            )
+            UPDATE gallery_photos p
+            SET {counter} = GREATEST(p.{counter} - 1, 0)
+            FROM deleted d
+            WHERE p.id = d.photo_id
+            RETURNING p.id, p.user_id, p.is_public, d.created_at
+            """.replace("{table}", table).replace("{counter}", counter);
+    }
+
+    /**
+     * Diagnosis of a rejected write: (owner, privacy, already engaged, user exists, engaged at)
+     */
+    private static String target(String table) {
+        return """
+            SELECT p.user_id, p.is_public,
+                   EXISTS (SELECT 1 FROM {table} e WHERE e.photo_id = p.id AND e.user_id = :userId),
+                   EXISTS (SELECT 1 FROM users u WHERE u.id = :userId),
+                   (SELECT e.created_at FROM {table} e WHERE e.photo_id = p.id AND e.user_id = :userId)
+            FROM gallery_photos p
+            WHERE p.id = :photoId
+            """.replace("{table}", table);
+    }
+
+    /**
+     * Bulk diagnosis: (photo id, owner, privacy, already engaged, user exists, engaged at)
+     * for each existing photo of :photoIds
+     */
+    private static String targets(String table) {
+        return """
+            SELECT p.id, p.user_id, p.is_public,
+                   EXISTS (SELECT 1 FROM {table} e WHERE e.photo_id = p.id AND e.user_id = :userId),
+                   EXISTS (SELECT 1 FROM users u WHERE u.id = :userId),
+                   (SELECT e.created_at FROM {table} e WHERE e.photo_id = p.id AND e.user_id = :userId)
+            FROM gallery_photos p
+            WHERE p.id IN (:photoIds)
+            """.replace("{table}", table);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ikplabs.api.repository;
+
+/**
+ * GalleryFeedKey - (photo id, sort key) pair returned by keyset feed queries
+ *
+ * Keyset query hanya ambil id + sort key (index-only friendly), lalu entity
+ * di-load by primary key. Sort key dari row terakhir dipakai untuk
+ * membuat nextCursor.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class GalleryFeedKey {
+
+    private final Long id;
+    private final Object sortKey;
+
+    public GalleryFeedKey(Long id, Object sortKey) {
+        this.id = id;
+        this.sortKey = sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return LocalDateTime for newest/oldest, Long for count-based sorts, Float rank for search
+     */
+    public Object getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public String toString() {
+        return "GalleryFeedKey{id=" + id + ", sortKey=" + sortKey + '}';
+    }
+}
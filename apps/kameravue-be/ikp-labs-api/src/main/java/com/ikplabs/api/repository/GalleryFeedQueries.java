@@ -0,0 +1,236 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.enums.SortBy;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * GalleryFeedQueries - Static SQL statements for gallery feeds, one per (scope, SortBy)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu ada SATU formulir dengan 4 kotak centang:
+ * "ORDER BY CASE WHEN :sortBy = 'newest' THEN ... END, CASE WHEN ..."
+ * Database baru tahu kotak mana yang dicentang SAAT query jalan, jadi tidak bisa
+ * pilih index lebih dulu → baca semua foto, sort semuanya, baru ambil 12.
+ *
+ * Sekarang ada formulir TERPISAH untuk setiap mode sort. Setiap statement
+ * punya ORDER BY statis yang persis sama dengan urutan kolom partial index-nya:
+ *
+ *   public  + newest        → ORDER BY created_at DESC, id DESC  (idx_gallery_public_created_id)
+ *   public  + oldest        → ORDER BY created_at ASC,  id ASC   (index yang sama, backward scan)
+ *   public  + mostLiked     → ORDER BY like_count DESC, id DESC  (idx_gallery_public_like_count_id)
+ *   public  + mostFavorited → ORDER BY favorite_count DESC, id DESC
+ *   public  + trending      → ORDER BY hot_score DESC, id DESC   (idx_gallery_public_hot_score_id)
+ *   owner   + *             → prefix user_id (idx_gallery_user_created_id, idx_gallery_photos_user_*_count)
+ *
+ * Hasilnya: index scan yang BERHENTI setelah LIMIT baris, bukan full sort.
+ *
+ * Tiga keluarga statement per scope:
+ * - page       → SELECT {grid columns} ... JOIN users ... LIMIT :limit OFFSET :offset   (page/size mode)
+ * - keysFirst  → SELECT p.id, sort_key ... LIMIT :limit       (cursor mode, slice pertama)
+ * - keysAfter  → keysFirst + seek predicate (sort_key, id) < (:sortKey, :lastId)
+ *
+ * Search (SEARCH_*) mengikuti pola keysFirst/keysAfter dengan rank relevansi sebagai sort key.
+ *
+ * Grid columns (GRID_COLUMNS) = hanya yang dibutuhkan kartu foto di grid + nama owner
+ * dalam SATU statement (JOIN users), description dipotong (DESCRIPTION_PREVIEW_LENGTH).
+ * Hasilnya dibaca sebagai baris skalar → GalleryPhotoResponse, bukan entity.
+ *
+ * Semua string dibangun SEKALI saat class load, jadi tidak ada SQL dinamis per request.
+ * GalleryFeedQueryPlanTest men-EXPLAIN setiap statement di sini.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+final class GalleryFeedQueries {
+
+    /**
+     * Grid card hanya menampilkan 2 baris description (line-clamp), jadi tidak perlu TEXT penuh
+     */
+    static final int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    /**
+     * Column order read by GalleryPhotoRepositoryImpl.toGridRow()
+     */
+    static final String GRID_COLUMNS =
+            "p.id, p.user_id, u.full_name, p.title, SUBSTRING(p.description, 1, " + DESCRIPTION_PREVIEW_LENGTH + "), "
+            + "p.file_path, p.is_public, p.created_at, p.updated_at";
+
+    /**
+     * JPQL constructor expression with the same grid columns (liked/favorited queries)
+     *
+     * Dipakai di @Query PhotoLikeRepository / PhotoFavoriteRepository; alias wajib:
+     * p = GalleryPhoto, u = owner (JOIN p.user u).
+     */
+    static final String JPQL_GRID_ROW =
+            "SELECT new com.ikplabs.api.dto.GalleryPhotoResponse(p.id, u.id, u.fullName, p.title, "
+            + "SUBSTRING(p.description, 1, " + DESCRIPTION_PREVIEW_LENGTH + "), "
+            + "p.filePath, p.isPublic, p.createdAt, p.updatedAt)";
+
+    /**
+     * Grid rows by primary key (PublicFeedIndex hits and keyset slices): parameter :ids
+     */
+    static final String GRID_BY_IDS =
+            "SELECT " + GRID_COLUMNS + " FROM gallery_photos p JOIN users u ON u.id = p.user_id WHERE p.id IN (:ids)";
+
+    /**
+     * Full metadata of ALL photos of one owner, newest first: parameter :ownerId
+     *
+     * Untuk NDJSON export (dibaca lewat JDBC cursor, tanpa LIMIT/OFFSET).
+     * Description penuh + counter like/favorite denormalized → satu pass, tanpa aggregate.
+     * Urutan (created_at DESC, id DESC) = index idx_gallery_user_created_id,
+     * jadi baris pertama keluar tanpa menunggu sort.
+     */
+    static final String OWNER_EXPORT =
+            "SELECT p.id, p.title, p.description, p.file_path, p.is_public, p.like_count, p.favorite_count, "
+            + "p.created_at, p.updated_at FROM gallery_photos p WHERE p.user_id = :ownerId "
+            + "ORDER BY p.created_at DESC, p.id DESC";
+
+    /**
+     * Full-text search over title + description (search_vector, V9), ranked
+     *
+     * :query → websearch_to_tsquery('simple', ...) (aman untuk input user: "kata",
+     * "frasa persis", -kecuali, or). Kandidat dari GIN index idx_gallery_photos_search,
+     * lalu di-rank (ts_rank_cd, title bobot A > description bobot B) dan
+     * diurutkan (rank DESC, id DESC). Rank tidak bisa di-index, jadi biaya per
+     * halaman ~ jumlah foto yang cocok, bukan ukuran tabel.
+     *
+     * Privacy sama dengan getPhotoById: public, atau milik viewer (:viewerId).
+     */
+    private static final String SEARCH_RANKED =
+            "SELECT p.id, ts_rank_cd(p.search_vector, q) AS rank "
+            + "FROM gallery_photos p, websearch_to_tsquery('simple', :query) q "
+            + "WHERE p.search_vector @@ q AND ";
+
+    /**
+     * Anonymous search, first slice: parameters :query, :limit
+     */
+    static final String SEARCH_PUBLIC_FIRST = search("p.is_public = TRUE", false);
+
+    /**
+     * Anonymous search after a cursor: parameters :query, :rank, :lastId, :limit
+     */
+    static final String SEARCH_PUBLIC_AFTER = search("p.is_public = TRUE", true);
+
+    /**
+     * Logged-in search (own private photos included), first slice: parameters :query, :viewerId, :limit
+     */
+    static final String SEARCH_VIEWER_FIRST = search("(p.is_public = TRUE OR p.user_id = :viewerId)", false);
+
+    /**
+     * Logged-in search after a cursor: parameters :query, :viewerId, :rank, :lastId, :limit
+     */
+    static final String SEARCH_VIEWER_AFTER = search("(p.is_public = TRUE OR p.user_id = :viewerId)", true);
+
+    private static final Map<SortBy, String> PUBLIC_PAGE = build(Scope.PUBLIC, Family.PAGE);
+    private static final Map<SortBy, String> OWNER_PAGE = build(Scope.OWNER, Family.PAGE);
+    private static final Map<SortBy, String> USER_PUBLIC_PAGE = build(Scope.USER_PUBLIC, Family.PAGE);
+
+    private static final Map<SortBy, String> PUBLIC_KEYS_FIRST = build(Scope.PUBLIC, Family.KEYS_FIRST);
+    private static final Map<SortBy, String> OWNER_KEYS_FIRST = build(Scope.OWNER, Family.KEYS_FIRST);
+    private static final Map<SortBy, String> USER_PUBLIC_KEYS_FIRST = build(Scope.USER_PUBLIC, Family.KEYS_FIRST);
+
+    private static final Map<SortBy, String> PUBLIC_KEYS_AFTER = build(Scope.PUBLIC, Family.KEYS_AFTER);
+    private static final Map<SortBy, String> OWNER_KEYS_AFTER = build(Scope.OWNER, Family.KEYS_AFTER);
+    private static final Map<SortBy, String> USER_PUBLIC_KEYS_AFTER = build(Scope.USER_PUBLIC, Family.KEYS_AFTER);
+
+    private GalleryFeedQueries() {
+    }
+
+    /**
+     * Offset page statement (grid columns): parameters :ownerId (non-public scopes), :limit, :offset
+     */
+    static String page(GalleryFeedScope scope, SortBy sortBy) {
+        return select(scope, PUBLIC_PAGE, OWNER_PAGE, USER_PUBLIC_PAGE).get(sortBy);
+    }
+
+    /**
+     * First keyset slice: parameters :ownerId (non-public scopes), :limit
+     */
+    static String keysFirst(GalleryFeedScope scope, SortBy sortBy) {
+        return select(scope, PUBLIC_KEYS_FIRST, OWNER_KEYS_FIRST, USER_PUBLIC_KEYS_FIRST).get(sortBy);
+    }
+
+    /**
+     * Keyset slice after a cursor: parameters :ownerId (non-public scopes), :sortKey, :lastId, :limit
+     */
+    static String keysAfter(GalleryFeedScope scope, SortBy sortBy) {
+        return select(scope, PUBLIC_KEYS_AFTER, OWNER_KEYS_AFTER, USER_PUBLIC_KEYS_AFTER).get(sortBy);
+    }
+
+    /**
+     * Sort key column per mode (like/favorite count = denormalized columns,
+     * hot_score = maintained by TrendingScoreUpdater)
+     */
+    static String sortKeyColumn(SortBy sortBy) {
+        return switch (sortBy) {
+            case NEWEST, OLDEST -> "p.created_at";
+            case MOST_LIKED -> "p.like_count";
+            case MOST_FAVORITED -> "p.favorite_count";
+            case TRENDING -> "p.hot_score";
+        };
+    }
+
+    private static Map<SortBy, String> select(GalleryFeedScope scope, Map<SortBy, String> publicFeed,
+                                              Map<SortBy, String> owner, Map<SortBy, String> userPublic) {
+        if (scope.getOwnerId() == null) {
+            return publicFeed;
+        }
+        return scope.isPublicOnly() ? userPublic : owner;
+    }
+
+    private static Map<SortBy, String> build(Scope scope, Family family) {
+        Map<SortBy, String> statements = new EnumMap<>(SortBy.class);
+        for (SortBy sortBy : SortBy.values()) {
+            statements.put(sortBy, statement(scope, family, sortBy));
+        }
+        return statements;
+    }
+
+    private static String statement(Scope scope, Family family, SortBy sortBy) {
+        String key = sortKeyColumn(sortBy);
+        boolean ascending = sortBy == SortBy.OLDEST;
+        String direction = ascending ? "ASC" : "DESC";
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(family == Family.PAGE ? GRID_COLUMNS : "p.id, " + key + " AS sort_key");
+        sql.append(" FROM gallery_photos p");
+        if (family == Family.PAGE) {
+            sql.append(" JOIN users u ON u.id = p.user_id");
+        }
+        sql.append(" WHERE ");
+        sql.append(switch (scope) {
+            case PUBLIC -> "p.is_public = TRUE";
+            case OWNER -> "p.user_id = :ownerId";
+            case USER_PUBLIC -> "p.user_id = :ownerId AND p.is_public = TRUE";
+        });
+        if (family == Family.KEYS_AFTER) {
+            sql.append(" AND (").append(key).append(", p.id) ")
+               .append(ascending ? ">" : "<")
+               .append(" (:sortKey, :lastId)");
+        }
+        sql.append(" ORDER BY ").append(key).append(' ').append(direction)
+           .append(", p.id ").append(direction)
+           .append(" LIMIT :limit");
+        if (family == Family.PAGE) {
+            sql.append(" OFFSET :offset");
+        }
+        return sql.toString();
+    }
+
+    private static String search(String visibility, boolean after) {
+        return "SELECT s.id, s.rank FROM (" + SEARCH_RANKED + visibility + ") s"
+                + (after ? " WHERE (s.rank, s.id) < (:rank, :lastId)" : "")
+                + " ORDER BY s.rank DESC, s.id DESC LIMIT :limit";
+    }
+
+    private enum Scope {
+        PUBLIC, OWNER, USER_PUBLIC
+    }
+
+    private enum Family {
+        PAGE, KEYS_FIRST, KEYS_AFTER
+    }
+}
@@ -0,0 +1,75 @@
+package com.ikplabs.api.repository;
+
+import java.util.Objects;
+
+/**
+ * GalleryFeedScope - Which slice of gallery_photos a list query reads
+ *
+ * Tiga list endpoints membaca "himpunan foto" yang berbeda:
+ * - publicFeed()        → semua foto public (GET /api/gallery/public)
+ * - owner(userId)       → semua foto milik user, termasuk private (GET /api/gallery/my-photos)
+ * - userPublic(userId)  → foto public milik satu user (GET /api/gallery/user/{userId}/public)
+ *
+ * Privacy filter ada di sini (bukan di controller), jadi tidak mungkin
+ * foto private bocor lewat query feed.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class GalleryFeedScope {
+
+    private static final GalleryFeedScope PUBLIC_FEED = new GalleryFeedScope(null, true);
+
+    private final Long ownerId;
+    private final boolean publicOnly;
+
+    private GalleryFeedScope(Long ownerId, boolean publicOnly) {
+        this.ownerId = ownerId;
+        this.publicOnly = publicOnly;
+    }
+
+    public static GalleryFeedScope publicFeed() {
+        return PUBLIC_FEED;
+    }
+
+    public static GalleryFeedScope owner(Long userId) {
+        return new GalleryFeedScope(userId, false);
+    }
+
+    public static GalleryFeedScope userPublic(Long userId) {
+        return new GalleryFeedScope(userId, true);
+    }
+
+    /**
+     * @return Owner user ID, or null for the global public feed
+     */
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public boolean isPublicOnly() {
+        return publicOnly;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GalleryFeedScope)) {
+            return false;
+        }
+        GalleryFeedScope other = (GalleryFeedScope) o;
+        return publicOnly == other.publicOnly && Objects.equals(ownerId, other.ownerId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ownerId, publicOnly);
+    }
+
+    @Override
+    public String toString() {
+        return "GalleryFeedScope{ownerId=" + ownerId + ", publicOnly=" + publicOnly + '}';
+    }
+}
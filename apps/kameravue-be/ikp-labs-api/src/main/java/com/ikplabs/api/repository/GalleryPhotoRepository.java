@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,7 +35,7 @@ import java.util.List;
  * @Repository = Spring otomatis buat instance (singleton)
  */
 @Repository
-public interface GalleryPhotoRepository extends JpaRepository<GalleryPhoto, Long> {
+public interface GalleryPhotoRepository extends JpaRepository<GalleryPhoto, Long>, GalleryPhotoRepositoryCustom {
 
     /**
      * Find all photos by user ID (paginated)
@@ -134,75 +137,276 @@ public interface GalleryPhotoRepository extends JpaRepository<GalleryPhoto, Long
     Long countByUserIdAndIsPublicTrue(Long userId);
 
     /**
-     * OPTIMIZED: Find user's photos with like/favorite counts and sorting
+     * (id, created_at) of every PUBLIC photo
      *
-     * Solves N+1 problem by using LEFT JOINs to get counts in single query.
-     * Supports dynamic sorting by: newest, oldest, mostLiked, mostFavorited
+     * Use case: PublicFeedIndex build/refresh (startup + periodic).
+     * Projection → tidak ada entity, tidak ada dirty-tracking snapshot.
      *
-     * Native SQL Query (optimized for performance):
-     * - LEFT JOIN photo_likes → Count likes per photo
-     * - LEFT JOIN photo_favorites → Count favorites per photo
-     * - Single query instead of 1 + N queries
-     * - Dynamic ORDER BY based on sortBy parameter
+     * @return One key per public photo (unordered)
+     */
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM GalleryPhoto p WHERE p.isPublic = TRUE")
+    List<PublicPhotoKey> findPublicPhotoKeys();
+
+    /**
+     * (id, like_count) of every PUBLIC photo that has at least one like
      *
-     * Performance:
-     * - Before: 1 query for photos + N queries for counts = 1 + N queries
-     * - After: 1 query for everything = 96% reduction (if N=25)
-     * - Example: 26 queries → 1 query
+     * Use case: LikeLeaderboard build/refresh (papan skor all-time).
+     * Membaca counter denormalized → tidak ada aggregate atas photo_likes.
      *
-     * @param userId ID of the user
-     * @param sortBy Sort option: "newest", "oldest", "mostLiked", "mostFavorited"
-     * @param pageable Pagination parameters
-     * @return List of photos with counts (sorted)
+     * @return One tally per liked public photo (unordered)
+     */
+    @Query("SELECT p.id AS photoId, p.likeCount AS likeCount FROM GalleryPhoto p WHERE p.isPublic = TRUE AND p.likeCount > 0")
+    List<PhotoLikeTally> findPublicLikeTallies();
+
+    /**
+     * (id, like count, favorite count) of the given photos
+     *
+     * Use case: EngagementCounters prime (foto yang belum ada di memory) dan
+     * reconcile (koreksi drift). Primary key lookup + slot rows photo_counter_shards
+     * yang belum di-compact (paling banyak N baris per foto), tanpa aggregate
+     * atas photo_likes / photo_favorites.
+     *
+     * @param ids Photo IDs (must not be empty)
+     * @return One row per existing photo (deleted photos are absent)
      */
     @Query(value = """
-        SELECT p.*
+        SELECT p.id AS id,
+               CAST(p.like_count + COALESCE(SUM(s.like_delta), 0) AS BIGINT) AS "likeCount",
+               CAST(p.favorite_count + COALESCE(SUM(s.favorite_delta), 0) AS BIGINT) AS "favoriteCount"
         FROM gallery_photos p
-        LEFT JOIN photo_likes pl ON p.id = pl.photo_id
-        LEFT JOIN photo_favorites pf ON p.id = pf.photo_id
-        WHERE p.user_id = :userId
-        GROUP BY p.id
-        ORDER BY
-            CASE WHEN :sortBy = 'newest' THEN p.created_at END DESC,
-            CASE WHEN :sortBy = 'oldest' THEN p.created_at END ASC,
-            CASE WHEN :sortBy = 'mostLiked' THEN COUNT(DISTINCT pl.id) END DESC,
-            CASE WHEN :sortBy = 'mostFavorited' THEN COUNT(DISTINCT pf.id) END DESC,
-            p.created_at DESC
+        LEFT JOIN photo_counter_shards s ON s.photo_id = p.id
+        WHERE p.id IN (:ids)
+        GROUP BY p.id, p.like_count, p.favorite_count
         """, nativeQuery = true)
-    List<GalleryPhoto> findByUserIdWithCounts(
-        @Param("userId") Long userId,
-        @Param("sortBy") String sortBy,
-        Pageable pageable
-    );
+    List<PhotoCounterRow> findCountersByIds(@Param("ids") Collection<Long> ids);
 
     /**
-     * OPTIMIZED: Find public photos with like/favorite counts and sorting
+     * Atomically add delta to a photo's like counter
      *
-     * Same optimization as findByUserIdWithCounts but for public photos only.
-     * Filters by is_public = TRUE.
+     * Use case: Dipanggil PhotoLikeService di transaksi yang sama dengan
+     * insert (+1) atau delete (-1) row di photo_likes.
      *
-     * @param sortBy Sort option: "newest", "oldest", "mostLiked", "mostFavorited"
-     * @param pageable Pagination parameters
-     * @return List of public photos with counts (sorted)
+     * Database Query:
+     * UPDATE gallery_photos SET like_count = like_count + 1 WHERE id = 123
+     *
+     * Kenapa UPDATE langsung, bukan photo.setLikeCount(n + 1) + save()?
+     * - Read-modify-write di Java → 2 like bersamaan bisa hilang satu (lost update)
+     * - UPDATE ... SET x = x + 1 → database row lock, selalu benar
+     *
+     * Counter tidak pernah turun di bawah 0 (guard di WHERE).
+     *
+     * Important: Must use @Transactional in Service layer
+     *
+     * @param photoId ID of the photo
+     * @param delta +1 for like, -1 for unlike
+     * @return Number of rows updated (0 if photo not found or counter already 0)
+     */
+    @Modifying
+    @Query("""
+        UPDATE GalleryPhoto p SET p.likeCount = p.likeCount + :delta
+        WHERE p.id = :photoId AND p.likeCount + :delta >= 0
+        """)
+    int adjustLikeCount(@Param("photoId") Long photoId, @Param("delta") long delta);
+
+    /**
+     * Atomically add delta to a photo's favorite counter
+     *
+     * Same as adjustLikeCount, dipanggil oleh PhotoFavoriteService.
+     *
+     * @param photoId ID of the photo
+     * @param delta +1 for favorite, -1 for unfavorite
+     * @return Number of rows updated (0 if photo not found or counter already 0)
+     */
+    @Modifying
+    @Query("""
+        UPDATE GalleryPhoto p SET p.favoriteCount = p.favoriteCount + :delta
+        WHERE p.id = :photoId AND p.favoriteCount + :delta >= 0
+        """)
+    int adjustFavoriteCount(@Param("photoId") Long photoId, @Param("delta") long delta);
+
+    /**
+     * Recompute like/favorite counters from source tables for an ID range
+     *
+     * Use case: EngagementCounterReconciler (scheduled job) memperbaiki drift,
+     * misalnya like yang terhapus via ON DELETE CASCADE saat user dihapus
+     * (cascade di database tidak lewat PhotoLikeService).
+     *
+     * Hanya row yang counter-nya SALAH yang di-update (WHERE ... <> ...),
+     * jadi run normal tidak menulis apapun.
+     *
+     * Delta di photo_counter_shards yang belum di-compact dikurangkan dulu:
+     * kolom counter = COUNT(*) - SUM(delta slot), supaya compaction berikutnya
+     * tidak menghitung like yang sama dua kali.
+     *
+     * Dijalankan per ID range supaya lock di gallery_photos pendek.
+     *
+     * @param fromId First photo ID of the range (inclusive)
+     * @param toId Last photo ID of the range (inclusive)
+     * @return Number of photos whose counters were corrected
      */
+    @Transactional
+    @Modifying
     @Query(value = """
-        SELECT p.*
-        FROM gallery_photos p
-        LEFT JOIN photo_likes pl ON p.id = pl.photo_id
-        LEFT JOIN photo_favorites pf ON p.id = pf.photo_id
-        WHERE p.is_public = TRUE
-        GROUP BY p.id
-        ORDER BY
-            CASE WHEN :sortBy = 'newest' THEN p.created_at END DESC,
-            CASE WHEN :sortBy = 'oldest' THEN p.created_at END ASC,
-            CASE WHEN :sortBy = 'mostLiked' THEN COUNT(DISTINCT pl.id) END DESC,
-            CASE WHEN :sortBy = 'mostFavorited' THEN COUNT(DISTINCT pf.id) END DESC,
-            p.created_at DESC
+        UPDATE gallery_photos p
+        SET like_count = c.like_count,
+            favorite_count = c.favorite_count
+        FROM (
+            SELECT g.id,
+                   GREATEST((SELECT COUNT(*) FROM photo_likes pl WHERE pl.photo_id = g.id)
+                            - COALESCE(SUM(s.like_delta), 0), 0) AS like_count,
+                   GREATEST((SELECT COUNT(*) FROM photo_favorites pf WHERE pf.photo_id = g.id)
+                            - COALESCE(SUM(s.favorite_delta), 0), 0) AS favorite_count
+            FROM gallery_photos g
+            LEFT JOIN photo_counter_shards s ON s.photo_id = g.id
+            WHERE g.id BETWEEN :fromId AND :toId
+            GROUP BY g.id
+        ) c
+        WHERE p.id = c.id
+          AND (p.like_count <> c.like_count OR p.favorite_count <> c.favorite_count)
+        """, nativeQuery = true)
+    int reconcileCounters(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Fold up to {@code limit} counter slot rows into like_count / favorite_count
+     *
+     * Use case: CounterShardCompactor (scheduled). Slot rows yang sedang dikunci
+     * oleh like yang belum commit di-skip (FOR UPDATE SKIP LOCKED), jadi compaction
+     * tidak pernah menunggu like dan like hanya menunggu satu batch pendek.
+     *
+     * Satu statement = satu transaksi: DELETE slot ... RETURNING delta, lalu UPDATE
+     * counter per foto dengan jumlah delta-nya (lihat EngagementWriteQueries.COMPACT_SHARDS).
+     *
+     * @param limit Maximum slot rows to drain
+     * @return Number of slot rows drained (less than limit = nothing left to fold)
+     */
+    @Transactional
+    @Query(value = EngagementWriteQueries.COMPACT_SHARDS, nativeQuery = true)
+    long compactCounterShards(@Param("limit") int limit);
+
+    /**
+     * Highest photo ID (null if table is empty)
+     *
+     * Use case: Batas atas loop reconciliation per ID range
+     *
+     * @return Max photo ID, or null if there are no photos
+     */
+    @Query("SELECT MAX(p.id) FROM GalleryPhoto p")
+    Long findMaxId();
+
+    /**
+     * Newest public photo IDs of a few owners, keyset by ID
+     *
+     * Use case: Timeline merge untuk akun dengan follower sangat banyak
+     * (tidak di-fan-out ke home_timeline saat upload, lihat TimelineService).
+     *
+     * Index: idx_gallery_user_public_id (user_id, id DESC) WHERE is_public = TRUE
+     *
+     * @param ownerIds Owners to read (small set)
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Number of IDs to read
+     * @return Photo IDs, highest first
+     */
+    @Query(value = """
+        SELECT p.id FROM gallery_photos p
+        WHERE p.user_id IN (:ownerIds) AND p.is_public = TRUE AND p.id < :beforeId
+        ORDER BY p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findPublicIdsByOwnersBefore(@Param("ownerIds") Collection<Long> ownerIds,
+                                           @Param("beforeId") Long beforeId,
+                                           @Param("limit") int limit);
+
+    /**
+     * Exponential decay of every non-zero hot score
+     *
+     * Use case: TrendingScoreUpdater, langkah pertama setiap run.
+     * factor = 0.5 ^ (waktu sejak run terakhir / half-life).
+     *
+     * Skor di bawah floor dibulatkan ke 0, jadi foto yang sudah tidak ramai
+     * keluar dari WHERE hot_score > 0 dan tidak di-UPDATE lagi di run berikutnya.
+     *
+     * Perkalian yang sama untuk semua foto tidak mengubah urutan trending;
+     * hanya foto yang jatuh ke 0 yang pindah posisi (tie-break by id).
+     *
+     * Important: Must use @Transactional in Service layer
+     *
+     * @param factor Multiplier in (0, 1]
+     * @param floor Scores below this become 0
+     * @return Number of photos that cooled down to 0 (trending order changed if > 0)
+     */
+    @Query(value = """
+        WITH decayed AS (
+            UPDATE gallery_photos
+            SET hot_score = CASE WHEN hot_score * :factor < :floor THEN 0 ELSE hot_score * :factor END
+            WHERE hot_score > 0
+            RETURNING hot_score
+        )
+        SELECT COUNT(*) FROM decayed WHERE hot_score = 0
+        """, nativeQuery = true)
+    long decayHotScores(@Param("factor") double factor, @Param("floor") double floor);
+
+    /**
+     * Add the decayed weight of new likes (id in (afterId, upToId]) to hot_score
+     *
+     * Use case: TrendingScoreUpdater, hanya like sejak checkpoint terakhir.
+     * Setiap like menyumbang weight × 0.5 ^ (umur like / half-life), dihitung
+     * terhadap :now (waktu yang sama dengan decay di run ini).
+     *
+     * Like yang lebih tua dari :horizon diabaikan (sumbangannya ~0),
+     * jadi run pertama tidak perlu meng-agregasi seluruh histori.
+     *
+     * Important: Must use @Transactional in Service layer
+     *
+     * @param afterId Last like ID already scored (exclusive)
+     * @param upToId Highest like ID to score in this run (inclusive)
+     * @param now Reference time of this run
+     * @param horizon Likes created before this are skipped
+     * @param halfLifeSeconds Half-life of a like's contribution
+     * @param weight Score of a brand-new like
+     * @return Number of photos whose score increased
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE gallery_photos p
+        SET hot_score = p.hot_score + h.heat
+        FROM (SELECT pl.photo_id,
+                     SUM(:weight * POWER(0.5, EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - pl.created_at)) / :halfLifeSeconds)) AS heat
+              FROM photo_likes pl
+              WHERE pl.id > :afterId AND pl.id <= :upToId AND pl.created_at >= :horizon
+              GROUP BY pl.photo_id) h
+        WHERE h.photo_id = p.id
+        """, nativeQuery = true)
+    int addLikeHeat(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                    @Param("now") LocalDateTime now, @Param("horizon") LocalDateTime horizon,
+                    @Param("halfLifeSeconds") double halfLifeSeconds, @Param("weight") double weight);
+
+    /**
+     * Add the decayed weight of new favorites (id in (afterId, upToId]) to hot_score
+     *
+     * Same as addLikeHeat, membaca photo_favorites.
+     *
+     * @param afterId Last favorite ID already scored (exclusive)
+     * @param upToId Highest favorite ID to score in this run (inclusive)
+     * @param now Reference time of this run
+     * @param horizon Favorites created before this are skipped
+     * @param halfLifeSeconds Half-life of a favorite's contribution
+     * @param weight Score of a brand-new favorite
+     * @return Number of photos whose score increased
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE gallery_photos p
+        SET hot_score = p.hot_score + h.heat
+        FROM (SELECT pf.photo_id,
+                     SUM(:weight * POWER(0.5, EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - pf.created_at)) / :halfLifeSeconds)) AS heat
+              FROM photo_favorites pf
+              WHERE pf.id > :afterId AND pf.id <= :upToId AND pf.created_at >= :horizon
+              GROUP BY pf.photo_id) h
+        WHERE h.photo_id = p.id
         """, nativeQuery = true)
-    List<GalleryPhoto> findPublicPhotosWithCounts(
-        @Param("sortBy") String sortBy,
-        Pageable pageable
-    );
+    int addFavoriteHeat(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                        @Param("now") LocalDateTime now, @Param("horizon") LocalDateTime horizon,
+                        @Param("halfLifeSeconds") double halfLifeSeconds, @Param("weight") double weight);
 
     /**
      * NOTES UNTUK PEMAHAMAN:
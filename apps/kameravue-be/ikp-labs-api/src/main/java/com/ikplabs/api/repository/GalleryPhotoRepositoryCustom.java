@@ -0,0 +1,106 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.dto.GalleryPhotoExportRow;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.util.GalleryCursor;
+import com.ikplabs.api.util.SearchCursor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * GalleryPhotoRepositoryCustom - Hand-written queries for GalleryPhotoRepository
+ *
+ * Spring Data JPA fragment: method di sini diimplementasikan manual di
+ * GalleryPhotoRepositoryImpl, lalu otomatis digabung ke GalleryPhotoRepository.
+ *
+ * Dipakai untuk feed queries yang punya statement berbeda per SortBy
+ * (lihat GalleryFeedQueries), baik page mode (OFFSET) maupun keyset/seek mode.
+ *
+ * List endpoints membaca GRID ROWS, bukan entity: kolom kartu grid + nama owner
+ * dari satu JOIN, langsung jadi GalleryPhotoResponse. Tidak ada entity managed,
+ * tidak ada snapshot dirty-checking, tidak ada lazy SELECT users per foto.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface GalleryPhotoRepositoryCustom {
+
+    /**
+     * Offset page of a gallery feed with a statically ordered statement per SortBy
+     *
+     * Pengganti ORDER BY CASE WHEN :sortBy = ... : setiap mode punya ORDER BY sendiri
+     * yang cocok dengan partial index-nya, jadi database bisa index scan dan berhenti
+     * setelah offset + limit baris.
+     *
+     * Sort dari pageable DIABAIKAN - urutan ditentukan oleh sortBy.
+     *
+     * @param scope Which photos to read (public feed, owner, user's public photos)
+     * @param sortBy Sort mode
+     * @param pageable Page number and size
+     * @return Grid rows of the requested page in feed order (likeCount and viewer flags not set)
+     */
+    List<GalleryPhotoResponse> findFeedRows(GalleryFeedScope scope, SortBy sortBy, Pageable pageable);
+
+    /**
+     * Grid rows by primary key, in NO particular order
+     *
+     * Dipakai setelah ID sudah diketahui (PublicFeedIndex, keyset slice);
+     * caller yang mengurutkan ulang sesuai urutan ID.
+     *
+     * @param ids Photo IDs
+     * @return Grid rows of the photos that still exist (likeCount and viewer flags not set)
+     */
+    List<GalleryPhotoResponse> findGridRowsByIds(Collection<Long> ids);
+
+    /**
+     * Keyset (seek) page of a gallery feed
+     *
+     * Mengembalikan (id, sort key) untuk maksimal {@code limit} foto yang posisinya
+     * SETELAH cursor dalam urutan sortBy. Tidak ada OFFSET, jadi halaman ke-500
+     * sama murahnya dengan halaman pertama.
+     *
+     * Urutan selalu total: (sort key, id) dengan arah yang sama, supaya foto
+     * dengan sort key sama (misal like count sama) tidak terlewat/dobel.
+     *
+     * @param scope Which photos to read (public feed, owner, user's public photos)
+     * @param sortBy Sort mode
+     * @param after Position of the last row already returned (null = first page)
+     * @param limit Maximum rows to return (caller passes size + 1 to detect hasNext)
+     * @return Keys in feed order
+     */
+    List<GalleryFeedKey> findFeedKeys(GalleryFeedScope scope, SortBy sortBy, GalleryCursor after, int limit);
+
+    /**
+     * Keyset page of a full-text search over title + description, most relevant first
+     *
+     * Mengembalikan (id, rank) — rank = Float (ts_rank_cd) — untuk maksimal
+     * {@code limit} foto yang cocok dengan query dan posisinya SETELAH cursor
+     * dalam urutan (rank DESC, id DESC).
+     *
+     * @param query Search text as typed by the user (websearch syntax)
+     * @param viewerId Logged-in user (own private photos included), null = public only
+     * @param after Position of the last row already returned (null = first page)
+     * @param limit Maximum rows to return (caller passes size + 1 to detect hasNext)
+     * @return Keys in relevance order
+     */
+    List<GalleryFeedKey> searchKeys(String query, Long viewerId, SearchCursor after, int limit);
+
+    /**
+     * All photos of one owner as a forward-only stream (newest first)
+     *
+     * Dibaca lewat JDBC cursor dengan fetch size: driver mengambil baris per batch,
+     * baris skalar tidak masuk persistence context → memory tetap datar
+     * untuk ratusan ribu foto.
+     *
+     * Harus dipanggil DI DALAM transaksi (PostgreSQL hanya memakai cursor kalau
+     * autocommit off) dan stream WAJIB di-close (try-with-resources).
+     *
+     * @param ownerId Owner of the photos
+     * @return Export rows in (created_at DESC, id DESC) order
+     */
+    Stream<GalleryPhotoExportRow> streamOwnerExport(Long ownerId);
+}
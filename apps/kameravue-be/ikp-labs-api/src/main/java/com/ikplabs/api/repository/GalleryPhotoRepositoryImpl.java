@@ -0,0 +1,196 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.dto.GalleryPhotoExportRow;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.util.GalleryCursor;
+import com.ikplabs.api.util.SearchCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * GalleryPhotoRepositoryImpl - Implementation of GalleryPhotoRepositoryCustom
+ *
+ * Menjalankan statement statis dari GalleryFeedQueries (satu per scope + SortBy):
+ *
+ *   SELECT ... FROM gallery_photos p
+ *   WHERE {scope} [AND ({key}, p.id) < (:sortKey, :lastId)]   -- seek (cursor mode)
+ *   ORDER BY {key} DESC, p.id DESC
+ *   LIMIT :limit [OFFSET :offset]                              -- offset (page mode)
+ *
+ * Untuk oldest arah dibalik (ASC dan ">").
+ *
+ * Page mode dan lookup by ID membaca grid columns sebagai baris skalar
+ * (bukan entity) dan memetakannya langsung ke GalleryPhotoResponse.
+ * Export membaca baris yang sama lewat stream (JDBC cursor, fetch size).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class GalleryPhotoRepositoryImpl implements GalleryPhotoRepositoryCustom {
+
+    /**
+     * Rows per JDBC round trip while streaming an export
+     */
+    static final int EXPORT_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GalleryPhotoResponse> findFeedRows(GalleryFeedScope scope, SortBy sortBy, Pageable pageable) {
+        Query query = entityManager.createNativeQuery(GalleryFeedQueries.page(scope, sortBy));
+        bindScope(query, scope);
+        query.setParameter("limit", pageable.getPageSize());
+        query.setParameter("offset", pageable.getOffset());
+        return toGridRows(query.getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GalleryPhotoResponse> findGridRowsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = entityManager.createNativeQuery(GalleryFeedQueries.GRID_BY_IDS);
+        query.setParameter("ids", ids);
+        return toGridRows(query.getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GalleryFeedKey> findFeedKeys(GalleryFeedScope scope, SortBy sortBy, GalleryCursor after, int limit) {
+        String sql = after == null
+                ? GalleryFeedQueries.keysFirst(scope, sortBy)
+                : GalleryFeedQueries.keysAfter(scope, sortBy);
+
+        Query query = entityManager.createNativeQuery(sql);
+        bindScope(query, scope);
+        if (after != null) {
+            query.setParameter("sortKey", after.getSortKey());
+            query.setParameter("lastId", after.getId());
+        }
+        query.setParameter("limit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        List<GalleryFeedKey> keys = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            keys.add(new GalleryFeedKey(((Number) row[0]).longValue(), normalizeSortKey(row[1])));
+        }
+        return keys;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GalleryFeedKey> searchKeys(String query, Long viewerId, SearchCursor after, int limit) {
+        String sql;
+        if (viewerId == null) {
+            sql = after == null ? GalleryFeedQueries.SEARCH_PUBLIC_FIRST : GalleryFeedQueries.SEARCH_PUBLIC_AFTER;
+        } else {
+            sql = after == null ? GalleryFeedQueries.SEARCH_VIEWER_FIRST : GalleryFeedQueries.SEARCH_VIEWER_AFTER;
+        }
+
+        Query nativeQuery = entityManager.createNativeQuery(sql);
+        nativeQuery.setParameter("query", query);
+        if (viewerId != null) {
+            nativeQuery.setParameter("viewerId", viewerId);
+        }
+        if (after != null) {
+            nativeQuery.setParameter("rank", after.getRank());
+            nativeQuery.setParameter("lastId", after.getId());
+        }
+        nativeQuery.setParameter("limit", limit);
+
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<GalleryFeedKey> keys = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            keys.add(new GalleryFeedKey(((Number) row[0]).longValue(), ((Number) row[1]).floatValue()));
+        }
+        return keys;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<GalleryPhotoExportRow> streamOwnerExport(Long ownerId) {
+        Query query = entityManager.createNativeQuery(GalleryFeedQueries.OWNER_EXPORT);
+        query.setParameter("ownerId", ownerId);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return ((Stream<Object[]>) query.getResultStream()).map(GalleryPhotoRepositoryImpl::toExportRow);
+    }
+
+    private static void bindScope(Query query, GalleryFeedScope scope) {
+        if (scope.getOwnerId() != null) {
+            query.setParameter("ownerId", scope.getOwnerId());
+        }
+    }
+
+    /**
+     * Scalar rows (GalleryFeedQueries.GRID_COLUMNS order) → GalleryPhotoResponse
+     */
+    private static List<GalleryPhotoResponse> toGridRows(List<Object[]> rows) {
+        List<GalleryPhotoResponse> responses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            responses.add(new GalleryPhotoResponse(
+                    ((Number) row[0]).longValue(),   // id
+                    ((Number) row[1]).longValue(),   // user_id
+                    (String) row[2],                 // owner full_name
+                    (String) row[3],                 // title
+                    (String) row[4],                 // description preview
+                    (String) row[5],                 // file_path
+                    (Boolean) row[6],                // is_public
+                    toLocalDateTime(row[7]),         // created_at
+                    toLocalDateTime(row[8])          // updated_at
+            ));
+        }
+        return responses;
+    }
+
+    /**
+     * Scalar row (GalleryFeedQueries.OWNER_EXPORT order) → GalleryPhotoExportRow
+     */
+    private static GalleryPhotoExportRow toExportRow(Object[] row) {
+        return new GalleryPhotoExportRow(
+                ((Number) row[0]).longValue(),   // id
+                (String) row[1],                 // title
+                (String) row[2],                 // description (full)
+                (String) row[3],                 // file_path
+                (Boolean) row[4],                // is_public
+                ((Number) row[5]).longValue(),   // like_count
+                ((Number) row[6]).longValue(),   // favorite_count
+                toLocalDateTime(row[7]),         // created_at
+                toLocalDateTime(row[8])          // updated_at
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static Object normalizeSortKey(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue(); // hot_score (trending)
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value;
+    }
+}
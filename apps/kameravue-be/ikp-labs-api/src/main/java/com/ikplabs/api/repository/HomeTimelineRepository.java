@@ -0,0 +1,113 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.entity.HomeTimelineEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * HomeTimelineRepository - Materialized home timelines (home_timeline)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Setiap user punya kotak surat. Saat seseorang upload foto public, fotonya
+ * dimasukkan ke kotak surat SEMUA follower-nya (fan-out on write). Membaca
+ * timeline = membuka kotak surat sendiri, tidak perlu keliling ke semua followee.
+ *
+ * Semua write adalah satu statement INSERT ... SELECT / DELETE (tanpa loop di Java).
+ * NOT EXISTS membuat insert aman diulang (toggle privacy bolak-balik, follow ulang).
+ *
+ * Important: write methods must run inside a @Transactional service method
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Repository
+public interface HomeTimelineRepository extends JpaRepository<HomeTimelineEntry, HomeTimelineEntry.Key> {
+
+    /**
+     * Push a photo into the timeline of every follower of its owner
+     *
+     * Index: user_follows(followee_id)
+     *
+     * @return Number of timelines the photo was added to
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO home_timeline (user_id, photo_id)
+        SELECT f.follower_id, :photoId FROM user_follows f
+        WHERE f.followee_id = :ownerId
+          AND NOT EXISTS (SELECT 1 FROM home_timeline t
+                          WHERE t.user_id = f.follower_id AND t.photo_id = :photoId)
+        """, nativeQuery = true)
+    int fanOut(@Param("photoId") Long photoId, @Param("ownerId") Long ownerId);
+
+    /**
+     * Copy the newest public photos of a followee into a new follower's timeline
+     *
+     * Use case: Setelah follow, timeline langsung berisi foto terbaru followee
+     * (bukan hanya upload berikutnya).
+     *
+     * @return Number of photos added
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO home_timeline (user_id, photo_id)
+        SELECT :followerId, p.id FROM gallery_photos p
+        WHERE p.user_id = :followeeId AND p.is_public = TRUE
+          AND NOT EXISTS (SELECT 1 FROM home_timeline t
+                          WHERE t.user_id = :followerId AND t.photo_id = p.id)
+        ORDER BY p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    int backfill(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId, @Param("limit") int limit);
+
+    /**
+     * Remove a former followee's photos from a timeline (unfollow)
+     *
+     * @return Number of rows removed
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM home_timeline
+        WHERE user_id = :followerId
+          AND photo_id IN (SELECT p.id FROM gallery_photos p WHERE p.user_id = :followeeId)
+        """, nativeQuery = true)
+    int removeFollowee(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /**
+     * Remove a deleted photo from every timeline
+     *
+     * V8 punya FK ON DELETE CASCADE, tapi tabel yang dibuat ddl-auto dari
+     * HomeTimelineEntry tidak: tanpa ini baris foto yang sudah dihapus tetap
+     * terbaca dan halaman timeline kembali lebih pendek.
+     * Index: idx_home_timeline_photo_id (V8)
+     *
+     * @return Number of rows removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM home_timeline WHERE photo_id = :photoId", nativeQuery = true)
+    int removePhoto(@Param("photoId") Long photoId);
+
+    /**
+     * One keyset page of a timeline, newest first
+     *
+     * Index: primary key (user_id, photo_id) → range scan backwards, no sort
+     *
+     * @param userId Reader of the timeline
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Number of IDs to read (page size + 1 for hasNext)
+     * @return Photo IDs, highest first
+     */
+    @Query(value = """
+        SELECT t.photo_id FROM home_timeline t
+        WHERE t.user_id = :userId AND t.photo_id < :beforeId
+        ORDER BY t.photo_id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findPhotoIdsBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, @Param("limit") int limit);
+}
@@ -0,0 +1,20 @@
+package com.ikplabs.api.repository;
+
+/**
+ * PhotoCounterRow - Projection row (id, like_count, favorite_count) of a photo
+ *
+ * Dipakai EngagementCounters untuk mengisi (prime) dan mengoreksi counter
+ * in-memory dari kolom counter denormalized + delta photo_counter_shards yang
+ * belum di-compact, tanpa aggregate atas photo_likes / photo_favorites.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PhotoCounterRow {
+
+    Long getId();
+
+    Long getLikeCount();
+
+    Long getFavoriteCount();
+}
@@ -1,5 +1,6 @@
 package com.ikplabs.api.repository;
 
+import com.ikplabs.api.dto.GalleryPhotoResponse;
 import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.entity.PhotoFavorite;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,10 +46,13 @@ import java.util.Optional;
  * - delete() → Remove favorite
  * - findBy...() → Custom search queries
  *
+ * Favorite/unfavorite yang dipakai service: insertFavorite/deleteFavorite (PhotoFavoriteRepositoryCustom),
+ * satu statement INSERT/DELETE + counter update, tanpa save()/delete() entity.
+ *
  * @Repository = Spring otomatis buat instance (singleton)
  */
 @Repository
-public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Long> {
+public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Long>, PhotoFavoriteRepositoryCustom {
 
     /**
      * Find a favorite by photo ID and user ID
@@ -147,16 +153,22 @@ public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Lo
      * OPTIMIZED: Get favorited photos with JPQL (sortBy=newest)
      *
      * JPQL version avoids native SQL entity mapping issues.
+     * All four sort variants select grid rows through a constructor expression
+     * (GalleryFeedQueries.JPQL_GRID_ROW): no managed entities, owner name joined in.
      * Returns photos ordered by created_at DESC (newest first).
      *
      * PRIVACY: Only returns THIS user's favorites
      *
      * @param userId ID of the user (from JWT!)
      * @param pageable Pagination parameters
-     * @return List of favorited photos sorted by newest
+     * @return Grid rows of favorited photos sorted by newest
      */
-    @Query("SELECT pf.photo FROM PhotoFavorite pf WHERE pf.user.id = :userId ORDER BY pf.photo.createdAt DESC")
-    List<GalleryPhoto> findFavoritedPhotosByUserIdNewest(
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoFavorite pf JOIN pf.photo p JOIN p.user u
+        WHERE pf.user.id = :userId
+        ORDER BY p.createdAt DESC
+        """)
+    List<GalleryPhotoResponse> findFavoritedPhotosByUserIdNewest(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -170,10 +182,14 @@ public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Lo
      *
      * @param userId ID of the user (from JWT!)
      * @param pageable Pagination parameters
-     * @return List of favorited photos sorted by oldest
+     * @return Grid rows of favorited photos sorted by oldest
      */
-    @Query("SELECT pf.photo FROM PhotoFavorite pf WHERE pf.user.id = :userId ORDER BY pf.photo.createdAt ASC")
-    List<GalleryPhoto> findFavoritedPhotosByUserIdOldest(
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoFavorite pf JOIN pf.photo p JOIN p.user u
+        WHERE pf.user.id = :userId
+        ORDER BY p.createdAt ASC
+        """)
+    List<GalleryPhotoResponse> findFavoritedPhotosByUserIdOldest(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -182,20 +198,20 @@ public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Lo
      * OPTIMIZED: Get favorited photos with JPQL (sortBy=mostLiked)
      *
      * Returns photos ordered by like count DESC (most liked first).
-     * Uses subquery to count likes for each photo.
+     * Uses the denormalized like_count column (no per-photo subquery).
      *
      * PRIVACY: Only returns THIS user's favorites
      *
      * @param userId ID of the user (from JWT!)
      * @param pageable Pagination parameters
-     * @return List of favorited photos sorted by most liked
+     * @return Grid rows of favorited photos sorted by most liked
      */
-    @Query("""
-        SELECT pf.photo FROM PhotoFavorite pf
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoFavorite pf JOIN pf.photo p JOIN p.user u
         WHERE pf.user.id = :userId
-        ORDER BY (SELECT COUNT(pl) FROM PhotoLike pl WHERE pl.photo.id = pf.photo.id) DESC, pf.photo.createdAt DESC
+        ORDER BY p.likeCount DESC, p.createdAt DESC
         """)
-    List<GalleryPhoto> findFavoritedPhotosByUserIdMostLiked(
+    List<GalleryPhotoResponse> findFavoritedPhotosByUserIdMostLiked(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -204,20 +220,42 @@ public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Lo
      * OPTIMIZED: Get favorited photos with JPQL (sortBy=mostFavorited)
      *
      * Returns photos ordered by favorite count DESC (most favorited first).
-     * Uses subquery to count favorites for each photo.
+     * Uses the denormalized favorite_count column (no per-photo subquery).
      *
      * PRIVACY: Only returns THIS user's favorites
      *
      * @param userId ID of the user (from JWT!)
      * @param pageable Pagination parameters
-     * @return List of favorited photos sorted by most favorited
+     * @return Grid rows of favorited photos sorted by most favorited
      */
-    @Query("""
-        SELECT pf.photo FROM PhotoFavorite pf
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoFavorite pf JOIN pf.photo p JOIN p.user u
         WHERE pf.user.id = :userId
-        ORDER BY (SELECT COUNT(pf2) FROM PhotoFavorite pf2 WHERE pf2.photo.id = pf.photo.id) DESC, pf.photo.createdAt DESC
+        ORDER BY p.favoriteCount DESC, p.createdAt DESC
         """)
-    List<GalleryPhoto> findFavoritedPhotosByUserIdMostFavorited(
+    List<GalleryPhotoResponse> findFavoritedPhotosByUserIdMostFavorited(
+        @Param("userId") Long userId,
+        Pageable pageable
+    );
+
+    /**
+     * OPTIMIZED: Get favorited photos with JPQL (sortBy=trending)
+     *
+     * Returns photos ordered by hot score DESC (trending first).
+     * Uses the hot_score column maintained by TrendingScoreUpdater.
+     *
+     * PRIVACY: Only returns THIS user's favorites
+     *
+     * @param userId ID of the user (from JWT!)
+     * @param pageable Pagination parameters
+     * @return Grid rows of favorited photos sorted by trending
+     */
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoFavorite pf JOIN pf.photo p JOIN p.user u
+        WHERE pf.user.id = :userId
+        ORDER BY p.hotScore DESC, p.createdAt DESC
+        """)
+    List<GalleryPhotoResponse> findFavoritedPhotosByUserIdTrending(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -241,6 +279,84 @@ public interface PhotoFavoriteRepository extends JpaRepository<PhotoFavorite, Lo
         """, nativeQuery = true)
     long countFavoritedPhotosByUserId(@Param("userId") Long userId);
 
+    /**
+     * Highest favorite ID after a checkpoint among rows created before a cutoff
+     *
+     * Use case: TrendingScoreUpdater, batas atas favorite baru sejak checkpoint.
+     * ID sequence dibagikan saat INSERT tapi terlihat saat COMMIT (urutannya bisa
+     * beda), jadi batas atas hanya maju ke favorite yang sudah lebih tua dari commit lag:
+     * ID di bawahnya yang masih di transaksi lain sudah commit saat itu.
+     * Range scan primary key dari checkpoint saja (tidak membaca seluruh tabel).
+     *
+     * @param afterId Last favorite ID already scored (exclusive)
+     * @param cutoff Only favorites created before this move the upper bound
+     * @return Max favorite ID, or null if there is no such favorite
+     */
+    @Query("SELECT MAX(pf.id) FROM PhotoFavorite pf WHERE pf.id > :afterId AND pf.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("afterId") long afterId, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Batch aggregate favorites untuk banyak foto sekaligus (set-based hydration)
+     *
+     * Use case: Hydrate satu halaman gallery (12-50 foto) dengan SATU query,
+     * bukan countByPhotoId + existsByPhotoIdAndUserId per foto.
+     *
+     * Example:
+     * - Page berisi photo 10, 11, 12, viewer = 456
+     * - summarizeByPhotoIds([10, 11, 12], 456)
+     * - Returns: [(10, 5, 1), (12, 2, 0)]  → photo 11 tidak punya favorites (tidak ada row)
+     *
+     * Database Query:
+     * SELECT photo_id, COUNT(*), SUM(CASE WHEN user_id = 456 THEN 1 ELSE 0 END)
+     * FROM photo_favorites WHERE photo_id IN (10, 11, 12) GROUP BY photo_id
+     *
+     * Foto yang tidak muncul di hasil berarti count = 0 dan viewer flag = false.
+     * viewerId boleh null (anonymous) → viewerCount selalu 0.
+     *
+     * @param photoIds IDs of the photos on the current page (must not be empty)
+     * @param viewerId ID of the viewing user (nullable)
+     * @return One EngagementSummary row per photo that has at least one favorite
+     */
+    @Query("""
+        SELECT pf.photo.id AS photoId,
+               COUNT(pf) AS totalCount,
+               SUM(CASE WHEN pf.user.id = :viewerId THEN 1 ELSE 0 END) AS viewerCount
+        FROM PhotoFavorite pf
+        WHERE pf.photo.id IN :photoIds
+        GROUP BY pf.photo.id
+        """)
+    List<EngagementSummary> summarizeByPhotoIds(
+        @Param("photoIds") Collection<Long> photoIds,
+        @Param("viewerId") Long viewerId
+    );
+
+    /**
+     * Which of the given photos the user has favorited
+     *
+     * Use case: PhotoEngagementService.hydrate saat jumlah favorite dibaca dari
+     * EngagementCounters → hanya flag viewer yang masih perlu query.
+     * Lookup unique (photo_id, user_id) per foto, bukan COUNT semua row tiap foto.
+     *
+     * @param userId ID of the viewing user
+     * @param photoIds IDs of the photos on the current page (must not be empty)
+     * @return Subset of photoIds the user has favorited
+     */
+    @Query("SELECT pf.photo.id FROM PhotoFavorite pf WHERE pf.user.id = :userId AND pf.photo.id IN :photoIds")
+    List<Long> findFavoritedPhotoIds(@Param("userId") Long userId, @Param("photoIds") Collection<Long> photoIds);
+
+    /**
+     * IDs of every photo the user has favorited
+     *
+     * Use case: EngagementMemberships membangun set favorited per user sekali
+     * (lazy, lalu di-cache), supaya isFavoritedByUser tidak perlu query per foto.
+     * Index: idx_photo_favorites_user_id.
+     *
+     * @param userId ID of the user
+     * @return Photo IDs (unordered)
+     */
+    @Query("SELECT pf.photo.id FROM PhotoFavorite pf WHERE pf.user.id = :userId")
+    List<Long> findAllPhotoIdsByUserId(@Param("userId") Long userId);
+
     /**
      * Delete a favorite by photo ID and user ID
      *
@@ -0,0 +1,78 @@
+package com.ikplabs.api.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PhotoFavoriteRepositoryCustom - Single-statement favorite writes for PhotoFavoriteRepository
+ *
+ * Spring Data JPA fragment (pola sama dengan GalleryPhotoRepositoryCustom):
+ * diimplementasikan manual di PhotoFavoriteRepositoryImpl dengan statement dari
+ * EngagementWriteQueries. Satu round trip per favorite/unfavorite, tanpa me-load entity.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PhotoFavoriteRepositoryCustom {
+
+    /**
+     * Insert a favorite and increment the photo's favorite_count in one statement
+     * (or its counter slot row when counter shards are enabled)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy and created_at of the new favorite, or empty if nothing was
+     *         inserted (photo missing or not allowed, already favorited, user missing)
+     */
+    Optional<EngagementChange> insertFavorite(Long photoId, Long userId);
+
+    /**
+     * Delete a favorite and decrement the photo's favorite_count in one statement
+     * (or its counter slot row when counter shards are enabled)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy and created_at of the removed favorite, or empty if the user
+     *         had not favorited the photo (or the photo does not exist)
+     */
+    Optional<EngagementChange> deleteFavorite(Long photoId, Long userId);
+
+    /**
+     * Diagnose a rejected insertFavorite/deleteFavorite (only called on that failure path)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy, whether already favorited and whether the user exists,
+     *         or empty if the photo does not exist
+     */
+    Optional<EngagementTarget> findFavoriteTarget(Long photoId, Long userId);
+
+    /**
+     * Insert favorites on many photos and increment their favorite_count in one statement
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy and created_at, only for photos that got a new favorite
+     */
+    Map<Long, EngagementChange> insertFavorites(Collection<Long> photoIds, Long userId);
+
+    /**
+     * Delete favorites on many photos and decrement their favorite_count in one statement
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy and created_at, only for photos whose favorite was removed
+     */
+    Map<Long, EngagementChange> deleteFavorites(Collection<Long> photoIds, Long userId);
+
+    /**
+     * Diagnose many photos at once (bulk failure path, or validation in write-behind mode)
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy, whether already favorited and whether the user exists;
+     *         photos that do not exist have no entry
+     */
+    Map<Long, EngagementTarget> findFavoriteTargets(Collection<Long> photoIds, Long userId);
+}
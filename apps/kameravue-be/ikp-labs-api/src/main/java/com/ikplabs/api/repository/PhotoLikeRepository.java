@@ -1,5 +1,6 @@
 package com.ikplabs.api.repository;
 
+import com.ikplabs.api.dto.GalleryPhotoResponse;
 import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.entity.PhotoLike;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,10 +35,13 @@ import java.util.Optional;
  * - delete() → Remove like
  * - findBy...() → Custom search queries
  *
+ * Like/unlike yang dipakai service: insertLike/deleteLike (PhotoLikeRepositoryCustom),
+ * satu statement INSERT/DELETE + counter update, tanpa save()/delete() entity.
+ *
  * @Repository = Spring otomatis buat instance (singleton)
  */
 @Repository
-public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
+public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long>, PhotoLikeRepositoryCustom {
 
     /**
      * Find a like by photo ID and user ID
@@ -149,14 +155,20 @@ public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
      * OPTIMIZED: Get liked photos with JPQL (sortBy=newest)
      *
      * JPQL version avoids native SQL entity mapping issues.
+     * All four sort variants select grid rows through a constructor expression
+     * (GalleryFeedQueries.JPQL_GRID_ROW): no managed entities, owner name joined in.
      * Returns photos ordered by created_at DESC (newest first).
      *
      * @param userId ID of the user
      * @param pageable Pagination parameters
-     * @return List of liked photos sorted by newest
+     * @return Grid rows of liked photos sorted by newest
      */
-    @Query("SELECT pl.photo FROM PhotoLike pl WHERE pl.user.id = :userId ORDER BY pl.photo.createdAt DESC")
-    List<GalleryPhoto> findLikedPhotosByUserIdNewest(
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoLike pl JOIN pl.photo p JOIN p.user u
+        WHERE pl.user.id = :userId
+        ORDER BY p.createdAt DESC
+        """)
+    List<GalleryPhotoResponse> findLikedPhotosByUserIdNewest(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -168,10 +180,14 @@ public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
      *
      * @param userId ID of the user
      * @param pageable Pagination parameters
-     * @return List of liked photos sorted by oldest
+     * @return Grid rows of liked photos sorted by oldest
      */
-    @Query("SELECT pl.photo FROM PhotoLike pl WHERE pl.user.id = :userId ORDER BY pl.photo.createdAt ASC")
-    List<GalleryPhoto> findLikedPhotosByUserIdOldest(
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoLike pl JOIN pl.photo p JOIN p.user u
+        WHERE pl.user.id = :userId
+        ORDER BY p.createdAt ASC
+        """)
+    List<GalleryPhotoResponse> findLikedPhotosByUserIdOldest(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -180,18 +196,18 @@ public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
      * OPTIMIZED: Get liked photos with JPQL (sortBy=mostLiked)
      *
      * Returns photos ordered by like count DESC (most liked first).
-     * Uses subquery to count likes for each photo.
+     * Uses the denormalized like_count column (no per-photo subquery).
      *
      * @param userId ID of the user
      * @param pageable Pagination parameters
-     * @return List of liked photos sorted by most liked
+     * @return Grid rows of liked photos sorted by most liked
      */
-    @Query("""
-        SELECT pl.photo FROM PhotoLike pl
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoLike pl JOIN pl.photo p JOIN p.user u
         WHERE pl.user.id = :userId
-        ORDER BY (SELECT COUNT(pl2) FROM PhotoLike pl2 WHERE pl2.photo.id = pl.photo.id) DESC, pl.photo.createdAt DESC
+        ORDER BY p.likeCount DESC, p.createdAt DESC
         """)
-    List<GalleryPhoto> findLikedPhotosByUserIdMostLiked(
+    List<GalleryPhotoResponse> findLikedPhotosByUserIdMostLiked(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -200,18 +216,38 @@ public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
      * OPTIMIZED: Get liked photos with JPQL (sortBy=mostFavorited)
      *
      * Returns photos ordered by favorite count DESC (most favorited first).
-     * Uses subquery to count favorites for each photo.
+     * Uses the denormalized favorite_count column (no per-photo subquery).
      *
      * @param userId ID of the user
      * @param pageable Pagination parameters
-     * @return List of liked photos sorted by most favorited
+     * @return Grid rows of liked photos sorted by most favorited
      */
-    @Query("""
-        SELECT pl.photo FROM PhotoLike pl
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoLike pl JOIN pl.photo p JOIN p.user u
+        WHERE pl.user.id = :userId
+        ORDER BY p.favoriteCount DESC, p.createdAt DESC
+        """)
+    List<GalleryPhotoResponse> findLikedPhotosByUserIdMostFavorited(
+        @Param("userId") Long userId,
+        Pageable pageable
+    );
+
+    /**
+     * OPTIMIZED: Get liked photos with JPQL (sortBy=trending)
+     *
+     * Returns photos ordered by hot score DESC (trending first).
+     * Uses the hot_score column maintained by TrendingScoreUpdater.
+     *
+     * @param userId ID of the user
+     * @param pageable Pagination parameters
+     * @return Grid rows of liked photos sorted by trending
+     */
+    @Query(GalleryFeedQueries.JPQL_GRID_ROW + """
+         FROM PhotoLike pl JOIN pl.photo p JOIN p.user u
         WHERE pl.user.id = :userId
-        ORDER BY (SELECT COUNT(pf) FROM PhotoFavorite pf WHERE pf.photo.id = pl.photo.id) DESC, pl.photo.createdAt DESC
+        ORDER BY p.hotScore DESC, p.createdAt DESC
         """)
-    List<GalleryPhoto> findLikedPhotosByUserIdMostFavorited(
+    List<GalleryPhotoResponse> findLikedPhotosByUserIdTrending(
         @Param("userId") Long userId,
         Pageable pageable
     );
@@ -235,6 +271,101 @@ public interface PhotoLikeRepository extends JpaRepository<PhotoLike, Long> {
         """, nativeQuery = true)
     long countLikedPhotosByUserId(@Param("userId") Long userId);
 
+    /**
+     * Highest like ID after a checkpoint among rows created before a cutoff
+     *
+     * Use case: TrendingScoreUpdater, batas atas like baru sejak checkpoint.
+     * ID sequence dibagikan saat INSERT tapi terlihat saat COMMIT (urutannya bisa
+     * beda), jadi batas atas hanya maju ke like yang sudah lebih tua dari commit lag:
+     * ID di bawahnya yang masih di transaksi lain sudah commit saat itu.
+     * Range scan primary key dari checkpoint saja (tidak membaca seluruh tabel).
+     *
+     * @param afterId Last like ID already scored (exclusive)
+     * @param cutoff Only likes created before this move the upper bound
+     * @return Max like ID, or null if there is no such like
+     */
+    @Query("SELECT MAX(pl.id) FROM PhotoLike pl WHERE pl.id > :afterId AND pl.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("afterId") long afterId, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Likes per PUBLIC photo created since a point in time
+     *
+     * Use case: LikeLeaderboard, papan skor "minggu ini" (since = now - 7 hari).
+     * Range scan di idx_photo_likes_created_at, hanya like dalam window yang dibaca.
+     *
+     * @param since Lower bound of photo_likes.created_at (inclusive)
+     * @return One tally per public photo liked since then (unordered)
+     */
+    @Query("""
+        SELECT pl.photo.id AS photoId, COUNT(pl) AS likeCount
+        FROM PhotoLike pl
+        WHERE pl.createdAt >= :since AND pl.photo.isPublic = TRUE
+        GROUP BY pl.photo.id
+        """)
+    List<PhotoLikeTally> countPublicLikesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Batch aggregate likes untuk banyak foto sekaligus (set-based hydration)
+     *
+     * Use case: Hydrate satu halaman gallery (12-50 foto) dengan SATU query,
+     * bukan countByPhotoId + existsByPhotoIdAndUserId per foto.
+     *
+     * Example:
+     * - Page berisi photo 10, 11, 12, viewer = 456
+     * - summarizeByPhotoIds([10, 11, 12], 456)
+     * - Returns: [(10, 5, 1), (12, 2, 0)]  → photo 11 tidak punya likes (tidak ada row)
+     *
+     * Database Query:
+     * SELECT photo_id, COUNT(*), SUM(CASE WHEN user_id = 456 THEN 1 ELSE 0 END)
+     * FROM photo_likes WHERE photo_id IN (10, 11, 12) GROUP BY photo_id
+     *
+     * Foto yang tidak muncul di hasil berarti count = 0 dan viewer flag = false.
+     * viewerId boleh null (anonymous) → viewerCount selalu 0.
+     *
+     * @param photoIds IDs of the photos on the current page (must not be empty)
+     * @param viewerId ID of the viewing user (nullable)
+     * @return One EngagementSummary row per photo that has at least one like
+     */
+    @Query("""
+        SELECT pl.photo.id AS photoId,
+               COUNT(pl) AS totalCount,
+               SUM(CASE WHEN pl.user.id = :viewerId THEN 1 ELSE 0 END) AS viewerCount
+        FROM PhotoLike pl
+        WHERE pl.photo.id IN :photoIds
+        GROUP BY pl.photo.id
+        """)
+    List<EngagementSummary> summarizeByPhotoIds(
+        @Param("photoIds") Collection<Long> photoIds,
+        @Param("viewerId") Long viewerId
+    );
+
+    /**
+     * Which of the given photos the user has liked
+     *
+     * Use case: PhotoEngagementService.hydrate saat jumlah like dibaca dari
+     * EngagementCounters → hanya flag viewer yang masih perlu query.
+     * Lookup unique (photo_id, user_id) per foto, bukan COUNT semua row tiap foto.
+     *
+     * @param userId ID of the viewing user
+     * @param photoIds IDs of the photos on the current page (must not be empty)
+     * @return Subset of photoIds the user has liked
+     */
+    @Query("SELECT pl.photo.id FROM PhotoLike pl WHERE pl.user.id = :userId AND pl.photo.id IN :photoIds")
+    List<Long> findLikedPhotoIds(@Param("userId") Long userId, @Param("photoIds") Collection<Long> photoIds);
+
+    /**
+     * IDs of every photo the user has liked
+     *
+     * Use case: EngagementMemberships membangun set liked per user sekali
+     * (lazy, lalu di-cache), supaya isLikedByUser tidak perlu query per foto.
+     * Index: idx_photo_likes_user_id.
+     *
+     * @param userId ID of the user
+     * @return Photo IDs (unordered)
+     */
+    @Query("SELECT pl.photo.id FROM PhotoLike pl WHERE pl.user.id = :userId")
+    List<Long> findAllPhotoIdsByUserId(@Param("userId") Long userId);
+
     /**
      * Delete a like by photo ID and user ID
      *
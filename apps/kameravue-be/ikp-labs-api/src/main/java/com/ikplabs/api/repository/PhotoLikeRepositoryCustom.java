@@ -0,0 +1,78 @@
+package com.ikplabs.api.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PhotoLikeRepositoryCustom - Single-statement like writes for PhotoLikeRepository
+ *
+ * Spring Data JPA fragment (pola sama dengan GalleryPhotoRepositoryCustom):
+ * diimplementasikan manual di PhotoLikeRepositoryImpl dengan statement dari
+ * EngagementWriteQueries. Satu round trip per like/unlike, tanpa me-load entity.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PhotoLikeRepositoryCustom {
+
+    /**
+     * Insert a like and increment the photo's like_count in one statement
+     * (or its counter slot row when counter shards are enabled)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy and created_at of the new like, or empty if nothing was
+     *         inserted (photo missing or not allowed, already liked, user missing)
+     */
+    Optional<EngagementChange> insertLike(Long photoId, Long userId);
+
+    /**
+     * Delete a like and decrement the photo's like_count in one statement
+     * (or its counter slot row when counter shards are enabled)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy and created_at of the removed like, or empty if the user
+     *         had not liked the photo (or the photo does not exist)
+     */
+    Optional<EngagementChange> deleteLike(Long photoId, Long userId);
+
+    /**
+     * Diagnose a rejected insertLike/deleteLike (only called on that failure path)
+     *
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @return Owner, privacy, whether already liked and whether the user exists,
+     *         or empty if the photo does not exist
+     */
+    Optional<EngagementTarget> findLikeTarget(Long photoId, Long userId);
+
+    /**
+     * Insert likes on many photos and increment their like_count in one statement
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy and created_at, only for photos that got a new like
+     */
+    Map<Long, EngagementChange> insertLikes(Collection<Long> photoIds, Long userId);
+
+    /**
+     * Delete likes on many photos and decrement their like_count in one statement
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy and created_at, only for photos whose like was removed
+     */
+    Map<Long, EngagementChange> deleteLikes(Collection<Long> photoIds, Long userId);
+
+    /**
+     * Diagnose many photos at once (bulk failure path, or validation in write-behind mode)
+     *
+     * @param photoIds Distinct photo IDs
+     * @param userId User ID
+     * @return Photo ID → owner, privacy, whether already liked and whether the user exists;
+     *         photos that do not exist have no entry
+     */
+    Map<Long, EngagementTarget> findLikeTargets(Collection<Long> photoIds, Long userId);
+}
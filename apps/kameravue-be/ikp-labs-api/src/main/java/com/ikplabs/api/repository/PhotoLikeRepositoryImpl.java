@@ -0,0 +1,96 @@
+package com.ikplabs.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PhotoLikeRepositoryImpl - Implementation of PhotoLikeRepositoryCustom
+ *
+ * Statement INSERT/DELETE ... RETURNING dibaca lewat getResultList (bukan
+ * executeUpdate) karena hasilnya baris: owner, privacy dan created_at.
+ *
+ * gallery.counter-shards.enabled → single write memakai versi *_SHARDED
+ * (delta ke slot photo_counter_shards, bukan UPDATE baris gallery_photos).
+ * Bulk write tetap meng-update kolom counter langsung; keduanya benar karena
+ * jumlah = kolom counter + SUM(delta slot).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class PhotoLikeRepositoryImpl implements PhotoLikeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${gallery.counter-shards.enabled:false}")
+    private boolean sharded = false;
+
+    @Value("${gallery.counter-shards.count:16}")
+    private int shardCount = 16;
+
+    @Override
+    public Optional<EngagementChange> insertLike(Long photoId, Long userId) {
+        return EngagementChange.fromRows(sharded
+                ? runSharded(EngagementWriteQueries.LIKE_SHARDED, photoId, userId)
+                : run(EngagementWriteQueries.LIKE, photoId, userId));
+    }
+
+    @Override
+    public Optional<EngagementChange> deleteLike(Long photoId, Long userId) {
+        return EngagementChange.fromRows(sharded
+                ? runSharded(EngagementWriteQueries.UNLIKE_SHARDED, photoId, userId)
+                : run(EngagementWriteQueries.UNLIKE, photoId, userId));
+    }
+
+    @Override
+    public Optional<EngagementTarget> findLikeTarget(Long photoId, Long userId) {
+        return EngagementTarget.fromRows(run(EngagementWriteQueries.LIKE_TARGET, photoId, userId));
+    }
+
+    @Override
+    public Map<Long, EngagementChange> insertLikes(Collection<Long> photoIds, Long userId) {
+        return EngagementChange.byPhotoId(runMany(EngagementWriteQueries.LIKE_MANY, photoIds, userId));
+    }
+
+    @Override
+    public Map<Long, EngagementChange> deleteLikes(Collection<Long> photoIds, Long userId) {
+        return EngagementChange.byPhotoId(runMany(EngagementWriteQueries.UNLIKE_MANY, photoIds, userId));
+    }
+
+    @Override
+    public Map<Long, EngagementTarget> findLikeTargets(Collection<Long> photoIds, Long userId) {
+        return EngagementTarget.byPhotoId(runMany(EngagementWriteQueries.LIKE_TARGETS, photoIds, userId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> run(String sql, Long photoId, Long userId) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("photoId", photoId);
+        query.setParameter("userId", userId);
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> runSharded(String sql, Long photoId, Long userId) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("photoId", photoId);
+        query.setParameter("userId", userId);
+        query.setParameter("shard", EngagementWriteQueries.shard(userId, shardCount));
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> runMany(String sql, Collection<Long> photoIds, Long userId) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("photoIds", photoIds);
+        query.setParameter("userId", userId);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.ikplabs.api.repository;
+
+/**
+ * PhotoLikeTally - Projection row (photo_id, like count)
+ *
+ * Dipakai LikeLeaderboard untuk membangun papan skor in-memory:
+ * - All time: kolom like_count dari gallery_photos (tanpa aggregate)
+ * - Minggu ini: COUNT(*) atas photo_likes 7 hari terakhir, GROUP BY photo_id
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PhotoLikeTally {
+
+    /**
+     * @return ID foto
+     */
+    Long getPhotoId();
+
+    /**
+     * @return Jumlah like foto ini dalam periode yang di-query
+     */
+    Long getLikeCount();
+}
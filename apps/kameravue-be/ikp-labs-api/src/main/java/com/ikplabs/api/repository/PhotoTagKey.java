@@ -0,0 +1,17 @@
+package com.ikplabs.api.repository;
+
+/**
+ * PhotoTagKey - Projection row (tag, photo_id) of photo_tags
+ *
+ * Dipakai PhotoTagIndex untuk membangun bitmap per tag saat startup:
+ * dua kolom kecil per baris, tanpa entity.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PhotoTagKey {
+
+    String getTag();
+
+    Long getPhotoId();
+}
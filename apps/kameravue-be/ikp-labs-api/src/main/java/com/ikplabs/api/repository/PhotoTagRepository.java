@@ -0,0 +1,95 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.entity.PhotoTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * PhotoTagRepository - Tags of gallery photos (photo_tags)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Tabel ini adalah buku induk label foto. Pertanyaan "foto sunset + beach,
+ * tanpa night" TIDAK dijawab dengan membuka buku induk (join berlapis per tag),
+ * tapi oleh PhotoTagIndex yang menyalin buku induk ke memori sekali.
+ * Buku induk hanya dibuka untuk: edit tag, rebuild index, dan fallback
+ * selama index belum siap.
+ *
+ * Important: write methods must run inside a @Transactional service method
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Repository
+public interface PhotoTagRepository extends JpaRepository<PhotoTag, PhotoTag.Key> {
+
+    /**
+     * Tags of one photo, alphabetical
+     *
+     * Index: primary key (photo_id, tag)
+     */
+    @Query(value = "SELECT t.tag FROM photo_tags t WHERE t.photo_id = :photoId ORDER BY t.tag", nativeQuery = true)
+    List<String> findTagsByPhotoId(@Param("photoId") Long photoId);
+
+    /**
+     * Every (tag, photo_id) pair, grouped by tag with ascending photo IDs
+     *
+     * Use case: PhotoTagIndex build/refresh (startup + periodic).
+     * Urutan (tag, photo_id) = urutan yang dibutuhkan CompressedBitmap.of().
+     */
+    @Query(value = "SELECT t.tag AS tag, t.photo_id AS photoId FROM photo_tags t ORDER BY t.tag, t.photo_id",
+           nativeQuery = true)
+    List<PhotoTagKey> findAllKeys();
+
+    /**
+     * Remove all tags of a photo (first half of a tag replace)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM photo_tags WHERE photo_id = :photoId", nativeQuery = true)
+    int deleteByPhotoId(@Param("photoId") Long photoId);
+
+    /**
+     * Add one tag to a photo
+     *
+     * Native INSERT: entity dengan ID assigned lewat save() akan SELECT dulu (merge).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO photo_tags (photo_id, tag) VALUES (:photoId, :tag)", nativeQuery = true)
+    int insert(@Param("photoId") Long photoId, @Param("tag") String tag);
+
+    /**
+     * Fallback tag filter in SQL, newest first - only while PhotoTagIndex is unavailable
+     *
+     * Foto harus punya SEMUA tag include (GROUP BY + HAVING COUNT = jumlah tag)
+     * dan TIDAK ADA tag exclude. Index: idx_photo_tags_tag_photo + primary key.
+     *
+     * @param include Required tags (distinct, not empty)
+     * @param includeCount include.size()
+     * @param exclude Forbidden tags (never empty: pass a non-tag sentinel such as "" instead)
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Number of IDs to read (page size + 1 for hasNext)
+     * @return Public photo IDs, highest first
+     */
+    @Query(value = """
+        SELECT p.id FROM gallery_photos p
+        WHERE p.is_public = TRUE AND p.id < :beforeId
+          AND p.id IN (SELECT t.photo_id FROM photo_tags t
+                       WHERE t.tag IN (:include) AND t.photo_id < :beforeId
+                       GROUP BY t.photo_id HAVING COUNT(*) = :includeCount)
+          AND NOT EXISTS (SELECT 1 FROM photo_tags x
+                          WHERE x.photo_id = p.id AND x.tag IN (:exclude))
+        ORDER BY p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findPublicIdsByTags(@Param("include") Collection<String> include,
+                                   @Param("includeCount") long includeCount,
+                                   @Param("exclude") Collection<String> exclude,
+                                   @Param("beforeId") Long beforeId,
+                                   @Param("limit") int limit);
+}
@@ -0,0 +1,19 @@
+package com.ikplabs.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * PublicPhotoKey - Projection row (id, created_at) of a public photo
+ *
+ * Dipakai PublicFeedIndex untuk membangun index in-memory saat startup:
+ * hanya 2 kolom kecil per foto, tanpa entity, tanpa description/file path.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public interface PublicPhotoKey {
+
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+}
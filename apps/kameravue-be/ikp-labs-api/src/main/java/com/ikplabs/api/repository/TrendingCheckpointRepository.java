@@ -0,0 +1,16 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.entity.TrendingCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * TrendingCheckpointRepository - Data access for the trending job checkpoint
+ *
+ * Hanya dipakai TrendingScoreUpdater:
+ * - findById(TrendingCheckpoint.SINGLETON_ID) → posisi run terakhir
+ * - save(checkpoint) → simpan posisi baru di transaksi yang sama dengan UPDATE hot_score
+ */
+@Repository
+public interface TrendingCheckpointRepository extends JpaRepository<TrendingCheckpoint, Long> {
+}
@@ -0,0 +1,62 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.entity.UserFollow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * UserFollowRepository - Data access for the follow graph (user_follows)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Buku daftar langganan: siapa berlangganan majalah siapa.
+ *
+ * Index yang dipakai:
+ * - UNIQUE (follower_id, followee_id) → cek "sudah follow?", daftar followee seorang reader
+ * - (followee_id) → semua follower seorang uploader (fan-out, lihat HomeTimelineRepository)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Repository
+public interface UserFollowRepository extends JpaRepository<UserFollow, Long> {
+
+    /**
+     * Check if follower already follows followee
+     *
+     * SQL: SELECT COUNT(*) > 0 FROM user_follows WHERE follower_id = ? AND followee_id = ?
+     */
+    boolean existsByFollowerIdAndFolloweeId(Long followerId, Long followeeId);
+
+    /**
+     * Remove a follow
+     *
+     * Important: Must use @Transactional in Service layer
+     *
+     * @return Number of rows deleted (0 = was not following)
+     */
+    @Modifying
+    @Query("DELETE FROM UserFollow f WHERE f.follower.id = :followerId AND f.followee.id = :followeeId")
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /**
+     * Followees of a reader that are too large to fan out on write
+     *
+     * Use case: Timeline read merges their newest public photos at read time.
+     * Biasanya kosong atau beberapa ID saja (hanya akun yang sangat populer).
+     *
+     * @param followerId Reader of the timeline
+     * @param minFollowers Fan-out threshold (gallery.timeline.fan-out-max-followers)
+     * @return IDs of followed users with at least minFollowers followers
+     */
+    @Query("""
+        SELECT f.followee.id FROM UserFollow f
+        WHERE f.follower.id = :followerId AND f.followee.followerCount >= :minFollowers
+        """)
+    List<Long> findLargeFolloweeIds(@Param("followerId") Long followerId, @Param("minFollowers") long minFollowers);
+}
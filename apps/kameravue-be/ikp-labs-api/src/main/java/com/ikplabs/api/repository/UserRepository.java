@@ -2,9 +2,11 @@ package com.ikplabs.api.repository;
 
 import com.ikplabs.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -54,6 +56,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query(value = "SELECT COUNT(*) FROM users WHERE created_at >= CURRENT_DATE", nativeQuery = true)
     Long countUsersCreatedToday();
 
+    /**
+     * Atomically add delta to a user's follower counter
+     *
+     * Dipanggil TimelineService di transaksi yang sama dengan insert/delete
+     * user_follows (pola sama dengan GalleryPhotoRepository.adjustLikeCount).
+     * Counter tidak pernah turun di bawah 0 (guard di WHERE).
+     *
+     * @param userId ID of the followed user
+     * @param delta +1 for follow, -1 for unfollow
+     * @return Number of rows updated (0 if user not found or counter already 0)
+     */
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.followerCount = u.followerCount + :delta
+        WHERE u.id = :userId AND u.followerCount + :delta >= 0
+        """)
+    int adjustFollowerCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Decrement the follower counter of everyone a user follows
+     *
+     * Use case: Sebelum user dihapus. Row user_follows-nya ikut terhapus lewat
+     * ON DELETE CASCADE di database (tidak lewat TimelineService), jadi counter
+     * followee dikoreksi di sini.
+     *
+     * @param userId ID of the user about to be deleted
+     * @return Number of followees updated
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE users SET follower_count = follower_count - 1
+        WHERE follower_count > 0
+          AND id IN (SELECT f.followee_id FROM user_follows f WHERE f.follower_id = :userId)
+        """, nativeQuery = true)
+    int releaseFollowsOf(@Param("userId") Long userId);
+
     /*
      * Method auto-generated yang tersedia dari JpaRepository:
      *
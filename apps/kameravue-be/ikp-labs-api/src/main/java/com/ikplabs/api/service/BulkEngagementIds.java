@@ -0,0 +1,60 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.BulkEngagementRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BulkEngagementIds - Photo ID list handling shared by the bulk like / favorite methods
+ *
+ * Aturan sama dengan GalleryService.getPhotosByIds: null dan duplikat diabaikan,
+ * urutan request dipertahankan, kosong / terlalu banyak → IllegalArgumentException (400).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+final class BulkEngagementIds {
+
+    private BulkEngagementIds() {
+    }
+
+    /**
+     * @return Distinct non-null IDs in request order
+     * @throws IllegalArgumentException if no IDs or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     */
+    static List<Long> distinct(List<Long> photoIds) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (photoIds != null) {
+            for (Long id : photoIds) {
+                if (id != null) {
+                    distinct.add(id);
+                }
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("At least one photo id is required");
+        }
+        if (distinct.size() > BulkEngagementRequest.MAX_PHOTO_IDS) {
+            throw new IllegalArgumentException(
+                    "At most " + BulkEngagementRequest.MAX_PHOTO_IDS + " photo ids per request");
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * @return IDs the bulk statement did not change (the ones that need a diagnosis)
+     */
+    static List<Long> unchanged(List<Long> ids, Map<Long, ?> changed) {
+        List<Long> unchanged = new ArrayList<>();
+        for (Long id : ids) {
+            if (!changed.containsKey(id)) {
+                unchanged.add(id);
+            }
+        }
+        return unchanged;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * CounterShardCompactor - Periodic fold of photo_counter_shards into the counter columns
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Foto viral = satu kotak suara dengan ribuan orang antri memasukkan kertas.
+ * Dengan counter shards ada 16 kotak kecil per foto (kotak dipilih dari user ID),
+ * jadi antriannya terbagi 16. Petugas ini setiap detik mengosongkan kotak-kotak
+ * kecil dan menambahkan isinya ke papan skor utama (like_count / favorite_count).
+ *
+ * Kenapa perlu dikosongkan?
+ * - Sort mostLiked / mostFavorited dan leaderboard membaca kolom counter (index),
+ *   jadi kolom tidak boleh tertinggal lebih dari satu interval
+ * - Slot rows tidak tumbuh tanpa batas (paling banyak N baris per foto yang aktif)
+ *
+ * Cara kerja setiap run:
+ * - Batch demi batch (default 5000 slot rows), setiap batch = satu statement/transaksi
+ * - Slot yang sedang dikunci like yang belum commit di-skip (diambil run berikutnya)
+ * - Berhenti kalau batch tidak penuh (tidak ada sisa)
+ *
+ * Jumlah yang dilihat user tidak berubah saat compaction: EngagementCounters dan
+ * GalleryPhotoRepository.findCountersByIds selalu membaca kolom + SUM(delta slot).
+ * Yang bisa berubah hanya urutan sort mostLiked / mostFavorited, jadi hanya versi
+ * urutan itu yang dinaikkan (ETag dan cache feed lain tetap valid).
+ *
+ * Configuration (application.properties):
+ * - gallery.counter-shards.enabled     → like/favorite menulis ke slot rows (default off,
+ *                                        butuh tabel photo_counter_shards: V11 / PhotoCounterShard)
+ * - gallery.counter-shards.compact-ms  → interval compaction
+ * - gallery.counter-shards.batch-size  → slot rows per transaksi
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class CounterShardCompactor {
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Value("${gallery.counter-shards.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${gallery.counter-shards.batch-size:5000}")
+    private int batchSize = 5000;
+
+    /**
+     * Scheduled entry point
+     *
+     * Sharding dimatikan → tidak jalan. Slot rows yang tersisa tetap dihitung
+     * (findCountersByIds, reconcileCounters) dan di-fold setelah dinyalakan lagi.
+     */
+    @Scheduled(fixedDelayString = "${gallery.counter-shards.compact-ms:1000}",
+               initialDelayString = "${gallery.counter-shards.compact-ms:1000}")
+    public void scheduledCompact() {
+        if (enabled) {
+            compactAll();
+        }
+    }
+
+    /**
+     * Fold every slot row present at the start of the run into the counter columns
+     *
+     * @return Number of slot rows drained
+     */
+    public long compactAll() {
+        int limit = Math.max(1, batchSize);
+        long drained = 0L;
+        long batch;
+        do {
+            batch = galleryPhotoRepository.compactCounterShards(limit);
+            drained += batch;
+        } while (batch == limit);
+
+        if (drained > 0) {
+            // Counts shown to users are unchanged (column + slots); only the column-sorted order may move
+            galleryVersions.popularityChanged();
+        }
+        return drained;
+    }
+}
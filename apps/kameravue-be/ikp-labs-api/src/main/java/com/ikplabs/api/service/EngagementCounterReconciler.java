@@ -0,0 +1,83 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * EngagementCounterReconciler - Periodic repair of denormalized like/favorite counters
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Kasir toko mencatat setiap penjualan di buku kas (like_count +1 / -1).
+ * Tiap malam manajer menghitung ulang isi laci (COUNT(*) dari photo_likes)
+ * dan membetulkan buku kas kalau ada selisih.
+ *
+ * Kenapa bisa ada selisih?
+ * - User dihapus → like/favorite miliknya hilang via ON DELETE CASCADE
+ *   (langsung di database, tidak lewat PhotoLikeService)
+ * - Data lama sebelum kolom counter ada (juga di-backfill oleh migration V5)
+ * - Manual fix / script langsung ke database
+ *
+ * Cara kerja:
+ * - Jalan terjadwal (default 03:30 setiap hari, configurable)
+ * - Proses per ID range (default 1000 foto) → lock pendek, tidak blok like baru lama-lama
+ * - Hanya foto yang counter-nya salah yang di-update
+ *
+ * Configuration (application.properties):
+ * - gallery.counters.reconcile.cron        → jadwal cron
+ * - gallery.counters.reconcile.batch-size  → jumlah ID per batch
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class EngagementCounterReconciler {
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Value("${gallery.counters.reconcile.batch-size:1000}")
+    private int batchSize = 1000;
+
+    /**
+     * Scheduled entry point
+     *
+     * Cron "-" (disabled) didukung Spring, jadi job bisa dimatikan lewat property.
+     */
+    @Scheduled(cron = "${gallery.counters.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        long corrected = reconcileAll();
+        System.out.println("✅ Engagement counters reconciled: " + corrected + " photo(s) corrected");
+    }
+
+    /**
+     * Recompute like_count / favorite_count for every photo, batch by batch
+     *
+     * Setiap batch adalah transaksi sendiri (lihat GalleryPhotoRepository.reconcileCounters),
+     * jadi kalau job berhenti di tengah jalan, batch yang sudah selesai tetap tersimpan.
+     *
+     * @return Number of photos whose counters were corrected
+     */
+    public long reconcileAll() {
+        Long maxId = galleryPhotoRepository.findMaxId();
+        if (maxId == null) {
+            return 0L;
+        }
+
+        long step = Math.max(1, batchSize);
+        long corrected = 0L;
+        for (long fromId = 1; fromId <= maxId; fromId += step) {
+            corrected += galleryPhotoRepository.reconcileCounters(fromId, fromId + step - 1);
+        }
+        if (corrected > 0) {
+            galleryVersions.globalChanged();
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoCounterRow;
+import com.ikplabs.api.util.StripedCounterMap;
+import com.ikplabs.api.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * EngagementCounters - Process-wide like/favorite counts per photo (striped, in memory)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu setiap kali ada yang bertanya "foto ini berapa like?", petugas turun
+ * ke gudang dan menghitung satu per satu (COUNT(*) atas photo_likes).
+ * Sekarang di setiap foto ada penghitung tangan: diisi sekali dari catatan
+ * gudang (kolom like_count / favorite_count), lalu diklik +1 / -1 setiap ada
+ * like/unlike. Sesekali petugas mencocokkan penghitung dengan catatan gudang.
+ *
+ * Lifecycle per foto:
+ * - Prime: dibaca pertama kali → satu query PK untuk semua foto yang belum ada
+ *   (GalleryPhotoRepository.findCountersByIds), + delta write-behind buffer
+ * - Update: PhotoLikeService / PhotoFavoriteService setelah commit (rollback = tidak dihitung)
+ * - Reconcile: berkala (default 60 detik) semua foto di memory dicocokkan dengan
+ *   kolom counter; foto yang dihapus dibuang. Kolom counter sendiri dikoreksi
+ *   terhadap photo_likes/photo_favorites oleh EngagementCounterReconciler.
+ * - Evict: lebih dari max-photos → foto yang paling lama tidak dibaca dibuang
+ *   (dibaca lagi = prime lagi)
+ *
+ * Konsistensi: like yang commit tepat di antara query prime dan penyimpanan
+ * hasilnya bisa terlewat; reconcile berikutnya memperbaikinya.
+ * Foto dengan like/favorite yang masih di write-behind buffer dilewati reconcile
+ * (kolom counter belum memuat event tersebut).
+ *
+ * Configuration (application.properties):
+ * - gallery.engagement-counters.enabled       → matikan (COUNT / GROUP BY query seperti dulu)
+ * - gallery.engagement-counters.max-photos    → batas jumlah foto di memory
+ * - gallery.engagement-counters.reconcile-ms  → interval reconcile
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class EngagementCounters {
+
+    /**
+     * Jumlah ID per query prime/reconcile (batas IN list)
+     */
+    static final int QUERY_CHUNK = 1000;
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Value("${gallery.engagement-counters.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.engagement-counters.max-photos:100000}")
+    private int maxPhotos = 100_000;
+
+    private StripedCounterMap counters;
+
+    @PostConstruct
+    void init() {
+        counters = new StripedCounterMap(Math.max(1, maxPhotos));
+    }
+
+    /**
+     * Whether counts should be read from here instead of COUNT queries
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Like count of one photo
+     *
+     * @return Count, or empty if disabled or the photo does not exist
+     */
+    public OptionalLong likeCount(Long photoId) {
+        StripedCounterMap.Counts counts = counts(List.of(photoId)).get(photoId);
+        return counts != null ? OptionalLong.of(counts.getLikes()) : OptionalLong.empty();
+    }
+
+    /**
+     * Like + favorite counts of several photos, priming the missing ones in one query
+     *
+     * @param photoIds Photo IDs (duplicates are ignored)
+     * @return Map of photo ID to counts; deleted photos are absent (empty map if disabled)
+     */
+    public Map<Long, StripedCounterMap.Counts> counts(Collection<Long> photoIds) {
+        Map<Long, StripedCounterMap.Counts> result = new HashMap<>();
+        if (!enabled || photoIds.isEmpty()) {
+            return result;
+        }
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(photoIds)) {
+            StripedCounterMap.Counts counts = counters.get(id);
+            if (counts != null) {
+                result.put(id, counts);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(from + QUERY_CHUNK, missing.size()));
+            for (PhotoCounterRow row : galleryPhotoRepository.findCountersByIds(chunk)) {
+                result.put(row.getId(), counters.prime(row.getId(),
+                        expected(EngagementKind.LIKE, row.getId(), row.getLikeCount()),
+                        expected(EngagementKind.FAVORITE, row.getId(), row.getFavoriteCount())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A like (+1) or unlike (-1) happened; counted after the surrounding transaction commits
+     */
+    public void recordLike(Long photoId, long delta) {
+        record(photoId, delta, 0);
+    }
+
+    /**
+     * A favorite (+1) or unfavorite (-1) happened; counted after the surrounding transaction commits
+     */
+    public void recordFavorite(Long photoId, long delta) {
+        record(photoId, 0, delta);
+    }
+
+    @Scheduled(initialDelayString = "${gallery.engagement-counters.reconcile-ms:60000}",
+               fixedDelayString = "${gallery.engagement-counters.reconcile-ms:60000}")
+    public void scheduledReconcile() {
+        int corrected = reconcile();
+        if (corrected > 0) {
+            System.out.println("✅ Engagement counters corrected in memory: " + corrected + " photo(s)");
+        }
+    }
+
+    /**
+     * Compare every loaded photo with its counter columns and fix drift
+     *
+     * Foto yang ditulis (like/unlike) setelah query chunk-nya dimulai tidak disentuh:
+     * nilai database-nya sudah ketinggalan, reconcile berikutnya yang mengecek.
+     *
+     * @return Number of photos corrected or dropped
+     */
+    public int reconcile() {
+        if (!enabled) {
+            return 0;
+        }
+        List<Long> keys = counters.keys();
+        int corrected = 0;
+        for (int from = 0; from < keys.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = keys.subList(from, Math.min(from + QUERY_CHUNK, keys.size()));
+            long readStart = System.nanoTime();
+            Set<Long> found = new HashSet<>();
+            for (PhotoCounterRow row : galleryPhotoRepository.findCountersByIds(chunk)) {
+                Long id = row.getId();
+                found.add(id);
+                if (engagementWriteBuffer.countDelta(EngagementKind.LIKE, id) != 0
+                        || engagementWriteBuffer.countDelta(EngagementKind.FAVORITE, id) != 0) {
+                    continue;
+                }
+                if (counters.correct(id, value(row.getLikeCount()), value(row.getFavoriteCount()), readStart)) {
+                    corrected++;
+                }
+            }
+            for (Long id : chunk) {
+                if (!found.contains(id)) {
+                    counters.remove(id); // photo deleted
+                    corrected++;
+                }
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * Number of photos currently in memory
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    private void record(Long photoId, long likeDelta, long favoriteDelta) {
+        if (!enabled || photoId == null) {
+            return;
+        }
+        // Not loaded → nothing to do: the next read primes from the committed columns
+        TransactionHooks.afterCommit(() -> counters.add(photoId, likeDelta, favoriteDelta));
+    }
+
+    private long expected(EngagementKind kind, Long photoId, Long stored) {
+        return value(stored) + engagementWriteBuffer.countDelta(kind, photoId);
+    }
+
+    private static long value(Long count) {
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,297 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.util.BloomFilter;
+import com.ikplabs.api.util.CompressedBitmap;
+import com.ikplabs.api.util.TransactionHooks;
+import com.ikplabs.api.util.WeightedLruCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EngagementMemberships - Per-user sets of liked / favorited photo IDs (in memory, LRU)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * "Sudah kamu like?" hampir selalu dijawab "belum". Dulu setiap pertanyaan =
+ * satu query EXISTS ke database. Sekarang setiap user (yang aktif) punya kartu
+ * berisi semua foto yang pernah dia like: jawaban dibaca dari kartu.
+ *
+ * Dua jenis kartu:
+ * - Exact (CompressedBitmap) → user biasa (≤ exact-max-ids foto):
+ *   jawaban ya/tidak pasti, tanpa SQL
+ * - Bloom filter → user berat (ribuan like): "pasti belum" tanpa SQL,
+ *   "mungkin sudah" → caller tetap query EXISTS. Unlike tidak bisa dihapus
+ *   dari Bloom filter, jadi foto yang di-unlike tetap "mungkin" (tetap benar, via SQL).
+ *
+ * Lifecycle:
+ * - Build lazy saat pertanyaan pertama (satu query semua photo ID milik user)
+ * - Update oleh PhotoLikeService / PhotoFavoriteService setelah commit, dan oleh
+ *   EngagementWriteBuffer.flush() setelah batch write-behind commit
+ * - Evict LRU berdasarkan perkiraan byte (WeightedLruCache), jadi heap tetap
+ *   terbatas walau ada jutaan user
+ *
+ * Race build vs write: setiap write menaikkan stamp (per stripe user) sebelum
+ * update kartu. Kartu yang selesai di-load hanya disimpan kalau stamp-nya
+ * tidak berubah selama query; kalau berubah, kartu dipakai sekali lalu dibuang.
+ *
+ * Foto yang dihapus tidak dibuang dari kartu (ON DELETE CASCADE di database);
+ * jawaban "sudah like" untuk foto yang tidak ada tidak pernah ditampilkan.
+ *
+ * Configuration (application.properties):
+ * - gallery.engagement-memberships.enabled        → matikan (selalu EXISTS query)
+ * - gallery.engagement-memberships.max-bytes      → batas total memory
+ * - gallery.engagement-memberships.exact-max-ids  → di atas ini pakai Bloom filter
+ * - gallery.engagement-memberships.bloom-fpp      → target false positive Bloom filter
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class EngagementMemberships {
+
+    /**
+     * Perkiraan byte per entry di luar set: key, node LinkedHashMap, wrapper
+     */
+    static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private static final int STAMP_STRIPES = 1024;
+
+    @Autowired
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Autowired
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @Value("${gallery.engagement-memberships.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.engagement-memberships.max-bytes:33554432}")
+    private long maxBytes = 32L * 1024 * 1024;
+
+    @Value("${gallery.engagement-memberships.exact-max-ids:20000}")
+    private int exactMaxIds = 20_000;
+
+    @Value("${gallery.engagement-memberships.bloom-fpp:0.01}")
+    private double bloomFpp = 0.01;
+
+    private WeightedLruCache<Key, Membership> memberships;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    /**
+     * Orders "stamp check + store" of a build against "stamp bump + update" of a write
+     */
+    private final Object writeLock = new Object();
+
+    @PostConstruct
+    void init() {
+        memberships = new WeightedLruCache<>(maxBytes, Membership::weight);
+    }
+
+    /**
+     * Has the user liked / favorited the photo, as far as memory can tell
+     *
+     * @return true/false if known for sure, empty if the caller must ask the database
+     *         (disabled, anonymous, or a Bloom filter "maybe")
+     */
+    public Optional<Boolean> isMember(EngagementKind kind, Long userId, Long photoId) {
+        if (!enabled || userId == null || photoId == null) {
+            return Optional.empty();
+        }
+        Key key = new Key(kind, userId);
+        Membership membership = memberships.get(key);
+        if (membership == null) {
+            membership = load(key);
+        }
+        return membership.answer(photoId);
+    }
+
+    /**
+     * A like/unlike or favorite/unfavorite happened; applied after the surrounding transaction commits
+     */
+    public void record(EngagementKind kind, Long userId, Long photoId, boolean engaged) {
+        if (!enabled || userId == null || photoId == null) {
+            return;
+        }
+        Key key = new Key(kind, userId);
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                stamps.incrementAndGet(stripe(userId));
+                memberships.computeIfPresent(key, membership -> membership.apply(photoId, engaged));
+            }
+        });
+    }
+
+    /**
+     * Number of users × kinds currently in memory
+     */
+    public int size() {
+        return memberships.size();
+    }
+
+    /**
+     * Estimated bytes currently used
+     */
+    public long weight() {
+        return memberships.weight();
+    }
+
+    private Membership load(Key key) {
+        long stamp = stamps.get(stripe(key.userId));
+        List<Long> photoIds = key.kind == EngagementKind.LIKE
+                ? photoLikeRepository.findAllPhotoIdsByUserId(key.userId)
+                : photoFavoriteRepository.findAllPhotoIdsByUserId(key.userId);
+        Membership loaded = photoIds.size() <= exactMaxIds
+                ? ExactMembership.of(photoIds)
+                : BloomMembership.of(photoIds, bloomFpp);
+        synchronized (writeLock) {
+            if (stamps.get(stripe(key.userId)) == stamp) {
+                memberships.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STAMP_STRIPES - 1);
+    }
+
+    private static final class Key {
+
+        private final EngagementKind kind;
+        private final Long userId;
+
+        Key(EngagementKind kind, Long userId) {
+            this.kind = kind;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, userId);
+        }
+    }
+
+    /**
+     * Set of photo IDs of one user and one kind
+     */
+    private abstract static class Membership {
+
+        /**
+         * @return true/false if certain, empty for "maybe"
+         */
+        abstract Optional<Boolean> answer(long photoId);
+
+        /**
+         * @return Membership after the write (null = drop, rebuilt on next access)
+         */
+        abstract Membership apply(long photoId, boolean engaged);
+
+        abstract long weight();
+    }
+
+    /**
+     * Immutable exact set: every write creates a new instance (copy-on-write per container)
+     */
+    private static final class ExactMembership extends Membership {
+
+        private final CompressedBitmap photoIds;
+
+        private ExactMembership(CompressedBitmap photoIds) {
+            this.photoIds = photoIds;
+        }
+
+        static ExactMembership of(List<Long> photoIds) {
+            CompressedBitmap.Builder builder = CompressedBitmap.builder();
+            photoIds.stream().mapToLong(Long::longValue).sorted().forEach(builder::add);
+            return new ExactMembership(builder.build());
+        }
+
+        @Override
+        Optional<Boolean> answer(long photoId) {
+            return Optional.of(photoIds.contains(photoId));
+        }
+
+        @Override
+        Membership apply(long photoId, boolean engaged) {
+            return new ExactMembership(engaged ? photoIds.with(photoId) : photoIds.without(photoId));
+        }
+
+        @Override
+        long weight() {
+            return ENTRY_OVERHEAD_BYTES + photoIds.sizeInBytes();
+        }
+    }
+
+    /**
+     * Bloom filter sized for twice the loaded IDs; dropped (rebuilt) once that room is used up
+     */
+    private static final class BloomMembership extends Membership {
+
+        private final BloomFilter filter;
+        private final long capacity;
+        private long added;
+
+        private BloomMembership(BloomFilter filter, long capacity, long added) {
+            this.filter = filter;
+            this.capacity = capacity;
+            this.added = added;
+        }
+
+        static BloomMembership of(List<Long> photoIds, double fpp) {
+            long capacity = 2L * photoIds.size();
+            BloomFilter filter = new BloomFilter(capacity, fpp);
+            for (Long photoId : photoIds) {
+                filter.add(photoId);
+            }
+            return new BloomMembership(filter, capacity, photoIds.size());
+        }
+
+        @Override
+        Optional<Boolean> answer(long photoId) {
+            return filter.mightContain(photoId) ? Optional.empty() : Optional.of(false);
+        }
+
+        /**
+         * Called under the cache lock (WeightedLruCache.computeIfPresent)
+         */
+        @Override
+        Membership apply(long photoId, boolean engaged) {
+            if (!engaged) {
+                return this; // cannot remove from a Bloom filter: stays "maybe"
+            }
+            if (++added > capacity) {
+                return null; // false positive rate would climb: rebuild at the real size
+            }
+            filter.add(photoId);
+            return this;
+        }
+
+        @Override
+        long weight() {
+            return ENTRY_OVERHEAD_BYTES + filter.sizeInBytes();
+        }
+    }
+}
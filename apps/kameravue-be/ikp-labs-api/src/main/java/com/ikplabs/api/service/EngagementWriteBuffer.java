@@ -0,0 +1,590 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementBatchRepository;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementTarget;
+import com.ikplabs.api.repository.EngagementWrite;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EngagementWriteBuffer - Optional write-behind mode for likes and favorites
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Saat foto viral, ribuan orang menekan ❤️ dalam beberapa detik. Tanpa buffer,
+ * setiap tekan = satu transaksi ke photo_likes + UPDATE baris gallery_photos yang SAMA
+ * (semua antri di row lock foto itu).
+ *
+ * Dengan buffer, kasir mencatat dulu di buku saku (journal di disk, fsync),
+ * bilang "sudah" ke pelanggan, lalu setiap beberapa milidetik menyetor semua
+ * catatan sekaligus ke bank (PostgreSQL) dalam satu transaksi batch.
+ *
+ * Alur satu like (PhotoLikeService, mode ini aktif):
+ * 1. Validasi: satu query diagnose (photo, privacy, owner, user) - sama seperti direct path
+ * 2. append(): cek sudah like (buffer dulu, lalu state database) → tulis baris journal
+ *    → update state in-memory → tunggu fsync → ack
+ * 3. flush() terjadwal (gallery.engagement-buffer.flush-ms): batch INSERT/DELETE +
+ *    satu UPDATE counter per foto (EngagementBatchRepository)
+ *
+ * Collapsing: state disimpan per (kind, photo, user) dengan BASELINE (state database
+ * saat event pertama masuk). Like lalu unlike sebelum flush → state akhir = baseline
+ * → tidak ada write sama sekali.
+ *
+ * Read paths melihat state buffer:
+ * - pendingState() → isLikedByUser / isFavoritedByUser
+ * - countDelta()   → getLikeCount dan PhotoEngagementService.hydrate (grid)
+ * Sort by like_count (mostLiked) baru berubah setelah flush.
+ *
+ * EngagementMemberships: set user yang di-load selama like masih di buffer dibaca
+ * dari database TANPA like itu. Setelah commit (sebelum overlay dilepas) flush()
+ * me-record ulang setiap pasangan yang ditulis: stamp naik dan set yang sudah
+ * di-cache ikut di-update, jadi tidak ada "belum like" basi setelah overlay hilang.
+ *
+ * Journal (gallery.engagement-buffer.journal-dir):
+ * - active.log   → event yang belum di-flush, satu baris per event
+ * - flushing.log → batch yang sedang di-flush (active.log di-rename saat flush mulai)
+ * Setelah commit, flushing.log dihapus. Setelah crash, kedua file di-replay saat
+ * startup SEBELUM buffer menerima event baru (INSERT ON CONFLICT / DELETE idempotent,
+ * counter dari row count → replay dua kali aman).
+ *
+ * fsync = group commit: request yang menunggu bersamaan berbagi satu force().
+ *
+ * Configuration (application.properties):
+ * - gallery.engagement-buffer.enabled      → default false (direct single-statement path)
+ * - gallery.engagement-buffer.flush-ms     → interval flush
+ * - gallery.engagement-buffer.journal-dir  → lokasi journal
+ *
+ * Hanya untuk SATU instance aplikasi: state buffer tidak terlihat instance lain.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class EngagementWriteBuffer {
+
+    private static final String ACTIVE_JOURNAL = "active.log";
+    private static final String FLUSHING_JOURNAL = "flushing.log";
+
+    @Autowired
+    private EngagementBatchRepository engagementBatchRepository;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Autowired
+    private PhotoDetailCache photoDetailCache;
+
+    @Autowired
+    private EngagementMemberships engagementMemberships;
+
+    @Value("${gallery.engagement-buffer.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${gallery.engagement-buffer.journal-dir:data/engagement-journal}")
+    private String journalDir = "data/engagement-journal";
+
+    /**
+     * Guards pending/flushing swaps, state updates and journal writes
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Guards fsync; always taken BEFORE lock (rotation needs both)
+     */
+    private final Object syncLock = new Object();
+
+    /**
+     * Pending + flushing batches, swapped together so a reader never sees one batch twice
+     */
+    private volatile Overlay overlay = new Overlay(new Batch(), null);
+
+    /**
+     * True once the journal was replayed and opened; until then services use the direct path
+     */
+    private volatile boolean active;
+
+    private Path directory;
+    private FileChannel journal;
+    private long writtenSeq;
+    private long durableSeq;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            directory = Paths.get(journalDir);
+            Files.createDirectories(directory);
+            replay();
+            journal = openJournal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open engagement journal in " + journalDir, e);
+        }
+        active = true;
+        System.out.println("✅ Engagement write-behind buffer active, journal: " + directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!active) {
+            return;
+        }
+        try {
+            flush();
+            flush(); // events that arrived during the first flush
+        } finally {
+            // Whatever did not reach the database stays in the journal for the next startup
+            active = false;
+            synchronized (syncLock) {
+                synchronized (lock) {
+                    closeQuietly(journal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether likes/favorites should go through append() instead of the direct statements
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Buffer one like/unlike or favorite/unfavorite
+     *
+     * Caller sudah memvalidasi photo/privacy/owner/user lewat target; di sini hanya
+     * "sudah like?" yang dicek, atomik terhadap event lain untuk pasangan yang sama.
+     *
+     * @param kind Like or favorite
+     * @param photoId Photo ID
+     * @param userId User ID
+     * @param engaged true = like/favorite, false = unlike/unfavorite
+     * @param target Database state of the photo and user (from find*Target)
+     * @return Owner, privacy and created_at (of the new like, or of the removed one),
+     *         or empty if the user already is in the requested state
+     * @throws UncheckedIOException if the journal cannot be written or synced
+     */
+    public Optional<EngagementChange> append(EngagementKind kind, Long photoId, Long userId,
+                                             boolean engaged, EngagementTarget target) {
+        Key key = new Key(kind, photoId, userId);
+        EngagementChange change;
+        long seq;
+        synchronized (lock) {
+            Entry previous = latest(key);
+            boolean current = previous != null ? previous.engaged : target.isEngaged();
+            if (current == engaged) {
+                return Optional.empty();
+            }
+            LocalDateTime at = engaged ? LocalDateTime.now()
+                    : previous != null ? previous.at : target.getEngagedAt();
+            Entry entry = new Entry(engaged, current, at, target.getOwnerId(), target.isPublic());
+            try {
+                journal.write(ByteBuffer.wrap(format(key, entry).getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write engagement journal", e);
+            }
+            seq = ++writtenSeq;
+            overlay.pending.put(key, entry);
+            change = new EngagementChange(target.getOwnerId(), target.isPublic(), at);
+        }
+        awaitDurable(seq);
+        return Optional.of(change);
+    }
+
+    /**
+     * Buffered state of one (photo, user), empty if nothing is buffered (ask the database)
+     */
+    public Optional<Boolean> pendingState(EngagementKind kind, Long photoId, Long userId) {
+        Entry entry = overlay.latest(new Key(kind, photoId, userId));
+        return entry != null ? Optional.of(entry.engaged) : Optional.empty();
+    }
+
+    /**
+     * Buffered change of a photo's like/favorite count, to add to the database count
+     */
+    public long countDelta(EngagementKind kind, Long photoId) {
+        PhotoKey key = new PhotoKey(kind, photoId);
+        Overlay current = overlay;
+        return current.pending.delta(key) + (current.flushing != null ? current.flushing.delta(key) : 0L);
+    }
+
+    /**
+     * Whether nothing is buffered (read paths can skip the overlay)
+     */
+    public boolean isEmpty() {
+        Overlay current = overlay;
+        return current.pending.entries.isEmpty()
+                && (current.flushing == null || current.flushing.entries.isEmpty());
+    }
+
+    @Scheduled(initialDelayString = "${gallery.engagement-buffer.flush-ms:50}",
+               fixedDelayString = "${gallery.engagement-buffer.flush-ms:50}")
+    public void scheduledFlush() {
+        if (!active) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Batch stays in flushing (and flushing.log): retried on the next tick
+            System.out.println("❌ Engagement flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write buffered events to the database
+     *
+     * 1. Swap pending → flushing dan rename active.log → flushing.log (event baru masuk ke file baru)
+     * 2. Satu transaksi batch (state akhir per pasangan, pasangan yang collapse dilewati)
+     * 3. Commit → hapus flushing.log, record ke EngagementMemberships, lepas overlay,
+ *    bump versions foto yang berubah
+     *
+     * Kalau langkah 2 gagal, batch tetap di flushing dan dicoba lagi tanpa swap baru.
+     *
+     * @return Number of like/favorite rows inserted or deleted
+     */
+    public synchronized int flush() {
+        if (!active) {
+            return 0;
+        }
+        Batch batch = overlay.flushing;
+        if (batch == null) {
+            synchronized (syncLock) {
+                synchronized (lock) {
+                    if (overlay.pending.entries.isEmpty()) {
+                        return 0;
+                    }
+                    rotateJournal();
+                    batch = overlay.pending;
+                    overlay = new Overlay(new Batch(), batch);
+                }
+            }
+        }
+
+        List<EngagementWrite> writes = new ArrayList<>();
+        for (Map.Entry<Key, Entry> event : batch.entries.entrySet()) {
+            Key key = event.getKey();
+            Entry entry = event.getValue();
+            if (entry.engaged != entry.baseline) {
+                writes.add(new EngagementWrite(key.kind, key.photoId, key.userId, entry.engaged, entry.at));
+            }
+        }
+        int changed = writes.isEmpty() ? 0 : engagementBatchRepository.applyBatch(writes);
+
+        try {
+            Files.deleteIfExists(directory.resolve(FLUSHING_JOURNAL));
+        } catch (IOException e) {
+            // Replaying a committed batch is harmless (idempotent), keep going
+            System.out.println("❌ Could not delete " + FLUSHING_JOURNAL + ": " + e.getMessage());
+        }
+        // Committed: fix membership sets loaded while these pairs were only in the overlay,
+        // before the overlay stops answering for them
+        for (EngagementWrite write : writes) {
+            engagementMemberships.record(write.getKind(), write.getUserId(), write.getPhotoId(), write.isEngaged());
+        }
+        synchronized (lock) {
+            overlay = new Overlay(overlay.pending, null);
+        }
+
+        // Reads between commit and this point may have counted a like twice (database + overlay)
+        Map<Long, Entry> photos = new LinkedHashMap<>();
+        for (Map.Entry<Key, Entry> event : batch.entries.entrySet()) {
+            photos.putIfAbsent(event.getKey().photoId, event.getValue());
+        }
+        for (Map.Entry<Long, Entry> photo : photos.entrySet()) {
+            galleryVersions.photoChanged(photo.getKey(), photo.getValue().ownerId, photo.getValue().isPublic);
+            photoDetailCache.evict(photo.getKey());
+        }
+        return changed;
+    }
+
+    /**
+     * Latest buffered entry of a pair: pending first, then the batch being flushed
+     */
+    private Entry latest(Key key) {
+        return overlay.latest(key);
+    }
+
+    /**
+     * Group commit: one force() covers every event written before it started
+     */
+    private void awaitDurable(long seq) {
+        synchronized (syncLock) {
+            if (durableSeq >= seq) {
+                return;
+            }
+            FileChannel channel;
+            long target;
+            synchronized (lock) {
+                channel = journal;
+                target = writtenSeq;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync engagement journal", e);
+            }
+            durableSeq = target;
+        }
+    }
+
+    /**
+     * active.log → flushing.log, new empty active.log (caller holds syncLock and lock)
+     */
+    private void rotateJournal() {
+        try {
+            journal.force(false);
+            journal.close();
+            durableSeq = writtenSeq;
+            Files.move(directory.resolve(ACTIVE_JOURNAL), directory.resolve(FLUSHING_JOURNAL),
+                    StandardCopyOption.ATOMIC_MOVE);
+            journal = openJournal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate engagement journal", e);
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(directory.resolve(ACTIVE_JOURNAL),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Apply flushing.log then active.log left by a crash, then delete them
+     *
+     * Baseline tidak diketahui setelah restart, jadi setiap pasangan ditulis
+     * dengan state akhirnya (idempotent); tidak ada collapse.
+     */
+    private void replay() throws IOException {
+        Map<Key, EngagementWrite> writes = new LinkedHashMap<>();
+        int events = 0;
+        for (String name : new String[] {FLUSHING_JOURNAL, ACTIVE_JOURNAL}) {
+            Path file = directory.resolve(name);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                EngagementWrite write = parse(line);
+                if (write != null) {
+                    writes.put(new Key(write.getKind(), write.getPhotoId(), write.getUserId()), write);
+                    events++;
+                }
+            }
+        }
+        if (!writes.isEmpty()) {
+            int changed = engagementBatchRepository.applyBatch(writes.values());
+            System.out.println("✅ Engagement journal replayed: " + events + " event(s), " + changed + " row(s) changed");
+        }
+        Files.deleteIfExists(directory.resolve(FLUSHING_JOURNAL));
+        Files.deleteIfExists(directory.resolve(ACTIVE_JOURNAL));
+    }
+
+    /**
+     * One journal line: "LIKE + 123 456 2026-10-16T10:15:30.123"
+     * (kind, +/-, photo ID, user ID, created_at of the like)
+     */
+    static String format(Key key, Entry entry) {
+        return key.kind + (entry.engaged ? " + " : " - ") + key.photoId + " " + key.userId + " "
+                + (entry.at != null ? entry.at : "-") + "\n";
+    }
+
+    /**
+     * @return The event, or null for a torn last line (crash during write)
+     */
+    static EngagementWrite parse(String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            EngagementKind kind = EngagementKind.valueOf(parts[0]);
+            boolean engaged = parts[1].equals("+");
+            LocalDateTime at = parts[4].equals("-") ? LocalDateTime.now() : LocalDateTime.parse(parts[4]);
+            return new EngagementWrite(kind, Long.parseLong(parts[2]), Long.parseLong(parts[3]), engaged, at);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    /**
+     * (kind, photo, user)
+     */
+    static final class Key {
+
+        final EngagementKind kind;
+        final Long photoId;
+        final Long userId;
+
+        Key(EngagementKind kind, Long photoId, Long userId) {
+            this.kind = kind;
+            this.photoId = photoId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && photoId.equals(other.photoId) && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, photoId, userId);
+        }
+    }
+
+    /**
+     * (kind, photo) for count deltas
+     */
+    private static final class PhotoKey {
+
+        final EngagementKind kind;
+        final Long photoId;
+
+        PhotoKey(EngagementKind kind, Long photoId) {
+            this.kind = kind;
+            this.photoId = photoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PhotoKey)) {
+                return false;
+            }
+            PhotoKey other = (PhotoKey) o;
+            return kind == other.kind && photoId.equals(other.photoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, photoId);
+        }
+    }
+
+    /**
+     * Latest buffered state of one pair
+     *
+     * baseline = state database saat event pertama pasangan ini masuk batch;
+     * engaged == baseline → collapse (tidak ada write).
+     */
+    static final class Entry {
+
+        final boolean engaged;
+        final boolean baseline;
+        final LocalDateTime at;
+        final Long ownerId;
+        final boolean isPublic;
+
+        Entry(boolean engaged, boolean baseline, LocalDateTime at, Long ownerId, boolean isPublic) {
+            this.engaged = engaged;
+            this.baseline = baseline;
+            this.at = at;
+            this.ownerId = ownerId;
+            this.isPublic = isPublic;
+        }
+
+        long contribution() {
+            return (engaged ? 1L : 0L) - (baseline ? 1L : 0L);
+        }
+    }
+
+    /**
+     * Events since the last flush started + batch being written to the database
+     *
+     * flushing = null when no flush is in progress (stays set after a failed flush,
+     * retried on the next tick). Replaced as a whole under lock, read without:
+     * one volatile read gives a consistent pair.
+     */
+    private static final class Overlay {
+
+        final Batch pending;
+        final Batch flushing;
+
+        Overlay(Batch pending, Batch flushing) {
+            this.pending = pending;
+            this.flushing = flushing;
+        }
+
+        Entry latest(Key key) {
+            Entry entry = pending.entries.get(key);
+            if (entry == null && flushing != null) {
+                entry = flushing.entries.get(key);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Entries + per-photo count deltas; written under lock, read without
+     */
+    private static final class Batch {
+
+        final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+        final Map<PhotoKey, Long> deltas = new ConcurrentHashMap<>();
+
+        /**
+         * Keep the first baseline of a pair, replace its state
+         */
+        void put(Key key, Entry entry) {
+            Entry old = entries.get(key);
+            Entry merged = old == null ? entry
+                    : new Entry(entry.engaged, old.baseline, entry.at, entry.ownerId, entry.isPublic);
+            entries.put(key, merged);
+            long change = merged.contribution() - (old != null ? old.contribution() : 0L);
+            if (change != 0) {
+                deltas.merge(new PhotoKey(key.kind, key.photoId), change, Long::sum);
+            }
+        }
+
+        long delta(PhotoKey key) {
+            Long delta = deltas.get(key);
+            return delta != null ? delta : 0L;
+        }
+    }
+}
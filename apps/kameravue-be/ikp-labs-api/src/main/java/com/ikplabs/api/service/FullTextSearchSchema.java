@@ -0,0 +1,117 @@
+package com.ikplabs.api.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * FullTextSearchSchema - Makes sure gallery_photos.search_vector exists before /search uses it
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Sebelum loket "cari buku" dibuka, petugas mengecek apakah katalog indeksnya
+ * sudah dicetak. Kalau belum dan mesin cetaknya ada (PostgreSQL), dicetak dulu.
+ * Kalau tetap tidak ada, loket ditutup dengan papan "sedang tidak tersedia" (503),
+ * bukan membiarkan setiap pengunjung mendapat error.
+ *
+ * search_vector adalah stored generated column (V9) yang tidak di-map di GalleryPhoto:
+ * tsvector + GENERATED ALWAYS tidak bisa dibuat Hibernate secara portable (H2 di test).
+ * Dengan ddl-auto=update dan tanpa migration runner, kolom itu tidak pernah dibuat,
+ * jadi saat startup:
+ * - Kolom ada → search aktif
+ * - Kolom tidak ada + PostgreSQL → jalankan DDL V9 (ADD COLUMN / CREATE INDEX IF NOT EXISTS)
+ * - Selain itu (database lain, DDL gagal, auto-create dimatikan) → search 503 + log ❌
+ *
+ * Configuration (application.properties):
+ * - gallery.search.auto-create-column → buat kolom + GIN index kalau belum ada
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-17
+ */
+@Component
+@DependsOn("entityManagerFactory") // ddl-auto has created / updated gallery_photos first
+public class FullTextSearchSchema {
+
+    /**
+     * Same statements as V9__add_gallery_photo_search_vector.sql (both idempotent)
+     */
+    static final String ADD_COLUMN = """
+        ALTER TABLE gallery_photos
+            ADD COLUMN IF NOT EXISTS search_vector tsvector
+            GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+                setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+            ) STORED
+        """;
+
+    static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_gallery_photos_search ON gallery_photos USING GIN (search_vector)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${gallery.search.auto-create-column:true}")
+    private boolean autoCreate = true;
+
+    private volatile boolean available;
+
+    @PostConstruct
+    public void check() {
+        try {
+            available = columnExists();
+            if (!available && autoCreate && isPostgreSql()) {
+                jdbcTemplate.execute(ADD_COLUMN);
+                jdbcTemplate.execute(CREATE_INDEX);
+                available = columnExists();
+                if (available) {
+                    System.out.println("✅ Full-text search: created gallery_photos.search_vector + GIN index");
+                }
+            }
+        } catch (DataAccessException e) {
+            available = false;
+            System.out.println("❌ Full-text search: could not prepare search_vector: " + e.getMessage());
+        }
+        if (!available) {
+            System.out.println("❌ Full-text search disabled: gallery_photos.search_vector is missing "
+                    + "(apply V9__add_gallery_photo_search_vector.sql), GET /api/gallery/search answers 503");
+        }
+    }
+
+    /**
+     * Whether GET /api/gallery/search can run its queries
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private boolean columnExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted identifiers: lower case in PostgreSQL, upper case in H2
+            return hasColumn(metaData, "gallery_photos", "search_vector")
+                    || hasColumn(metaData, "GALLERY_PHOTOS", "SEARCH_VECTOR");
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private static boolean hasColumn(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(null, null, table, column)) {
+            return columns.next();
+        }
+    }
+
+    private boolean isPostgreSql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
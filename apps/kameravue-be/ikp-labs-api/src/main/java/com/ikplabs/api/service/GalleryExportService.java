@@ -0,0 +1,88 @@
+package com.ikplabs.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ikplabs.api.dto.GalleryPhotoExportRow;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * GalleryExportService - Streams a user's whole gallery as NDJSON
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu untuk "fotokopi seluruh katalog", client membuka katalog halaman per halaman
+ * (GET /my-photos?page=N): setiap halaman = OFFSET query + COUNT(*) + GalleryListResponse.
+ * Sekarang petugas membaca rak dari depan ke belakang SEKALI (JDBC cursor) dan
+ * langsung menulis setiap foto sebagai satu baris JSON ke response.
+ *
+ * Format (application/x-ndjson): satu GalleryPhotoExportRow per baris, newest first.
+ *
+ * Memory tetap datar:
+ * - Database → driver: batch per fetch size (GalleryPhotoRepositoryImpl.EXPORT_FETCH_SIZE)
+ * - Baris skalar, bukan entity → tidak ada persistence context yang menumpuk
+ * - Response: Jackson menulis langsung ke OutputStream, tanpa List di memory
+ *
+ * Like/favorite count dibaca dari counter denormalized di baris yang sama
+ * (gallery_photos.like_count / favorite_count), jadi tetap satu pass.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class GalleryExportService {
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write all photos of a user to {@code out}, one JSON object per line
+     *
+     * Read-only transaction membungkus SELURUH penulisan: cursor PostgreSQL
+     * hanya hidup selama transaksi, jadi stream harus habis di dalam method ini.
+     * Dipanggil dari thread StreamingResponseBody (bukan thread request).
+     *
+     * @param userId Owner whose gallery is exported
+     * @param out Response body (not closed by this method)
+     * @return Number of photos written
+     * @throws IOException if the client disconnects or the stream cannot be written
+     */
+    @Transactional(readOnly = true)
+    public long exportUserPhotos(Long userId, OutputStream out) throws IOException {
+        // No flush per row (servlet buffer decides), no close of the servlet stream
+        ObjectWriter writer = objectMapper.writerFor(GalleryPhotoExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+
+        long written = 0;
+        try (Stream<GalleryPhotoExportRow> rows = galleryPhotoRepository.streamOwnerExport(userId);
+             SequenceWriter lines = writer.writeValues(out)) {
+            Iterator<GalleryPhotoExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                lines.write(it.next());
+                written++;
+            }
+        }
+        if (written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+
+        System.out.println("✅ Gallery exported: userId=" + userId + ", photos=" + written);
+        return written;
+    }
+}
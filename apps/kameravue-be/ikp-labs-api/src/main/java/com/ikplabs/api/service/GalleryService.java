@@ -1,19 +1,36 @@
 package com.ikplabs.api.service;
 
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.GalleryPhotoSlice;
 import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.entity.User;
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.event.GalleryEventBus;
 import com.ikplabs.api.exception.GalleryException;
 import com.ikplabs.api.exception.GalleryNotFoundException;
+import com.ikplabs.api.exception.SearchUnavailableException;
 import com.ikplabs.api.exception.UnauthorizedGalleryAccessException;
+import com.ikplabs.api.repository.GalleryFeedKey;
+import com.ikplabs.api.repository.GalleryFeedScope;
 import com.ikplabs.api.repository.GalleryPhotoRepository;
 import com.ikplabs.api.repository.UserRepository;
+import com.ikplabs.api.util.GalleryCursor;
+import com.ikplabs.api.util.SearchCursor;
+import com.ikplabs.api.util.TagQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 /**
  * GalleryService - Business logic for photo gallery operations
@@ -39,6 +56,16 @@ import java.util.List;
 @Service
 public class GalleryService {
 
+    /**
+     * Maximum number of photo IDs per bulk lookup (GET /api/gallery/photos?ids=...)
+     */
+    public static final int MAX_BULK_IDS = 100;
+
+    /**
+     * Maximum length of a search query (GET /api/gallery/search?q=...)
+     */
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     @Autowired
     private GalleryPhotoRepository galleryPhotoRepository;
 
@@ -48,6 +75,33 @@ public class GalleryService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PublicFeedIndex publicFeedIndex;
+
+    @Autowired
+    private LikeLeaderboard likeLeaderboard;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Autowired
+    private PhotoDetailCache photoDetailCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PhotoTagService photoTagService;
+
+    @Autowired
+    private PhotoTagIndex photoTagIndex;
+
+    @Autowired
+    private GalleryEventBus galleryEventBus;
+
+    @Autowired
+    private FullTextSearchSchema fullTextSearchSchema;
+
     /**
      * Upload new photo to gallery
      *
@@ -59,7 +113,10 @@ public class GalleryService {
      * 5. Save file to disk using the ID
      * 6. Update entity with file path
      * 7. Save again to persist file path
-     * 8. Return the photo entity
+     * 8. Keep in-memory public feed in sync
+     * 9. Bump ETag versions
+     * 10. Public photo → push into followers' home timelines
+     * 11. Return the photo entity
      *
      * Why save twice?
      * - Need photo ID for filename generation
@@ -107,6 +164,21 @@ public class GalleryService {
         // STEP 7: Save again to persist file path
         photo = galleryPhotoRepository.save(photo);
 
+        // STEP 8: Keep in-memory public feed and tag index in sync
+        publicFeedIndex.upsert(photo);
+        photoTagIndex.upsert(photo);
+
+        // STEP 9: New ETag for the owner's gallery (and the public feed if public)
+        galleryVersions.photoChanged(photo.getId(), userId, Boolean.TRUE.equals(photo.getIsPublic()));
+
+        // STEP 10: Fan-out on write to followers' home timelines
+        if (Boolean.TRUE.equals(photo.getIsPublic())) {
+            timelineService.onPhotoPublished(photo.getId(), userId);
+        }
+
+        // STEP 11: Tell event subscribers (after commit, off the request thread)
+        galleryEventBus.photoUploaded(photo.getId(), userId, Boolean.TRUE.equals(photo.getIsPublic()));
+
         System.out.println("✅ Photo uploaded successfully: " + photo.getId() + " for user " + userId);
 
         return photo;
@@ -118,17 +190,17 @@ public class GalleryService {
      * Returns ALL photos (public + private) because this is for the owner.
      * Used in "My Gallery" page.
      *
-     * OPTIMIZED: Uses single query with JOINs to get like/favorite counts.
-     * Solves N+1 problem - was 1 + N queries, now just 1 query!
+     * OPTIMIZED: Each sort mode has its own statically ordered statement
+     * (GalleryFeedQueries) backed by an index → index scan + LIMIT, no full sort.
+     * Reads grid rows (owner name joined in), not entities.
      *
      * @param userId ID of photo owner
-     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited)
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
      * @param pageable Pagination parameters
-     * @return List of photos (paginated and sorted with counts)
+     * @return Grid rows (paginated and sorted, like data not yet hydrated)
      */
-    public List<GalleryPhoto> getMyPhotos(Long userId, String sortBy, Pageable pageable) {
-        // Use optimized query with JOINs for like/favorite counts
-        return galleryPhotoRepository.findByUserIdWithCounts(userId, sortBy, pageable);
+    public List<GalleryPhotoResponse> getMyPhotos(Long userId, String sortBy, Pageable pageable) {
+        return galleryPhotoRepository.findFeedRows(GalleryFeedScope.owner(userId), SortBy.fromValue(sortBy), pageable);
     }
 
     /**
@@ -150,41 +222,69 @@ public class GalleryService {
      * Used in "Public Gallery" page.
      * Accessible by anyone (authenticated or anonymous).
      *
-     * OPTIMIZED: Uses single query with JOINs to get like/favorite counts.
-     * Solves N+1 problem for public gallery page.
+     * OPTIMIZED: Each sort mode has its own statically ordered statement
+     * (GalleryFeedQueries) backed by a partial index WHERE is_public = TRUE.
+     * First pages of newest/oldest are served from PublicFeedIndex (no sort query).
+     * Reads grid rows (owner name joined in), not entities.
      *
-     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited)
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
      * @param pageable Pagination parameters
-     * @return List of public photos (paginated and sorted with counts)
+     * @return Grid rows of public photos (paginated and sorted, like data not yet hydrated)
      */
-    public List<GalleryPhoto> getPublicPhotos(String sortBy, Pageable pageable) {
-        // Use optimized query with JOINs for like/favorite counts
-        return galleryPhotoRepository.findPublicPhotosWithCounts(sortBy, pageable);
+    public List<GalleryPhotoResponse> getPublicPhotos(String sortBy, Pageable pageable) {
+        SortBy mode = SortBy.fromValue(sortBy);
+
+        // Hot path: newest/oldest first pages → IDs from memory, rows by primary key
+        Optional<List<Long>> indexedIds = publicFeedIndex.page(mode, pageable.getOffset(), pageable.getPageSize());
+        if (indexedIds.isPresent()) {
+            return loadInOrder(indexedIds.get(), true);
+        }
+        return galleryPhotoRepository.findFeedRows(GalleryFeedScope.publicFeed(), mode, pageable);
     }
 
     /**
      * Count total PUBLIC photos
      *
      * Used for pagination metadata in Public Gallery.
+     * Served from PublicFeedIndex when available (no COUNT(*) query).
      *
      * @return Total number of public photos
      */
     public Long countPublicPhotos() {
+        OptionalLong indexed = publicFeedIndex.count();
+        if (indexed.isPresent()) {
+            return indexed.getAsLong();
+        }
         return galleryPhotoRepository.countByIsPublicTrue();
     }
 
+    /**
+     * Public photo count only if it is available WITHOUT a database query
+     *
+     * Used by count-free mode (?withTotal=false): total dari PublicFeedIndex
+     * kalau index sudah siap, selain itu kosong (total tidak ditampilkan).
+     *
+     * @return Public photo count from memory, or empty
+     */
+    public OptionalLong peekPublicPhotoCount() {
+        return publicFeedIndex.count();
+    }
+
     /**
      * Get user's PUBLIC photos only
      *
      * Returns only public photos for a specific user.
      * Used when viewing another user's gallery.
      *
+     * Always newest first (created_at DESC, id DESC), served by the
+     * partial index (user_id, created_at DESC, id DESC) WHERE is_public = TRUE.
+     *
      * @param userId ID of photo owner
-     * @param pageable Pagination parameters
-     * @return List of user's public photos (paginated)
+     * @param pageable Pagination parameters (page and size only)
+     * @return Grid rows of user's public photos (paginated, like data not yet hydrated)
      */
-    public List<GalleryPhoto> getUserPublicPhotos(Long userId, Pageable pageable) {
-        return galleryPhotoRepository.findByUserIdAndIsPublicTrue(userId, pageable);
+    public List<GalleryPhotoResponse> getUserPublicPhotos(Long userId, Pageable pageable) {
+        return galleryPhotoRepository.findFeedRows(GalleryFeedScope.userPublic(userId), SortBy.NEWEST, pageable);
     }
 
     /**
@@ -197,6 +297,273 @@ public class GalleryService {
         return galleryPhotoRepository.countByUserIdAndIsPublicTrue(userId);
     }
 
+    /**
+     * Get my photos - keyset (cursor) mode
+     *
+     * Sama seperti getMyPhotos() tapi pakai seek predicate, bukan OFFSET.
+     * Biaya per halaman konstan berapapun dalamnya halaman.
+     *
+     * @param userId ID of photo owner
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if cursor is invalid or size is less than 1
+     */
+    public GalleryPhotoSlice getMyPhotosAfter(Long userId, String sortBy, String cursor, int size) {
+        return seek(GalleryFeedScope.owner(userId), SortBy.fromValue(sortBy), cursor, size);
+    }
+
+    /**
+     * Get public photos - keyset (cursor) mode
+     *
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if cursor is invalid or size is less than 1
+     */
+    public GalleryPhotoSlice getPublicPhotosAfter(String sortBy, String cursor, int size) {
+        return seek(GalleryFeedScope.publicFeed(), SortBy.fromValue(sortBy), cursor, size);
+    }
+
+    /**
+     * Get user's PUBLIC photos - keyset (cursor) mode, newest first
+     *
+     * @param userId ID of photo owner
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if cursor is invalid or size is less than 1
+     */
+    public GalleryPhotoSlice getUserPublicPhotosAfter(Long userId, String cursor, int size) {
+        return seek(GalleryFeedScope.userPublic(userId), SortBy.NEWEST, cursor, size);
+    }
+
+    /**
+     * Keyset page: fetch size + 1 keys after the cursor, load entities by ID
+     *
+     * FLOW PROSES:
+     * 1. Decode cursor (validasi sortBy cocok)
+     * 2. Ambil size + 1 (id, sort key) → row ekstra = tanda masih ada halaman berikutnya
+     * 3. Load entity by primary key, susun ulang sesuai urutan feed
+     * 4. nextCursor dari row terakhir yang dikembalikan
+     */
+    private GalleryPhotoSlice seek(GalleryFeedScope scope, SortBy sortBy, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        GalleryCursor after = GalleryCursor.decode(cursor, sortBy);
+
+        List<GalleryFeedKey> keys = galleryPhotoRepository.findFeedKeys(scope, sortBy, after, size + 1);
+        boolean hasNext = keys.size() > size;
+        if (hasNext) {
+            keys = keys.subList(0, size);
+        }
+
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (GalleryFeedKey key : keys) {
+            ids.add(key.getId());
+        }
+        List<GalleryPhotoResponse> photos = loadInOrder(ids, false);
+
+        String nextCursor = null;
+        if (hasNext) {
+            GalleryFeedKey last = keys.get(keys.size() - 1);
+            nextCursor = GalleryCursor.encode(sortBy, last.getSortKey(), last.getId());
+        }
+        return new GalleryPhotoSlice(photos, nextCursor);
+    }
+
+    /**
+     * Load grid rows by primary key and return them in the given ID order
+     *
+     * Foto yang sudah dihapus (atau sudah jadi private, kalau publicOnly)
+     * di antara pencarian ID dan load ini dilewati.
+     */
+    private List<GalleryPhotoResponse> loadInOrder(List<Long> ids, boolean publicOnly) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, GalleryPhotoResponse> byId = new HashMap<>();
+        for (GalleryPhotoResponse row : galleryPhotoRepository.findGridRowsByIds(ids)) {
+            byId.put(row.getId(), row);
+        }
+        List<GalleryPhotoResponse> photos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            GalleryPhotoResponse row = byId.get(id);
+            if (row != null && (!publicOnly || Boolean.TRUE.equals(row.getIsPublic()))) {
+                photos.add(row);
+            }
+        }
+        return photos;
+    }
+
+    /**
+     * Get home timeline (public photos of followed users) - keyset mode, newest first
+     *
+     * ID foto dibaca dari home_timeline (lihat TimelineService), jadi satu
+     * halaman = satu range scan di primary key + satu load by ID.
+     * Cursor = ID foto terakhir halaman sebelumnya (desimal).
+     *
+     * @param userId Reader of the timeline
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if cursor is invalid or size is less than 1
+     */
+    public GalleryPhotoSlice getTimelineAfter(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        long beforeId = parseIdCursor(cursor);
+
+        List<Long> ids = timelineService.findTimelineIds(userId, beforeId, size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        // Foto yang sudah jadi private tetap di home_timeline, disaring di sini
+        List<GalleryPhotoResponse> photos = loadInOrder(ids, true);
+        String nextCursor = hasNext ? String.valueOf(ids.get(ids.size() - 1)) : null;
+        return new GalleryPhotoSlice(photos, nextCursor);
+    }
+
+    /**
+     * Get public photos matching a tag filter - keyset mode, newest first
+     *
+     * Filter dievaluasi di memori oleh PhotoTagIndex (intersection bitmap per tag
+     * dengan bitmap foto public), lalu satu load by ID untuk halaman ini.
+     * Selama index belum siap, PhotoTagService memakai satu query SQL sebagai fallback.
+     * Cursor = ID foto terakhir halaman sebelumnya (desimal), sama dengan timeline.
+     *
+     * @param query Tag filter, e.g. "sunset AND beach NOT night" (lihat TagQuery)
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if query or cursor is invalid or size is less than 1
+     */
+    public GalleryPhotoSlice getTaggedPhotosAfter(String query, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        TagQuery tagQuery = TagQuery.parse(query);
+        long beforeId = parseIdCursor(cursor);
+
+        List<Long> ids = photoTagService.findPublicPhotoIds(tagQuery, beforeId, size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        // Foto yang jadi private di antara query dan load ini dilewati
+        List<GalleryPhotoResponse> photos = loadInOrder(ids, true);
+        String nextCursor = hasNext ? String.valueOf(ids.get(ids.size() - 1)) : null;
+        return new GalleryPhotoSlice(photos, nextCursor);
+    }
+
+    /**
+     * Decimal photo ID cursor → exclusive upper bound (Long.MAX_VALUE for the first page)
+     */
+    private static long parseIdCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Search photos by title and description - keyset mode, most relevant first
+     *
+     * Full-text search di PostgreSQL (search_vector + GIN index, lihat V9),
+     * bukan LIKE '%q%'. Privacy sama dengan getPhotoById: foto public,
+     * plus foto private milik requester sendiri.
+     *
+     * @param query Search text (websearch syntax: kata, "frasa", -kecuali)
+     * @param cursor Cursor from previous response (null/blank = first page)
+     * @param size Photos per page
+     * @param requestingUserId ID of requesting user (null for anonymous)
+     * @return Slice with photos and nextCursor
+     * @throws IllegalArgumentException if query is blank/too long, cursor is invalid or size is less than 1
+     * @throws SearchUnavailableException if the database has no search_vector column (FullTextSearchSchema)
+     */
+    public GalleryPhotoSlice searchPhotos(String query, String cursor, int size, Long requestingUserId) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        String q = query != null ? query.trim() : "";
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (q.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        if (!fullTextSearchSchema.isAvailable()) {
+            throw new SearchUnavailableException("Search is temporarily unavailable");
+        }
+
+        List<GalleryFeedKey> keys = galleryPhotoRepository.searchKeys(q, requestingUserId, after, size + 1);
+        boolean hasNext = keys.size() > size;
+        if (hasNext) {
+            keys = keys.subList(0, size);
+        }
+
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (GalleryFeedKey key : keys) {
+            ids.add(key.getId());
+        }
+        // Foto yang jadi private di antara search dan load ini dilewati
+        List<GalleryPhotoResponse> photos = loadInOrder(ids, false);
+        photos.removeIf(row -> !canView(row.getIsPublic(), row.getUserId(), requestingUserId));
+
+        String nextCursor = null;
+        if (hasNext) {
+            GalleryFeedKey last = keys.get(keys.size() - 1);
+            nextCursor = SearchCursor.encode((Float) last.getSortKey(), last.getId());
+        }
+        return new GalleryPhotoSlice(photos, nextCursor);
+    }
+
+    /**
+     * Get many photos by ID with the same privacy rule as getPhotoById
+     *
+     * Satu query untuk semua ID (findGridRowsByIds, owner name sudah di-JOIN),
+     * lalu aturan privacy dicek per row di memory. Foto yang tidak ada atau
+     * tidak boleh dilihat dilewati (bukan 404/403 untuk seluruh batch), dan
+     * keduanya tidak dibedakan supaya keberadaan foto private tidak bocor.
+     *
+     * @param photoIds Requested IDs (order kept, duplicates and nulls ignored)
+     * @param requestingUserId ID of user requesting (null if anonymous)
+     * @return Visible photos in the requested order (likeCount and viewer flags not set)
+     * @throws IllegalArgumentException if no IDs or more than MAX_BULK_IDS distinct IDs
+     */
+    public List<GalleryPhotoResponse> getPhotosByIds(List<Long> photoIds, Long requestingUserId) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (photoIds != null) {
+            for (Long id : photoIds) {
+                if (id != null) {
+                    distinct.add(id);
+                }
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("At least one photo id is required");
+        }
+        if (distinct.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " photo ids per request");
+        }
+
+        List<GalleryPhotoResponse> photos = loadInOrder(new ArrayList<>(distinct), false);
+        photos.removeIf(row -> !canView(row.getIsPublic(), row.getUserId(), requestingUserId));
+        return photos;
+    }
+
     /**
      * Get photo by ID with privacy check
      *
@@ -216,37 +583,74 @@ public class GalleryService {
                 .orElseThrow(() -> new GalleryNotFoundException("Photo not found with id: " + photoId));
 
         // Privacy check
-        if (!photo.getIsPublic()) {
-            // Photo is private - only owner can view
-            if (requestingUserId == null || !photo.getUser().getId().equals(requestingUserId)) {
-                throw new UnauthorizedGalleryAccessException("You are not authorized to view this private photo. Only the owner can access private photos.");
-            }
-        }
+        checkCanView(photo.getIsPublic(), photo.getUser().getId(), requestingUserId);
 
         // Photo is public OR user is owner
         return photo;
     }
 
     /**
-     * Update photo metadata (title, description, privacy)
+     * Privacy check for a photo that is already loaded (entity or cached detail)
+     *
+     * Dipakai juga oleh GET /photo/{photoId} saat detail datang dari PhotoDetailCache:
+     * cache berlaku untuk semua viewer, jadi aturan private harus dicek per request.
+     *
+     * @param isPublic Privacy flag of the photo
+     * @param ownerId Owner of the photo
+     * @param requestingUserId ID of user requesting (null if anonymous)
+     * @throws UnauthorizedGalleryAccessException if private and not owner
+     */
+    public void checkCanView(Boolean isPublic, Long ownerId, Long requestingUserId) {
+        if (!canView(isPublic, ownerId, requestingUserId)) {
+            throw new UnauthorizedGalleryAccessException("You are not authorized to view this private photo. Only the owner can access private photos.");
+        }
+    }
+
+    /**
+     * Public photo → anyone; private photo → only the owner
+     */
+    private static boolean canView(Boolean isPublic, Long ownerId, Long requestingUserId) {
+        return Boolean.TRUE.equals(isPublic) || (requestingUserId != null && requestingUserId.equals(ownerId));
+    }
+
+    /**
+     * Update photo metadata (title, description, privacy) - tags unchanged
+     *
+     * @see #updatePhoto(Long, Long, String, String, Boolean, List)
+     */
+    public GalleryPhoto updatePhoto(
+            Long photoId,
+            Long userId,
+            String title,
+            String description,
+            Boolean isPublic) {
+        return updatePhoto(photoId, userId, title, description, isPublic, null);
+    }
+
+    /**
+     * Update photo metadata (title, description, privacy, tags)
      *
      * Authorization: Only owner can update their photos.
+     * Tag diganti seluruhnya (bukan ditambah); tag divalidasi sebelum apa pun ditulis.
      *
      * @param photoId ID of photo to update
      * @param userId ID of requesting user (must be owner)
      * @param title New title (optional)
      * @param description New description (optional)
      * @param isPublic New privacy setting (optional)
+     * @param tags Complete new tag list (optional, null = unchanged, empty = remove all)
      * @return Updated GalleryPhoto entity
      * @throws GalleryNotFoundException if photo not found
      * @throws UnauthorizedGalleryAccessException if unauthorized (not owner)
+     * @throws IllegalArgumentException if a tag is invalid or there are too many tags
      */
     public GalleryPhoto updatePhoto(
             Long photoId,
             Long userId,
             String title,
             String description,
-            Boolean isPublic) {
+            Boolean isPublic,
+            List<String> tags) {
 
         // Find photo or throw
         GalleryPhoto photo = galleryPhotoRepository.findById(photoId)
@@ -257,6 +661,9 @@ public class GalleryService {
             throw new UnauthorizedGalleryAccessException("You are not authorized to update this photo. Only the owner can edit their photos.");
         }
 
+        boolean wasPublic = Boolean.TRUE.equals(photo.getIsPublic());
+        List<String> normalizedTags = tags != null ? PhotoTagService.normalizeTags(tags) : null;
+
         // Update fields (only if provided)
         if (title != null) {
             photo.setTitle(title);
@@ -270,6 +677,24 @@ public class GalleryService {
 
         // Save and return
         photo = galleryPhotoRepository.save(photo);
+        if (normalizedTags != null) {
+            photoTagService.replaceTags(photoId, normalizedTags);
+            photoTagIndex.setTags(photoId, normalizedTags);
+        }
+        publicFeedIndex.upsert(photo);
+        photoTagIndex.upsert(photo);
+        if (!Boolean.TRUE.equals(photo.getIsPublic())) {
+            likeLeaderboard.forget(photoId);
+        }
+        galleryVersions.photoChanged(photoId, userId, wasPublic || Boolean.TRUE.equals(photo.getIsPublic()));
+        photoDetailCache.evict(photoId);
+        if (!wasPublic && Boolean.TRUE.equals(photo.getIsPublic())) {
+            timelineService.onPhotoPublished(photoId, userId);
+        }
+        if (wasPublic != Boolean.TRUE.equals(photo.getIsPublic())) {
+            // Same event as togglePrivacy: live streams of a now-private photo are closed
+            galleryEventBus.privacyToggled(photoId, userId, Boolean.TRUE.equals(photo.getIsPublic()));
+        }
 
         System.out.println("✅ Photo updated: " + photoId + " by user " + userId);
 
@@ -298,11 +723,24 @@ public class GalleryService {
             throw new UnauthorizedGalleryAccessException("You are not authorized to modify this photo. Only the owner can change privacy settings.");
         }
 
+        boolean wasPublic = Boolean.TRUE.equals(photo.getIsPublic());
+
         // Toggle privacy
         photo.togglePrivacy();
 
         // Save and return
         photo = galleryPhotoRepository.save(photo);
+        publicFeedIndex.upsert(photo);
+        photoTagIndex.upsert(photo);
+        if (!Boolean.TRUE.equals(photo.getIsPublic())) {
+            likeLeaderboard.forget(photoId);
+        }
+        galleryVersions.photoChanged(photoId, userId, wasPublic || Boolean.TRUE.equals(photo.getIsPublic()));
+        photoDetailCache.evict(photoId);
+        if (!wasPublic && Boolean.TRUE.equals(photo.getIsPublic())) {
+            timelineService.onPhotoPublished(photoId, userId);
+        }
+        galleryEventBus.privacyToggled(photoId, userId, Boolean.TRUE.equals(photo.getIsPublic()));
 
         System.out.println("✅ Privacy toggled for photo " + photoId + ": isPublic=" + photo.getIsPublic());
 
@@ -316,7 +754,8 @@ public class GalleryService {
      * 1. Find photo in database
      * 2. Check authorization (must be owner)
      * 3. Delete file from disk
-     * 4. Delete from database
+     * 4. Delete tags and timeline entries (no FK, rows would outlive the photo)
+     * 5. Delete from database
      *
      * Authorization: Only owner can delete their photos.
      *
@@ -340,8 +779,18 @@ public class GalleryService {
         String extension = extractExtension(photo.getFilePath());
         fileStorageService.deleteGalleryPhoto(userId, photoId, extension);
 
-        // STEP 4: Delete from database
+        // STEP 4: Delete tags + timeline entries (no FK cascade on photo_tags / home_timeline)
+        photoTagService.removeTags(photoId);
+        timelineService.onPhotoDeleted(photoId);
+
+        // STEP 5: Delete from database
         galleryPhotoRepository.delete(photo);
+        publicFeedIndex.remove(photoId);
+        photoTagIndex.remove(photoId);
+        likeLeaderboard.forget(photoId);
+        galleryVersions.photoChanged(photoId, userId, Boolean.TRUE.equals(photo.getIsPublic()));
+        photoDetailCache.evict(photoId);
+        galleryEventBus.photoDeleted(photoId, userId, Boolean.TRUE.equals(photo.getIsPublic()));
 
         System.out.println("✅ Photo deleted: " + photoId + " by user " + userId);
     }
@@ -0,0 +1,153 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.util.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GalleryVersions - Monotonic version counters for gallery feeds and photos
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Setiap rak di perpustakaan punya "nomor edisi" yang ditempel di depannya.
+ * Setiap kali isi rak berubah (buku masuk, keluar, atau diberi stiker baru),
+ * nomor edisinya naik. Pengunjung yang datang lagi cukup bilang
+ * "saya sudah punya edisi 42" — kalau nomornya masih 42, petugas tidak perlu
+ * membongkar rak sama sekali (HTTP 304 Not Modified).
+ *
+ * Counter yang ada:
+ * - public feed         → GET /api/gallery/public
+ * - per user gallery    → GET /api/gallery/my-photos, /api/gallery/user/{id}/public
+ * - per photo           → GET /api/gallery/photo/{id}
+ * - per urutan sort     → hanya feed dengan sortBy itu (trending: hot_score,
+ *                         mostLiked / mostFavorited: kolom counter)
+ * - global              → perubahan yang menyentuh banyak feed sekaligus
+ *                         (reconciler counter, nama owner)
+ *
+ * Siapa yang menaikkan:
+ * - GalleryService: upload, update, toggle privacy, delete
+ * - PhotoLikeService / PhotoFavoriteService: like/unlike, favorite/unfavorite
+ * - TrendingScoreUpdater → trending (hanya kalau urutan hot_score berubah)
+ * - CounterShardCompactor → popularity (delta slot masuk ke kolom counter)
+ * - EngagementCounterReconciler, UserService.updateUser → global
+ *
+ * Urutan penting: kalau ada transaksi aktif, counter baru dinaikkan SETELAH commit.
+ * Reader membaca versi SEBELUM membaca data (lihat GalleryETagInterceptor), jadi
+ * ETag tidak pernah menunjuk ke data yang lebih baru dari yang dikirim.
+ *
+ * Counter hanya hidup di memory satu proses. Epoch (waktu start) ikut masuk ETag,
+ * jadi restart tidak pernah menghasilkan ETag lama dengan isi berbeda.
+ * Entry per foto/user tidak pernah dihapus (foto yang dihapus tetap naik versinya,
+ * supaya ETag sebelum delete tidak cocok lagi).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class GalleryVersions {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong global = new AtomicLong();
+
+    private final AtomicLong publicFeed = new AtomicLong();
+
+    private final AtomicLong trending = new AtomicLong();
+
+    private final AtomicLong popularity = new AtomicLong();
+
+    private final Map<Long, AtomicLong> userGalleries = new ConcurrentHashMap<>();
+
+    private final Map<Long, AtomicLong> photos = new ConcurrentHashMap<>();
+
+    /**
+     * A photo (or its like/favorite data) changed
+     *
+     * @param photoId Changed photo
+     * @param ownerId Owner of the photo (their gallery feeds change too)
+     * @param publicFeedAffected true if the photo is, or just stopped being, public
+     */
+    public void photoChanged(Long photoId, Long ownerId, boolean publicFeedAffected) {
+        TransactionHooks.afterCommit(() -> {
+            bump(photos, photoId);
+            bump(userGalleries, ownerId);
+            if (publicFeedAffected) {
+                publicFeed.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Something changed that can show up in any feed or photo
+     */
+    public void globalChanged() {
+        TransactionHooks.afterCommit(global::incrementAndGet);
+    }
+
+    /**
+     * The order of sortBy=trending feeds changed (hot_score), nothing else did
+     */
+    public void trendingChanged() {
+        TransactionHooks.afterCommit(trending::incrementAndGet);
+    }
+
+    /**
+     * The order of sortBy=mostLiked / mostFavorited feeds changed (counter columns), nothing else did
+     */
+    public void popularityChanged() {
+        TransactionHooks.afterCommit(popularity::incrementAndGet);
+    }
+
+    /**
+     * Per-process epoch (start time), part of every ETag
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getGlobalVersion() {
+        return global.get();
+    }
+
+    public long getPublicFeedVersion() {
+        return publicFeed.get();
+    }
+
+    /**
+     * Version of the order behind a feed's sortBy (0 for orders that only change with the feed itself)
+     *
+     * @param sortBy sortBy query parameter, may be null or invalid
+     */
+    public long getSortVersion(String sortBy) {
+        if (SortBy.TRENDING.getValue().equals(sortBy)) {
+            return trending.get();
+        }
+        if (SortBy.MOST_LIKED.getValue().equals(sortBy) || SortBy.MOST_FAVORITED.getValue().equals(sortBy)) {
+            return popularity.get();
+        }
+        return 0;
+    }
+
+    public long getUserGalleryVersion(Long userId) {
+        return read(userGalleries, userId);
+    }
+
+    public long getPhotoVersion(Long photoId) {
+        return read(photos, photoId);
+    }
+
+    private static void bump(Map<Long, AtomicLong> versions, Long key) {
+        if (key != null) {
+            versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static long read(Map<Long, AtomicLong> versions, Long key) {
+        AtomicLong version = key != null ? versions.get(key) : null;
+        return version != null ? version.get() : 0;
+    }
+}
@@ -0,0 +1,211 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.LeaderboardEntry;
+import com.ikplabs.api.enums.LeaderboardPeriod;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.repository.PhotoLikeTally;
+import com.ikplabs.api.util.TopKCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LikeLeaderboard - In-memory "Top 50 most liked" boards (this week + all time)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Widget "Top 50" muncul di setiap home page. Dulu setiap kunjungan berarti
+ * petugas ke gudang (PostgreSQL) dan mengurutkan semua foto public by like_count.
+ * Sekarang ada dua papan skor di meja (TopKCounter):
+ * - ALL_TIME: diisi dari gallery_photos.like_count
+ * - WEEK: diisi dari photo_likes 7 hari terakhir
+ * Setiap like/unlike langsung menggeser papan skor; membaca papan = baca memori.
+ *
+ * Lifecycle:
+ * - Build saat ApplicationReadyEvent (request sebelum itu memicu build sendiri)
+ * - Update incremental oleh PhotoLikeService (like/unlike) dan GalleryService
+ *   (foto dihapus atau jadi private → dilupakan)
+ * - Rebuild berkala (default 10 menit):
+ *   * like yang sudah lewat 7 hari keluar dari papan WEEK
+ *   * foto yang kembali public masuk lagi
+ *   * koreksi perubahan di luar service ini (instance lain, cascade delete user)
+ *
+ * Update tidak pakai lock: counter atomic per foto + snapshot top-K yang
+ * diganti dengan compareAndSet (lihat TopKCounter). Like/unlike yang terjadi
+ * tepat saat rebuild sedang membaca database bisa terhitung 0 atau 2 kali
+ * di papan baru; rebuild berikutnya mengoreksinya.
+ *
+ * Configuration (application.properties):
+ * - gallery.leaderboard.size        → K (jumlah foto per papan, juga batas ?limit)
+ * - gallery.leaderboard.refresh-ms  → interval rebuild
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class LikeLeaderboard {
+
+    static final int WEEK_DAYS = 7;
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Value("${gallery.leaderboard.size:50}")
+    private int size = 50;
+
+    /**
+     * Current boards; null until the first build finishes
+     */
+    private volatile Boards boards;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${gallery.leaderboard.refresh-ms:600000}",
+               fixedDelayString = "${gallery.leaderboard.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        rebuild();
+    }
+
+    /**
+     * Reload both boards from the database and swap them atomically
+     *
+     * synchronized: startup build, scheduled refresh dan lazy build tidak pernah overlap.
+     */
+    public synchronized void rebuild() {
+        LocalDateTime weekSince = LocalDateTime.now().minusDays(WEEK_DAYS);
+        TopKCounter allTime = TopKCounter.of(size, toCounts(galleryPhotoRepository.findPublicLikeTallies()));
+        TopKCounter week = TopKCounter.of(size, toCounts(photoLikeRepository.countPublicLikesSince(weekSince)));
+        boards = new Boards(allTime, week, weekSince);
+        System.out.println("✅ Like leaderboard built: " + allTime.size() + " liked photo(s), "
+                + week.size() + " liked this week");
+    }
+
+    /**
+     * A photo received a like
+     */
+    public void recordLike(Long photoId) {
+        Boards current = boards;
+        if (current == null || photoId == null) {
+            return;
+        }
+        current.allTime.add(photoId, 1);
+        current.week.add(photoId, 1);
+    }
+
+    /**
+     * A photo lost a like
+     *
+     * @param likedAt When the removed like was created (decides whether the WEEK board counted it)
+     */
+    public void recordUnlike(Long photoId, LocalDateTime likedAt) {
+        Boards current = boards;
+        if (current == null || photoId == null) {
+            return;
+        }
+        current.allTime.add(photoId, -1);
+        if (likedAt != null && !likedAt.isBefore(current.weekSince)) {
+            current.week.add(photoId, -1);
+        }
+    }
+
+    /**
+     * Drop a photo from both boards (deleted or no longer public)
+     */
+    public void forget(Long photoId) {
+        Boards current = boards;
+        if (current == null || photoId == null) {
+            return;
+        }
+        current.allTime.remove(photoId);
+        current.week.remove(photoId);
+    }
+
+    /**
+     * Leaderboard rows, best first, with grid rows loaded by primary key
+     *
+     * Rows tanpa like data viewer (controller memanggil applyEngagement).
+     * Foto yang sudah tidak ada/tidak public di antara snapshot dan load dilewati.
+     *
+     * @param period Board to read
+     * @param limit Maximum number of entries (capped at gallery.leaderboard.size)
+     * @return Entries ranked 1..n
+     */
+    public List<LeaderboardEntry> getLeaderboard(LeaderboardPeriod period, int limit) {
+        Boards current = boards;
+        if (current == null) {
+            rebuild();
+            current = boards;
+        }
+        TopKCounter board = period == LeaderboardPeriod.WEEK ? current.week : current.allTime;
+        List<TopKCounter.Entry> top = board.top(limit);
+        if (top.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        for (TopKCounter.Entry entry : top) {
+            ids.add(entry.getKey());
+        }
+        Map<Long, GalleryPhotoResponse> byId = new HashMap<>();
+        for (GalleryPhotoResponse row : galleryPhotoRepository.findGridRowsByIds(ids)) {
+            byId.put(row.getId(), row);
+        }
+
+        List<LeaderboardEntry> entries = new ArrayList<>(top.size());
+        for (TopKCounter.Entry entry : top) {
+            GalleryPhotoResponse row = byId.get(entry.getKey());
+            if (row != null && Boolean.TRUE.equals(row.getIsPublic())) {
+                entries.add(new LeaderboardEntry(entries.size() + 1, entry.getCount(), row));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Maximum entries per board (upper bound for ?limit)
+     */
+    public int getSize() {
+        return size;
+    }
+
+    private static Map<Long, Long> toCounts(List<PhotoLikeTally> tallies) {
+        Map<Long, Long> counts = new HashMap<>(Math.max(16, tallies.size() * 2));
+        for (PhotoLikeTally tally : tallies) {
+            counts.put(tally.getPhotoId(), tally.getLikeCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Both boards + the lower bound of the WEEK window they were built with
+     */
+    private static final class Boards {
+
+        private final TopKCounter allTime;
+        private final TopKCounter week;
+        private final LocalDateTime weekSince;
+
+        Boards(TopKCounter allTime, TopKCounter week, LocalDateTime weekSince) {
+            this.allTime = allTime;
+            this.week = week;
+            this.weekSince = weekSince;
+        }
+    }
+}
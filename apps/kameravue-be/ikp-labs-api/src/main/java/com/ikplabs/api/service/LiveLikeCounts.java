@@ -0,0 +1,364 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.event.GalleryEvent;
+import com.ikplabs.api.event.GalleryEventListener;
+import com.ikplabs.api.event.GalleryEventType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LiveLikeCounts - Server-Sent Events fan-out of like counts for open photo pages
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Papan skor di stadion: penonton tidak perlu bertanya "skornya berapa?" setiap
+ * detik (polling GET /photo/{photoId}). Satu petugas melihat catatan gol
+ * (GalleryEventBus), dan paling sering sekali per detik menulis skor terbaru
+ * ke semua papan yang sedang ditonton untuk foto itu.
+ *
+ * Cara kerja:
+ * - subscribe() → SseEmitter per browser tab, disimpan per photoId; langsung
+ *   kirim count saat ini supaya halaman tidak menunggu like berikutnya
+ * - onEvents() (thread bus) → LIKED / UNLIKED untuk foto yang ditonton hanya
+ *   menandai photoId "dirty", tidak ada I/O di thread bus
+ * - flush() (satu scheduled thread = satu producer) → setiap window:
+ *   count dibaca SEKALI per foto dirty (EngagementCounters), JSON dibuat sekali,
+ *   lalu write ke semua emitter foto itu diserahkan ke sender pool
+ *
+ * Write ke socket TIDAK jalan di scheduled thread (thread itu dipakai bersama
+ * compactor, write-behind flush, reconciler, trending). Sender pool = beberapa
+ * daemon thread "live-likes-N" dengan antrian terbatas:
+ * - Paling banyak satu write per stream yang sedang jalan; kalau write sebelumnya
+ *   belum selesai saat event berikutnya datang, client terlalu lambat → stream
+ *   ditutup (EventSource reconnect dan mulai dari count terbaru)
+ * - Antrian penuh → stream yang tidak kebagian tempat dilepas (timeout menutupnya)
+ *
+ * Coalescing: 500 like dalam satu window = satu event "likes" per viewer.
+ *
+ * Koneksi idle tidak memegang thread: SseEmitter = async servlet request,
+ * request thread kembali ke pool setelah subscribe. Heartbeat (SSE comment)
+ * menjaga koneksi tetap hidup lewat proxy dan membersihkan tab yang sudah tutup.
+ *
+ * Foto dihapus atau dijadikan private → semua stream foto itu ditutup
+ * (owner yang masih membuka halaman tersambung ulang dan lolos cek privacy lagi).
+ *
+ * Configuration (application.properties):
+ * - gallery.live-likes.enabled       → matikan endpoint stream (503)
+ * - gallery.live-likes.window-ms     → maksimal satu update per foto per window
+ * - gallery.live-likes.timeout-ms    → umur maksimal satu stream (browser reconnect)
+ * - gallery.live-likes.heartbeat-ms  → interval SSE comment ke semua viewer
+ * - gallery.live-likes.max-watchers  → batas stream terbuka di instance ini
+ * - gallery.live-likes.sender-threads → thread yang menulis ke stream
+ * - gallery.live-likes.sender-queue  → write yang boleh menunggu sender thread
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class LiveLikeCounts implements GalleryEventListener {
+
+    static final String EVENT_NAME = "likes";
+
+    @Autowired
+    private PhotoLikeService photoLikeService;
+
+    @Value("${gallery.live-likes.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.live-likes.timeout-ms:1800000}")
+    private long timeoutMs = 1800000L;
+
+    @Value("${gallery.live-likes.heartbeat-ms:30000}")
+    private long heartbeatMs = 30000L;
+
+    @Value("${gallery.live-likes.max-watchers:10000}")
+    private int maxWatchers = 10000;
+
+    @Value("${gallery.live-likes.sender-threads:2}")
+    private int senderThreads = 2;
+
+    @Value("${gallery.live-likes.sender-queue:20000}")
+    private int senderQueue = 20000;
+
+    /**
+     * Runs every write to a stream (created in start(), tests run writes inline)
+     */
+    private Executor sender;
+
+    /**
+     * Open streams per photo
+     */
+    private final Map<Long, Set<Watcher>> watchers = new ConcurrentHashMap<>();
+
+    /**
+     * Watched photos whose like count changed since the last flush
+     */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Watched photos that were deleted or made private since the last flush
+     */
+    private final Set<Long> revoked = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger watcherCount = new AtomicInteger();
+
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    @PostConstruct
+    public void start() {
+        if (sender != null) {
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, senderThreads);
+        sender = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, senderQueue)),
+                task -> {
+                    Thread thread = new Thread(task, "live-likes-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sender instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * Open a stream for one viewer of a photo (access already checked by the caller)
+     *
+     * @param photoId Photo being viewed
+     * @param likeCount Current like count, sent as the first event
+     * @return Emitter, or empty if live counts are disabled or the watcher limit is reached
+     */
+    public Optional<SseEmitter> subscribe(Long photoId, long likeCount) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (watcherCount.incrementAndGet() > maxWatchers) {
+            watcherCount.decrementAndGet();
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = newEmitter();
+        Watcher watcher = new Watcher(emitter);
+        watchers.compute(photoId, (id, set) -> {
+            Set<Watcher> photoWatchers = set != null ? set : ConcurrentHashMap.newKeySet();
+            photoWatchers.add(watcher);
+            return photoWatchers;
+        });
+        emitter.onCompletion(() -> unsubscribe(photoId, watcher));
+        emitter.onTimeout(emitter::complete); // clean end of stream, EventSource reconnects
+        emitter.onError(e -> unsubscribe(photoId, watcher));
+
+        // Request thread: the first event is written here, not on the sender pool
+        send(photoId, watcher, SseEmitter.event().name(EVENT_NAME).data(json(photoId, likeCount)));
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Bus thread: remember which watched photos need a new count (no I/O here)
+     */
+    @Override
+    public void onEvents(List<GalleryEvent> events) {
+        for (GalleryEvent event : events) {
+            Long photoId = event.getPhotoId();
+            if (!watchers.containsKey(photoId)) {
+                continue;
+            }
+            GalleryEventType type = event.getType();
+            if (type == GalleryEventType.LIKED || type == GalleryEventType.UNLIKED) {
+                dirty.add(photoId);
+            } else if (type == GalleryEventType.PHOTO_DELETED
+                    || (type == GalleryEventType.PRIVACY_TOGGLED && !event.isPublic())) {
+                revoked.add(photoId);
+            }
+        }
+    }
+
+    /**
+     * Scheduled entry point: the single producer for every open stream (writes go to the sender pool)
+     */
+    @Scheduled(fixedDelayString = "${gallery.live-likes.window-ms:1000}")
+    public void scheduledFlush() {
+        if (enabled && !watchers.isEmpty()) {
+            flush(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Close revoked streams, push one count per dirty photo, and heartbeat when due
+     *
+     * @param now Current time in milliseconds
+     * @return Number of photos whose count was pushed
+     */
+    int flush(long now) {
+        for (Iterator<Long> it = revoked.iterator(); it.hasNext(); ) {
+            Long photoId = it.next();
+            it.remove();
+            dirty.remove(photoId);
+            Set<Watcher> photoWatchers = watchers.get(photoId);
+            if (photoWatchers != null) {
+                for (Watcher watcher : photoWatchers) {
+                    close(photoId, watcher);
+                }
+            }
+        }
+
+        int pushed = 0;
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long photoId = it.next();
+            it.remove();
+            Set<Watcher> photoWatchers = watchers.get(photoId);
+            if (photoWatchers == null || photoWatchers.isEmpty()) {
+                continue;
+            }
+            // One read and one JSON string per photo, whatever the number of viewers
+            String data = json(photoId, photoLikeService.getLikeCount(photoId));
+            for (Watcher watcher : photoWatchers) {
+                push(photoId, watcher, SseEmitter.event().name(EVENT_NAME).data(data));
+            }
+            pushed++;
+        }
+
+        if (now - lastHeartbeat >= heartbeatMs) {
+            lastHeartbeat = now;
+            watchers.forEach((photoId, photoWatchers) -> {
+                for (Watcher watcher : photoWatchers) {
+                    push(photoId, watcher, SseEmitter.event().comment("ping"));
+                }
+            });
+        }
+        return pushed;
+    }
+
+    /**
+     * Open streams on this instance
+     */
+    public int watcherCount() {
+        return watcherCount.get();
+    }
+
+    /**
+     * New async response (separate method so tests can observe sends)
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Hand one event to the sender pool; a stream still writing the previous one is too slow and is closed
+     */
+    private void push(Long photoId, Watcher watcher, SseEmitter.SseEventBuilder event) {
+        if (!watcher.writing.compareAndSet(false, true)) {
+            close(photoId, watcher);
+            return;
+        }
+        try {
+            sender.execute(() -> {
+                try {
+                    send(photoId, watcher, event);
+                } finally {
+                    watcher.writing.set(false);
+                    // close() came in while this write was running: it left the complete() to us
+                    if (watcher.closing && watcher.writing.compareAndSet(false, true)) {
+                        watcher.emitter.complete();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Sender queue full: stop writing to this stream (left "writing"), its timeout ends it
+            watcher.closing = true;
+            unsubscribe(photoId, watcher);
+        }
+    }
+
+    /**
+     * Stop sending to a stream and complete it once no write of it is running
+     * (complete() waits for a running send, so it never runs on the scheduled thread)
+     */
+    private void close(Long photoId, Watcher watcher) {
+        unsubscribe(photoId, watcher);
+        watcher.closing = true;
+        if (watcher.writing.compareAndSet(false, true)) {
+            try {
+                sender.execute(watcher.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Sender queue full: the stream timeout completes it
+            }
+        }
+    }
+
+    /**
+     * Send, or drop the emitter when the client is gone (the container completes it)
+     */
+    private void send(Long photoId, Watcher watcher, SseEmitter.SseEventBuilder event) {
+        try {
+            watcher.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(photoId, watcher);
+        }
+    }
+
+    /**
+     * Idempotent: completion, error, a failed send and close() may all report the same stream
+     */
+    private void unsubscribe(Long photoId, Watcher watcher) {
+        watchers.computeIfPresent(photoId, (id, photoWatchers) -> {
+            if (photoWatchers.remove(watcher)) {
+                watcherCount.decrementAndGet();
+            }
+            return photoWatchers.isEmpty() ? null : photoWatchers;
+        });
+    }
+
+    private static String json(Long photoId, long likeCount) {
+        return "{\"photoId\":" + photoId + ",\"likeCount\":" + likeCount + "}";
+    }
+
+    /**
+     * One open stream: at most one write of it queued or running at a time
+     */
+    private static final class Watcher {
+
+        final SseEmitter emitter;
+
+        /**
+         * A write (or the final complete()) of this stream is queued or running
+         */
+        final AtomicBoolean writing = new AtomicBoolean();
+
+        /**
+         * Unsubscribed; whoever holds "writing" last completes the emitter
+         */
+        volatile boolean closing;
+
+        Watcher(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoDetailResponse;
+import com.ikplabs.api.util.WeightedLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * PhotoDetailCache - Bounded LRU cache of the viewer-independent photo detail
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Foto populer dilihat ribuan kali. Dulu setiap kunjungan = petugas ke gudang:
+ * ambil foto, ambil data owner, hitung like (3+ query). Sekarang kartu detail foto
+ * (judul, owner, jumlah like) disimpan di laci meja. Yang masih ditanyakan per
+ * pengunjung hanya "sudah kamu like? sudah kamu favorite?" (kosong untuk anonymous).
+ *
+ * Isi entry: GalleryPhotoDetailResponse tanpa flag viewer (isLikedByUser /
+ * isFavoritedByUser selalu false di cache). Caller selalu menerima COPY,
+ * jadi merge flag viewer tidak pernah mengubah isi cache.
+ *
+ * Invalidation (dua lapis):
+ * 1. Explicit evict(photoId): GalleryService (update, toggle privacy, delete),
+ *    PhotoLikeService (like/unlike), PhotoFavoriteService (favorite/unfavorite)
+ * 2. Version stamp: entry menyimpan versi foto + global dari GalleryVersions yang
+ *    dibaca SEBELUM load. Entry dengan versi lama = miss. Ini menutup race
+ *    "reader load data lama → writer commit + evict → reader menyimpan data lama",
+ *    dan perubahan global (nama owner, reconciler) tanpa evict massal.
+ *
+ * Batas ukuran: total perkiraan byte (string × 2 + overhead per entry), bukan
+ * jumlah entry — deskripsi panjang memakan jatah lebih besar (WeightedLruCache).
+ *
+ * Metrics (Micrometer, tag cache=photoDetail, lihat /actuator/metrics):
+ * - cache.gets{result=hit|miss}
+ * - cache.puts
+ * - cache.evictions{cause=size|invalidated}
+ * - cache.size (entries), cache.weight (bytes), cache.hit.ratio
+ *
+ * Configuration (application.properties):
+ * - gallery.photo-detail-cache.max-bytes → batas total (0 = cache mati)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class PhotoDetailCache {
+
+    static final String CACHE_NAME = "photoDetail";
+
+    /**
+     * Perkiraan byte per entry di luar string: object header, boxed fields,
+     * dua LocalDateTime, node LinkedHashMap
+     */
+    static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    static final long TAG_OVERHEAD_BYTES = 48;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gallery.photo-detail-cache.max-bytes:16777216}")
+    private long maxBytes = 16L * 1024 * 1024;
+
+    private WeightedLruCache<Long, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        entries = new WeightedLruCache<>(maxBytes, entry -> entry.weight);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", this, cache -> cache.entries.evictions())
+                .tag("cache", CACHE_NAME).tag("cause", "size").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", invalidations, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("cache.size", this, PhotoDetailCache::size)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.weight", this, PhotoDetailCache::weight)
+                .tag("cache", CACHE_NAME).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, PhotoDetailCache::hitRatio)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Cached detail of a photo, or load + cache it
+     *
+     * Loader harus mengembalikan bagian yang TIDAK tergantung viewer
+     * (flag viewer diabaikan/di-reset). Exception dari loader (404/403) diteruskan
+     * dan tidak di-cache.
+     *
+     * @param photoId Photo to read
+     * @param loader Database load used on a miss
+     * @return Private copy (caller may set viewer flags on it)
+     */
+    public GalleryPhotoDetailResponse getOrLoad(Long photoId, Supplier<GalleryPhotoDetailResponse> loader) {
+        // Versions BEFORE the load: a write committed during the load makes this entry stale
+        long photoVersion = galleryVersions.getPhotoVersion(photoId);
+        long globalVersion = galleryVersions.getGlobalVersion();
+
+        Entry cached = entries.get(photoId);
+        if (cached != null && cached.photoVersion == photoVersion && cached.globalVersion == globalVersion) {
+            hits.increment();
+            return copyOf(cached.detail);
+        }
+        misses.increment();
+
+        GalleryPhotoDetailResponse loaded = loader.get();
+        GalleryPhotoDetailResponse template = copyOf(loaded);
+        template.setIsLikedByUser(false);
+        template.setIsFavoritedByUser(false);
+        put(photoId, new Entry(template, photoVersion, globalVersion, weigh(template)));
+        return loaded;
+    }
+
+    /**
+     * Drop a photo's entry (photo changed, deleted, liked or favorited)
+     */
+    public void evict(Long photoId) {
+        if (entries.remove(photoId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated bytes held by all entries
+     */
+    public long weight() {
+        return entries.weight();
+    }
+
+    /**
+     * hits / (hits + misses), 0 before the first lookup
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private void put(Long photoId, Entry entry) {
+        // Never replace a newer entry with one stamped by an older version
+        if (entry.photoVersion != galleryVersions.getPhotoVersion(photoId)
+                || entry.globalVersion != galleryVersions.getGlobalVersion()) {
+            return;
+        }
+        if (entries.put(photoId, entry)) {
+            puts.increment();
+        }
+    }
+
+    static long weigh(GalleryPhotoDetailResponse detail) {
+        long tagBytes = 0;
+        for (String tag : detail.getTags()) {
+            // String object + list slot
+            tagBytes += TAG_OVERHEAD_BYTES + 2L * tag.length();
+        }
+        return ENTRY_OVERHEAD_BYTES + tagBytes + 2L * (length(detail.getOwnerName()) + length(detail.getOwnerEmail())
+                + length(detail.getTitle()) + length(detail.getDescription()) + length(detail.getFilePath()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static GalleryPhotoDetailResponse copyOf(GalleryPhotoDetailResponse source) {
+        GalleryPhotoDetailResponse copy = new GalleryPhotoDetailResponse(
+                source.getId(), source.getUserId(), source.getOwnerName(), source.getOwnerEmail(),
+                source.getTitle(), source.getDescription(), source.getFilePath(),
+                source.getIsPublic(), source.getUploadOrder(),
+                source.getCreatedAt(), source.getUpdatedAt());
+        copy.setLikeCount(source.getLikeCount());
+        copy.setIsLikedByUser(source.getIsLikedByUser());
+        copy.setIsFavoritedByUser(source.getIsFavoritedByUser());
+        copy.setTags(source.getTags());
+        return copy;
+    }
+
+    /**
+     * Cached detail + the versions it was loaded under
+     */
+    private static final class Entry {
+
+        private final GalleryPhotoDetailResponse detail;
+        private final long photoVersion;
+        private final long globalVersion;
+        private final long weight;
+
+        Entry(GalleryPhotoDetailResponse detail, long photoVersion, long globalVersion, long weight) {
+            this.detail = detail;
+            this.photoVersion = photoVersion;
+            this.globalVersion = globalVersion;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.PhotoEngagement;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementSummary;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.util.StripedCounterMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * PhotoEngagementService - Batch hydration of like/favorite state for photo lists
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Dulu petugas galeri cek SATU-SATU setiap foto di halaman:
+ * "Foto 1 berapa like? Sudah kamu like? Sudah kamu favorite?" → 3 pertanyaan × 12 foto
+ *
+ * Sekarang petugas bawa daftar semua foto sekaligus ke buku catatan:
+ * "Untuk foto 1-12, hitung like & cek punya kamu" → 1 pertanyaan untuk likes,
+ * 1 pertanyaan untuk favorites. Selesai.
+ *
+ * Dipakai oleh SEMUA list endpoints:
+ * - GET /api/gallery/my-photos
+ * - GET /api/gallery/public
+ * - GET /api/gallery/user/{userId}/public
+ * - GET /api/gallery/liked-photos
+ * - GET /api/gallery/favorited-photos
+ *
+ * Query count per page: 2 (constant), bukan 3 × page size.
+ * Ditambah 1 query untuk grid rows (owner name sudah di-JOIN) = 3 query per halaman.
+ *
+ * Like/favorite yang masih di EngagementWriteBuffer (write-behind, belum di-flush)
+ * di-overlay di atas hasil query, jadi user langsung melihat like-nya sendiri.
+ *
+ * Dengan EngagementCounters aktif (default), jumlah like/favorite dibaca dari
+ * memory; yang masih di-query hanya flag viewer (lookup per (photo, user),
+ * bukan COUNT semua like tiap foto), dan anonymous viewer = 0 query.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class PhotoEngagementService {
+
+    @Autowired
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Autowired
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @Autowired
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Autowired
+    private EngagementCounters engagementCounters;
+
+    /**
+     * Hydrate like/favorite state for a set of photos in two grouped queries
+     *
+     * Foto yang tidak punya like/favorite tidak muncul di hasil query,
+     * jadi caller sebaiknya pakai getOrDefault(id, PhotoEngagement.NONE).
+     *
+     * @param photoIds IDs of the photos to hydrate (duplicates are ignored)
+     * @param viewerId ID of the viewing user, or null for anonymous viewers
+     * @return Map of photo ID to engagement (only photos with at least one like/favorite)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, PhotoEngagement> hydrate(Collection<Long> photoIds, Long viewerId) {
+        if (photoIds == null || photoIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>(photoIds);
+        if (engagementCounters.isEnabled()) {
+            return hydrateFromCounters(ids, viewerId);
+        }
+
+        Map<Long, EngagementSummary> likes = index(photoLikeRepository.summarizeByPhotoIds(ids, viewerId));
+        Map<Long, EngagementSummary> favorites = index(photoFavoriteRepository.summarizeByPhotoIds(ids, viewerId));
+
+        Map<Long, PhotoEngagement> result = new HashMap<>();
+        for (Long id : ids) {
+            EngagementSummary like = likes.get(id);
+            EngagementSummary favorite = favorites.get(id);
+            if (like == null && favorite == null) {
+                continue;
+            }
+            result.put(id, new PhotoEngagement(
+                    total(like),
+                    total(favorite),
+                    viewerId != null && viewer(like) > 0,
+                    viewerId != null && viewer(favorite) > 0
+            ));
+        }
+        if (!engagementWriteBuffer.isEmpty()) {
+            applyBuffered(ids, viewerId, result, true);
+        }
+        return result;
+    }
+
+    /**
+     * Counts from EngagementCounters (already include the write-behind buffer),
+     * viewer flags from two lookups of the viewer's own rows
+     */
+    private Map<Long, PhotoEngagement> hydrateFromCounters(Set<Long> ids, Long viewerId) {
+        Map<Long, StripedCounterMap.Counts> counts = engagementCounters.counts(ids);
+        Set<Long> liked = viewerId != null
+                ? new HashSet<>(photoLikeRepository.findLikedPhotoIds(viewerId, ids)) : Set.of();
+        Set<Long> favorited = viewerId != null
+                ? new HashSet<>(photoFavoriteRepository.findFavoritedPhotoIds(viewerId, ids)) : Set.of();
+
+        Map<Long, PhotoEngagement> result = new HashMap<>();
+        for (Long id : ids) {
+            StripedCounterMap.Counts count = counts.get(id);
+            long likeCount = count != null ? count.getLikes() : 0L;
+            long favoriteCount = count != null ? count.getFavorites() : 0L;
+            if (likeCount == 0 && favoriteCount == 0 && !liked.contains(id) && !favorited.contains(id)) {
+                continue;
+            }
+            result.put(id, new PhotoEngagement(likeCount, favoriteCount, liked.contains(id), favorited.contains(id)));
+        }
+        if (viewerId != null && !engagementWriteBuffer.isEmpty()) {
+            applyBuffered(ids, viewerId, result, false);
+        }
+        return result;
+    }
+
+    /**
+     * Overlay likes/favorites still in the write-behind buffer (not flushed yet)
+     *
+     * includeCounts = false untuk jumlah dari EngagementCounters (sudah termasuk buffer).
+     */
+    private void applyBuffered(Set<Long> ids, Long viewerId, Map<Long, PhotoEngagement> result, boolean includeCounts) {
+        for (Long id : ids) {
+            long likeDelta = includeCounts ? engagementWriteBuffer.countDelta(EngagementKind.LIKE, id) : 0L;
+            long favoriteDelta = includeCounts ? engagementWriteBuffer.countDelta(EngagementKind.FAVORITE, id) : 0L;
+            Optional<Boolean> liked = viewerId != null
+                    ? engagementWriteBuffer.pendingState(EngagementKind.LIKE, id, viewerId) : Optional.empty();
+            Optional<Boolean> favorited = viewerId != null
+                    ? engagementWriteBuffer.pendingState(EngagementKind.FAVORITE, id, viewerId) : Optional.empty();
+            if (likeDelta == 0 && favoriteDelta == 0 && liked.isEmpty() && favorited.isEmpty()) {
+                continue;
+            }
+            PhotoEngagement stored = result.getOrDefault(id, PhotoEngagement.NONE);
+            result.put(id, new PhotoEngagement(
+                    Math.max(0L, stored.getLikeCount() + likeDelta),
+                    Math.max(0L, stored.getFavoriteCount() + favoriteDelta),
+                    liked.orElse(stored.isLikedByViewer()),
+                    favorited.orElse(stored.isFavoritedByViewer())
+            ));
+        }
+    }
+
+    /**
+     * Fill like count and viewer flags on a page of grid rows
+     *
+     * Grid rows datang dari projection (GalleryPhotoRepositoryCustom.findFeedRows,
+     * liked/favorited constructor queries), jadi tidak ada entity yang perlu di-convert:
+     * field like di-set langsung pada row yang sama, urutan tidak berubah.
+     *
+     * @param rows Grid rows of the current page (modified in place)
+     * @param viewerId ID of the viewing user, or null for anonymous viewers
+     * @return The same rows, in the same order
+     */
+    @Transactional(readOnly = true)
+    public List<GalleryPhotoResponse> applyEngagement(List<GalleryPhotoResponse> rows, Long viewerId) {
+        Map<Long, PhotoEngagement> engagement = hydrate(
+                rows.stream().map(GalleryPhotoResponse::getId).collect(Collectors.toList()),
+                viewerId
+        );
+        for (GalleryPhotoResponse row : rows) {
+            PhotoEngagement state = engagement.getOrDefault(row.getId(), PhotoEngagement.NONE);
+            row.setLikeCount(state.getLikeCount());
+            row.setIsLikedByUser(state.isLikedByViewer());
+            row.setIsFavoritedByUser(state.isFavoritedByViewer());
+        }
+        return rows;
+    }
+
+    private static Map<Long, EngagementSummary> index(List<EngagementSummary> rows) {
+        Map<Long, EngagementSummary> byPhotoId = new HashMap<>();
+        for (EngagementSummary row : rows) {
+            byPhotoId.put(row.getPhotoId(), row);
+        }
+        return byPhotoId;
+    }
+
+    private static long total(EngagementSummary row) {
+        return row != null && row.getTotalCount() != null ? row.getTotalCount() : 0L;
+    }
+
+    private static long viewer(EngagementSummary row) {
+        return row != null && row.getViewerCount() != null ? row.getViewerCount() : 0L;
+    }
+}
@@ -1,17 +1,21 @@
 package com.ikplabs.api.service;
 
-import com.ikplabs.api.entity.GalleryPhoto;
-import com.ikplabs.api.entity.PhotoFavorite;
-import com.ikplabs.api.entity.User;
-import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.dto.BulkEngagementResponse;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.event.GalleryEventBus;
+import com.ikplabs.api.event.GalleryEventType;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementTarget;
 import com.ikplabs.api.repository.PhotoFavoriteRepository;
-import com.ikplabs.api.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * PhotoFavoriteService - Business logic for photo favorite/unfavorite operations
@@ -23,7 +27,7 @@ import java.util.List;
  * Tanggung Jawab:
  * 1. CEK apakah foto bisa di-favorite (public ATAU foto sendiri)
  * 2. CEK apakah sudah favorite atau belum (prevent duplicate)
- * 3. TAMBAH favorite ke database (save) - PRIVATE collection
+ * 3. TAMBAH favorite ke database (satu statement INSERT ... ON CONFLICT) - PRIVATE collection
  * 4. HAPUS favorite dari database (unfavorite)
  * 5. CARI foto-foto yang di-favorite user (PRIVATE - only for that user)
  *
@@ -61,21 +65,35 @@ public class PhotoFavoriteService {
     private PhotoFavoriteRepository photoFavoriteRepository;
 
     @Autowired
-    private GalleryPhotoRepository galleryPhotoRepository;
+    private GalleryVersions galleryVersions;
 
     @Autowired
-    private UserRepository userRepository;
+    private PhotoDetailCache photoDetailCache;
+
+    @Autowired
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Autowired
+    private EngagementCounters engagementCounters;
+
+    @Autowired
+    private EngagementMemberships engagementMemberships;
+
+    @Autowired
+    private GalleryEventBus galleryEventBus;
 
     /**
      * Favorite a photo
      *
      * FLOW PROSES:
-     * 1. Validate photo exists
-     * 2. Privacy check: Photo must be public OR user is owner
-     * 3. Check if already favorited (prevent duplicate)
-     * 4. Get user from database
-     * 5. Create PhotoFavorite entity
-     * 6. Save to database
+     * 1. ONE statement (PhotoFavoriteRepository.insertFavorite):
+     *    INSERT photo_favorites ... SELECT dari gallery_photos WHERE (public OR owner)
+     *    ON CONFLICT DO NOTHING + favorite_count + 1, RETURNING owner/privacy
+     * 2. 0 baris → diagnose (satu query, hanya saat gagal) → exception yang sesuai
+     * 3. Bump feed/photo versions (ETag) after commit
+     *
+     * Write-behind mode (EngagementWriteBuffer aktif): langkah 1 diganti
+     * satu SELECT validasi + journal (fsync) + buffer; INSERT menyusul saat flush.
      *
      * KEY DIFFERENCE from likePhoto:
      * - ✅ User CAN favorite their own photos
@@ -86,16 +104,14 @@ public class PhotoFavoriteService {
      * - User A (id=456) favorites Photo X (id=123, public)
      * - Photo X owner: User B (id=789)
      * - Photo X is public ✅
-     * - Create: PhotoFavorite(photo=123, user=456, created_at=NOW)
-     * - Save to photo_favorites table
+     * - INSERT photo_favorites (123, 456, NOW) + favorite_count + 1
      * - Result: Photo added to User A's private collection
      *
      * Example 2 (favorite own photo):
      * - User A (id=456) favorites Photo Y (id=789)
      * - Photo Y owner: User A (id=456) ✅ ALLOWED!
      * - Photo Y is private ✅ ALLOWED (own photo!)
-     * - Create: PhotoFavorite(photo=789, user=456, created_at=NOW)
-     * - Save to photo_favorites table
+     * - INSERT photo_favorites (789, 456, NOW) + favorite_count + 1
      * - Result: Own photo added to collection (portfolio organization)
      *
      * @param photoId ID of photo to favorite
@@ -108,38 +124,18 @@ public class PhotoFavoriteService {
      */
     @Transactional
     public void favoritePhoto(Long photoId, Long userId) {
-        // STEP 1: Validate photo exists
-        GalleryPhoto photo = galleryPhotoRepository.findById(photoId)
-                .orElseThrow(() -> new IllegalArgumentException("Photo not found with id: " + photoId));
-
-        // STEP 2: Privacy check (DIFFERENT from likes!)
-        // Allow if: (photo is public) OR (user is owner)
-        boolean isPublic = photo.getIsPublic();
-        boolean isOwner = photo.getUser().getId().equals(userId);
-
-        if (!isPublic && !isOwner) {
-            // Photo is private AND user is not owner → FORBIDDEN
-            throw new IllegalArgumentException("Cannot favorite private photos of other users");
-        }
-
-        // STEP 3: Check if already favorited (duplicate prevention)
-        if (photoFavoriteRepository.existsByPhotoIdAndUserId(photoId, userId)) {
-            throw new IllegalStateException("You have already favorited this photo");
-        }
-
-        // STEP 4: Get user from database
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-
-        // STEP 5: Create PhotoFavorite entity
-        PhotoFavorite photoFavorite = new PhotoFavorite();
-        photoFavorite.setPhoto(photo);
-        photoFavorite.setUser(user);
-        // createdAt will be set automatically via @PrePersist
+        // STEP 1: Insert + increment favorite_count in one round trip (no entity loads)
+        // Privacy rule (DIFFERENT from likes!) is in the WHERE: public OR own photo
+        // (or validate + journal when the write-behind buffer is on)
+        EngagementChange change = engagementWriteBuffer.isActive()
+                ? favoriteBuffered(photoId, userId, findTarget(photoId, userId))
+                : photoFavoriteRepository.insertFavorite(photoId, userId)
+                        .orElseThrow(() -> favoriteRejected(photoId, userId, findTarget(photoId, userId)));
 
-        // STEP 6: Save to database
-        photoFavoriteRepository.save(photoFavorite);
+        // STEP 2: Favorite count changed → in-memory count, new ETags, drop cached photo detail
+        favorited(photoId, userId, change);
 
+        boolean isOwner = change.getOwnerId().equals(userId);
         System.out.println("✅ Photo favorited: photoId=" + photoId + ", userId=" + userId +
                            (isOwner ? " (own photo)" : " (public photo)"));
     }
@@ -148,9 +144,10 @@ public class PhotoFavoriteService {
      * Unfavorite a photo
      *
      * FLOW PROSES:
-     * 1. Validate photo exists
-     * 2. Check if favorited (must exist to unfavorite)
-     * 3. Delete the favorite from database
+     * 1. ONE statement (PhotoFavoriteRepository.deleteFavorite):
+     *    DELETE photo_favorites ... RETURNING + favorite_count - 1, RETURNING owner/privacy
+     * 2. 0 baris → photo not found atau belum di-favorite (diagnose hanya saat gagal)
+     * 3. Bump feed/photo versions (ETag) after commit
      *
      * Example:
      * - User A (id=456) unfavorites Photo X (id=123)
@@ -167,26 +164,214 @@ public class PhotoFavoriteService {
      */
     @Transactional
     public void unfavoritePhoto(Long photoId, Long userId) {
-        // STEP 1: Validate photo exists
-        if (!galleryPhotoRepository.existsById(photoId)) {
-            throw new IllegalArgumentException("Photo not found with id: " + photoId);
+        // STEP 1: Delete + decrement favorite_count in one round trip (or buffer the unfavorite)
+        EngagementChange change = engagementWriteBuffer.isActive()
+                ? unfavoriteBuffered(photoId, userId, findTarget(photoId, userId))
+                : photoFavoriteRepository.deleteFavorite(photoId, userId)
+                        .orElseThrow(() -> unfavoriteRejected(photoId, findTarget(photoId, userId)));
+
+        // STEP 2: In-memory count, feed/photo versions, cached photo detail
+        unfavorited(photoId, userId, change);
+
+        System.out.println("✅ Photo unfavorited: photoId=" + photoId + ", userId=" + userId);
+    }
+
+    /**
+     * Favorite many photos at once ("select many → add to favorites")
+     *
+     * FLOW PROSES:
+     * 1. ONE statement for all IDs (PhotoFavoriteRepository.insertFavorites):
+     *    multi-row INSERT ... SELECT WHERE (public OR owner) ON CONFLICT DO NOTHING
+     *    + favorite_count + 1, RETURNING one row per favorited photo
+     * 2. IDs without a row → ONE diagnose query for all of them (findFavoriteTargets)
+     *    → same error message as favoritePhoto, per ID
+     * 3. Favorited IDs: same in-memory/ETag/cache updates as favoritePhoto
+     *
+     * Write-behind mode: one diagnose query for all IDs, then validate + journal per ID.
+     * A failed ID never rolls back the others.
+     *
+     * @param photoIds Photo IDs (nulls and duplicates ignored, order kept)
+     * @param userId ID of user favoriting the photos
+     * @return Success or error message per distinct ID
+     * @throws IllegalArgumentException if no IDs or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     */
+    @Transactional
+    public BulkEngagementResponse favoritePhotos(List<Long> photoIds, Long userId) {
+        List<Long> ids = BulkEngagementIds.distinct(photoIds);
+        List<BulkEngagementResponse.Result> results = new ArrayList<>(ids.size());
+
+        if (engagementWriteBuffer.isActive()) {
+            Map<Long, EngagementTarget> targets = photoFavoriteRepository.findFavoriteTargets(ids, userId);
+            for (Long photoId : ids) {
+                try {
+                    favorited(photoId, userId, favoriteBuffered(photoId, userId, targets.get(photoId)));
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    results.add(BulkEngagementResponse.Result.failed(photoId, e.getMessage()));
+                }
+            }
+        } else {
+            Map<Long, EngagementChange> changes = photoFavoriteRepository.insertFavorites(ids, userId);
+            Map<Long, EngagementTarget> targets = changes.size() == ids.size()
+                    ? Map.of()
+                    : photoFavoriteRepository.findFavoriteTargets(BulkEngagementIds.unchanged(ids, changes), userId);
+            for (Long photoId : ids) {
+                EngagementChange change = changes.get(photoId);
+                if (change != null) {
+                    favorited(photoId, userId, change);
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } else {
+                    results.add(BulkEngagementResponse.Result.failed(photoId,
+                            favoriteRejected(photoId, userId, targets.get(photoId)).getMessage()));
+                }
+            }
         }
 
-        // STEP 2: Check if favorited
-        if (!photoFavoriteRepository.existsByPhotoIdAndUserId(photoId, userId)) {
-            throw new IllegalArgumentException("You have not favorited this photo");
+        BulkEngagementResponse response = new BulkEngagementResponse(results);
+        System.out.println("✅ Photos favorited (bulk): userId=" + userId +
+                           ", succeeded=" + response.getSucceeded() + "/" + ids.size());
+        return response;
+    }
+
+    /**
+     * Unfavorite many photos at once
+     *
+     * Sama dengan favoritePhotos: satu multi-row DELETE ... RETURNING + favorite_count - 1,
+     * satu diagnose query hanya untuk ID yang gagal (photo not found / not favorited).
+     *
+     * @param photoIds Photo IDs (nulls and duplicates ignored, order kept)
+     * @param userId ID of user unfavoriting the photos
+     * @return Success or error message per distinct ID
+     * @throws IllegalArgumentException if no IDs or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     */
+    @Transactional
+    public BulkEngagementResponse unfavoritePhotos(List<Long> photoIds, Long userId) {
+        List<Long> ids = BulkEngagementIds.distinct(photoIds);
+        List<BulkEngagementResponse.Result> results = new ArrayList<>(ids.size());
+
+        if (engagementWriteBuffer.isActive()) {
+            Map<Long, EngagementTarget> targets = photoFavoriteRepository.findFavoriteTargets(ids, userId);
+            for (Long photoId : ids) {
+                try {
+                    unfavorited(photoId, userId, unfavoriteBuffered(photoId, userId, targets.get(photoId)));
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } catch (IllegalArgumentException e) {
+                    results.add(BulkEngagementResponse.Result.failed(photoId, e.getMessage()));
+                }
+            }
+        } else {
+            Map<Long, EngagementChange> changes = photoFavoriteRepository.deleteFavorites(ids, userId);
+            Map<Long, EngagementTarget> targets = changes.size() == ids.size()
+                    ? Map.of()
+                    : photoFavoriteRepository.findFavoriteTargets(BulkEngagementIds.unchanged(ids, changes), userId);
+            for (Long photoId : ids) {
+                EngagementChange change = changes.get(photoId);
+                if (change != null) {
+                    unfavorited(photoId, userId, change);
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } else {
+                    results.add(BulkEngagementResponse.Result.failed(photoId,
+                            unfavoriteRejected(photoId, targets.get(photoId)).getMessage()));
+                }
+            }
         }
 
-        // STEP 3: Delete favorite from database
-        photoFavoriteRepository.deleteByPhotoIdAndUserId(photoId, userId);
+        BulkEngagementResponse response = new BulkEngagementResponse(results);
+        System.out.println("✅ Photos unfavorited (bulk): userId=" + userId +
+                           ", succeeded=" + response.getSucceeded() + "/" + ids.size());
+        return response;
+    }
 
-        System.out.println("✅ Photo unfavorited: photoId=" + photoId + ", userId=" + userId);
+    /**
+     * In-memory count, membership, ETags and cached detail after a favorite
+     */
+    private void favorited(Long photoId, Long userId, EngagementChange change) {
+        engagementCounters.recordFavorite(photoId, 1);
+        engagementMemberships.record(EngagementKind.FAVORITE, userId, photoId, true);
+        galleryVersions.photoChanged(photoId, change.getOwnerId(), change.isPublic());
+        photoDetailCache.evict(photoId);
+        galleryEventBus.engaged(GalleryEventType.FAVORITED, photoId, change.getOwnerId(), userId, change.isPublic());
+    }
+
+    private void unfavorited(Long photoId, Long userId, EngagementChange change) {
+        engagementCounters.recordFavorite(photoId, -1);
+        engagementMemberships.record(EngagementKind.FAVORITE, userId, photoId, false);
+        galleryVersions.photoChanged(photoId, change.getOwnerId(), change.isPublic());
+        photoDetailCache.evict(photoId);
+        galleryEventBus.engaged(GalleryEventType.UNFAVORITED, photoId, change.getOwnerId(), userId, change.isPublic());
+    }
+
+    private EngagementTarget findTarget(Long photoId, Long userId) {
+        return photoFavoriteRepository.findFavoriteTarget(photoId, userId).orElse(null);
+    }
+
+    /**
+     * Why insertFavorite changed no row, as the same exception the old step-by-step checks threw
+     *
+     * Urutan pengecekan sama dengan validasi lama:
+     * photo exists → public or own → not already favorited → user exists
+     */
+    private static RuntimeException favoriteRejected(Long photoId, Long userId, EngagementTarget target) {
+        RuntimeException rejected = checkFavoritable(photoId, userId, target);
+        if (rejected != null) {
+            return rejected;
+        }
+        if (target.isEngaged()) {
+            return new IllegalStateException("You have already favorited this photo");
+        }
+        return new IllegalArgumentException("User not found with id: " + userId);
+    }
+
+    private static RuntimeException unfavoriteRejected(Long photoId, EngagementTarget target) {
+        if (target == null) {
+            return new IllegalArgumentException("Photo not found with id: " + photoId);
+        }
+        return new IllegalArgumentException("You have not favorited this photo");
+    }
+
+    /**
+     * Photo rules of a favorite (exists, public or own photo), null if the photo can be favorited
+     */
+    private static RuntimeException checkFavoritable(Long photoId, Long userId, EngagementTarget target) {
+        if (target == null) {
+            return new IllegalArgumentException("Photo not found with id: " + photoId);
+        }
+        if (!target.isPublic() && !target.getOwnerId().equals(userId)) {
+            return new IllegalArgumentException("Cannot favorite private photos of other users");
+        }
+        return null;
+    }
+
+    /**
+     * Write-behind favorite: validate the target (one SELECT), then journal + buffer
+     */
+    private EngagementChange favoriteBuffered(Long photoId, Long userId, EngagementTarget target) {
+        RuntimeException rejected = checkFavoritable(photoId, userId, target);
+        if (rejected != null) {
+            throw rejected;
+        }
+        if (!target.isUserExists()) {
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+        return engagementWriteBuffer.append(EngagementKind.FAVORITE, photoId, userId, true, target)
+                .orElseThrow(() -> new IllegalStateException("You have already favorited this photo"));
+    }
+
+    /**
+     * Write-behind unfavorite (the buffer knows favorites that are not flushed yet)
+     */
+    private EngagementChange unfavoriteBuffered(Long photoId, Long userId, EngagementTarget target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Photo not found with id: " + photoId);
+        }
+        return engagementWriteBuffer.append(EngagementKind.FAVORITE, photoId, userId, false, target)
+                .orElseThrow(() -> new IllegalArgumentException("You have not favorited this photo"));
     }
 
     /**
      * Get all photos favorited by a user
      *
-     * Returns list of GalleryPhoto objects (for pagination).
+     * Returns grid rows (GalleryPhotoResponse projection, for pagination).
      * Photos ordered by most recently favorited first (created_at DESC).
      *
      * OPTIMIZED: Uses single query with JOINs to get like/favorite counts.
@@ -209,18 +394,19 @@ public class PhotoFavoriteService {
      * - Only User A can see this list (100% private)
      *
      * @param userId ID of user (MUST be from JWT token!)
-     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited)
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
      * @param pageable Pagination parameters (page, size, sort)
-     * @return List<GalleryPhoto> with photos (controller adds pagination)
+     * @return Grid rows (controller adds like data and pagination)
      */
     @Transactional(readOnly = true)
-    public List<GalleryPhoto> getFavoritedPhotos(Long userId, String sortBy, Pageable pageable) {
+    public List<GalleryPhotoResponse> getFavoritedPhotos(Long userId, String sortBy, Pageable pageable) {
         // Use JPQL queries based on sortBy parameter to avoid entity mapping issues
         return switch (sortBy) {
             case "newest" -> photoFavoriteRepository.findFavoritedPhotosByUserIdNewest(userId, pageable);
             case "oldest" -> photoFavoriteRepository.findFavoritedPhotosByUserIdOldest(userId, pageable);
             case "mostLiked" -> photoFavoriteRepository.findFavoritedPhotosByUserIdMostLiked(userId, pageable);
             case "mostFavorited" -> photoFavoriteRepository.findFavoritedPhotosByUserIdMostFavorited(userId, pageable);
+            case "trending" -> photoFavoriteRepository.findFavoritedPhotosByUserIdTrending(userId, pageable);
             default -> photoFavoriteRepository.findFavoritedPhotosByUserIdNewest(userId, pageable); // Default to newest
         };
     }
@@ -262,13 +448,18 @@ public class PhotoFavoriteService {
      * - isFavorited(123, 456) → true (show filled star ⭐)
      * - isFavorited(123, 456) → false (show outline star ☆)
      *
+     * Performance: buffered (unflushed) write first, then the user's in-memory
+     * favorited set (EngagementMemberships); EXISTS query only when memory cannot tell.
+     *
      * @param photoId ID of photo
      * @param userId ID of user
      * @return true if user has favorited photo, false otherwise
      */
     @Transactional(readOnly = true)
     public boolean isFavoritedByUser(Long photoId, Long userId) {
-        return photoFavoriteRepository.existsByPhotoIdAndUserId(photoId, userId);
+        return engagementWriteBuffer.pendingState(EngagementKind.FAVORITE, photoId, userId)
+                .or(() -> engagementMemberships.isMember(EngagementKind.FAVORITE, userId, photoId))
+                .orElseGet(() -> photoFavoriteRepository.existsByPhotoIdAndUserId(photoId, userId));
     }
 
     /**
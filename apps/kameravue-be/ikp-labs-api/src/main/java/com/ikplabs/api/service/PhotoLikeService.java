@@ -1,17 +1,23 @@
 package com.ikplabs.api.service;
 
-import com.ikplabs.api.entity.GalleryPhoto;
-import com.ikplabs.api.entity.PhotoLike;
-import com.ikplabs.api.entity.User;
-import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.dto.BulkEngagementResponse;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.event.GalleryEventBus;
+import com.ikplabs.api.event.GalleryEventType;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementTarget;
 import com.ikplabs.api.repository.PhotoLikeRepository;
-import com.ikplabs.api.repository.UserRepository;
+import com.ikplabs.api.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 
 /**
  * PhotoLikeService - Business logic for photo like/unlike operations
@@ -23,8 +29,8 @@ import java.util.List;
  * Tanggung Jawab:
  * 1. CEK apakah foto bisa di-like (public, bukan foto sendiri)
  * 2. CEK apakah sudah like atau belum (prevent duplicate)
- * 3. TAMBAH like ke database (save)
- * 4. HAPUS like dari database (unlike)
+ * 3. TAMBAH like ke database (satu statement INSERT ... ON CONFLICT DO NOTHING)
+ * 4. HAPUS like dari database (satu statement DELETE ... RETURNING)
  * 5. HITUNG jumlah like
  * 6. CARI foto-foto yang di-like user
  *
@@ -44,32 +50,49 @@ public class PhotoLikeService {
     private PhotoLikeRepository photoLikeRepository;
 
     @Autowired
-    private GalleryPhotoRepository galleryPhotoRepository;
+    private LikeLeaderboard likeLeaderboard;
 
     @Autowired
-    private UserRepository userRepository;
+    private GalleryVersions galleryVersions;
+
+    @Autowired
+    private PhotoDetailCache photoDetailCache;
+
+    @Autowired
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Autowired
+    private EngagementCounters engagementCounters;
+
+    @Autowired
+    private EngagementMemberships engagementMemberships;
+
+    @Autowired
+    private GalleryEventBus galleryEventBus;
 
     /**
      * Like a photo
      *
      * FLOW PROSES:
-     * 1. Validate photo exists
-     * 2. Validate photo is public (cannot like private)
-     * 3. Validate user is NOT the owner (cannot like own photo)
-     * 4. Check if already liked (prevent duplicate)
-     * 5. Get user from database
-     * 6. Create PhotoLike entity
-     * 7. Save to database
+     * 1. ONE statement (PhotoLikeRepository.insertLike):
+     *    INSERT photo_likes ... SELECT dari gallery_photos WHERE public AND bukan owner
+     *    ON CONFLICT DO NOTHING + like_count + 1, RETURNING owner
+     * 2. 0 baris → diagnose (satu query, hanya saat gagal) → exception yang sesuai
+     * 3. Count the like on the in-memory leaderboard
+     * 4. Bump feed/photo versions (ETag) after commit
+     *
+     * Write-behind mode (EngagementWriteBuffer aktif): langkah 1 diganti
+     * satu SELECT validasi + journal (fsync) + buffer; INSERT menyusul saat flush.
      *
      * Example:
      * - User A (id=456) likes Photo X (id=123)
-     * - Photo X is public ✅
-     * - User A is not owner ✅
-     * - User A hasn't liked before ✅
-     * - Create: PhotoLike(photo=123, user=456, created_at=NOW)
-     * - Save to photo_likes table
+     * - Photo X is public ✅, User A is not owner ✅, not liked yet ✅
+     * - INSERT photo_likes (123, 456, NOW) + like_count + 1 → 1 baris (owner)
      * - Result: Like count increases by 1
      *
+     * Dua request like bersamaan: UNIQUE (photo_id, user_id) + ON CONFLICT →
+     * yang kalah dapat 0 baris → "already liked", counter tetap naik sekali.
+     *
      * @param photoId ID of photo to like
      * @param userId ID of user liking the photo
      * @throws IllegalArgumentException if:
@@ -81,37 +104,15 @@ public class PhotoLikeService {
      */
     @Transactional
     public void likePhoto(Long photoId, Long userId) {
-        // STEP 1: Validate photo exists
-        GalleryPhoto photo = galleryPhotoRepository.findById(photoId)
-                .orElseThrow(() -> new IllegalArgumentException("Photo not found with id: " + photoId));
-
-        // STEP 2: Validate photo is public
-        if (!photo.getIsPublic()) {
-            throw new IllegalArgumentException("Cannot like private photos. Photo must be public.");
-        }
-
-        // STEP 3: Validate user is not the photo owner
-        if (photo.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Cannot like your own photo");
-        }
-
-        // STEP 4: Check if already liked (duplicate prevention)
-        if (photoLikeRepository.existsByPhotoIdAndUserId(photoId, userId)) {
-            throw new IllegalStateException("You have already liked this photo");
-        }
-
-        // STEP 5: Get user from database
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-
-        // STEP 6: Create PhotoLike entity
-        PhotoLike photoLike = new PhotoLike();
-        photoLike.setPhoto(photo);
-        photoLike.setUser(user);
-        // createdAt will be set automatically via @PrePersist
+        // STEP 1: Insert + increment like_count in one round trip (no entity loads),
+        // or validate + journal when the write-behind buffer is on
+        EngagementChange change = engagementWriteBuffer.isActive()
+                ? likeBuffered(photoId, userId, findTarget(photoId, userId))
+                : photoLikeRepository.insertLike(photoId, userId)
+                        .orElseThrow(() -> likeRejected(photoId, userId, findTarget(photoId, userId)));
 
-        // STEP 7: Save to database
-        photoLikeRepository.save(photoLike);
+        // STEP 2: Leaderboard + in-memory like count, new ETags, drop cached photo detail
+        liked(photoId, userId, change);
 
         System.out.println("✅ Photo liked: photoId=" + photoId + ", userId=" + userId);
     }
@@ -120,15 +121,15 @@ public class PhotoLikeService {
      * Unlike a photo
      *
      * FLOW PROSES:
-     * 1. Validate photo exists
-     * 2. Check if liked (must exist to unlike)
-     * 3. Delete the like from database
+     * 1. ONE statement (PhotoLikeRepository.deleteLike):
+     *    DELETE photo_likes ... RETURNING created_at + like_count - 1, RETURNING owner/privacy
+     * 2. 0 baris → photo not found atau belum di-like (diagnose hanya saat gagal)
+     * 3. Remove the like from the in-memory leaderboard
+     * 4. Bump feed/photo versions (ETag) after commit
      *
      * Example:
      * - User A (id=456) unlikes Photo X (id=123)
-     * - Photo X exists ✅
-     * - User A has liked before ✅
-     * - Delete: photo_likes WHERE photo_id=123 AND user_id=456
+     * - Delete: photo_likes WHERE photo_id=123 AND user_id=456 → 1 baris
      * - Result: Like count decreases by 1
      *
      * @param photoId ID of photo to unlike
@@ -139,26 +140,223 @@ public class PhotoLikeService {
      */
     @Transactional
     public void unlikePhoto(Long photoId, Long userId) {
-        // STEP 1: Validate photo exists
-        if (!galleryPhotoRepository.existsById(photoId)) {
-            throw new IllegalArgumentException("Photo not found with id: " + photoId);
+        // STEP 1: Delete + decrement like_count in one round trip (or buffer the unlike)
+        EngagementChange change = engagementWriteBuffer.isActive()
+                ? unlikeBuffered(photoId, userId, findTarget(photoId, userId))
+                : photoLikeRepository.deleteLike(photoId, userId)
+                        .orElseThrow(() -> unlikeRejected(photoId, findTarget(photoId, userId)));
+
+        // STEP 2: Leaderboard, in-memory count, feed/photo versions, cached photo detail
+        unliked(photoId, userId, change);
+
+        System.out.println("✅ Photo unliked: photoId=" + photoId + ", userId=" + userId);
+    }
+
+    /**
+     * Like many photos at once
+     *
+     * FLOW PROSES:
+     * 1. ONE statement for all IDs (PhotoLikeRepository.insertLikes):
+     *    multi-row INSERT ... SELECT WHERE public AND not owner ON CONFLICT DO NOTHING
+     *    + like_count + 1, RETURNING one row per liked photo
+     * 2. IDs without a row → ONE diagnose query for all of them (findLikeTargets)
+     *    → same error message as likePhoto, per ID
+     * 3. Liked IDs: same leaderboard/in-memory/ETag/cache updates as likePhoto
+     *
+     * Write-behind mode: one diagnose query for all IDs, then validate + journal per ID.
+     * A failed ID never rolls back the others.
+     *
+     * @param photoIds Photo IDs (nulls and duplicates ignored, order kept)
+     * @param userId ID of user liking the photos
+     * @return Success or error message per distinct ID
+     * @throws IllegalArgumentException if no IDs or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     */
+    @Transactional
+    public BulkEngagementResponse likePhotos(List<Long> photoIds, Long userId) {
+        List<Long> ids = BulkEngagementIds.distinct(photoIds);
+        List<BulkEngagementResponse.Result> results = new ArrayList<>(ids.size());
+
+        if (engagementWriteBuffer.isActive()) {
+            Map<Long, EngagementTarget> targets = photoLikeRepository.findLikeTargets(ids, userId);
+            for (Long photoId : ids) {
+                try {
+                    liked(photoId, userId, likeBuffered(photoId, userId, targets.get(photoId)));
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    results.add(BulkEngagementResponse.Result.failed(photoId, e.getMessage()));
+                }
+            }
+        } else {
+            Map<Long, EngagementChange> changes = photoLikeRepository.insertLikes(ids, userId);
+            Map<Long, EngagementTarget> targets = changes.size() == ids.size()
+                    ? Map.of()
+                    : photoLikeRepository.findLikeTargets(BulkEngagementIds.unchanged(ids, changes), userId);
+            for (Long photoId : ids) {
+                EngagementChange change = changes.get(photoId);
+                if (change != null) {
+                    liked(photoId, userId, change);
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } else {
+                    results.add(BulkEngagementResponse.Result.failed(photoId,
+                            likeRejected(photoId, userId, targets.get(photoId)).getMessage()));
+                }
+            }
+        }
+
+        BulkEngagementResponse response = new BulkEngagementResponse(results);
+        System.out.println("✅ Photos liked (bulk): userId=" + userId +
+                           ", succeeded=" + response.getSucceeded() + "/" + ids.size());
+        return response;
+    }
+
+    /**
+     * Unlike many photos at once
+     *
+     * Sama dengan likePhotos: satu multi-row DELETE ... RETURNING created_at + like_count - 1,
+     * satu diagnose query hanya untuk ID yang gagal (photo not found / not liked).
+     *
+     * @param photoIds Photo IDs (nulls and duplicates ignored, order kept)
+     * @param userId ID of user unliking the photos
+     * @return Success or error message per distinct ID
+     * @throws IllegalArgumentException if no IDs or more than BulkEngagementRequest.MAX_PHOTO_IDS
+     */
+    @Transactional
+    public BulkEngagementResponse unlikePhotos(List<Long> photoIds, Long userId) {
+        List<Long> ids = BulkEngagementIds.distinct(photoIds);
+        List<BulkEngagementResponse.Result> results = new ArrayList<>(ids.size());
+
+        if (engagementWriteBuffer.isActive()) {
+            Map<Long, EngagementTarget> targets = photoLikeRepository.findLikeTargets(ids, userId);
+            for (Long photoId : ids) {
+                try {
+                    unliked(photoId, userId, unlikeBuffered(photoId, userId, targets.get(photoId)));
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } catch (IllegalArgumentException e) {
+                    results.add(BulkEngagementResponse.Result.failed(photoId, e.getMessage()));
+                }
+            }
+        } else {
+            Map<Long, EngagementChange> changes = photoLikeRepository.deleteLikes(ids, userId);
+            Map<Long, EngagementTarget> targets = changes.size() == ids.size()
+                    ? Map.of()
+                    : photoLikeRepository.findLikeTargets(BulkEngagementIds.unchanged(ids, changes), userId);
+            for (Long photoId : ids) {
+                EngagementChange change = changes.get(photoId);
+                if (change != null) {
+                    unliked(photoId, userId, change);
+                    results.add(BulkEngagementResponse.Result.ok(photoId));
+                } else {
+                    results.add(BulkEngagementResponse.Result.failed(photoId,
+                            unlikeRejected(photoId, targets.get(photoId)).getMessage()));
+                }
+            }
+        }
+
+        BulkEngagementResponse response = new BulkEngagementResponse(results);
+        System.out.println("✅ Photos unliked (bulk): userId=" + userId +
+                           ", succeeded=" + response.getSucceeded() + "/" + ids.size());
+        return response;
+    }
+
+    /**
+     * Leaderboard, in-memory count, membership, ETags and cached detail after a like
+     */
+    private void liked(Long photoId, Long userId, EngagementChange change) {
+        // After commit like the other in-memory state: a rolled-back like never reaches the top-N
+        TransactionHooks.afterCommit(() -> likeLeaderboard.recordLike(photoId));
+        engagementCounters.recordLike(photoId, 1);
+        engagementMemberships.record(EngagementKind.LIKE, userId, photoId, true);
+        galleryVersions.photoChanged(photoId, change.getOwnerId(), true);
+        photoDetailCache.evict(photoId);
+        galleryEventBus.engaged(GalleryEventType.LIKED, photoId, change.getOwnerId(), userId, change.isPublic());
+    }
+
+    /**
+     * Same after an unlike (created_at decides whether it counted for "this week")
+     */
+    private void unliked(Long photoId, Long userId, EngagementChange change) {
+        TransactionHooks.afterCommit(() -> likeLeaderboard.recordUnlike(photoId, change.getCreatedAt()));
+        engagementCounters.recordLike(photoId, -1);
+        engagementMemberships.record(EngagementKind.LIKE, userId, photoId, false);
+        galleryVersions.photoChanged(photoId, change.getOwnerId(), change.isPublic());
+        photoDetailCache.evict(photoId);
+        galleryEventBus.engaged(GalleryEventType.UNLIKED, photoId, change.getOwnerId(), userId, change.isPublic());
+    }
+
+    private EngagementTarget findTarget(Long photoId, Long userId) {
+        return photoLikeRepository.findLikeTarget(photoId, userId).orElse(null);
+    }
+
+    /**
+     * Why insertLike changed no row, as the same exception the old step-by-step checks threw
+     *
+     * Urutan pengecekan sama dengan validasi lama:
+     * photo exists → public → not owner → not already liked → user exists
+     */
+    private static RuntimeException likeRejected(Long photoId, Long userId, EngagementTarget target) {
+        RuntimeException rejected = checkLikeable(photoId, userId, target);
+        if (rejected != null) {
+            return rejected;
+        }
+        if (target.isEngaged()) {
+            return new IllegalStateException("You have already liked this photo");
         }
+        return new IllegalArgumentException("User not found with id: " + userId);
+    }
 
-        // STEP 2: Check if liked
-        if (!photoLikeRepository.existsByPhotoIdAndUserId(photoId, userId)) {
-            throw new IllegalArgumentException("You have not liked this photo");
+    private static RuntimeException unlikeRejected(Long photoId, EngagementTarget target) {
+        if (target == null) {
+            return new IllegalArgumentException("Photo not found with id: " + photoId);
         }
+        return new IllegalArgumentException("You have not liked this photo");
+    }
 
-        // STEP 3: Delete like from database
-        photoLikeRepository.deleteByPhotoIdAndUserId(photoId, userId);
+    /**
+     * Photo rules of a like (exists, public, not own photo), null if the photo can be liked
+     */
+    private static RuntimeException checkLikeable(Long photoId, Long userId, EngagementTarget target) {
+        if (target == null) {
+            return new IllegalArgumentException("Photo not found with id: " + photoId);
+        }
+        if (!target.isPublic()) {
+            return new IllegalArgumentException("Cannot like private photos. Photo must be public.");
+        }
+        if (target.getOwnerId().equals(userId)) {
+            return new IllegalArgumentException("Cannot like your own photo");
+        }
+        return null;
+    }
 
-        System.out.println("✅ Photo unliked: photoId=" + photoId + ", userId=" + userId);
+    /**
+     * Write-behind like: validate the target (one SELECT), then journal + buffer (no write to photo_likes yet)
+     */
+    private EngagementChange likeBuffered(Long photoId, Long userId, EngagementTarget target) {
+        RuntimeException rejected = checkLikeable(photoId, userId, target);
+        if (rejected != null) {
+            throw rejected;
+        }
+        if (!target.isUserExists()) {
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+        return engagementWriteBuffer.append(EngagementKind.LIKE, photoId, userId, true, target)
+                .orElseThrow(() -> new IllegalStateException("You have already liked this photo"));
+    }
+
+    /**
+     * Write-behind unlike (the buffer knows likes that are not flushed yet)
+     */
+    private EngagementChange unlikeBuffered(Long photoId, Long userId, EngagementTarget target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Photo not found with id: " + photoId);
+        }
+        return engagementWriteBuffer.append(EngagementKind.LIKE, photoId, userId, false, target)
+                .orElseThrow(() -> new IllegalArgumentException("You have not liked this photo"));
     }
 
     /**
      * Get all photos liked by a user
      *
-     * Returns list of GalleryPhoto objects (for pagination).
+     * Returns grid rows (GalleryPhotoResponse projection, for pagination).
      * Photos ordered by most recently liked first (created_at DESC).
      *
      * OPTIMIZED: Uses single query with JOINs to get like/favorite counts.
@@ -175,18 +373,19 @@ public class PhotoLikeService {
      * - Returns: List with 12 photos (controller builds pagination metadata)
      *
      * @param userId ID of user
-     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited)
+     * @param sortBy Sort order (newest, oldest, mostLiked, mostFavorited, trending)
      * @param pageable Pagination parameters (page, size, sort)
-     * @return List<GalleryPhoto> with photos (controller adds pagination)
+     * @return Grid rows (controller adds like data and pagination)
      */
     @Transactional(readOnly = true)
-    public List<GalleryPhoto> getLikedPhotos(Long userId, String sortBy, Pageable pageable) {
+    public List<GalleryPhotoResponse> getLikedPhotos(Long userId, String sortBy, Pageable pageable) {
         // Use JPQL queries based on sortBy parameter to avoid entity mapping issues
         return switch (sortBy) {
             case "newest" -> photoLikeRepository.findLikedPhotosByUserIdNewest(userId, pageable);
             case "oldest" -> photoLikeRepository.findLikedPhotosByUserIdOldest(userId, pageable);
             case "mostLiked" -> photoLikeRepository.findLikedPhotosByUserIdMostLiked(userId, pageable);
             case "mostFavorited" -> photoLikeRepository.findLikedPhotosByUserIdMostFavorited(userId, pageable);
+            case "trending" -> photoLikeRepository.findLikedPhotosByUserIdTrending(userId, pageable);
             default -> photoLikeRepository.findLikedPhotosByUserIdNewest(userId, pageable); // Default to newest
         };
     }
@@ -203,15 +402,22 @@ public class PhotoLikeService {
      * - Frontend shows: "❤️ 5"
      *
      * Performance:
-     * - Uses COUNT(*) query (fast)
-     * - Indexed on photo_id (even faster)
+     * - Dibaca dari EngagementCounters (in-memory, striped) → tanpa query
+     *   setelah foto pertama kali dibaca
+     * - Fallback (counters off / foto tidak ada): COUNT(*) indexed on photo_id
      *
      * @param photoId ID of photo
      * @return Number of likes (0 if no likes)
      */
     @Transactional(readOnly = true)
     public long getLikeCount(Long photoId) {
-        return photoLikeRepository.countByPhotoId(photoId);
+        OptionalLong counted = engagementCounters.likeCount(photoId);
+        if (counted.isPresent()) {
+            return counted.getAsLong(); // already includes the write-behind buffer
+        }
+        // + likes/unlikes still in the write-behind buffer
+        return Math.max(0L, photoLikeRepository.countByPhotoId(photoId)
+                + engagementWriteBuffer.countDelta(EngagementKind.LIKE, photoId));
     }
 
     /**
@@ -247,8 +453,9 @@ public class PhotoLikeService {
      * - Frontend shows: ♡ (outline heart)
      *
      * Performance:
-     * - Uses EXISTS query (faster than SELECT)
-     * - No need to load PhotoLike object
+     * - Buffered (unflushed) like/unlike wins, then the user's in-memory
+     *   liked set (EngagementMemberships), usually without any SQL
+     * - EXISTS query only when memory cannot tell (disabled, Bloom filter "maybe")
      *
      * @param photoId ID of photo
      * @param userId ID of user
@@ -256,7 +463,9 @@ public class PhotoLikeService {
      */
     @Transactional(readOnly = true)
     public boolean isLikedByUser(Long photoId, Long userId) {
-        return photoLikeRepository.existsByPhotoIdAndUserId(photoId, userId);
+        return engagementWriteBuffer.pendingState(EngagementKind.LIKE, photoId, userId)
+                .or(() -> engagementMemberships.isMember(EngagementKind.LIKE, userId, photoId))
+                .orElseGet(() -> photoLikeRepository.existsByPhotoIdAndUserId(photoId, userId));
     }
 
     /**
@@ -271,7 +480,7 @@ public class PhotoLikeService {
      *
      * 2. Validation Order (Important!):
      *    - Photo exists → Photo public → Not owner → Not already liked
-     *    - Stop early if any check fails
+     *    - Checked by the INSERT's WHERE/ON CONFLICT; likeRejected() re-checks in this order only on failure
      *    - Clear error messages for each case
      *
      * 3. Why Multiple Validation Checks?
@@ -285,6 +494,8 @@ public class PhotoLikeService {
      *    - Controller catches these and returns proper HTTP status
      *
      * 5. Performance Considerations:
+     *    - like/unlike = 1 round trip (dulu 4-5: findById, exists, findById user, save, counter)
+     *    - Validasi dikerjakan WHERE clause; query diagnose hanya jalan kalau ditolak
      *    - existsByPhotoIdAndUserId: Faster than findBy (boolean only)
      *    - countByPhotoId: Indexed, very fast
      *    - readOnly transactions: Optimization for SELECT queries
@@ -294,8 +505,7 @@ public class PhotoLikeService {
      *    LIKE:
      *    User clicks ♡ → Frontend POST /like
      *    → Service validates (photo exists, public, not owner, not liked)
-     *    → Create PhotoLike(photo, user)
-     *    → Save to database
+     *    → INSERT photo_likes + like_count + 1 (one statement)
      *    → Response 201 Created
      *    → Frontend shows ❤️ and count+1
      *
@@ -320,8 +530,8 @@ public class PhotoLikeService {
      *
      * 9. Thread Safety:
      *    - @Transactional ensures thread-safe operations
-     *    - Database UNIQUE constraint prevents race conditions
-     *    - If 2 users try to like simultaneously, only 1 succeeds
+     *    - Database UNIQUE constraint + ON CONFLICT DO NOTHING prevents race conditions
+     *    - If the same user likes twice simultaneously, only 1 succeeds (other → "already liked")
      *
      * 10. Testing Strategy:
      *     - Unit tests: Mock repositories, test business logic
@@ -0,0 +1,295 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoTagKey;
+import com.ikplabs.api.repository.PhotoTagRepository;
+import com.ikplabs.api.repository.PublicPhotoKey;
+import com.ikplabs.api.util.CompressedBitmap;
+import com.ikplabs.api.util.TagQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * PhotoTagIndex - Process-local inverted index: tag → compressed bitmap of photo IDs
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Perpustakaan punya kartu katalog per topik. Kartu "sunset" berisi nomor
+ * semua foto sunset, kartu "beach" nomor semua foto beach, plus satu kartu
+ * "PUBLIC" berisi nomor semua foto yang boleh dilihat umum.
+ * "sunset AND beach NOT night" = tumpuk kartu sunset ∩ beach ∩ PUBLIC,
+ * lalu coret nomor di kartu night. Gudang (PostgreSQL) hanya dipakai untuk
+ * mengambil 12 foto hasilnya by primary key, bukan join photo_tags berlapis.
+ *
+ * Kartu = CompressedBitmap (Roaring-style, immutable):
+ * - Intersection per container 65.536 ID (merge char[] atau AND long[])
+ * - Tag populer dengan jutaan foto tetap ≤ 8 KB per 65.536 ID
+ * - Halaman = topBefore(cursor, size): ID tertinggi di bawah cursor (newest first)
+ *
+ * Lifecycle (sama dengan PublicFeedIndex):
+ * - Build saat ApplicationReadyEvent (sebelum itu → Optional.empty → SQL fallback)
+ * - Update incremental oleh GalleryService (edit tag, upload, privacy, delete)
+ * - Rebuild berkala (default 10 menit) untuk koreksi perubahan di luar service ini
+ *
+ * Concurrency: bitmap immutable, jadi reader cukup membaca referensi tanpa lock.
+ * Writer mengganti referensi di bawah writeLock (satu bitmap per mutasi tag).
+ * Query yang berjalan bersamaan dengan edit tag bisa melihat sebagian edit itu
+ * (weakly consistent, sama seperti skip list PublicFeedIndex).
+ *
+ * Configuration (application.properties):
+ * - gallery.tag-index.enabled      → matikan index (selalu SQL)
+ * - gallery.tag-index.refresh-ms   → interval rebuild
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class PhotoTagIndex {
+
+    @Autowired
+    private PhotoTagRepository photoTagRepository;
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Value("${gallery.tag-index.enabled:true}")
+    private boolean enabled = true;
+
+    private final Object writeLock = new Object();
+
+    /**
+     * Current index; null until the first build finishes
+     */
+    private volatile Entries entries;
+
+    /**
+     * Mutations that happened while a rebuild was loading rows (guarded by writeLock)
+     */
+    private List<Consumer<Entries>> pendingDuringBuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${gallery.tag-index.refresh-ms:600000}",
+               fixedDelayString = "${gallery.tag-index.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        rebuild();
+    }
+
+    /**
+     * Reload all tags and public photo IDs from the database and swap the index atomically
+     *
+     * Rows di-load TANPA lock (query bisa lama); mutasi yang terjadi selama load
+     * dicatat dan di-replay ke index baru sebelum swap, jadi tidak ada update hilang.
+     * synchronized: startup build dan scheduled refresh tidak pernah overlap.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            pendingDuringBuild = new ArrayList<>();
+        }
+        List<PhotoTagKey> tagKeys;
+        List<PublicPhotoKey> publicKeys;
+        try {
+            tagKeys = photoTagRepository.findAllKeys();
+            publicKeys = galleryPhotoRepository.findPublicPhotoKeys();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingDuringBuild = null;
+            }
+            throw e;
+        }
+
+        Entries fresh = new Entries();
+        // Rows are ordered by (tag, photo_id): one ascending builder per tag
+        String currentTag = null;
+        CompressedBitmap.Builder builder = null;
+        for (PhotoTagKey key : tagKeys) {
+            if (!key.getTag().equals(currentTag)) {
+                if (builder != null) {
+                    fresh.byTag.put(currentTag, builder.build());
+                }
+                currentTag = key.getTag();
+                builder = CompressedBitmap.builder();
+            }
+            builder.add(key.getPhotoId());
+        }
+        if (builder != null) {
+            fresh.byTag.put(currentTag, builder.build());
+        }
+        long[] publicIds = new long[publicKeys.size()];
+        for (int i = 0; i < publicIds.length; i++) {
+            publicIds[i] = publicKeys.get(i).getId();
+        }
+        fresh.publicIds = CompressedBitmap.of(publicIds);
+
+        synchronized (writeLock) {
+            for (Consumer<Entries> mutation : pendingDuringBuild) {
+                mutation.accept(fresh);
+            }
+            pendingDuringBuild = null;
+            entries = fresh;
+        }
+        System.out.println("✅ Photo tag index built: " + fresh.byTag.size() + " tag(s), "
+                + fresh.publicIds.cardinality() + " public photo(s), ~" + fresh.sizeInBytes() / 1024 + " KB");
+    }
+
+    /**
+     * Replace the tags of a photo (after the new tags are committed)
+     *
+     * @param photoId Photo ID
+     * @param tags Complete new set of normalized tags (empty = no tags)
+     */
+    public void setTags(Long photoId, Collection<String> tags) {
+        if (photoId == null) {
+            return;
+        }
+        List<String> newTags = List.copyOf(tags);
+        mutate(target -> {
+            target.removeFromAllTags(photoId);
+            for (String tag : newTags) {
+                target.byTag.merge(tag, CompressedBitmap.EMPTY.with(photoId),
+                        (current, ignored) -> current.with(photoId));
+            }
+        });
+    }
+
+    /**
+     * Reflect the privacy of a photo (after upload, update or privacy toggle)
+     */
+    public void upsert(GalleryPhoto photo) {
+        if (photo == null || photo.getId() == null) {
+            return;
+        }
+        Long id = photo.getId();
+        if (Boolean.TRUE.equals(photo.getIsPublic())) {
+            mutate(target -> target.publicIds = target.publicIds.with(id));
+        } else {
+            mutate(target -> target.publicIds = target.publicIds.without(id));
+        }
+    }
+
+    /**
+     * Remove a deleted photo (its photo_tags rows are removed by ON DELETE CASCADE)
+     */
+    public void remove(Long photoId) {
+        if (photoId == null) {
+            return;
+        }
+        mutate(target -> {
+            target.publicIds = target.publicIds.without(photoId);
+            target.removeFromAllTags(photoId);
+        });
+    }
+
+    /**
+     * IDs of one page of public photos matching a tag query, newest (highest ID) first
+     *
+     * Bitmap terkecil dulu: intersection tidak pernah lebih besar dari tag paling langka.
+     *
+     * @param query Parsed tag query
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Number of IDs (page size + 1 for hasNext)
+     * @return IDs of the page, or empty if this request must go to the database
+     *         (index not built yet or disabled)
+     */
+    public Optional<List<Long>> query(TagQuery query, long beforeId, int limit) {
+        Entries current = entries;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+
+        List<CompressedBitmap> required = new ArrayList<>(query.getInclude().size());
+        for (String tag : query.getInclude()) {
+            CompressedBitmap bitmap = current.byTag.get(tag);
+            if (bitmap == null) {
+                // A tag nobody uses → nothing can match
+                return Optional.of(Collections.emptyList());
+            }
+            required.add(bitmap);
+        }
+        required.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+
+        CompressedBitmap matches = required.get(0);
+        for (int i = 1; i < required.size() && !matches.isEmpty(); i++) {
+            matches = matches.and(required.get(i));
+        }
+        matches = matches.and(current.publicIds);
+        for (String tag : query.getExclude()) {
+            CompressedBitmap bitmap = current.byTag.get(tag);
+            if (bitmap != null && !matches.isEmpty()) {
+                matches = matches.andNot(bitmap);
+            }
+        }
+
+        long[] top = matches.topBefore(beforeId, limit);
+        List<Long> ids = new ArrayList<>(top.length);
+        for (long id : top) {
+            ids.add(id);
+        }
+        return Optional.of(Collections.unmodifiableList(ids));
+    }
+
+    private void mutate(Consumer<Entries> mutation) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            Entries current = entries;
+            if (current != null) {
+                mutation.accept(current);
+            }
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(mutation);
+            }
+        }
+    }
+
+    /**
+     * tag → bitmap + bitmap of public photo IDs
+     *
+     * Readers baca tanpa lock (ConcurrentHashMap + volatile, nilai immutable);
+     * writers selalu lewat writeLock.
+     */
+    private static final class Entries {
+
+        private final Map<String, CompressedBitmap> byTag = new ConcurrentHashMap<>();
+        private volatile CompressedBitmap publicIds = CompressedBitmap.EMPTY;
+
+        /**
+         * Scan semua tag: edit tag jarang, dan index tidak perlu menyimpan
+         * daftar tag per foto (photo → tags) hanya untuk ini
+         */
+        void removeFromAllTags(Long photoId) {
+            byTag.replaceAll((tag, bitmap) -> bitmap.without(photoId));
+            byTag.values().removeIf(CompressedBitmap::isEmpty);
+        }
+
+        long sizeInBytes() {
+            long bytes = publicIds.sizeInBytes();
+            for (CompressedBitmap bitmap : byTag.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.PhotoTagRepository;
+import com.ikplabs.api.util.TagQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * PhotoTagService - Tags of gallery photos (storage + tag filter)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * PhotoTagService seperti "Petugas Label":
+ * - Edit tag   → label lama dicabut semua, label baru ditempel (satu transaksi)
+ * - Cari tag   → tanya katalog (PhotoTagIndex); katalog belum siap → cari di buku induk (SQL)
+ *
+ * Authorization (hanya owner yang boleh edit) dicek GalleryService.updatePhoto
+ * sebelum replaceTags dipanggil; GalleryService juga meneruskan tag baru ke
+ * PhotoTagIndex setelah transaksi ini commit.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@SuppressWarnings("null")
+@Service
+public class PhotoTagService {
+
+    public static final int MAX_TAGS_PER_PHOTO = 10;
+
+    /**
+     * Non-tag sentinel for an empty NOT list: native "IN ()" is invalid SQL
+     */
+    private static final List<String> NO_TAGS = List.of("");
+
+    @Autowired
+    private PhotoTagRepository photoTagRepository;
+
+    @Autowired
+    private PhotoTagIndex photoTagIndex;
+
+    /**
+     * Normalize the tags of an edit request
+     *
+     * @param tags Raw tags from the request (case and duplicates don't matter)
+     * @return Distinct normalized tags, alphabetical
+     * @throws IllegalArgumentException if a tag is invalid or there are too many tags
+     */
+    public static List<String> normalizeTags(Collection<String> tags) {
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String tag : tags) {
+            normalized.add(TagQuery.normalizeTag(tag));
+        }
+        if (normalized.size() > MAX_TAGS_PER_PHOTO) {
+            throw new IllegalArgumentException("A photo can have at most " + MAX_TAGS_PER_PHOTO + " tags");
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Replace all tags of a photo
+     *
+     * @param photoId Photo ID (caller has checked ownership)
+     * @param tags Normalized tags (see normalizeTags), empty = remove all
+     */
+    @Transactional
+    public void replaceTags(Long photoId, List<String> tags) {
+        photoTagRepository.deleteByPhotoId(photoId);
+        for (String tag : tags) {
+            photoTagRepository.insert(photoId, tag);
+        }
+    }
+
+    /**
+     * Remove all tags of a deleted photo
+     *
+     * photo_tags tidak punya FK ke gallery_photos: tanpa ini baris tag tetap ada
+     * dan dimuat lagi oleh setiap rebuild PhotoTagIndex.
+     *
+     * @param photoId ID of the photo being deleted
+     */
+    @Transactional
+    public void removeTags(Long photoId) {
+        photoTagRepository.deleteByPhotoId(photoId);
+    }
+
+    /**
+     * Tags of a photo, alphabetical
+     */
+    public List<String> getTags(Long photoId) {
+        return photoTagRepository.findTagsByPhotoId(photoId);
+    }
+
+    /**
+     * IDs of public photos matching a tag query, newest (highest ID) first
+     *
+     * @param query Parsed tag query
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Number of IDs (page size + 1 for hasNext)
+     * @return Photo IDs, highest first
+     */
+    public List<Long> findPublicPhotoIds(TagQuery query, long beforeId, int limit) {
+        return photoTagIndex.query(query, beforeId, limit)
+                .orElseGet(() -> photoTagRepository.findPublicIdsByTags(
+                        query.getInclude(),
+                        query.getInclude().size(),
+                        query.getExclude().isEmpty() ? NO_TAGS : query.getExclude(),
+                        beforeId,
+                        limit));
+    }
+}
@@ -0,0 +1,269 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PublicPhotoKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * PublicFeedIndex - Process-local ordered index of public photo IDs
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Setiap pengunjung galeri publik bertanya "12 foto terbaru apa saja? total ada berapa?"
+ * Dulu petugas ke gudang (PostgreSQL) setiap kali: sort + COUNT(*).
+ * Sekarang petugas pegang DAFTAR ANTRIAN di meja (skip list, urut created_at):
+ * 12 ID teratas + total langsung dijawab dari memori, gudang hanya dipakai
+ * untuk ambil 12 foto itu by primary key.
+ *
+ * Yang disimpan per foto public: (id, created_at) saja → kecil.
+ * Melayani sortBy newest (descending) dan oldest (ascending).
+ * mostLiked/mostFavorited tetap ke database (counter berubah setiap like,
+ * sudah di-index di kolom like_count/favorite_count).
+ *
+ * Lifecycle:
+ * - Build saat ApplicationReadyEvent (sebelum itu → Optional.empty → database)
+ * - Update incremental oleh GalleryService (upload, update, toggle privacy, delete)
+ * - Rebuild berkala (default 10 menit) untuk koreksi perubahan di luar service ini
+ *   (instance lain, cascade delete user, cleanup script)
+ *
+ * Hanya halaman awal (offset + size <= max-offset) dilayani dari memori;
+ * halaman dalam lebih murah lewat database/keyset daripada berjalan di skip list.
+ *
+ * Configuration (application.properties):
+ * - gallery.public-feed-index.enabled      → matikan index (selalu database)
+ * - gallery.public-feed-index.max-offset   → batas offset + size yang dilayani
+ * - gallery.public-feed-index.refresh-ms   → interval rebuild
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class PublicFeedIndex {
+
+    private static final Comparator<Entry> OLDEST_FIRST =
+            Comparator.comparing((Entry e) -> e.createdAt).thenComparingLong(e -> e.id);
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Value("${gallery.public-feed-index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.public-feed-index.max-offset:1200}")
+    private long maxOffset = 1200;
+
+    private final Object writeLock = new Object();
+
+    /**
+     * Current index; null until the first build finishes
+     */
+    private volatile Entries entries;
+
+    /**
+     * Mutations that happened while a rebuild was loading rows (guarded by writeLock)
+     */
+    private List<Consumer<Entries>> pendingDuringBuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${gallery.public-feed-index.refresh-ms:600000}",
+               fixedDelayString = "${gallery.public-feed-index.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        rebuild();
+    }
+
+    /**
+     * Reload all public photo keys from the database and swap the index atomically
+     *
+     * Rows di-load TANPA lock (query bisa lama); mutasi yang terjadi selama load
+     * dicatat dan di-replay ke index baru sebelum swap, jadi tidak ada update hilang.
+     * synchronized: startup build dan scheduled refresh tidak pernah overlap.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            pendingDuringBuild = new ArrayList<>();
+        }
+        List<PublicPhotoKey> keys;
+        try {
+            keys = galleryPhotoRepository.findPublicPhotoKeys();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingDuringBuild = null;
+            }
+            throw e;
+        }
+
+        Entries fresh = new Entries();
+        for (PublicPhotoKey key : keys) {
+            fresh.put(key.getId(), key.getCreatedAt());
+        }
+        synchronized (writeLock) {
+            for (Consumer<Entries> mutation : pendingDuringBuild) {
+                mutation.accept(fresh);
+            }
+            pendingDuringBuild = null;
+            entries = fresh;
+        }
+        System.out.println("✅ Public feed index built: " + fresh.size() + " public photo(s)");
+    }
+
+    /**
+     * Reflect the current state of a photo (after upload, update or privacy toggle)
+     *
+     * Public → masuk/diperbarui di index. Private → dikeluarkan dari index.
+     */
+    public void upsert(GalleryPhoto photo) {
+        if (photo == null || photo.getId() == null) {
+            return;
+        }
+        Long id = photo.getId();
+        if (Boolean.TRUE.equals(photo.getIsPublic()) && photo.getCreatedAt() != null) {
+            LocalDateTime createdAt = photo.getCreatedAt();
+            mutate(target -> target.put(id, createdAt));
+        } else {
+            mutate(target -> target.remove(id));
+        }
+    }
+
+    /**
+     * Remove a deleted photo from the index
+     */
+    public void remove(Long photoId) {
+        if (photoId != null) {
+            mutate(target -> target.remove(photoId));
+        }
+    }
+
+    /**
+     * Photo IDs of one page of the public feed, in feed order
+     *
+     * @param sortBy Sort mode (only newest and oldest are indexed)
+     * @param offset Offset of the first row (page * size)
+     * @param size Page size
+     * @return IDs of the page, or empty if this request must go to the database
+     *         (index not built yet, disabled, unsupported sort, or page too deep)
+     */
+    public Optional<List<Long>> page(SortBy sortBy, long offset, int size) {
+        Entries current = entries;
+        if (!enabled || current == null || size < 1 || offset < 0 || offset + size > maxOffset) {
+            return Optional.empty();
+        }
+        NavigableSet<Entry> ordered = switch (sortBy) {
+            case NEWEST -> current.ordered.descendingSet();
+            case OLDEST -> current.ordered;
+            default -> null;
+        };
+        if (ordered == null) {
+            return Optional.empty();
+        }
+
+        Iterator<Entry> it = ordered.iterator();
+        for (long skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        List<Long> ids = new ArrayList<>(size);
+        while (ids.size() < size && it.hasNext()) {
+            ids.add(it.next().id);
+        }
+        return Optional.of(Collections.unmodifiableList(ids));
+    }
+
+    /**
+     * Total number of public photos, or empty if the index is not available
+     */
+    public OptionalLong count() {
+        Entries current = entries;
+        if (!enabled || current == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(current.size());
+    }
+
+    private void mutate(Consumer<Entries> mutation) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            Entries current = entries;
+            if (current != null) {
+                mutation.accept(current);
+            }
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(mutation);
+            }
+        }
+    }
+
+    /**
+     * Skip list ordered by (created_at, id) + map id → entry for O(log n) replace/remove
+     *
+     * Readers iterate tanpa lock (ConcurrentSkipListSet weakly consistent);
+     * writers selalu lewat writeLock supaya set dan map tetap sinkron.
+     */
+    private static final class Entries {
+
+        private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>(OLDEST_FIRST);
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+        void put(Long id, LocalDateTime createdAt) {
+            if (id == null || createdAt == null) {
+                return;
+            }
+            Entry entry = new Entry(id, createdAt);
+            Entry previous = byId.put(id, entry);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+            ordered.add(entry);
+        }
+
+        void remove(Long id) {
+            Entry previous = byId.remove(id);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+        }
+
+        int size() {
+            return byId.size();
+        }
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final LocalDateTime createdAt;
+
+        Entry(long id, LocalDateTime createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.util.WeightedLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PublicFeedPageCache - Serialized JSON of anonymous GET /api/gallery/public pages
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Semua pengunjung anonymous yang membuka halaman 1 "newest" menerima brosur
+ * yang PERSIS sama. Dulu brosur dicetak ulang untuk setiap pengunjung
+ * (query + GalleryPhotoResponse + Jackson). Sekarang brosur dicetak sekali
+ * (bytes JSON, plus versi gzip) dan setiap pengunjung menerima fotokopinya
+ * langsung ke output stream.
+ *
+ * Alur (lihat PublicFeedCacheInterceptor + PublicFeedCacheAdvice):
+ * 1. Interceptor: viewer anonymous → key (sortBy + versi urutannya, page, size,
+ *    cursor, withTotal) + stamp versi → hit = tulis bytes, controller tidak dipanggil
+ * 2. Miss: controller jalan seperti biasa, advice men-serialize SEKALI,
+ *    menyimpan bytes di sini dan menulisnya ke response
+ *
+ * Invalidation: stamp = (versi public feed, versi global) dari GalleryVersions.
+ * Begitu stamp yang lebih baru terlihat, seluruh isi cache dibuang (satu generasi):
+ * like, upload, toggle privacy, rename owner. Stamp dibaca SEBELUM
+ * controller membaca data, dan bytes hanya disimpan kalau stamp masih terbaru
+ * saat disimpan — data lama tidak pernah masuk ke generasi baru.
+ *
+ * Perubahan yang hanya menggeser satu urutan (trending run, counter shard compaction)
+ * tidak membuang cache:
+ * versi urutan itu ikut di key, jadi hanya halaman sortBy tersebut yang tidak
+ * ditemukan lagi (entry lama keluar lewat LRU).
+ *
+ * Hanya viewer anonymous: untuk user login, isLikedByUser / isFavoritedByUser
+ * berbeda per orang.
+ *
+ * Metrics (tag cache=publicFeedPages): cache.gets{result}, cache.puts,
+ * cache.evictions{cause=size|invalidated}, cache.size, cache.weight, cache.hit.ratio
+ *
+ * Configuration (application.properties):
+ * - gallery.public-feed-cache.enabled
+ * - gallery.public-feed-cache.max-bytes → batas total bytes (JSON + gzip)
+ * - gallery.public-feed-cache.gzip      → simpan juga versi gzip
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Component
+public class PublicFeedPageCache {
+
+    static final String CACHE_NAME = "publicFeedPages";
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gallery.public-feed-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gallery.public-feed-cache.max-bytes:8388608}")
+    private long maxBytes = 8L * 1024 * 1024;
+
+    @Value("${gallery.public-feed-cache.gzip:true}")
+    private boolean gzip = true;
+
+    private WeightedLruCache<String, Page> pages;
+
+    /**
+     * Stamp the current entries belong to (guarded by this)
+     */
+    private Stamp generation = new Stamp(0, 0);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        pages = new WeightedLruCache<>(maxBytes, Page::weight);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", this, cache -> cache.pages.evictions())
+                .tag("cache", CACHE_NAME).tag("cause", "size").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", invalidations, LongAdder::doubleValue)
+                .tag("cache", CACHE_NAME).tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("cache.size", this, PublicFeedPageCache::size)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.weight", this, PublicFeedPageCache::weight)
+                .tag("cache", CACHE_NAME).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, PublicFeedPageCache::hitRatio)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && maxBytes > 0;
+    }
+
+    /**
+     * Cache key of one page/slice of the public feed (query parameters after defaults)
+     *
+     * @param sortVersion GalleryVersions.getSortVersion(sortBy) read with the stamp
+     */
+    public static String key(String sortBy, long sortVersion, int page, int size, String cursor, boolean withTotal) {
+        return sortBy + '@' + sortVersion + '|' + page + '|' + size + '|'
+                + (cursor != null ? "c:" + cursor : "-") + '|' + withTotal;
+    }
+
+    /**
+     * Current version of a sortBy order (part of the key, see key())
+     */
+    public long sortVersion(String sortBy) {
+        return galleryVersions.getSortVersion(sortBy);
+    }
+
+    /**
+     * Current feed versions; read BEFORE the data this stamp will be stored with
+     */
+    public Stamp currentStamp() {
+        return new Stamp(galleryVersions.getPublicFeedVersion(), galleryVersions.getGlobalVersion());
+    }
+
+    /**
+     * Cached page for a key, or null
+     *
+     * Stamp yang lebih baru dari generasi cache → semua entry lama dibuang dulu.
+     */
+    public Page get(String key, Stamp stamp) {
+        Page page = null;
+        synchronized (this) {
+            if (stamp.isNewerThan(generation)) {
+                int dropped = pages.clear();
+                invalidations.add(dropped);
+                generation = stamp;
+            }
+            if (stamp.equals(generation)) {
+                page = pages.get(key);
+            }
+        }
+        if (page != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return page;
+    }
+
+    /**
+     * Store serialized JSON rendered from data read after {@code stamp} was taken
+     *
+     * Tidak disimpan kalau feed sudah berubah sejak stamp dibaca.
+     *
+     * @return The stored page (also usable for this response), even if not cached
+     */
+    public Page put(String key, Stamp stamp, byte[] json) {
+        Page page = new Page(json, gzip ? gzip(json) : null);
+        synchronized (this) {
+            if (stamp.equals(generation) && stamp.equals(currentStamp()) && pages.put(key, page)) {
+                puts.increment();
+            }
+        }
+        return page;
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    /**
+     * Bytes held by all pages (JSON + gzip)
+     */
+    public long weight() {
+        return pages.weight();
+    }
+
+    /**
+     * hits / (hits + misses), 0 before the first lookup
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream, not expected
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serialized page: JSON bytes + optional gzip of the same bytes
+     */
+    public static final class Page {
+
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Page(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * @return Gzipped JSON, or null if gzip is disabled
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        long weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /**
+     * (public feed version, global version) at the time a request started
+     */
+    public static final class Stamp {
+
+        private final long publicFeed;
+        private final long global;
+
+        Stamp(long publicFeed, long global) {
+            this.publicFeed = publicFeed;
+            this.global = global;
+        }
+
+        boolean isNewerThan(Stamp other) {
+            return publicFeed >= other.publicFeed && global >= other.global && !equals(other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Stamp)) {
+                return false;
+            }
+            Stamp other = (Stamp) o;
+            return publicFeed == other.publicFeed && global == other.global;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(publicFeed) * 31 + Long.hashCode(global);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.User;
+import com.ikplabs.api.entity.UserFollow;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.HomeTimelineRepository;
+import com.ikplabs.api.repository.UserFollowRepository;
+import com.ikplabs.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * TimelineService - Follow graph + home timelines (fan-out on write)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * TimelineService seperti "Tukang Pos":
+ * - Follow      → daftar langganan + kirim beberapa foto terbaru followee (backfill)
+ * - Upload foto → foto dimasukkan ke kotak surat (home_timeline) semua follower
+ * - Unfollow    → foto followee diambil lagi dari kotak surat
+ * - Hapus foto  → foto diambil dari semua kotak surat
+ * - Buka timeline → baca kotak surat sendiri, satu keyset scan per halaman
+ *
+ * Akun sangat besar (follower_count >= gallery.timeline.fan-out-max-followers)
+ * TIDAK di-fan-out: satu upload tidak boleh menulis jutaan row. Foto mereka
+ * digabung saat baca (foto public terbaru per akun besar, index
+ * idx_gallery_user_public_id), lalu di-merge dengan isi kotak surat by photo ID.
+ *
+ * Keterbatasan (disengaja): akun yang turun di bawah threshold tidak mengisi
+ * ulang timeline follower-nya dengan foto yang di-upload selama masih "besar".
+ *
+ * Configuration (application.properties):
+ * - gallery.timeline.fan-out-max-followers → batas akun yang masih di-fan-out
+ * - gallery.timeline.backfill              → jumlah foto terbaru yang dikirim saat follow
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@SuppressWarnings("null")
+@Service
+public class TimelineService {
+
+    @Autowired
+    private UserFollowRepository userFollowRepository;
+
+    @Autowired
+    private HomeTimelineRepository homeTimelineRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Value("${gallery.timeline.fan-out-max-followers:10000}")
+    private long fanOutMaxFollowers = 10000;
+
+    @Value("${gallery.timeline.backfill:50}")
+    private int backfill = 50;
+
+    /**
+     * Follow a user
+     *
+     * FLOW PROSES:
+     * 1. Validate not following yourself
+     * 2. Validate both users exist
+     * 3. Check if already following (prevent duplicate)
+     * 4. Save UserFollow + increment users.follower_count (same transaction)
+     * 5. Backfill newest public photos into the follower's timeline
+     *    (skip for large accounts, they are merged at read time)
+     *
+     * @param followerId ID of user who follows
+     * @param followeeId ID of user being followed
+     * @throws IllegalArgumentException if following yourself or user not found
+     * @throws IllegalStateException if already following
+     */
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        // STEP 1: Validate not following yourself
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Cannot follow yourself");
+        }
+
+        // STEP 2: Validate both users exist
+        User follower = userRepository.findById(followerId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + followerId));
+        User followee = userRepository.findById(followeeId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + followeeId));
+
+        // STEP 3: Duplicate prevention
+        if (userFollowRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            throw new IllegalStateException("You are already following this user");
+        }
+
+        // STEP 4: Save follow + denormalized counter
+        userFollowRepository.save(new UserFollow(follower, followee));
+        userRepository.adjustFollowerCount(followeeId, 1);
+
+        // STEP 5: Backfill (fan-out accounts only)
+        if (followee.getFollowerCount() + 1 < fanOutMaxFollowers) {
+            homeTimelineRepository.backfill(followerId, followeeId, backfill);
+        }
+
+        System.out.println("✅ User followed: followerId=" + followerId + ", followeeId=" + followeeId);
+    }
+
+    /**
+     * Unfollow a user
+     *
+     * FLOW PROSES:
+     * 1. Delete the follow (must exist)
+     * 2. Decrement users.follower_count
+     * 3. Remove the followee's photos from the follower's timeline
+     *
+     * @param followerId ID of user who unfollows
+     * @param followeeId ID of user being unfollowed
+     * @throws IllegalArgumentException if not following
+     */
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        if (userFollowRepository.deleteFollow(followerId, followeeId) == 0) {
+            throw new IllegalArgumentException("You are not following this user");
+        }
+        userRepository.adjustFollowerCount(followeeId, -1);
+        homeTimelineRepository.removeFollowee(followerId, followeeId);
+
+        System.out.println("✅ User unfollowed: followerId=" + followerId + ", followeeId=" + followeeId);
+    }
+
+    /**
+     * Push a newly public photo into the timelines of the owner's followers
+     *
+     * Dipanggil GalleryService saat upload public dan saat foto berubah
+     * private → public. Satu INSERT ... SELECT untuk semua follower.
+     *
+     * @param photoId ID of the public photo
+     * @param ownerId ID of the photo owner
+     * @return Number of timelines written (0 for large accounts)
+     */
+    @Transactional
+    public int onPhotoPublished(Long photoId, Long ownerId) {
+        User owner = userRepository.findById(ownerId).orElse(null);
+        if (owner == null || owner.getFollowerCount() >= fanOutMaxFollowers) {
+            return 0;
+        }
+        return homeTimelineRepository.fanOut(photoId, ownerId);
+    }
+
+    /**
+     * Remove a deleted photo from every timeline it was pushed to
+     *
+     * Dipanggil GalleryService.deletePhoto (home_timeline tanpa FK cascade
+     * di schema ddl-auto).
+     *
+     * @param photoId ID of the photo being deleted
+     * @return Number of timeline rows removed
+     */
+    @Transactional
+    public int onPhotoDeleted(Long photoId) {
+        return homeTimelineRepository.removePhoto(photoId);
+    }
+
+    /**
+     * Photo IDs of one timeline page, newest (highest ID) first
+     *
+     * FLOW PROSES:
+     * 1. Keyset read of the reader's own home_timeline rows
+     * 2. Large followees (biasanya tidak ada) → newest public photo IDs per owner
+     * 3. Merge by ID descending, drop duplicates, cut at limit
+     *
+     * @param userId Reader of the timeline
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Maximum number of IDs
+     * @return Photo IDs, highest first (may include photos that became private)
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findTimelineIds(Long userId, long beforeId, int limit) {
+        List<Long> pushed = homeTimelineRepository.findPhotoIdsBefore(userId, beforeId, limit);
+
+        List<Long> largeFollowees = userFollowRepository.findLargeFolloweeIds(userId, fanOutMaxFollowers);
+        if (largeFollowees.isEmpty()) {
+            return pushed;
+        }
+
+        TreeSet<Long> merged = new TreeSet<>(Comparator.reverseOrder());
+        merged.addAll(pushed);
+        merged.addAll(galleryPhotoRepository.findPublicIdsByOwnersBefore(largeFollowees, beforeId, limit));
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, merged.size()));
+        for (Long id : merged) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+}
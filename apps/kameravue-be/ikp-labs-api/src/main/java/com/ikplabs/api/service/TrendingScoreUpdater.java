@@ -0,0 +1,167 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.TrendingCheckpoint;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.repository.TrendingCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * TrendingScoreUpdater - Incremental maintenance of gallery_photos.hot_score (sortBy=trending)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Setiap foto punya "suhu". Like baru menambah panas, dan semua foto
+ * pelan-pelan mendingin (setengahnya setiap half-life, default 12 jam).
+ * Foto lama dengan 1000 like tahun lalu sudah dingin; foto baru dengan
+ * 30 like satu jam terakhir sedang panas → muncul di atas.
+ *
+ * Kenapa tidak dihitung saat query?
+ * - SUM(0.5 ^ (umur like / half-life)) atas photo_likes untuk SETIAP request
+ *   = agregasi seluruh tabel like + sort → mahal
+ * - Dengan kolom hot_score + index (hot_score DESC, id DESC), sortBy=trending
+ *   sama murahnya dengan mostLiked: index scan + LIMIT
+ *
+ * Cara kerja setiap run (satu transaksi):
+ * 1. Decay: hot_score × 0.5 ^ (waktu sejak run terakhir / half-life),
+ *    hanya untuk foto dengan hot_score > 0 (skor kecil dibulatkan ke 0)
+ * 2. Heat: like/favorite dengan id > checkpoint ditambahkan, masing-masing
+ *    sudah di-decay sesuai umurnya terhadap waktu run ini
+ * 3. Checkpoint (id like/favorite terakhir + waktu run) disimpan
+ * 4. Urutan trending berubah (ada heat, atau foto jatuh ke 0) → versi trending
+ *    naik; feed lain dan ETag lain tidak tersentuh
+ *
+ * Commit lag: ID sequence bisa commit tidak berurutan (like id 100 commit
+ * setelah id 101). Batas atas setiap run = id terbesar di antara like yang
+ * sudah lebih tua dari gallery.trending.commit-lag-seconds, jadi like dengan
+ * id lebih kecil yang transaksinya belum selesai tidak pernah terlewati
+ * (asumsi: transaksi like/favorite selesai dalam commit lag).
+ *
+ * Kalau run gagal di tengah, transaksi rollback: decay dan checkpoint
+ * tidak maju, run berikutnya mengulang dari posisi yang sama.
+ *
+ * Unlike/unfavorite tidak mengurangi skor; panasnya hilang sendiri lewat decay.
+ *
+ * Configuration (application.properties):
+ * - gallery.trending.refresh-ms       → interval run
+ * - gallery.trending.half-life-hours  → kecepatan "mendingin"
+ * - gallery.trending.like-weight      → skor satu like baru
+ * - gallery.trending.favorite-weight  → skor satu favorite baru
+ * - gallery.trending.commit-lag-seconds → umur minimal like sebelum batas atas maju
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Service
+public class TrendingScoreUpdater {
+
+    /**
+     * Skor di bawah ini jadi 0 (foto keluar dari UPDATE decay berikutnya)
+     */
+    static final double SCORE_FLOOR = 0.001;
+
+    /**
+     * Like/favorite lebih tua dari N half-life diabaikan (sumbangan < 0.1%)
+     */
+    static final int HORIZON_HALF_LIVES = 10;
+
+    @Autowired
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Autowired
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Autowired
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @Autowired
+    private TrendingCheckpointRepository trendingCheckpointRepository;
+
+    @Autowired
+    private GalleryVersions galleryVersions;
+
+    @Value("${gallery.trending.half-life-hours:12}")
+    private double halfLifeHours = 12;
+
+    @Value("${gallery.trending.like-weight:1.0}")
+    private double likeWeight = 1.0;
+
+    @Value("${gallery.trending.favorite-weight:2.0}")
+    private double favoriteWeight = 2.0;
+
+    @Value("${gallery.trending.commit-lag-seconds:60}")
+    private long commitLagSeconds = 60;
+
+    /**
+     * Scheduled entry point
+     *
+     * Fixed delay: run berikutnya baru mulai setelah run sebelumnya selesai,
+     * jadi tidak pernah ada dua run yang meluruhkan skor bersamaan.
+     */
+    @Scheduled(fixedDelayString = "${gallery.trending.refresh-ms:300000}",
+               initialDelayString = "${gallery.trending.refresh-ms:300000}")
+    @Transactional
+    public void scheduledUpdate() {
+        int heated = updateScores(LocalDateTime.now());
+        System.out.println("✅ Trending scores updated: " + heated + " photo(s) received new engagement");
+    }
+
+    /**
+     * Decay all hot scores to {@code now} and add likes/favorites since the last checkpoint
+     *
+     * @param now Reference time of this run
+     * @return Number of photo score increments (like pass + favorite pass)
+     */
+    @Transactional
+    public int updateScores(LocalDateTime now) {
+        TrendingCheckpoint checkpoint = trendingCheckpointRepository.findById(TrendingCheckpoint.SINGLETON_ID)
+                .orElseGet(TrendingCheckpoint::new);
+        double halfLifeSeconds = Math.max(1.0, halfLifeHours * 3600);
+
+        // 1. Decay: cool every warm photo down by the time elapsed since the last run
+        long cooled = 0;
+        if (checkpoint.getScoredAt() != null) {
+            double elapsedSeconds = Duration.between(checkpoint.getScoredAt(), now).toMillis() / 1000.0;
+            if (elapsedSeconds > 0) {
+                cooled = galleryPhotoRepository.decayHotScores(Math.pow(0.5, elapsedSeconds / halfLifeSeconds), SCORE_FLOOR);
+            }
+        }
+
+        // 2. Heat: only engagement rows after the checkpoint, upper bound older than the commit lag
+        LocalDateTime horizon = now.minusSeconds((long) (halfLifeSeconds * HORIZON_HALF_LIVES));
+        LocalDateTime settled = now.minusSeconds(commitLagSeconds);
+        int heated = 0;
+
+        Long maxLikeId = photoLikeRepository.findMaxIdCreatedBefore(checkpoint.getLastLikeId(), settled);
+        if (maxLikeId != null) {
+            heated += galleryPhotoRepository.addLikeHeat(
+                    checkpoint.getLastLikeId(), maxLikeId, now, horizon, halfLifeSeconds, likeWeight);
+            checkpoint.setLastLikeId(maxLikeId);
+        }
+
+        Long maxFavoriteId = photoFavoriteRepository.findMaxIdCreatedBefore(checkpoint.getLastFavoriteId(), settled);
+        if (maxFavoriteId != null) {
+            heated += galleryPhotoRepository.addFavoriteHeat(
+                    checkpoint.getLastFavoriteId(), maxFavoriteId, now, horizon, halfLifeSeconds, favoriteWeight);
+            checkpoint.setLastFavoriteId(maxFavoriteId);
+        }
+
+        // 3. Checkpoint in the same transaction as the score updates
+        checkpoint.setScoredAt(now);
+        trendingCheckpointRepository.save(checkpoint);
+
+        // 4. Uniform decay keeps the order: only new heat or photos dropping to 0 move it
+        if (heated > 0 || cooled > 0) {
+            galleryVersions.trendingChanged();
+        }
+        return heated;
+    }
+}
@@ -38,6 +38,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    /**
+     * Nama owner tampil di setiap feed gallery → perubahan user = ETag baru
+     */
+    @Autowired
+    private GalleryVersions galleryVersions;
+
     /**
      * Register user baru
      * Business logic: Check email sudah ada atau belum + Hash password
@@ -129,7 +135,9 @@ public class UserService {
         }
 
         // Save updated user
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        galleryVersions.globalChanged();
+        return saved;
     }
 
     /**
@@ -145,7 +153,10 @@ public class UserService {
             throw new RuntimeException("User dengan ID " + id + " tidak ditemukan");
         }
 
+        // Follow rows hilang lewat ON DELETE CASCADE → koreksi follower_count followee dulu
+        userRepository.releaseFollowsOf(id);
         userRepository.deleteById(id);
+        galleryVersions.globalChanged();
     }
 
     /**
@@ -0,0 +1,325 @@
+package com.ikplabs.api.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * BatchingRingBuffer - Preallocated multi-producer ring buffer with one batching thread per consumer
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Ban berjalan sushi dengan jumlah piring tetap (preallocated). Koki (publisher)
+ * mengambil nomor piring berikutnya, mengisi piring, lalu menaruh bendera "siap".
+ * Setiap tamu (consumer) punya kursi dan thread sendiri, melihat SEMUA piring
+ * secara berurutan, dan mengambil sekaligus semua piring siap yang lewat (batch).
+ * Koki hanya menunggu kalau piring yang mau diisi belum dilihat tamu paling lambat.
+ *
+ * Cara kerja (model LMAX Disruptor, versi kecil):
+ * - Slot = objek E yang dibuat sekali di constructor dan dipakai ulang (tanpa alokasi per event)
+ * - Publisher: cursor.incrementAndGet() → sequence; tunggu sampai slot sudah dibaca semua
+ *   consumer (wrap point); isi slot; tandai "published" (nomor putaran per slot)
+ * - Consumer: baca semua sequence berurutan yang sudah published → handler.onBatch(list)
+ *   → simpan sequence terakhir yang selesai
+ *
+ * Biaya publish tidak tergantung jumlah consumer (tidak ada panggilan ke handler
+ * di thread publisher). Handler yang lambat hanya membuat publisher menunggu kalau
+ * seluruh buffer penuh.
+ *
+ * List yang diterima handler adalah VIEW ke slot: hanya valid selama onBatch berjalan,
+ * salin field yang mau disimpan. Exception dari handler dicetak dan batch dilewati
+ * (consumer tetap jalan).
+ *
+ * Sebelum start() dan setelah stop(), publish tidak pernah menunggu (event boleh hilang).
+ *
+ * @param <E> Slot type (mutable, filled by the publisher's writer)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class BatchingRingBuffer<E> {
+
+    /**
+     * Receives every published event, in sequence order, as batches
+     */
+    @FunctionalInterface
+    public interface BatchHandler<E> {
+
+        /**
+         * @param batch Consecutive events (view of the ring, valid only during this call)
+         */
+        void onBatch(List<E> batch);
+    }
+
+    /**
+     * Consumer sleep when nothing is published (delivery latency upper bound)
+     */
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    /**
+     * Empty polls a consumer spins / yields before it starts sleeping (bursts stay in flight)
+     */
+    private static final int IDLE_SPINS = 100;
+    private static final int IDLE_YIELDS = 200;
+
+    /**
+     * Publisher sleep while the buffer is full
+     */
+    private static final long FULL_PARK_NANOS = 10_000L;
+
+    private final Object[] slots;
+    private final int mask;
+    private final int shift;
+
+    /**
+     * Lap number (sequence >>> shift) of the last publish into each slot
+     */
+    private final AtomicIntegerArray published;
+
+    /**
+     * Highest claimed sequence
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    private final List<Worker> workers = new ArrayList<>();
+
+    /**
+     * Minimum processed sequence seen by some publisher (hint, never above the real minimum)
+     */
+    private volatile long gatingCache = -1;
+
+    private volatile boolean running;
+
+    private boolean started;
+
+    /**
+     * @param capacity Number of slots (rounded up to a power of two)
+     * @param factory Creates the slot objects once
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public BatchingRingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.published = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Register a consumer; must be called before start()
+     *
+     * @param name Thread name
+     * @param handler Batch handler, called from that thread only
+     * @throws IllegalStateException if the buffer was already started
+     */
+    public synchronized void addConsumer(String name, BatchHandler<E> handler) {
+        if (started) {
+            throw new IllegalStateException("Consumers must be added before start()");
+        }
+        workers.add(new Worker(name, handler));
+    }
+
+    /**
+     * Start one daemon thread per consumer
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        long from = cursor.get();
+        for (Worker worker : workers) {
+            worker.processed.set(from);
+        }
+        gatingCache = from;
+        running = true;
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Stop consumers after they have handled everything already published
+     *
+     * @param timeoutMillis Maximum wait per consumer thread
+     */
+    public synchronized void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        for (Worker worker : workers) {
+            if (worker.thread.isAlive()) {
+                LockSupport.unpark(worker.thread);
+                worker.thread.join(timeoutMillis);
+            }
+        }
+    }
+
+    /**
+     * Claim the next slot, fill it, and make it visible to every consumer
+     *
+     * @param writer Copies the event into the (reused) slot object
+     */
+    public void publish(Consumer<E> writer) {
+        long sequence = cursor.incrementAndGet();
+        awaitSlot(sequence);
+        writer.accept(slot(sequence));
+        published.set((int) sequence & mask, lap(sequence));
+    }
+
+    /**
+     * Number of slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Events published but not yet handled by the slowest consumer
+     */
+    public long backlog() {
+        return workers.isEmpty() ? 0 : Math.max(0, cursor.get() - minProcessed());
+    }
+
+    private void awaitSlot(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint <= gatingCache) {
+            return;
+        }
+        while (running) {
+            long min = minProcessed();
+            gatingCache = min;
+            if (wrapPoint <= min) {
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    private long minProcessed() {
+        long min = Long.MAX_VALUE;
+        for (Worker worker : workers) {
+            min = Math.min(min, worker.processed.get());
+        }
+        return min;
+    }
+
+    /**
+     * Last sequence of the unbroken published run starting at {@code from}
+     */
+    private long highestPublished(long from, long claimed) {
+        for (long sequence = from; sequence <= claimed; sequence++) {
+            if (published.get((int) sequence & mask) != lap(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    private int lap(long sequence) {
+        return (int) (sequence >>> shift);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E slot(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BatchHandler<E> handler;
+        private final AtomicLong processed = new AtomicLong(-1);
+        private final BatchView view = new BatchView();
+        private final Thread thread;
+
+        Worker(String name, BatchHandler<E> handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = processed.get() + 1;
+            int idle = 0;
+            while (true) {
+                long available = highestPublished(next, cursor.get());
+                if (available < next) {
+                    if (!running) {
+                        // Re-read after seeing stop(): publishes that finished before it are now visible
+                        if (highestPublished(next, cursor.get()) < next) {
+                            return; // everything published before stop() was handled
+                        }
+                        continue;
+                    }
+                    idle(idle);
+                    idle = Math.min(idle + 1, IDLE_SPINS + IDLE_YIELDS); // capped: an int counter would wrap back to spinning
+                    continue;
+                }
+                idle = 0;
+                view.reset(next, (int) (available - next + 1));
+                try {
+                    handler.onBatch(view);
+                } catch (RuntimeException e) {
+                    System.out.println("❌ " + thread.getName() + " failed on " + view.size()
+                            + " event(s), skipped: " + e.getMessage());
+                }
+                processed.set(available);
+                next = available + 1;
+            }
+        }
+
+        /**
+         * Spin, then yield, then sleep: no CPU burned while the gallery is quiet
+         */
+        private void idle(int polls) {
+            if (polls < IDLE_SPINS) {
+                Thread.onSpinWait();
+            } else if (polls < IDLE_SPINS + IDLE_YIELDS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Read-only window [first, first + size) of the ring, reused for every batch
+     */
+    private final class BatchView extends AbstractList<E> implements RandomAccess {
+
+        private long first;
+        private int size;
+
+        void reset(long first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return slot(first + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ikplabs.api.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter - Thread-safe Bloom filter of long IDs (add-only)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Satpam dengan daftar "ciri-ciri" tamu, bukan daftar nama lengkap.
+ * Kalau ciri-cirinya tidak cocok → pasti BUKAN tamu (tidak perlu cek buku tamu).
+ * Kalau cocok → MUNGKIN tamu, baru cek buku tamu (SQL).
+ *
+ * - mightContain() = false → pasti tidak ada (tidak pernah salah)
+ * - mightContain() = true  → mungkin ada (false positive ≈ fpp saat berisi
+ *   expectedInsertions ID; naik kalau diisi lebih banyak)
+ * - Tidak bisa menghapus: ID yang dihapus tetap "mungkin ada"
+ *
+ * Hashing: fmix64 (MurmurHash3) → dua hash 32-bit, k posisi = h1 + i × h2
+ * (Kirsch-Mitzenmacher). add() bisa bersamaan dari banyak thread
+ * (bit hanya di-set, lewat AtomicLongArray).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class BloomFilter {
+
+    /**
+     * Bit positions come from 31-bit hashes: more than 2^31 bits would never be used
+     */
+    private static final int MAX_WORDS = 1 << 25;
+
+    private static final int MAX_HASHES = 16;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions Number of IDs the filter is sized for (at least 1 is used)
+     * @param fpp Target false positive probability at that size (0 < fpp < 1)
+     * @throws IllegalArgumentException if fpp is out of range
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(MAX_WORDS, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, Math.min(MAX_HASHES, (int) Math.round((double) bitCount / n * Math.log(2))));
+    }
+
+    public void add(long id) {
+        long hash = fmix64(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    /**
+     * @return false if the ID was definitely never added
+     */
+    public boolean mightContain(long id) {
+        long hash = fmix64(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Approximate heap size of the bit array
+     */
+    public long sizeInBytes() {
+        return 16L + (long) words.length() * 8;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    private long index(int combined) {
+        // Negative combined hash → flip bits, like Guava's BloomFilter
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
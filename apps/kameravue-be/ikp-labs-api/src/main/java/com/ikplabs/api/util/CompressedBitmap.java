@@ -0,0 +1,617 @@
+package com.ikplabs.api.util;
+
+import java.util.Arrays;
+
+/**
+ * CompressedBitmap - Immutable compressed set of non-negative long IDs (Roaring-style)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Bayangkan absen kelas dengan 1 juta nomor kursi, dibagi per lantai
+ * (65.536 kursi per lantai). Untuk lantai yang sepi cukup ditulis DAFTAR NOMOR
+ * yang terisi; untuk lantai yang ramai lebih hemat pakai PAPAN LAMPU
+ * (1 bit per kursi). "Siapa yang ada di absen A DAN absen B?" dijawab lantai
+ * per lantai: daftar vs daftar = merge, papan vs papan = AND per 64 kursi.
+ *
+ * Struktur (sama dengan Roaring bitmap):
+ * - ID dipecah: high = id >>> 16 (lantai), low = 16 bit terakhir (kursi)
+ * - Per high satu container:
+ *   - ArrayContainer  → char[] terurut, dipakai sampai 4096 nilai (≤ 8 KB)
+ *   - BitmapContainer → long[1024] (tepat 8 KB), dipakai di atas 4096 nilai
+ * - and / andNot bekerja per container, hasil kosong langsung dibuang
+ *
+ * Immutable: with/without/and/andNot mengembalikan bitmap baru yang berbagi
+ * container yang tidak berubah (copy-on-write per container). Reader tidak
+ * pernah butuh lock; writer cukup mengganti referensi.
+ *
+ * Hanya operasi yang dibutuhkan PhotoTagIndex dan EngagementMemberships
+ * (set photo ID yang di-like/favorite per user): bukan pengganti library
+ * Roaring lengkap (tidak ada or, xor, serialization, run container).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class CompressedBitmap {
+
+    public static final CompressedBitmap EMPTY = new CompressedBitmap(new long[0], new Container[0], 0);
+
+    /**
+     * Batas ArrayContainer: 4096 char = 8 KB = ukuran BitmapContainer
+     */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int BITMAP_WORDS = CHUNK_SIZE / 64;
+
+    /**
+     * High 48 bits of the IDs of each container, ascending
+     */
+    private final long[] keys;
+    private final Container[] containers;
+    private final long cardinality;
+
+    private CompressedBitmap(long[] keys, Container[] containers, long cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Bitmap of the given IDs (any order, duplicates allowed)
+     *
+     * @throws IllegalArgumentException if an ID is negative
+     */
+    public static CompressedBitmap of(long... ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (long id : sorted) {
+            builder.add(id);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder for IDs that arrive in ascending order (e.g. ORDER BY photo_id)
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    /**
+     * This bitmap plus one ID (this instance if already present)
+     *
+     * @throws IllegalArgumentException if the ID is negative
+     */
+    public CompressedBitmap with(long id) {
+        checkId(id);
+        char low = (char) id;
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        if (index >= 0) {
+            Container updated = containers[index].add(low);
+            if (updated == containers[index]) {
+                return this;
+            }
+            Container[] newContainers = containers.clone();
+            newContainers[index] = updated;
+            return new CompressedBitmap(keys, newContainers, cardinality + 1);
+        }
+
+        int insertAt = -index - 1;
+        long[] newKeys = new long[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertAt);
+        System.arraycopy(containers, 0, newContainers, 0, insertAt);
+        newKeys[insertAt] = id >>> 16;
+        newContainers[insertAt] = new ArrayContainer(new char[] {low});
+        System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+        System.arraycopy(containers, insertAt, newContainers, insertAt + 1, containers.length - insertAt);
+        return new CompressedBitmap(newKeys, newContainers, cardinality + 1);
+    }
+
+    /**
+     * This bitmap minus one ID (this instance if not present)
+     */
+    public CompressedBitmap without(long id) {
+        if (id < 0) {
+            return this;
+        }
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        if (index < 0) {
+            return this;
+        }
+        Container updated = containers[index].remove((char) id);
+        if (updated == containers[index]) {
+            return this;
+        }
+        if (updated != null) {
+            Container[] newContainers = containers.clone();
+            newContainers[index] = updated;
+            return new CompressedBitmap(keys, newContainers, cardinality - 1);
+        }
+
+        // Container became empty → drop it
+        long[] newKeys = new long[keys.length - 1];
+        Container[] newContainers = new Container[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+        return new CompressedBitmap(newKeys, newContainers, cardinality - 1);
+    }
+
+    /**
+     * IDs present in both bitmaps
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        long[] newKeys = new long[capacity];
+        Container[] newContainers = new Container[capacity];
+        int count = 0;
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container result = containers[i].and(other.containers[j]);
+                if (result != null) {
+                    newKeys[count] = keys[i];
+                    newContainers[count++] = result;
+                    total += result.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        return create(newKeys, newContainers, count, total);
+    }
+
+    /**
+     * IDs of this bitmap that are not in the other one
+     */
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        long[] newKeys = new long[keys.length];
+        Container[] newContainers = new Container[keys.length];
+        int count = 0;
+        long total = 0;
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container result = containers[i];
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                result = result.andNot(other.containers[j]);
+            }
+            if (result != null) {
+                newKeys[count] = keys[i];
+                newContainers[count++] = result;
+                total += result.cardinality();
+            }
+        }
+        return create(newKeys, newContainers, count, total);
+    }
+
+    /**
+     * The highest IDs below a bound, highest first
+     *
+     * Use case: satu halaman feed keyset (cursor = ID terakhir halaman sebelumnya).
+     * Hanya container yang dilewati yang dibaca, tidak seluruh bitmap.
+     *
+     * @param beforeId Exclusive upper bound (Long.MAX_VALUE for the first page)
+     * @param limit Maximum number of IDs
+     * @return Up to limit IDs, descending
+     */
+    public long[] topBefore(long beforeId, int limit) {
+        if (limit < 1 || beforeId <= 0) {
+            return new long[0];
+        }
+        long[] out = new long[(int) Math.min(limit, cardinality)];
+        int count = 0;
+        int index = Arrays.binarySearch(keys, beforeId >>> 16);
+        int below = CHUNK_SIZE;
+        if (index >= 0) {
+            below = (int) (beforeId & 0xFFFF);
+        } else {
+            index = -index - 2;
+        }
+        for (; index >= 0 && count < out.length; index--) {
+            count = containers[index].collectBelow(keys[index] << 16, below, out, count);
+            below = CHUNK_SIZE;
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Approximate heap footprint in bytes (keys + containers, without object headers)
+     */
+    public long sizeInBytes() {
+        long bytes = 8L * keys.length;
+        for (Container container : containers) {
+            bytes += container.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private static CompressedBitmap create(long[] keys, Container[] containers, int count, long cardinality) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (count < keys.length) {
+            keys = Arrays.copyOf(keys, count);
+            containers = Arrays.copyOf(containers, count);
+        }
+        return new CompressedBitmap(keys, containers, cardinality);
+    }
+
+    private static void checkId(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Bitmap IDs must not be negative: " + id);
+        }
+    }
+
+    /**
+     * Collects ascending IDs one container at a time
+     */
+    public static final class Builder {
+
+        private long[] keys = new long[8];
+        private Container[] containers = new Container[8];
+        private int count;
+        private long cardinality;
+
+        private long currentKey = -1;
+        private char[] buffer = new char[64];
+        private int buffered;
+        private long lastId = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Add the next ID (duplicates of the previous ID are ignored)
+         *
+         * @throws IllegalArgumentException if the ID is negative or lower than the previous one
+         */
+        public Builder add(long id) {
+            checkId(id);
+            if (id == lastId) {
+                return this;
+            }
+            if (id < lastId) {
+                throw new IllegalArgumentException("Builder IDs must be ascending: " + id + " after " + lastId);
+            }
+            lastId = id;
+            long key = id >>> 16;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+            if (buffered == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, CHUNK_SIZE));
+            }
+            buffer[buffered++] = (char) id;
+            return this;
+        }
+
+        public CompressedBitmap build() {
+            flush();
+            return create(keys, containers, count, cardinality);
+        }
+
+        private void flush() {
+            if (buffered == 0) {
+                return;
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                containers = Arrays.copyOf(containers, count * 2);
+            }
+            keys[count] = currentKey;
+            containers[count++] = Container.fromSorted(Arrays.copyOf(buffer, buffered));
+            cardinality += buffered;
+            buffered = 0;
+        }
+    }
+
+    /**
+     * Set of 16-bit values of one chunk; never empty (empty results are null)
+     */
+    private abstract static class Container {
+
+        static Container fromSorted(char[] values) {
+            if (values.length <= ARRAY_MAX) {
+                return new ArrayContainer(values);
+            }
+            long[] words = new long[BITMAP_WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return new BitmapContainer(words, values.length);
+        }
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /**
+         * @return Container with the value (this if already present)
+         */
+        abstract Container add(char value);
+
+        /**
+         * @return Container without the value (this if absent, null if it becomes empty)
+         */
+        abstract Container remove(char value);
+
+        /**
+         * @return Intersection, or null if empty
+         */
+        abstract Container and(Container other);
+
+        /**
+         * @return Difference, or null if empty
+         */
+        abstract Container andNot(Container other);
+
+        /**
+         * Append values below an exclusive bound (0..65536) in descending order
+         *
+         * @return New number of IDs in out
+         */
+        abstract int collectBelow(long base, int below, long[] out, int count);
+
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, value);
+            if (index >= 0) {
+                return this;
+            }
+            int insertAt = -index - 1;
+            char[] newValues = new char[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, insertAt);
+            newValues[insertAt] = value;
+            System.arraycopy(values, insertAt, newValues, insertAt + 1, values.length - insertAt);
+            return Container.fromSorted(newValues);
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, value);
+            if (index < 0) {
+                return this;
+            }
+            if (values.length == 1) {
+                return null;
+            }
+            char[] newValues = new char[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+            return new ArrayContainer(newValues);
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[values.length];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                char[] others = array.values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < others.length) {
+                    if (values[i] < others[j]) {
+                        i++;
+                    } else if (values[i] > others[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        result[count++] = value;
+                    }
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(Arrays.copyOf(result, count));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[values.length];
+            int count = 0;
+            for (char value : values) {
+                if (!other.contains(value)) {
+                    result[count++] = value;
+                }
+            }
+            if (count == values.length) {
+                return this;
+            }
+            return count == 0 ? null : new ArrayContainer(Arrays.copyOf(result, count));
+        }
+
+        @Override
+        int collectBelow(long base, int below, long[] out, int count) {
+            int i = values.length - 1;
+            if (below < CHUNK_SIZE) {
+                int index = Arrays.binarySearch(values, (char) below);
+                i = index >= 0 ? index - 1 : -index - 2;
+            }
+            for (; i >= 0 && count < out.length; i--) {
+                out[count++] = base | values[i];
+            }
+            return count;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 2L * values.length;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Container for words with a known cardinality: array when small enough, null when empty
+         */
+        static Container fromWords(long[] words, int cardinality) {
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[count++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            if (contains(value)) {
+                return this;
+            }
+            long[] newWords = words.clone();
+            newWords[value >>> 6] |= 1L << value;
+            return new BitmapContainer(newWords, cardinality + 1);
+        }
+
+        @Override
+        Container remove(char value) {
+            if (!contains(value)) {
+                return this;
+            }
+            long[] newWords = words.clone();
+            newWords[value >>> 6] &= ~(1L << value);
+            return fromWords(newWords, cardinality - 1);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] newWords = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                newWords[w] = words[w] & otherWords[w];
+                count += Long.bitCount(newWords[w]);
+            }
+            return fromWords(newWords, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] newWords = words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (char value : array.values) {
+                    newWords[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    newWords[w] &= ~otherWords[w];
+                }
+            }
+            int count = 0;
+            for (long word : newWords) {
+                count += Long.bitCount(word);
+            }
+            return count == cardinality ? this : fromWords(newWords, count);
+        }
+
+        @Override
+        int collectBelow(long base, int below, long[] out, int count) {
+            int value = below - 1;
+            while (value >= 0 && count < out.length) {
+                int w = value >>> 6;
+                // Bits 0..(value % 64) of this word
+                long word = words[w] & (-1L >>> (63 - (value & 63)));
+                if (word == 0) {
+                    value = (w << 6) - 1;
+                    continue;
+                }
+                int found = (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+                out[count++] = base | found;
+                value = found - 1;
+            }
+            return count;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 8L * BITMAP_WORDS;
+        }
+    }
+}
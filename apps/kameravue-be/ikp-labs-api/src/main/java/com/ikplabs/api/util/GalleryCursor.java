@@ -0,0 +1,110 @@
+package com.ikplabs.api.util;
+
+import com.ikplabs.api.enums.SortBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * GalleryCursor - Opaque keyset cursor for gallery list endpoints
+ *
+ * Cursor menyimpan posisi "foto terakhir yang sudah dilihat" dalam urutan sort:
+ * (sortBy, sort key, photo id). Halaman berikutnya dimulai SETELAH posisi itu
+ * dengan seek predicate, bukan OFFSET, jadi biaya per halaman konstan
+ * di kedalaman berapapun.
+ *
+ * Sort key per mode:
+ * - newest / oldest       → created_at (ISO-8601 LocalDateTime)
+ * - mostLiked             → like count
+ * - mostFavorited         → favorite count
+ * - trending              → hot score (double)
+ *
+ * Format (sebelum Base64 URL-safe): "v1|{sortBy}|{sortKey}|{id}"
+ * Frontend tidak boleh parse isinya, cukup kirim balik apa adanya.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class GalleryCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final SortBy sortBy;
+    private final Object sortKey;
+    private final long id;
+
+    private GalleryCursor(SortBy sortBy, Object sortKey, long id) {
+        this.sortBy = sortBy;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * Encode the position of the last row of a page into an opaque cursor
+     *
+     * @param sortBy Sort mode of the page
+     * @param sortKey Sort key of the last row (LocalDateTime or Number, depending on sortBy)
+     * @param id ID of the last row (tie-breaker)
+     * @return URL-safe opaque cursor string
+     */
+    public static String encode(SortBy sortBy, Object sortKey, long id) {
+        String raw = VERSION + SEPARATOR + sortBy.getValue() + SEPARATOR + sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode}
+     *
+     * @param token Cursor from the request (null or blank = first page)
+     * @param expected Sort mode of the current request (cursor must match)
+     * @return Decoded cursor, or null if token is null/blank
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort mode
+     */
+    public static GalleryCursor decode(String token, SortBy expected) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            SortBy sortBy = SortBy.fromValue(parts[1]);
+            if (sortBy != expected) {
+                throw new IllegalArgumentException(
+                    "Cursor was issued for sortBy=" + sortBy.getValue() + ", not " + expected.getValue()
+                );
+            }
+            return new GalleryCursor(sortBy, parseSortKey(sortBy, parts[2]), Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Object parseSortKey(SortBy sortBy, String value) {
+        return switch (sortBy) {
+            case NEWEST, OLDEST -> LocalDateTime.parse(value);
+            case MOST_LIKED, MOST_FAVORITED -> Long.parseLong(value);
+            case TRENDING -> Double.parseDouble(value);
+        };
+    }
+
+    public SortBy getSortBy() {
+        return sortBy;
+    }
+
+    /**
+     * @return LocalDateTime for newest/oldest, Long for count-based sorts, Double for trending
+     */
+    public Object getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ikplabs.api.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * LookAheadPageRequest - Pageable that fetches ONE extra row (size + 1)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Untuk tahu "masih ada halaman berikutnya?", dulu petugas menghitung SEMUA foto
+ * di gudang (COUNT(*)) lalu membagi dengan ukuran halaman.
+ * Sekarang petugas cukup mengintip satu foto lebih jauh:
+ * minta 13 foto untuk halaman berisi 12 → kalau dapat 13, hasNext = true.
+ *
+ * Offset tetap page * size (halaman normal), hanya LIMIT yang + 1:
+ *   page=2, size=12 → OFFSET 24 LIMIT 13
+ *
+ * Dipakai oleh count-free mode (?withTotal=false) di semua list endpoint.
+ * Semua repository yang menerima Pageable (native feed statements, JPQL liked/favorited,
+ * PublicFeedIndex) hanya membaca getOffset() dan getPageSize(), jadi tidak perlu query baru.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class LookAheadPageRequest extends PageRequest {
+
+    private final int visibleSize;
+
+    /**
+     * @param page Page number (0-indexed)
+     * @param size Photos per page as seen by the client (LIMIT will be size + 1)
+     * @throws IllegalArgumentException if page is negative or size is less than 1
+     */
+    public LookAheadPageRequest(int page, int size) {
+        super(page, checkSize(size) + 1, Sort.unsorted());
+        this.visibleSize = size;
+    }
+
+    /**
+     * Offset of a normal page of visibleSize rows (not of size + 1 rows)
+     */
+    @Override
+    public long getOffset() {
+        return (long) getPageNumber() * (long) visibleSize;
+    }
+
+    /**
+     * Page size as seen by the client (without the look-ahead row)
+     */
+    public int getVisibleSize() {
+        return visibleSize;
+    }
+
+    private static int checkSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        return size;
+    }
+}
@@ -4,6 +4,7 @@ import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * PaginationUtil - Utility class for pagination metadata calculation
@@ -16,6 +17,11 @@ import java.util.List;
  * - PhotoLikeController (liked-photos)
  * - PhotoFavoriteController (favorited-photos)
  *
+ * Three response shapes:
+ * - buildPaginatedResponse  → page/size + exact COUNT(*)
+ * - buildCursorResponse     → keyset cursor mode
+ * - buildLookAheadResponse  → page/size without COUNT(*) (?withTotal=false)
+ *
  * @author Isnendy Ankp
  * @since 2026-02-07
  */
@@ -58,6 +64,94 @@ public class PaginationUtil {
         );
     }
 
+    /**
+     * Build GalleryListResponse for cursor (keyset) mode
+     *
+     * Di cursor mode tidak ada nomor halaman: currentPage selalu 0,
+     * navigasi pakai nextCursor. totalPhotos/totalPages tetap diisi
+     * supaya UI bisa tampilkan "48 photos", kecuali totalPhotos = UNKNOWN_TOTAL
+     * (count-free mode) → kedua total tidak muncul di JSON.
+     *
+     * @param photos List of photo DTOs for current slice
+     * @param totalPhotos Total number of photos across all pages
+     * @param size Number of photos per page
+     * @param nextCursor Cursor for the next slice (null if last slice)
+     * @param hasPrevious Whether this slice was requested with a cursor
+     * @return GalleryListResponse with cursor metadata
+     */
+    public static GalleryListResponse buildCursorResponse(
+            List<GalleryPhotoResponse> photos,
+            long totalPhotos,
+            int size,
+            String nextCursor,
+            boolean hasPrevious) {
+
+        int totalPages = totalPhotos < 0
+                ? GalleryListResponse.UNKNOWN_TOTAL
+                : (int) Math.ceil((double) totalPhotos / size);
+
+        GalleryListResponse response = GalleryListResponse.fromPage(
+                photos,
+                0,                   // No page numbers in cursor mode
+                totalPages,
+                totalPhotos,
+                size,
+                nextCursor != null,  // Has next slice?
+                hasPrevious
+        );
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    /**
+     * Build GalleryListResponse for count-free mode (?withTotal=false)
+     *
+     * Tidak ada COUNT(*): hasNext diambil dari look-ahead fetch (size + 1 baris,
+     * lihat LookAheadPageRequest). Total hanya diisi kalau ada angka murah
+     * yang sudah tersedia (misalnya count dari PublicFeedIndex di memori);
+     * selain itu totalPhotos/totalPages = UNKNOWN_TOTAL dan tidak muncul di JSON.
+     *
+     * @param photos List of photo DTOs for current page (already trimmed to size)
+     * @param page Current page number (0-indexed)
+     * @param size Number of photos per page
+     * @param hasNext Whether the look-ahead row was found
+     * @param knownTotal Total photos if available without a COUNT(*) query
+     * @return GalleryListResponse with pagination metadata
+     */
+    public static GalleryListResponse buildLookAheadResponse(
+            List<GalleryPhotoResponse> photos,
+            int page,
+            int size,
+            boolean hasNext,
+            OptionalLong knownTotal) {
+
+        long totalPhotos = knownTotal.orElse(GalleryListResponse.UNKNOWN_TOTAL);
+        int totalPages = knownTotal.isPresent()
+                ? (int) Math.ceil((double) totalPhotos / size)
+                : GalleryListResponse.UNKNOWN_TOTAL;
+
+        return GalleryListResponse.fromPage(
+                photos,
+                page,
+                totalPages,
+                totalPhotos,
+                size,
+                hasNext,       // Look-ahead row found?
+                page > 0
+        );
+    }
+
+    /**
+     * Drop the look-ahead row from a size + 1 fetch
+     *
+     * @param rows Rows fetched with LookAheadPageRequest
+     * @param size Photos per page as seen by the client
+     * @return At most size rows
+     */
+    public static <T> List<T> withoutLookAhead(List<T> rows, int size) {
+        return rows.size() > size ? rows.subList(0, size) : rows;
+    }
+
     /**
      * Private constructor to prevent instantiation
      * This is a utility class with only static methods
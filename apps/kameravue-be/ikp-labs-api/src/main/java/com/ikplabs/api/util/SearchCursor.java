@@ -0,0 +1,80 @@
+package com.ikplabs.api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * SearchCursor - Opaque keyset cursor for GET /api/gallery/search
+ *
+ * Sama seperti GalleryCursor, tapi sort key-nya adalah skor relevansi
+ * (ts_rank_cd, PostgreSQL real) dan bukan salah satu SortBy.
+ * Halaman berikutnya dimulai SETELAH (rank, id) foto terakhir.
+ *
+ * Rank disimpan sebagai float dengan Float.toString() → round-trip persis,
+ * jadi perbandingan (rank, id) < (:rank, :lastId) di database tidak
+ * melewatkan atau menggandakan foto dengan rank yang sama.
+ *
+ * Format (sebelum Base64 URL-safe): "v1|search|{rank}|{id}"
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class SearchCursor {
+
+    private static final String PREFIX = "v1|search|";
+    private static final String SEPARATOR = "|";
+
+    private final float rank;
+    private final long id;
+
+    private SearchCursor(float rank, long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    /**
+     * Encode the position of the last row of a search page
+     *
+     * @param rank Relevance of the last row
+     * @param id ID of the last row (tie-breaker)
+     * @return URL-safe opaque cursor string
+     */
+    public static String encode(float rank, long id) {
+        String raw = PREFIX + Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode}
+     *
+     * @param token Cursor from the request (null or blank = first page)
+     * @return Decoded cursor, or null if token is null/blank
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String[] parts = raw.substring(PREFIX.length()).split("\\" + SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
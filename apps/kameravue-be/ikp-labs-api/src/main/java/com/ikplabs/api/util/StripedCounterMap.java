@@ -0,0 +1,266 @@
+package com.ikplabs.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedCounterMap - Bounded map of key → (likes, favorites) striped counters
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Foto viral dapat ratusan like per detik. Satu penghitung (AtomicLong) =
+ * satu loket: semua thread antri CAS di cache line yang sama.
+ * LongAdder = banyak loket (cell per thread yang berebut), total dijumlahkan
+ * hanya saat ada yang bertanya. Tulis murah, baca sedikit lebih mahal (sum).
+ *
+ * Aturan:
+ * - Key hanya masuk lewat prime() (nilai awal dari database); add() untuk key
+ *   yang tidak ada diabaikan → pemilik map me-prime lagi dari database saat dibaca
+ * - correct() memperbaiki drift, kecuali key yang ditulis setelah pembacaan
+ *   database dimulai (nilai database-nya sudah ketinggalan)
+ * - Nilai yang dibaca tidak pernah negatif
+ *
+ * Batas memori: maksimal maxKeys key. Saat penuh, 10% key paling lama tidak
+ * dibaca dibuang (satu thread scan + sort, thread lain tidak menunggu).
+ * Waktu baca terakhir dicatat dengan granularitas 1 detik, supaya foto populer
+ * tidak menulis cache line yang sama di setiap pembacaan. Waktu tulis terakhir
+ * sama: disimpan hanya kalau sudah lebih tua dari WRITE_SLACK_NANOS, dan correct()
+ * menganggap key "ditulis setelah pembacaan" kalau lastWrite + slack >= mulai baca
+ * (like ke foto viral tidak lagi menulis satu field volatile bersama).
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class StripedCounterMap {
+
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000_000L;
+
+    /**
+     * lastWrite may lag the real last add by up to this much
+     */
+    private static final long WRITE_SLACK_NANOS = 1_000_000_000L;
+
+    private final int maxKeys;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxKeys Maximum number of keys kept
+     * @throws IllegalArgumentException if maxKeys is less than 1
+     */
+    public StripedCounterMap(int maxKeys) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Counter map needs room for at least 1 key");
+        }
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Current counts of a key
+     *
+     * @return Counts, or null if the key is not loaded (caller primes it)
+     */
+    public Counts get(Long key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return null;
+        }
+        counter.touch();
+        return counter.counts();
+    }
+
+    /**
+     * Load the starting counts of a key (no-op if another thread loaded it first)
+     *
+     * @return Counts of the key after priming (the existing ones if it was already loaded)
+     */
+    public Counts prime(Long key, long likes, long favorites) {
+        Counter fresh = new Counter(likes, favorites);
+        Counter existing = counters.putIfAbsent(key, fresh);
+        if (existing != null) {
+            existing.touch();
+            return existing.counts();
+        }
+        if (counters.size() > maxKeys) {
+            evictColdest();
+        }
+        return fresh.counts();
+    }
+
+    /**
+     * Add deltas to a loaded key
+     *
+     * @return false if the key is not loaded (nothing to update)
+     */
+    public boolean add(Long key, long likeDelta, long favoriteDelta) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return false;
+        }
+        counter.add(likeDelta, favoriteDelta);
+        return true;
+    }
+
+    /**
+     * Move a key's counts to values read from the database
+     *
+     * @param readStartNanos System.nanoTime() taken before the database read started
+     * @return true if the counts changed
+     */
+    public boolean correct(Long key, long likes, long favorites, long readStartNanos) {
+        Counter counter = counters.get(key);
+        if (counter == null || counter.lastWrite + WRITE_SLACK_NANOS - readStartNanos >= 0) {
+            return false;
+        }
+        long likeDiff = likes - counter.likes.sum();
+        long favoriteDiff = favorites - counter.favorites.sum();
+        if (likeDiff == 0 && favoriteDiff == 0) {
+            return false;
+        }
+        counter.likes.add(likeDiff);
+        counter.favorites.add(favoriteDiff);
+        return true;
+    }
+
+    public void remove(Long key) {
+        counters.remove(key);
+    }
+
+    /**
+     * Snapshot of the loaded keys (for reconciliation)
+     */
+    public List<Long> keys() {
+        return new ArrayList<>(counters.keySet());
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Number of keys dropped because the map was full
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Drop the coldest keys down to 90% of maxKeys
+     *
+     * tryLock: kalau thread lain sedang evict, thread ini langsung lanjut
+     * (map sempat sedikit di atas batas, tidak masalah).
+     */
+    private void evictColdest() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = counters.size() - maxKeys * 9 / 10;
+            if (excess <= 0) {
+                return;
+            }
+            long[] accessed = new long[counters.size()];
+            int n = 0;
+            for (Counter counter : counters.values()) {
+                if (n == accessed.length) {
+                    break;
+                }
+                accessed[n++] = counter.lastAccess;
+            }
+            Arrays.sort(accessed, 0, n);
+            long cutoff = accessed[Math.min(excess, n) - 1];
+
+            int removed = 0;
+            for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+                if (removed >= excess) {
+                    break;
+                }
+                if (entry.getValue().lastAccess - cutoff <= 0 && counters.remove(entry.getKey(), entry.getValue())) {
+                    removed++;
+                }
+            }
+            evictions.add(removed);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Counts of one key at the time it was read (never negative)
+     */
+    public static final class Counts {
+
+        private final long likes;
+        private final long favorites;
+
+        public Counts(long likes, long favorites) {
+            this.likes = Math.max(0L, likes);
+            this.favorites = Math.max(0L, favorites);
+        }
+
+        public long getLikes() {
+            return likes;
+        }
+
+        public long getFavorites() {
+            return favorites;
+        }
+
+        @Override
+        public String toString() {
+            return "Counts{likes=" + likes + ", favorites=" + favorites + '}';
+        }
+    }
+
+    private static final class Counter {
+
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder favorites = new LongAdder();
+
+        /**
+         * System.nanoTime() of the last read (granularity 1 s) and of the last add
+         * (granularity WRITE_SLACK_NANOS)
+         */
+        private volatile long lastAccess = System.nanoTime();
+        private volatile long lastWrite;
+
+        Counter(long likes, long favorites) {
+            this.likes.add(likes);
+            this.favorites.add(favorites);
+            this.lastWrite = lastAccess - ACCESS_GRANULARITY_NANOS - WRITE_SLACK_NANOS;
+        }
+
+        void touch() {
+            long now = System.nanoTime();
+            if (now - lastAccess > ACCESS_GRANULARITY_NANOS) {
+                lastAccess = now;
+            }
+        }
+
+        void add(long likeDelta, long favoriteDelta) {
+            if (likeDelta != 0) {
+                likes.add(likeDelta);
+            }
+            if (favoriteDelta != 0) {
+                favorites.add(favoriteDelta);
+            }
+            long now = System.nanoTime();
+            if (now - lastWrite > WRITE_SLACK_NANOS) {
+                lastWrite = now;
+            }
+        }
+
+        Counts counts() {
+            return new Counts(likes.sum(), favorites.sum());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ikplabs.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * TagQuery - Parsed tag filter ("sunset AND beach NOT night")
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Seperti daftar belanja dengan coretan: "sunset beach" = harus ada keduanya,
+ * "NOT night" / "-night" = jangan ambil yang ada night-nya.
+ *
+ * Syntax (case-insensitive, dipisah spasi atau koma):
+ * - sunset beach            → include sunset DAN beach
+ * - sunset AND beach        → sama (AND opsional)
+ * - sunset NOT night        → include sunset, exclude night
+ * - sunset -night           → sama
+ *
+ * Hanya konjungsi: OR dan tanda kurung TIDAK didukung (ditolak, bukan diabaikan),
+ * supaya setiap query = satu intersection bitmap di PhotoTagIndex.
+ * Minimal satu tag include; query yang hanya NOT akan mengembalikan hampir semua foto.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class TagQuery {
+
+    public static final int MAX_TAG_LENGTH = 30;
+
+    /**
+     * Batas jumlah tag (include + exclude) per query
+     */
+    public static final int MAX_TERMS = 10;
+
+    private static final Pattern TAG = Pattern.compile("[a-z0-9][a-z0-9_-]{0," + (MAX_TAG_LENGTH - 1) + "}");
+    private static final Pattern SEPARATOR = Pattern.compile("[\\s,]+");
+
+    private final List<String> include;
+    private final List<String> exclude;
+
+    private TagQuery(List<String> include, List<String> exclude) {
+        this.include = include;
+        this.exclude = exclude;
+    }
+
+    /**
+     * Parse a tag filter
+     *
+     * @param query e.g. "sunset AND beach NOT night"
+     * @return Parsed query (tags normalized, duplicates removed)
+     * @throws IllegalArgumentException if the query is blank, uses OR, has an invalid tag,
+     *         too many tags or no tag to include
+     */
+    public static TagQuery parse(String query) {
+        String q = query != null ? query.trim() : "";
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("Tag query must not be blank");
+        }
+
+        Set<String> include = new LinkedHashSet<>();
+        Set<String> exclude = new LinkedHashSet<>();
+        boolean negateNext = false;
+        int terms = 0;
+        for (String token : SEPARATOR.split(q)) {
+            if (token.isEmpty() || token.equalsIgnoreCase("AND")) {
+                continue;
+            }
+            if (token.equalsIgnoreCase("NOT")) {
+                negateNext = true;
+                continue;
+            }
+            if (token.equalsIgnoreCase("OR")) {
+                throw new IllegalArgumentException("OR is not supported in tag queries, use AND / NOT");
+            }
+            boolean negate = negateNext;
+            negateNext = false;
+            if (token.startsWith("-")) {
+                negate = true;
+                token = token.substring(1);
+            }
+            if (++terms > MAX_TERMS) {
+                throw new IllegalArgumentException("Tag query can have at most " + MAX_TERMS + " tags");
+            }
+            (negate ? exclude : include).add(normalizeTag(token));
+        }
+
+        if (negateNext) {
+            throw new IllegalArgumentException("NOT must be followed by a tag");
+        }
+        if (include.isEmpty()) {
+            throw new IllegalArgumentException("Tag query needs at least one tag to include");
+        }
+        return new TagQuery(Collections.unmodifiableList(new ArrayList<>(include)),
+                Collections.unmodifiableList(new ArrayList<>(exclude)));
+    }
+
+    /**
+     * Normalize one tag: trim, lowercase, leading '#' removed
+     *
+     * Dipakai juga PhotoTagService saat menyimpan tag, jadi tag yang
+     * disimpan dan tag yang dicari selalu dalam bentuk yang sama.
+     *
+     * @return Normalized tag (1-30 characters of a-z, 0-9, '_' or '-', not starting with '_' or '-')
+     * @throws IllegalArgumentException if the tag is blank or has other characters
+     */
+    public static String normalizeTag(String tag) {
+        String normalized = tag != null ? tag.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.startsWith("#")) {
+            normalized = normalized.substring(1);
+        }
+        if (!TAG.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Invalid tag: '" + tag + "' (1-" + MAX_TAG_LENGTH
+                    + " characters of a-z, 0-9, '_' or '-', starting with a letter or digit)");
+        }
+        return normalized;
+    }
+
+    /**
+     * Tags a photo must have (at least one)
+     */
+    public List<String> getInclude() {
+        return include;
+    }
+
+    /**
+     * Tags a photo must not have (possibly empty)
+     */
+    public List<String> getExclude() {
+        return exclude;
+    }
+
+    @Override
+    public String toString() {
+        return "TagQuery{include=" + include + ", exclude=" + exclude + '}';
+    }
+}
@@ -0,0 +1,303 @@
+package com.ikplabs.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TopKCounter - Concurrent per-key counters with an always-ready top-K snapshot
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Papan skor di stadion: setiap pemain punya penghitung sendiri (counter per key),
+ * dan di layar besar hanya tampil 50 besar (snapshot top-K).
+ * Penonton cukup melihat layar (baca 1 referensi), tidak perlu menghitung ulang
+ * skor semua pemain. Layar hanya diganti kalau skor yang berubah
+ * memang mempengaruhi 50 besar.
+ *
+ * Concurrency:
+ * - Counter: ConcurrentHashMap.merge / computeIfPresent (atomic per key, tanpa lock global)
+ * - Top-K: snapshot immutable di AtomicReference, diganti dengan compareAndSet (copy-on-write)
+ * - Reader: satu volatile read + copy ≤ K entry → tidak pernah menunggu writer
+ *
+ * Urutan: count DESC, key DESC (key lebih besar = foto lebih baru menang saat seri).
+ *
+ * Konsistensi:
+ * - Counter selalu exact; entry di snapshot selalu membawa count terbaru key-nya
+ * - Dengan increment saja, snapshot = top-K exact (batas bawah hanya naik)
+ * - Decrement yang menjatuhkan anggota ke batas bawah memicu full scan; increment
+ *   key di luar snapshot yang terjadi BERSAMAAN dengan scan itu bisa terlewat sampai
+ *   key tersebut di-update lagi. Pemilik counter ini me-rebuild berkala.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class TopKCounter {
+
+    private final int capacity;
+
+    private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+
+    private final AtomicReference<Snapshot> top = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * @param capacity Number of top entries kept ready for readers (K)
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public TopKCounter(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Top-K capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Build a counter from bulk-loaded counts (e.g. a GROUP BY query)
+     *
+     * Counts ≤ 0 are ignored. The top-K snapshot is computed once at the end.
+     */
+    public static TopKCounter of(int capacity, Map<Long, Long> initialCounts) {
+        TopKCounter counter = new TopKCounter(capacity);
+        initialCounts.forEach((key, count) -> {
+            if (key != null && count != null && count > 0) {
+                counter.counts.put(key, count);
+            }
+        });
+        counter.top.set(counter.scan());
+        return counter;
+    }
+
+    /**
+     * Add delta to a key's counter and update the top-K snapshot if needed
+     *
+     * Negative delta on an unknown key is ignored (counter never goes below 0);
+     * a counter that reaches 0 is dropped.
+     *
+     * @return New count of the key
+     */
+    public long add(long key, long delta) {
+        Long updated;
+        if (delta > 0) {
+            updated = counts.merge(key, delta, Long::sum);
+        } else if (delta < 0) {
+            updated = counts.computeIfPresent(key, (k, count) -> count + delta > 0 ? count + delta : null);
+        } else {
+            return count(key);
+        }
+        refresh(key);
+        return updated != null ? updated : 0;
+    }
+
+    /**
+     * Forget a key completely (e.g. photo deleted or made private)
+     */
+    public void remove(long key) {
+        counts.remove(key);
+        refresh(key);
+    }
+
+    /**
+     * Current count of a key (0 if unknown)
+     */
+    public long count(long key) {
+        Long count = counts.get(key);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Number of keys with a positive count
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * Highest entries, best first
+     *
+     * @param limit Maximum number of entries (capped at capacity)
+     * @return Immutable list of at most min(limit, capacity) entries
+     */
+    public List<Entry> top(int limit) {
+        Snapshot snapshot = top.get();
+        int n = Math.min(Math.max(limit, 0), snapshot.keys.length);
+        List<Entry> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            entries.add(new Entry(snapshot.keys[i], snapshot.counts[i]));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Re-evaluate one key against the current snapshot (CAS loop)
+     *
+     * Snapshot dibaca SEBELUM counter, jadi snapshot baru selalu dibangun
+     * dari nilai counter yang sama atau lebih baru dari yang dipakai snapshot lama.
+     */
+    private void refresh(long key) {
+        while (true) {
+            Snapshot current = top.get();
+            Snapshot next = current.with(key, count(key), capacity);
+            if (next == null) {
+                next = scan();
+            }
+            if (next == current || top.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Full scan of all counters → top-K (O(n log K))
+     *
+     * Hanya dipakai saat build dan saat anggota top-K turun di bawah batas
+     * (ada kemungkinan key lain di luar snapshot sekarang lebih tinggi).
+     */
+    private Snapshot scan() {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(capacity + 1, TopKCounter::compareAscending);
+        for (Map.Entry<Long, Long> e : counts.entrySet()) {
+            Entry candidate = new Entry(e.getKey(), e.getValue());
+            if (heap.size() < capacity) {
+                heap.add(candidate);
+            } else if (compareAscending(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        int n = heap.size();
+        long[] keys = new long[n];
+        long[] values = new long[n];
+        for (int i = n - 1; i >= 0; i--) {
+            Entry e = heap.poll();
+            keys[i] = e.key;
+            values[i] = e.count;
+        }
+        return new Snapshot(keys, values);
+    }
+
+    private static int compareAscending(Entry a, Entry b) {
+        int byCount = Long.compare(a.count, b.count);
+        return byCount != 0 ? byCount : Long.compare(a.key, b.key);
+    }
+
+    private static boolean ranksAbove(long countA, long keyA, long countB, long keyB) {
+        return countA > countB || (countA == countB && keyA > keyB);
+    }
+
+    /**
+     * One leaderboard row: key + count
+     */
+    public static final class Entry {
+
+        private final long key;
+        private final long count;
+
+        public Entry(long key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Immutable top-K, sorted best first (parallel arrays, never modified after construction)
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new long[0], new long[0]);
+
+        final long[] keys;
+        final long[] counts;
+
+        Snapshot(long[] keys, long[] counts) {
+            this.keys = keys;
+            this.counts = counts;
+        }
+
+        /**
+         * Snapshot after key's count changed to count
+         *
+         * @return this if nothing changes, null if a full scan is required
+         */
+        Snapshot with(long key, long count, int capacity) {
+            int n = keys.length;
+            int position = -1;
+            for (int i = 0; i < n; i++) {
+                if (keys[i] == key) {
+                    position = i;
+                    break;
+                }
+            }
+
+            if (position < 0) {
+                if (count <= 0) {
+                    return this;
+                }
+                if (n >= capacity && !ranksAbove(count, key, counts[n - 1], keys[n - 1])) {
+                    return this;
+                }
+                return insert(key, count, Math.min(n + 1, capacity));
+            }
+
+            if (counts[position] == count) {
+                return this;
+            }
+            // Member fell out or below the last other member of a full snapshot:
+            // someone outside may now rank higher
+            boolean full = n >= capacity;
+            if (count <= 0) {
+                return full ? null : without(position);
+            }
+            if (full && count < counts[position]
+                    && (position == n - 1 || ranksAbove(counts[n - 1], keys[n - 1], count, key))) {
+                return null;
+            }
+            return without(position).insert(key, count, n);
+        }
+
+        private Snapshot without(int position) {
+            int n = keys.length;
+            long[] k = new long[n - 1];
+            long[] c = new long[n - 1];
+            System.arraycopy(keys, 0, k, 0, position);
+            System.arraycopy(counts, 0, c, 0, position);
+            System.arraycopy(keys, position + 1, k, position, n - position - 1);
+            System.arraycopy(counts, position + 1, c, position, n - position - 1);
+            return new Snapshot(k, c);
+        }
+
+        /**
+         * Insert (key, count) at its sorted position, keeping at most size entries
+         */
+        private Snapshot insert(long key, long count, int size) {
+            int n = keys.length;
+            int at = 0;
+            while (at < n && ranksAbove(counts[at], keys[at], count, key)) {
+                at++;
+            }
+            long[] k = new long[size];
+            long[] c = new long[size];
+            int head = Math.min(at, size);
+            System.arraycopy(keys, 0, k, 0, head);
+            System.arraycopy(counts, 0, c, 0, head);
+            if (at < size) {
+                k[at] = key;
+                c[at] = count;
+                int tail = Math.min(n - at, size - at - 1);
+                System.arraycopy(keys, at, k, at + 1, tail);
+                System.arraycopy(counts, at, c, at + 1, tail);
+            }
+            return new Snapshot(k, c);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ikplabs.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * TransactionHooks - Run in-memory side effects only once the database change is committed
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Papan pengumuman baru ditempel SETELAH surat keputusan ditandatangani.
+ * Kalau rapatnya batal (rollback), pengumumannya tidak pernah ditempel.
+ *
+ * Dipakai untuk semua state di memory yang mengikuti isi database:
+ * - GalleryEventBus       → event gallery / like / favorite
+ * - GalleryVersions       → versi ETag dan cache feed
+ * - EngagementCounters    → delta like/favorite count
+ * - EngagementMemberships → set "sudah like / favorite" per user
+ * - PhotoLikeService      → leaderboard like (LikeLeaderboard)
+ *
+ * Tanpa transaksi aktif (test, scheduled job di luar @Transactional) → langsung jalan.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Run now, or after the surrounding transaction commits (skipped on rollback)
+     *
+     * @param action Side effect to run once the data it describes is visible
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.ikplabs.api.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * WeightedLruCache - Thread-safe LRU map bounded by total weight (e.g. bytes)
+ *
+ * ANALOGI SEDERHANA:
+ * ==================
+ * Laci meja dengan kapasitas "sentimeter", bukan "jumlah map".
+ * Map tebal memakan tempat lebih banyak. Kalau laci penuh, map yang paling
+ * lama tidak disentuh dikeluarkan dulu sampai map baru muat.
+ *
+ * - Urutan: access order (get juga menggeser entry ke "baru dipakai")
+ * - Value yang lebih berat dari seluruh kapasitas tidak disimpan
+ * - Semua method synchronized; critical section hanya operasi map (tanpa I/O)
+ *
+ * Dipakai oleh PhotoDetailCache (detail foto), PublicFeedPageCache (JSON bytes)
+ * dan EngagementMemberships (set like/favorite per user).
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public final class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long weight;
+
+    private long evictions;
+
+    /**
+     * @param maxWeight Upper bound of the summed weights (≤ 0 = store nothing)
+     * @param weigher Weight of one value (e.g. estimated bytes)
+     */
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return Cached value (marked as recently used), or null
+     */
+    public synchronized V get(K key) {
+        Weighted<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Store a value, evicting least recently used entries until it fits
+     *
+     * @return false if the value alone is heavier than the cache (not stored)
+     */
+    public synchronized boolean put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return false;
+        }
+        Weighted<V> previous = entries.put(key, new Weighted<>(value, valueWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, Weighted<V>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Weighted<V> evicted = eldest.next().getValue();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * Replace a present value atomically (re-weighed, may evict others)
+     *
+     * get + put terpisah bisa kehilangan update kalau dua writer bersamaan;
+     * di sini keduanya di bawah lock yang sama. Entry dianggap baru dipakai.
+     *
+     * @param update New value from the current one; null removes the entry
+     * @return New value, or null if the key was absent or removed
+     */
+    public synchronized V computeIfPresent(K key, UnaryOperator<V> update) {
+        Weighted<V> current = entries.get(key);
+        if (current == null) {
+            return null;
+        }
+        V updated = update.apply(current.value);
+        if (updated == null) {
+            remove(key);
+            return null;
+        }
+        if (updated == current.value) {
+            return updated;
+        }
+        if (!put(key, updated)) {
+            remove(key); // grew heavier than the whole cache
+            return null;
+        }
+        return updated;
+    }
+
+    /**
+     * @return Removed value, or null if absent
+     */
+    public synchronized V remove(K key) {
+        Weighted<V> removed = entries.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        weight -= removed.weight;
+        return removed.value;
+    }
+
+    /**
+     * @return Number of entries dropped
+     */
+    public synchronized int clear() {
+        int dropped = entries.size();
+        entries.clear();
+        weight = 0;
+        return dropped;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Summed weight of all entries
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Entries dropped because the cache was over its weight limit
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    private static final class Weighted<V> {
+
+        private final V value;
+        private final long weight;
+
+        Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
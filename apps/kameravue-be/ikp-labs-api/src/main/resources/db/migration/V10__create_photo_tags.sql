@@ -0,0 +1,31 @@
+-- V10: Photo tags
+-- Created: October 16, 2026
+-- Purpose: Tag photos and filter the public feed by tag combinations
+--          ("sunset AND beach NOT night"). Queries are answered by the in-process
+--          PhotoTagIndex; this table is its source of truth and the fallback path.
+
+-- One row per (photo, tag). Tags are normalized by PhotoTagService before insert:
+-- lowercase, 1-30 characters of a-z, 0-9, '_' or '-', starting with a letter or digit
+-- (a leading '-' means NOT in tag queries).
+CREATE TABLE IF NOT EXISTS photo_tags (
+    photo_id BIGINT NOT NULL,
+    tag VARCHAR(30) NOT NULL,
+
+    CONSTRAINT pk_photo_tags PRIMARY KEY (photo_id, tag),
+
+    -- Deleting a photo removes its tags
+    CONSTRAINT fk_photo_tags_photo
+        FOREIGN KEY (photo_id)
+        REFERENCES gallery_photos(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_photo_tags_format
+        CHECK (tag ~ '^[a-z0-9][a-z0-9_-]{0,29}$')
+);
+
+-- Fallback query (index not built yet): photos of one tag, newest first
+CREATE INDEX IF NOT EXISTS idx_photo_tags_tag_photo ON photo_tags(tag, photo_id DESC);
+
+COMMENT ON TABLE photo_tags IS 'Tags of gallery photos (normalized, max 10 per photo)';
+
+-- Migration complete
@@ -0,0 +1,33 @@
+-- V11: Sharded like/favorite counter rows
+-- Created: October 16, 2026
+-- Purpose: Remove hot-row contention on viral photos. A like no longer updates the single
+--          gallery_photos row (every concurrent like of the same photo waited for that row
+--          lock until commit); it upserts one of N slot rows chosen by user_id % N instead.
+--          Count of a photo = gallery_photos.like_count + SUM(like_delta) of its slots.
+--          CounterShardCompactor folds the slots back into the counter columns periodically.
+
+-- One row per (photo, slot) with pending deltas (may be negative after unlikes)
+CREATE TABLE IF NOT EXISTS photo_counter_shards (
+    photo_id BIGINT NOT NULL,
+    shard SMALLINT NOT NULL,
+    like_delta BIGINT NOT NULL DEFAULT 0,
+    favorite_delta BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_photo_counter_shards PRIMARY KEY (photo_id, shard),
+
+    -- Deleting a photo drops its pending deltas
+    -- (the FK check takes KEY SHARE on gallery_photos: does not wait for counter updates)
+    CONSTRAINT fk_photo_counter_shards_photo
+        FOREIGN KEY (photo_id)
+        REFERENCES gallery_photos(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_photo_counter_shards_shard CHECK (shard >= 0)
+);
+
+COMMENT ON TABLE photo_counter_shards IS 'Pending like/favorite counter deltas per photo and slot, folded into gallery_photos by CounterShardCompactor';
+COMMENT ON COLUMN photo_counter_shards.shard IS 'Slot number: user_id % gallery.counter-shards.count';
+COMMENT ON COLUMN photo_counter_shards.like_delta IS 'Likes minus unlikes not yet added to gallery_photos.like_count';
+COMMENT ON COLUMN photo_counter_shards.favorite_delta IS 'Favorites minus unfavorites not yet added to gallery_photos.favorite_count';
+
+-- Migration complete
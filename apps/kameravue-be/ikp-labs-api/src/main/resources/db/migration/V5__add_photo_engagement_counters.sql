@@ -0,0 +1,38 @@
+-- V5: Denormalized like/favorite counters on gallery_photos
+-- Created: October 16, 2026
+-- Purpose: Sort mostLiked/mostFavorited without JOIN + GROUP BY on photo_likes/photo_favorites
+
+-- Counter columns (maintained by PhotoLikeService / PhotoFavoriteService in the same
+-- transaction as the like/favorite insert or delete)
+ALTER TABLE gallery_photos ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE gallery_photos ADD COLUMN IF NOT EXISTS favorite_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill existing photos from the source tables
+UPDATE gallery_photos p
+SET like_count = c.cnt
+FROM (SELECT photo_id, COUNT(*) AS cnt FROM photo_likes GROUP BY photo_id) c
+WHERE c.photo_id = p.id;
+
+UPDATE gallery_photos p
+SET favorite_count = c.cnt
+FROM (SELECT photo_id, COUNT(*) AS cnt FROM photo_favorites GROUP BY photo_id) c
+WHERE c.photo_id = p.id;
+
+-- Counters can never be negative
+ALTER TABLE gallery_photos
+    ADD CONSTRAINT chk_gallery_photos_like_count CHECK (like_count >= 0);
+ALTER TABLE gallery_photos
+    ADD CONSTRAINT chk_gallery_photos_favorite_count CHECK (favorite_count >= 0);
+
+-- Public gallery popularity sorts use the partial indexes in V6 (WHERE is_public = TRUE)
+
+-- My Gallery popularity sorts (owner sees public + private)
+CREATE INDEX idx_gallery_photos_user_like_count
+    ON gallery_photos(user_id, like_count DESC, id DESC);
+CREATE INDEX idx_gallery_photos_user_favorite_count
+    ON gallery_photos(user_id, favorite_count DESC, id DESC);
+
+COMMENT ON COLUMN gallery_photos.like_count IS 'Denormalized COUNT(*) of photo_likes for this photo, reconciled by a scheduled job';
+COMMENT ON COLUMN gallery_photos.favorite_count IS 'Denormalized COUNT(*) of photo_favorites for this photo (internal, used for sorting only)';
+
+-- Migration complete
@@ -0,0 +1,37 @@
+-- V6: Partial indexes matching the per-sort gallery feed statements
+-- Created: October 16, 2026
+-- Purpose: Every (scope, sortBy) statement in GalleryFeedQueries is answered by an
+--          index scan that stops after LIMIT rows, instead of sorting the whole feed
+
+-- ---------------------------------------------------------------
+-- Public gallery (WHERE is_public = TRUE)
+-- ---------------------------------------------------------------
+-- newest: ORDER BY created_at DESC, id DESC (forward scan)
+-- oldest: ORDER BY created_at ASC,  id ASC  (backward scan of the same index)
+CREATE INDEX idx_gallery_public_created_id
+    ON gallery_photos(created_at DESC, id DESC) WHERE is_public = TRUE;
+
+-- mostLiked / mostFavorited: ORDER BY {count} DESC, id DESC
+CREATE INDEX idx_gallery_public_like_count_id
+    ON gallery_photos(like_count DESC, id DESC) WHERE is_public = TRUE;
+CREATE INDEX idx_gallery_public_favorite_count_id
+    ON gallery_photos(favorite_count DESC, id DESC) WHERE is_public = TRUE;
+
+-- ---------------------------------------------------------------
+-- My Gallery (WHERE user_id = ?) and user's public photos
+-- ---------------------------------------------------------------
+-- Adds id as tie-breaker so the index delivers the full ORDER BY (no incremental sort)
+CREATE INDEX idx_gallery_user_created_id
+    ON gallery_photos(user_id, created_at DESC, id DESC);
+
+-- GET /api/gallery/user/{userId}/public (newest only)
+CREATE INDEX idx_gallery_user_public_created_id
+    ON gallery_photos(user_id, created_at DESC, id DESC) WHERE is_public = TRUE;
+
+-- ---------------------------------------------------------------
+-- Superseded indexes
+-- ---------------------------------------------------------------
+-- Prefix of idx_gallery_user_created_id
+DROP INDEX IF EXISTS idx_gallery_user_created;
+
+-- Migration complete
@@ -0,0 +1,27 @@
+-- V7: Time-decayed hot score for sortBy=trending
+-- Created: October 16, 2026
+-- Purpose: Serve the trending feed as an index scan instead of aggregating photo_likes per request
+
+-- Maintained by TrendingScoreUpdater (scheduled): decay by half-life + add likes/favorites since checkpoint
+ALTER TABLE gallery_photos ADD COLUMN IF NOT EXISTS hot_score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+-- Public gallery: ORDER BY hot_score DESC, id DESC
+CREATE INDEX idx_gallery_public_hot_score_id
+    ON gallery_photos(hot_score DESC, id DESC) WHERE is_public = TRUE;
+
+-- My Gallery / user's public photos
+CREATE INDEX idx_gallery_photos_user_hot_score
+    ON gallery_photos(user_id, hot_score DESC, id DESC);
+
+-- Single-row progress of the scoring job (id = 1)
+CREATE TABLE IF NOT EXISTS trending_checkpoint (
+    id BIGINT PRIMARY KEY,
+    last_like_id BIGINT NOT NULL DEFAULT 0,
+    last_favorite_id BIGINT NOT NULL DEFAULT 0,
+    scored_at TIMESTAMP
+);
+
+COMMENT ON COLUMN gallery_photos.hot_score IS 'Sum of like/favorite weights decayed by age (half-life), maintained by a scheduled job';
+COMMENT ON TABLE trending_checkpoint IS 'Last photo_likes/photo_favorites id and time already folded into gallery_photos.hot_score';
+
+-- Migration complete
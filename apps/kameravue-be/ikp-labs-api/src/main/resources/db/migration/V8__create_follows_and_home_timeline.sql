@@ -0,0 +1,74 @@
+-- V8: Follow graph + fan-out-on-write home timelines
+-- Created: October 16, 2026
+-- Purpose: GET /api/gallery/timeline as one keyset read of a per-user table instead of
+--          WHERE user_id IN (followees) over gallery_photos
+
+-- Who follows whom
+CREATE TABLE IF NOT EXISTS user_follows (
+    id BIGSERIAL PRIMARY KEY,
+    follower_id BIGINT NOT NULL,
+    followee_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_user_follows_follower
+        FOREIGN KEY (follower_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_user_follows_followee
+        FOREIGN KEY (followee_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE,
+
+    -- One follow per pair, nobody follows themselves
+    CONSTRAINT uk_user_follows_follower_followee
+        UNIQUE (follower_id, followee_id),
+    CONSTRAINT chk_user_follows_not_self
+        CHECK (follower_id <> followee_id)
+);
+
+-- Fan-out on upload: all followers of the uploader
+CREATE INDEX IF NOT EXISTS idx_user_follows_followee_id ON user_follows(followee_id);
+
+-- Denormalized follower count (maintained by TimelineService in the follow/unfollow transaction)
+-- Accounts at or above gallery.timeline.fan-out-max-followers are merged at read time
+ALTER TABLE users ADD COLUMN IF NOT EXISTS follower_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET follower_count = c.cnt
+FROM (SELECT followee_id, COUNT(*) AS cnt FROM user_follows GROUP BY followee_id) c
+WHERE c.followee_id = u.id;
+
+ALTER TABLE users
+    ADD CONSTRAINT chk_users_follower_count CHECK (follower_count >= 0);
+
+-- Materialized home timeline: one row per (reader, photo of someone they follow)
+-- Primary key order = read order: WHERE user_id = ? AND photo_id < ? ORDER BY photo_id DESC
+CREATE TABLE IF NOT EXISTS home_timeline (
+    user_id BIGINT NOT NULL,
+    photo_id BIGINT NOT NULL,
+
+    PRIMARY KEY (user_id, photo_id),
+
+    CONSTRAINT fk_home_timeline_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_home_timeline_photo
+        FOREIGN KEY (photo_id)
+        REFERENCES gallery_photos(id)
+        ON DELETE CASCADE
+);
+
+-- Deleting a photo cascades by photo_id
+CREATE INDEX IF NOT EXISTS idx_home_timeline_photo_id ON home_timeline(photo_id);
+
+-- Read-time merge of large accounts: newest public photos of a few owners by id
+CREATE INDEX IF NOT EXISTS idx_gallery_user_public_id
+    ON gallery_photos(user_id, id DESC) WHERE is_public = TRUE;
+
+COMMENT ON COLUMN users.follower_count IS 'Denormalized COUNT(*) of user_follows where followee_id = id';
+COMMENT ON TABLE home_timeline IS 'Photo ids pushed to followers on upload (fan-out on write), newest = highest photo_id';
+
+-- Migration complete
@@ -0,0 +1,28 @@
+-- V9: Full-text search over photo titles and descriptions
+-- Created: October 16, 2026
+-- Purpose: GET /api/gallery/search as a GIN index lookup instead of
+--          title ILIKE '%q%' OR description ILIKE '%q%' (sequential scan of every photo)
+
+-- Stored generated column: PostgreSQL recomputes it on every INSERT / UPDATE of
+-- title or description, whichever write path does it (upload, updatePhoto, SQL
+-- scripts), so it can never drift from the text. Not mapped in GalleryPhoto.
+--
+-- 'simple' configuration: lowercase + split, no stemming and no stopwords.
+-- Titles mix Indonesian and English; an English stemmer would mangle Indonesian words.
+-- Title matches rank above description matches (weight A vs B).
+--
+-- Note: adding a stored generated column rewrites gallery_photos once.
+ALTER TABLE gallery_photos
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- WHERE search_vector @@ websearch_to_tsquery('simple', :query)
+CREATE INDEX IF NOT EXISTS idx_gallery_photos_search
+    ON gallery_photos USING GIN (search_vector);
+
+COMMENT ON COLUMN gallery_photos.search_vector IS 'Generated tsvector of title (A) + description (B) for full-text search';
+
+-- Migration complete
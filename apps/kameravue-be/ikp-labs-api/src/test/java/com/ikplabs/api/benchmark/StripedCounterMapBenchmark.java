@@ -0,0 +1,127 @@
+package com.ikplabs.api.benchmark;
+
+import com.ikplabs.api.util.StripedCounterMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmark untuk StripedCounterMap (EngagementCounters) vs. AtomicLong per foto
+ *
+ * YANG DI-UKUR:
+ * =============
+ * 1. stripedLike / atomicLike  → 8 thread like(+1) bersamaan
+ * 2. mixed (striped)           → 6 thread like + 2 thread baca jumlah like
+ * 3. mixedAtomic               → sama, dengan satu AtomicLong per foto
+ *
+ * Param hotPhotos: 1 = semua like ke SATU foto viral (contention maksimum),
+ * 1000 = like tersebar (contention rendah, LongAdder seharusnya tidak kalah jauh).
+ * Baseline AtomicLong = satu cache line per foto, semua thread CAS di sana.
+ *
+ * Bukan unit test (nama tidak berakhiran "Test", surefire tidak menjalankannya).
+ * Jalankan manual setelah test-compile:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *        com.ikplabs.api.benchmark.StripedCounterMapBenchmark
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StripedCounterMapBenchmark {
+
+    @Param({"1", "1000"})
+    private int hotPhotos;
+
+    private StripedCounterMap striped;
+
+    private Map<Long, AtomicLong> atomic;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new StripedCounterMap(hotPhotos * 2);
+        atomic = new ConcurrentHashMap<>();
+        for (long id = 1; id <= hotPhotos; id++) {
+            striped.prime(id, 100, 10);
+            atomic.put(id, new AtomicLong(100));
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean stripedLike() {
+        return striped.add(photoId(), 1, 0);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long atomicLike() {
+        return atomic.get(photoId()).incrementAndGet();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public boolean mixedStripedLike() {
+        return striped.add(photoId(), 1, 0);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public long mixedStripedRead() {
+        return striped.get(photoId()).getLikes();
+    }
+
+    @Benchmark
+    @Group("mixedAtomic")
+    @GroupThreads(6)
+    public long mixedAtomicLike() {
+        return atomic.get(photoId()).incrementAndGet();
+    }
+
+    @Benchmark
+    @Group("mixedAtomic")
+    @GroupThreads(2)
+    public long mixedAtomicRead() {
+        return atomic.get(photoId()).get();
+    }
+
+    private long photoId() {
+        return hotPhotos == 1 ? 1L : 1 + ThreadLocalRandom.current().nextInt(hotPhotos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StripedCounterMapBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ikplabs.api.benchmark;
+
+import com.ikplabs.api.util.TopKCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark untuk TopKCounter (LikeLeaderboard)
+ *
+ * YANG DI-UKUR:
+ * =============
+ * 1. like        → throughput add(+1) dari 8 thread sekaligus
+ * 2. likeUnlike  → campuran add(+1) / add(-1) (unlike memicu penurunan di batas top-K)
+ * 3. mixed       → 6 thread update + 2 thread baca top(50) bersamaan
+ *
+ * Distribusi like miring (kuadrat dari random uniform): sebagian kecil foto
+ * menerima sebagian besar like, seperti feed sungguhan → banyak update
+ * mengenai anggota top-K dan memicu compareAndSet.
+ *
+ * Bukan unit test (nama tidak berakhiran "Test", surefire tidak menjalankannya).
+ * Jalankan manual setelah test-compile:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *        com.ikplabs.api.benchmark.TopKCounterBenchmark
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKCounterBenchmark {
+
+    private static final int K = 50;
+
+    @Param({"10000", "100000"})
+    private int photos;
+
+    private TopKCounter counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Map<Long, Long> initial = new HashMap<>();
+        for (long id = 1; id <= photos; id++) {
+            initial.put(id, (long) (photos / id) + 1);
+        }
+        counter = TopKCounter.of(K, initial);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long like() {
+        return counter.add(skewedPhotoId(), 1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long likeUnlike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return counter.add(skewedPhotoId(), random.nextInt(4) == 0 ? -1 : 1);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public long mixedUpdate() {
+        return counter.add(skewedPhotoId(), 1);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<TopKCounter.Entry> mixedRead() {
+        return counter.top(K);
+    }
+
+    private long skewedPhotoId() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        return 1 + (long) (u * u * (photos - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TopKCounterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
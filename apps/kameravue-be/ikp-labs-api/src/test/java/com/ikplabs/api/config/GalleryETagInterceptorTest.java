@@ -0,0 +1,199 @@
+package com.ikplabs.api.config;
+
+import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.GalleryVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk GalleryETagInterceptor
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. ETag generation (GETI-001 to GETI-002)
+ *    - Public feed: ETag dari epoch + global + versi feed + viewer, Cache-Control private
+ *    - Photo detail: versi foto dari path variable, viewer ikut di ETag
+ *
+ * 2. Conditional GET (GETI-003 to GETI-004)
+ *    - If-None-Match cocok → 304, controller tidak dipanggil
+ *    - Versi berubah → request diteruskan dengan ETag baru
+ *
+ * 3. Pass-through (GETI-005)
+ *
+ * 4. Sort order version (GETI-006)
+ *    - sortBy=trending: ETag ikut versi urutan trending
+ *    - Non-GET request tidak disentuh
+ *
+ * TOTAL TEST CASES: 6
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GalleryETagInterceptor Tests")
+public class GalleryETagInterceptorTest {
+
+    private static final long EPOCH = 1760000000000L;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @InjectMocks
+    private GalleryETagInterceptor interceptor;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("GETI-001: public feed - anonymous viewer gets ETag and private no-cache")
+    void publicFeed_Anonymous_SetsETag() {
+        // Arrange
+        stubVersions(3L);
+        when(galleryVersions.getPublicFeedVersion()).thenReturn(7L);
+
+        // Act
+        boolean proceed = interceptor.preHandle(get(GalleryETagInterceptor.PUBLIC_FEED, "/api/gallery/public", null),
+                response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals("\"" + EPOCH + ".3.0.7.0\"", response.getHeader("ETag"));
+        assertEquals(GalleryETagInterceptor.CACHE_CONTROL, response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("GETI-002: photo detail - photo version from path, viewer id in ETag")
+    void photoDetail_LoggedIn_UsesPhotoVersion() {
+        // Arrange
+        login(42L);
+        stubVersions(0L);
+        when(galleryVersions.getPhotoVersion(100L)).thenReturn(5L);
+        MockHttpServletRequest request = get(GalleryETagInterceptor.PHOTO_DETAIL, "/api/gallery/photo/100",
+                Map.of("photoId", "100"));
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals("\"" + EPOCH + ".0.0.5.42\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("GETI-003: matching If-None-Match - 304 and request stops before controller")
+    void matchingIfNoneMatch_Returns304() {
+        // Arrange
+        stubVersions(3L);
+        when(galleryVersions.getPublicFeedVersion()).thenReturn(7L);
+        MockHttpServletRequest request = get(GalleryETagInterceptor.PUBLIC_FEED, "/api/gallery/public", null);
+        request.addHeader("If-None-Match", "\"" + EPOCH + ".3.0.7.0\"");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+        assertEquals("\"" + EPOCH + ".3.0.7.0\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("GETI-004: stale If-None-Match - request proceeds with the new ETag")
+    void staleIfNoneMatch_Proceeds() {
+        // Arrange: gallery of user 9 changed since the client's copy (version 1 → 2)
+        stubVersions(3L);
+        when(galleryVersions.getUserGalleryVersion(9L)).thenReturn(2L);
+        MockHttpServletRequest request = get(GalleryETagInterceptor.USER_PUBLIC, "/api/gallery/user/9/public",
+                Map.of("userId", "9"));
+        request.addHeader("If-None-Match", "\"" + EPOCH + ".3.0.1.0\"");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals("\"" + EPOCH + ".3.0.2.0\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("GETI-005: non-GET request - passes through without ETag")
+    void nonGet_PassesThrough() {
+        // Arrange
+        MockHttpServletRequest request = get(GalleryETagInterceptor.PHOTO_DETAIL, "/api/gallery/photo/100",
+                Map.of("photoId", "100"));
+        request.setMethod("PUT");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertNull(response.getHeader("ETag"));
+        verifyNoInteractions(galleryVersions);
+    }
+
+    @Test
+    @DisplayName("GETI-006: sortBy=trending - ETag carries the trending order version")
+    void trendingFeed_UsesSortVersion() {
+        // Arrange
+        stubVersions(3L);
+        when(galleryVersions.getPublicFeedVersion()).thenReturn(7L);
+        when(galleryVersions.getSortVersion("trending")).thenReturn(4L);
+        MockHttpServletRequest request = get(GalleryETagInterceptor.PUBLIC_FEED, "/api/gallery/public", null);
+        request.setParameter("sortBy", "trending");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals("\"" + EPOCH + ".3.4.7.0\"", response.getHeader("ETag"));
+    }
+
+    private void stubVersions(long global) {
+        when(galleryVersions.getEpoch()).thenReturn(EPOCH);
+        when(galleryVersions.getGlobalVersion()).thenReturn(global);
+    }
+
+    private static void login(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "viewer@test.com", "Viewer");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+    }
+
+    /**
+     * GET request as DispatcherServlet hands it to interceptors (pattern + path variables resolved)
+     */
+    private static MockHttpServletRequest get(String pattern, String uri, Map<String, String> variables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        if (variables != null) {
+            request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,225 @@
+package com.ikplabs.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ikplabs.api.dto.GalleryListResponse;
+import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.GalleryVersions;
+import com.ikplabs.api.service.PublicFeedPageCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test untuk PublicFeedCacheInterceptor + PublicFeedCacheAdvice
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Hit path (PFCI-001 to PFCI-002)
+ *    - Anonymous hit → bytes JSON ditulis langsung, controller tidak dipanggil
+ *    - Accept-Encoding gzip → bytes gzip + Content-Encoding
+ *
+ * 2. Miss path (PFCI-003 to PFCI-004)
+ *    - Miss → request ditandai (key dengan default controller + stamp)
+ *    - Advice: serialize sekali, simpan, tulis bytes, body Spring = null
+ *
+ * 3. Pass-through (PFCI-005 to PFCI-006)
+ *    - Viewer login / parameter tidak valid → tidak disentuh
+ *    - Accept-Encoding gzip;q=0 → tidak dianggap menerima gzip
+ *
+ * 4. Sort order version (PFCI-007)
+ *    - Trending run → hanya halaman sortBy=trending miss, newest tetap hit
+ *
+ * TOTAL TEST CASES: 7
+ */
+@DisplayName("PublicFeedCacheInterceptor Tests")
+public class PublicFeedCacheInterceptorTest {
+
+    private static final String DEFAULT_KEY = PublicFeedPageCache.key("newest", 0, 0, 12, null, true);
+    private static final byte[] JSON = "{\"photos\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private GalleryVersions versions;
+    private PublicFeedPageCache cache;
+    private PublicFeedCacheInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PublicFeedPageCache();
+        versions = new GalleryVersions();
+        ReflectionTestUtils.setField(cache, "galleryVersions", versions);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(cache, "init");
+
+        interceptor = new PublicFeedCacheInterceptor();
+        ReflectionTestUtils.setField(interceptor, "publicFeedPageCache", cache);
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("PFCI-001: anonymous hit - JSON bytes written, request stops")
+    void anonymousHit_WritesCachedJson() throws Exception {
+        // Arrange
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        cache.get(DEFAULT_KEY, stamp);
+        cache.put(DEFAULT_KEY, stamp, JSON);
+
+        // Act: explicit defaults map to the same key
+        MockHttpServletRequest request = get();
+        request.setParameter("page", "0");
+        request.setParameter("sortBy", "newest");
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertArrayEquals(JSON, response.getContentAsByteArray());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    @DisplayName("PFCI-002: anonymous hit with Accept-Encoding gzip - pre-gzipped bytes")
+    void anonymousHit_AcceptsGzip_WritesGzip() throws Exception {
+        // Arrange
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        cache.get(DEFAULT_KEY, stamp);
+        PublicFeedPageCache.Page page = cache.put(DEFAULT_KEY, stamp, JSON);
+        MockHttpServletRequest request = get();
+        request.addHeader("Accept-Encoding", "br, gzip, deflate");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertArrayEquals(page.getGzip(), response.getContentAsByteArray());
+        assertEquals(page.getGzip().length, response.getContentLength());
+    }
+
+    @Test
+    @DisplayName("PFCI-003: anonymous miss - request proceeds, marked with key and stamp")
+    void anonymousMiss_MarksRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = get();
+        request.setParameter("sortBy", "mostLiked");
+        request.setParameter("cursor", "");
+        request.setParameter("withTotal", "false");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(PublicFeedPageCache.key("mostLiked", 0, 0, 12, "", false),
+                request.getAttribute(PublicFeedCacheInterceptor.KEY_ATTRIBUTE));
+        assertNotNull(request.getAttribute(PublicFeedCacheInterceptor.STAMP_ATTRIBUTE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("PFCI-004: advice - miss serialized once, cached and written; Spring writes nothing")
+    void advice_SerializesStoresAndWrites() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        PublicFeedCacheAdvice advice = new PublicFeedCacheAdvice();
+        ReflectionTestUtils.setField(advice, "publicFeedPageCache", cache);
+        ReflectionTestUtils.setField(advice, "objectMapper", objectMapper);
+        MockHttpServletRequest request = get();
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        GalleryListResponse body = new GalleryListResponse(Collections.emptyList(), 0, 0, 0L, 12, false, false);
+
+        // Act
+        Object written = advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(request), new ServletServerHttpResponse(response));
+
+        // Assert
+        assertNull(written);
+        byte[] expected = objectMapper.writeValueAsBytes(body);
+        assertArrayEquals(expected, response.getContentAsByteArray());
+        assertArrayEquals(expected, cache.get(DEFAULT_KEY, cache.currentStamp()).getJson());
+    }
+
+    @Test
+    @DisplayName("PFCI-005: logged-in viewer or invalid parameter - passes through untouched")
+    void loggedInOrInvalid_PassesThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest invalid = get();
+        invalid.setParameter("page", "abc");
+
+        // Act
+        boolean invalidProceeds = interceptor.preHandle(invalid, response, new Object());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(42L, "viewer@test.com", "Viewer"), null, Collections.emptyList()));
+        MockHttpServletRequest loggedIn = get();
+        boolean loggedInProceeds = interceptor.preHandle(loggedIn, response, new Object());
+
+        // Assert
+        assertTrue(invalidProceeds);
+        assertTrue(loggedInProceeds);
+        assertNull(invalid.getAttribute(PublicFeedCacheInterceptor.KEY_ATTRIBUTE));
+        assertNull(loggedIn.getAttribute(PublicFeedCacheInterceptor.KEY_ATTRIBUTE));
+        assertEquals(0.0, cache.hitRatio());
+    }
+
+    @Test
+    @DisplayName("PFCI-006: acceptsGzip - q=0 and missing header mean no gzip")
+    void acceptsGzip_RespectsQValue() {
+        assertTrue(PublicFeedCacheInterceptor.acceptsGzip("gzip, deflate"));
+        assertTrue(PublicFeedCacheInterceptor.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(PublicFeedCacheInterceptor.acceptsGzip("gzip;q=0"));
+        assertFalse(PublicFeedCacheInterceptor.acceptsGzip("br, deflate"));
+        assertFalse(PublicFeedCacheInterceptor.acceptsGzip(null));
+    }
+
+    @Test
+    @DisplayName("PFCI-007: trending run - trending pages miss, other sorts keep hitting")
+    void trendingChanged_OnlyTrendingPagesMiss() throws Exception {
+        // Arrange: newest and trending page 0 cached
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        String trendingKey = PublicFeedPageCache.key("trending", 0, 0, 12, null, true);
+        cache.get(DEFAULT_KEY, stamp);
+        cache.put(DEFAULT_KEY, stamp, JSON);
+        cache.put(trendingKey, stamp, JSON);
+
+        // Act
+        versions.trendingChanged();
+        MockHttpServletRequest trending = get();
+        trending.setParameter("sortBy", "trending");
+        boolean trendingProceeds = interceptor.preHandle(trending, response, new Object());
+        boolean newestProceeds = interceptor.preHandle(get(), new MockHttpServletResponse(), new Object());
+
+        // Assert
+        assertTrue(trendingProceeds);
+        assertEquals(PublicFeedPageCache.key("trending", 1, 0, 12, null, true),
+                trending.getAttribute(PublicFeedCacheInterceptor.KEY_ATTRIBUTE));
+        assertFalse(newestProceeds);
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", GalleryETagInterceptor.PUBLIC_FEED);
+    }
+}
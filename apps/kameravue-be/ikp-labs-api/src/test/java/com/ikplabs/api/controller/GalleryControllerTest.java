@@ -4,12 +4,24 @@ import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoDetailResponse;
 import com.ikplabs.api.dto.GalleryPhotoRequest;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.GalleryPhotoSlice;
+import com.ikplabs.api.dto.LeaderboardEntry;
+import com.ikplabs.api.dto.LeaderboardResponse;
+import com.ikplabs.api.dto.PhotoBatchResponse;
 import com.ikplabs.api.entity.GalleryPhoto;
 import com.ikplabs.api.entity.User;
+import com.ikplabs.api.enums.LeaderboardPeriod;
 import com.ikplabs.api.security.UserPrincipal;
+import com.ikplabs.api.service.GalleryExportService;
 import com.ikplabs.api.service.GalleryService;
+import com.ikplabs.api.service.LikeLeaderboard;
+import com.ikplabs.api.service.LiveLikeCounts;
 import com.ikplabs.api.service.PhotoLikeService;
 import com.ikplabs.api.service.PhotoFavoriteService;
+import com.ikplabs.api.service.PhotoEngagementService;
+import com.ikplabs.api.service.PhotoDetailCache;
+import com.ikplabs.api.service.PhotoTagService;
+import com.ikplabs.api.util.LookAheadPageRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,13 +33,21 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -100,6 +120,24 @@ public class GalleryControllerTest {
     @Mock
     private PhotoFavoriteService photoFavoriteService;
 
+    @Mock
+    private PhotoEngagementService photoEngagementService;
+
+    @Mock
+    private LikeLeaderboard likeLeaderboard;
+
+    @Mock
+    private GalleryExportService galleryExportService;
+
+    @Mock
+    private PhotoDetailCache photoDetailCache;
+
+    @Mock
+    private PhotoTagService photoTagService;
+
+    @Mock
+    private LiveLikeCounts liveLikeCounts;
+
     /**
      * Controller yang akan di-test
      * Mockito inject mock services
@@ -112,6 +150,8 @@ public class GalleryControllerTest {
     private User testUser;
     private GalleryPhoto testPhoto1;
     private GalleryPhoto testPhoto2;
+    private GalleryPhotoResponse testRow1;
+    private GalleryPhotoResponse testRow2;
     private MockMultipartFile mockFile;
 
     /**
@@ -158,6 +198,10 @@ public class GalleryControllerTest {
         testPhoto2.setCreatedAt(LocalDateTime.now());
         testPhoto2.setUpdatedAt(LocalDateTime.now());
 
+        // List endpoints read grid rows (projection), not entities
+        testRow1 = GalleryPhotoResponse.fromEntity(testPhoto1);
+        testRow2 = GalleryPhotoResponse.fromEntity(testPhoto2);
+
         // Setup mock file untuk upload tests
         mockFile = new MockMultipartFile(
                 "file",
@@ -172,6 +216,10 @@ public class GalleryControllerTest {
         lenient().when(photoLikeService.getLikeCount(anyLong())).thenReturn(0L);
         lenient().when(photoLikeService.isLikedByUser(anyLong(), anyLong())).thenReturn(false);
         lenient().when(photoFavoriteService.isFavoritedByUser(anyLong(), anyLong())).thenReturn(false);
+
+        // List endpoints hydrate like/favorite state per page via PhotoEngagementService
+        lenient().when(photoEngagementService.applyEngagement(anyList(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     // ========================================
@@ -255,14 +303,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Success with pagination")
     void getMyPhotos_Success() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto1, testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow1, testRow2);
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getMyPhotos(1L, "newest", pageable)).thenReturn(photos);
         when(galleryService.countMyPhotos(1L)).thenReturn(2L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -287,14 +335,14 @@ public class GalleryControllerTest {
     @DisplayName("Get public photos - Success with pagination")
     void getPublicPhotos_Success() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto2); // Only public photo
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow2); // Only public photo
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getPublicPhotos("newest", pageable)).thenReturn(photos);
         when(galleryService.countPublicPhotos()).thenReturn(1L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 12, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 12, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -316,14 +364,14 @@ public class GalleryControllerTest {
     void getUserPublicPhotos_Success() {
         // Arrange
         Long userId = 1L;
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow2);
         Pageable pageable = PageRequest.of(0, 12, Sort.by("createdAt").descending());
 
         when(galleryService.getUserPublicPhotos(userId, pageable)).thenReturn(photos);
         when(galleryService.countUserPublicPhotos(userId)).thenReturn(1L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getUserPublicPhotos(userId, 0, 12, currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getUserPublicPhotos(userId, 0, 12, null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -345,6 +393,10 @@ public class GalleryControllerTest {
         // Arrange
         Long photoId = 1L;
         when(galleryService.getPhotoById(photoId, 1L)).thenReturn(testPhoto1);
+        // Cache miss: loader runs
+        when(photoDetailCache.getOrLoad(eq(photoId), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<GalleryPhotoDetailResponse>>getArgument(1).get());
+        when(photoTagService.getTags(photoId)).thenReturn(List.of("beach", "sunset"));
 
         // Act
         ResponseEntity<GalleryPhotoDetailResponse> response = galleryController.getPhotoById(photoId, currentUser);
@@ -354,8 +406,32 @@ public class GalleryControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(photoId, response.getBody().getId());
+        assertEquals(List.of("beach", "sunset"), response.getBody().getTags());
 
         verify(galleryService, times(1)).getPhotoById(photoId, 1L);
+        verify(galleryService, times(1)).checkCanView(testPhoto1.getIsPublic(), testPhoto1.getUser().getId(), 1L);
+    }
+
+    @Test
+    @DisplayName("Get photo by ID - Cache hit skips photo load, merges viewer flags")
+    void getPhotoById_CacheHit_MergesViewerFlags() {
+        // Arrange
+        Long photoId = 1L;
+        GalleryPhotoDetailResponse cached = GalleryPhotoDetailResponse.fromEntityWithLikes(testPhoto1, null, 7L, false);
+        when(photoDetailCache.getOrLoad(eq(photoId), any())).thenReturn(cached);
+        when(photoLikeService.isLikedByUser(photoId, 1L)).thenReturn(true);
+
+        // Act
+        ResponseEntity<GalleryPhotoDetailResponse> response = galleryController.getPhotoById(photoId, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7L, response.getBody().getLikeCount());
+        assertTrue(response.getBody().getIsLikedByUser());
+        assertFalse(response.getBody().getIsFavoritedByUser());
+
+        verify(galleryService, never()).getPhotoById(anyLong(), any());
+        verify(photoLikeService, never()).getLikeCount(anyLong());
     }
 
     // ========================================
@@ -371,6 +447,7 @@ public class GalleryControllerTest {
         request.setTitle("Updated Title");
         request.setDescription("Updated Description");
         request.setIsPublic(true);
+        request.setTags(List.of("Sunset", "beach"));
 
         GalleryPhoto updatedPhoto = new GalleryPhoto();
         updatedPhoto.setId(photoId);
@@ -380,7 +457,7 @@ public class GalleryControllerTest {
         updatedPhoto.setFilePath("gallery/user-1/photo-1.jpg");
         updatedPhoto.setIsPublic(true);
 
-        when(galleryService.updatePhoto(photoId, 1L, "Updated Title", "Updated Description", true))
+        when(galleryService.updatePhoto(photoId, 1L, "Updated Title", "Updated Description", true, List.of("Sunset", "beach")))
                 .thenReturn(updatedPhoto);
 
         // Act
@@ -394,7 +471,7 @@ public class GalleryControllerTest {
         assertEquals("Updated Description", response.getBody().getDescription());
         assertTrue(response.getBody().getIsPublic());
 
-        verify(galleryService, times(1)).updatePhoto(photoId, 1L, "Updated Title", "Updated Description", true);
+        verify(galleryService, times(1)).updatePhoto(photoId, 1L, "Updated Title", "Updated Description", true, List.of("Sunset", "beach"));
     }
 
     // ========================================
@@ -457,14 +534,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Pagination with multiple pages")
     void getMyPhotos_PaginationMultiplePages() {
         // Arrange: Simulate 25 photos, page size 12
-        List<GalleryPhoto> firstPagePhotos = Arrays.asList(testPhoto1, testPhoto2);
+        List<GalleryPhotoResponse> firstPagePhotos = Arrays.asList(testRow1, testRow2);
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getMyPhotos(1L, "newest", pageable)).thenReturn(firstPagePhotos);
         when(galleryService.countMyPhotos(1L)).thenReturn(25L); // Total 25 photos
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -481,14 +558,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Custom page size")
     void getMyPhotos_CustomPageSize() {
         // Arrange: Custom page size of 5
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto1, testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow1, testRow2);
         Pageable pageable = PageRequest.of(0, 5);
 
         when(galleryService.getMyPhotos(1L, "newest", pageable)).thenReturn(photos);
         when(galleryService.countMyPhotos(1L)).thenReturn(2L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 5, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 5, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -506,14 +583,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Valid sortBy parameter 'newest'")
     void getMyPhotos_SortByNewest_ShouldSucceed() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto2, testPhoto1); // Newest first
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow2, testRow1); // Newest first
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getMyPhotos(1L, "newest", pageable)).thenReturn(photos);
         when(galleryService.countMyPhotos(1L)).thenReturn(2L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -525,14 +602,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Valid sortBy parameter 'mostLiked'")
     void getMyPhotos_SortByMostLiked_ShouldSucceed() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto1, testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow1, testRow2);
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getMyPhotos(1L, "mostLiked", pageable)).thenReturn(photos);
         when(galleryService.countMyPhotos(1L)).thenReturn(2L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "mostLiked", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "mostLiked", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -545,7 +622,7 @@ public class GalleryControllerTest {
     void getMyPhotos_InvalidSortBy_ShouldThrowException() {
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
-            galleryController.getMyPhotos(0, 12, "invalid", currentUser);
+            galleryController.getMyPhotos(0, 12, "invalid", null, true, currentUser);
         });
 
         // Verify service never called
@@ -556,14 +633,14 @@ public class GalleryControllerTest {
     @DisplayName("Get my photos - Default sortBy when not specified")
     void getMyPhotos_DefaultSortBy_ShouldUseNewest() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto1, testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow1, testRow2);
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getMyPhotos(1L, "newest", pageable)).thenReturn(photos);
         when(galleryService.countMyPhotos(1L)).thenReturn(2L);
 
         // Act - Call without sortBy parameter (should default to "newest")
-        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 12, "newest", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
@@ -575,18 +652,266 @@ public class GalleryControllerTest {
     @DisplayName("Get public photos - SortBy parameter validation")
     void getPublicPhotos_SortByValidation_ShouldWork() {
         // Arrange
-        List<GalleryPhoto> photos = Arrays.asList(testPhoto2);
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow2);
         Pageable pageable = PageRequest.of(0, 12);
 
         when(galleryService.getPublicPhotos("mostFavorited", pageable)).thenReturn(photos);
         when(galleryService.countPublicPhotos()).thenReturn(1L);
 
         // Act
-        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 12, "mostFavorited", currentUser);
+        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 12, "mostFavorited", null, true, currentUser);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(galleryService, times(1)).getPublicPhotos("mostFavorited", pageable);
     }
+
+    @Test
+    @DisplayName("Get public photos - Like/favorite state hydrated once per page (no per-photo lookups)")
+    void getPublicPhotos_HydratesEngagementOncePerPage() {
+        // Arrange
+        List<GalleryPhotoResponse> photos = Arrays.asList(testRow1, testRow2);
+        Pageable pageable = PageRequest.of(0, 12);
+
+        when(galleryService.getPublicPhotos("newest", pageable)).thenReturn(photos);
+        when(galleryService.countPublicPhotos()).thenReturn(2L);
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 12, "newest", null, true, currentUser);
+
+        // Assert
+        assertEquals(2, response.getBody().getPhotos().size());
+        verify(photoEngagementService, times(1)).applyEngagement(photos, 1L);
+        verify(photoLikeService, never()).getLikeCount(anyLong());
+        verify(photoLikeService, never()).isLikedByUser(anyLong(), anyLong());
+        verify(photoFavoriteService, never()).isFavoritedByUser(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Get public photos - Cursor mode uses keyset slice instead of OFFSET page")
+    void getPublicPhotos_CursorMode_ReturnsNextCursor() {
+        // Arrange
+        when(galleryService.getPublicPhotosAfter("newest", "", 1))
+                .thenReturn(new GalleryPhotoSlice(List.of(testRow2), "next-token"));
+        when(galleryService.countPublicPhotos()).thenReturn(5L);
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(0, 1, "newest", "", true, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getPhotos().size());
+        assertEquals("next-token", response.getBody().getNextCursor());
+        assertTrue(response.getBody().isHasNext());
+        assertFalse(response.getBody().isHasPrevious()); // first slice
+        verify(galleryService, never()).getPublicPhotos(anyString(), any());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow2), null);
+    }
+
+    @Test
+    @DisplayName("Get user's public photos - Cursor mode passes cursor through")
+    void getUserPublicPhotos_CursorMode_PassesCursor() {
+        // Arrange
+        when(galleryService.getUserPublicPhotosAfter(1L, "abc", 12))
+                .thenReturn(new GalleryPhotoSlice(List.of(testRow2), null));
+        when(galleryService.countUserPublicPhotos(1L)).thenReturn(13L);
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getUserPublicPhotos(1L, 0, 12, "abc", true, currentUser);
+
+        // Assert
+        assertNull(response.getBody().getNextCursor());
+        assertFalse(response.getBody().isHasNext());
+        assertTrue(response.getBody().isHasPrevious());
+        verify(galleryService, never()).getUserPublicPhotos(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Get my photos - Count-free mode fetches size + 1 rows and skips COUNT(*)")
+    void getMyPhotos_CountFreeMode_UsesLookAheadRow() {
+        // Arrange: page size 1, look-ahead returns 2 rows → there is a next page
+        when(galleryService.getMyPhotos(1L, "newest", new LookAheadPageRequest(0, 1)))
+                .thenReturn(Arrays.asList(testRow1, testRow2));
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getMyPhotos(0, 1, "newest", null, false, currentUser);
+
+        // Assert
+        assertEquals(1, response.getBody().getPhotos().size());
+        assertEquals(1L, response.getBody().getPhotos().get(0).getId());
+        assertTrue(response.getBody().isHasNext());
+        assertEquals(GalleryListResponse.UNKNOWN_TOTAL, response.getBody().getTotalPhotos());
+        verify(galleryService, never()).countMyPhotos(anyLong());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow1), 1L);
+    }
+
+    @Test
+    @DisplayName("Get public photos - Count-free mode reports in-memory total only")
+    void getPublicPhotos_CountFreeMode_UsesInMemoryTotal() {
+        // Arrange: last page (no look-ahead row), index knows the total
+        when(galleryService.getPublicPhotos(eq("newest"), any(LookAheadPageRequest.class)))
+                .thenReturn(List.of(testRow2));
+        when(galleryService.peekPublicPhotoCount()).thenReturn(OptionalLong.of(13L));
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getPublicPhotos(1, 12, "newest", null, false, null);
+
+        // Assert
+        assertFalse(response.getBody().isHasNext());
+        assertTrue(response.getBody().isHasPrevious());
+        assertEquals(13L, response.getBody().getTotalPhotos());
+        assertEquals(2, response.getBody().getTotalPages());
+        verify(galleryService, never()).countPublicPhotos();
+    }
+
+    @Test
+    @DisplayName("Get leaderboard - Limit capped at board size, engagement applied to rows")
+    void getLeaderboard_ShouldCapLimitAndApplyEngagement() {
+        // Arrange
+        when(likeLeaderboard.getSize()).thenReturn(50);
+        when(likeLeaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50))
+                .thenReturn(List.of(new LeaderboardEntry(1, 7L, testRow1)));
+
+        // Act
+        ResponseEntity<LeaderboardResponse> response = galleryController.getLeaderboard("week", 500, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("week", response.getBody().getPeriod());
+        assertEquals(1, response.getBody().getEntries().size());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow1), 1L);
+    }
+
+    @Test
+    @DisplayName("Get leaderboard - Invalid period throws exception")
+    void getLeaderboard_InvalidPeriod_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> galleryController.getLeaderboard("month", 50, null));
+        verify(likeLeaderboard, never()).getLeaderboard(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get photos by ids - Rows in requested order, engagement batched, missing ids reported")
+    void getPhotosByIds_ShouldReturnRowsInOrderAndMissingIds() {
+        // Arrange: photo 9 does not exist (or is someone else's private photo)
+        List<Long> ids = Arrays.asList(2L, 9L, 1L, 2L);
+        List<GalleryPhotoResponse> rows = new ArrayList<>(List.of(testRow2, testRow1));
+        when(galleryService.getPhotosByIds(ids, 1L)).thenReturn(rows);
+
+        // Act
+        ResponseEntity<PhotoBatchResponse> response = galleryController.getPhotosByIds(ids, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(testRow2, testRow1), response.getBody().getPhotos());
+        assertEquals(List.of(9L), response.getBody().getMissingIds());
+        verify(photoEngagementService, times(1)).applyEngagement(rows, 1L);
+        verify(galleryService, never()).getPhotoById(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Get timeline - Cursor page for current user without total")
+    void getTimeline_ShouldReturnCursorPageForCurrentUser() {
+        // Arrange
+        when(galleryService.getTimelineAfter(1L, null, 12))
+                .thenReturn(new GalleryPhotoSlice(List.of(testRow2), "100"));
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.getTimeline(null, 12, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("100", response.getBody().getNextCursor());
+        assertTrue(response.getBody().isHasNext());
+        assertFalse(response.getBody().isHasPrevious());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow2), 1L);
+        verify(galleryService, never()).countPublicPhotos();
+    }
+
+    @Test
+    @DisplayName("Search photos - Anonymous search returns a cursor page without total")
+    void searchPhotos_Anonymous_ShouldReturnCursorPage() {
+        // Arrange
+        when(galleryService.searchPhotos("beach", "abc", 12, null))
+                .thenReturn(new GalleryPhotoSlice(List.of(testRow1), null));
+
+        // Act
+        ResponseEntity<GalleryListResponse> response = galleryController.searchPhotos("beach", "abc", 12, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody().getNextCursor());
+        assertFalse(response.getBody().isHasNext());
+        assertTrue(response.getBody().isHasPrevious());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow1), null);
+    }
+
+    @Test
+    @DisplayName("Tagged photos - Tag filter returns a cursor page without total")
+    void getTaggedPhotos_ShouldReturnCursorPage() {
+        // Arrange
+        when(galleryService.getTaggedPhotosAfter("sunset AND beach NOT night", null, 12))
+                .thenReturn(new GalleryPhotoSlice(List.of(testRow1), "42"));
+
+        // Act
+        ResponseEntity<GalleryListResponse> response =
+                galleryController.getTaggedPhotos("sunset AND beach NOT night", null, 12, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("42", response.getBody().getNextCursor());
+        assertTrue(response.getBody().isHasNext());
+        assertFalse(response.getBody().isHasPrevious());
+        verify(photoEngagementService, times(1)).applyEngagement(List.of(testRow1), 1L);
+    }
+
+    @Test
+    @DisplayName("Export my photos - NDJSON body streamed by export service for current user")
+    void exportMyPhotos_ShouldStreamNdjsonForCurrentUser() throws IOException {
+        // Act
+        ResponseEntity<StreamingResponseBody> response = galleryController.exportMyPhotos(currentUser);
+
+        // Assert: nothing read until the body is written
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verifyNoInteractions(galleryExportService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(galleryExportService, times(1)).exportUserPhotos(1L, out);
+    }
+
+    @Test
+    @DisplayName("Stream like count - Access checked, stream opened with the current count")
+    void streamLikeCount_ShouldOpenStreamWithCurrentCount() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(galleryService.getPhotoById(1L, 1L)).thenReturn(testPhoto1);
+        when(photoLikeService.getLikeCount(1L)).thenReturn(5L);
+        when(liveLikeCounts.subscribe(1L, 5L)).thenReturn(Optional.of(emitter));
+
+        // Act
+        ResponseEntity<SseEmitter> response = galleryController.streamLikeCount(1L, currentUser);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+        verify(galleryService, times(1)).getPhotoById(1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Stream like count - 503 when live counts are disabled or full")
+    void streamLikeCount_NoStream_ShouldReturn503() {
+        // Arrange
+        when(galleryService.getPhotoById(1L, null)).thenReturn(testPhoto1);
+        when(liveLikeCounts.subscribe(1L, 0L)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<SseEmitter> response = galleryController.streamLikeCount(1L, null);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNull(response.getBody());
+    }
 }
@@ -42,6 +42,12 @@ class SortByTest {
         assertTrue(SortBy.isValid("mostFavorited"));
     }
 
+    @Test
+    @DisplayName("isValid with 'trending' should return true")
+    void isValid_withTrending_shouldReturnTrue() {
+        assertTrue(SortBy.isValid("trending"));
+    }
+
     @Test
     @DisplayName("isValid with invalid value should return false")
     void isValid_withInvalidValue_shouldReturnFalse() {
@@ -166,15 +172,16 @@ class SortByTest {
         assertTrue(allowed.contains("oldest"));
         assertTrue(allowed.contains("mostLiked"));
         assertTrue(allowed.contains("mostFavorited"));
+        assertTrue(allowed.contains("trending"));
     }
 
     @Test
-    @DisplayName("getAllowedValues should have 4 values")
-    void getAllowedValues_shouldHaveFourValues() {
+    @DisplayName("getAllowedValues should have 5 values")
+    void getAllowedValues_shouldHaveFiveValues() {
         String allowed = SortBy.getAllowedValues();
         String[] values = allowed.split(", ");
 
-        assertEquals(4, values.length);
+        assertEquals(5, values.length);
     }
 
     @Test
@@ -182,22 +189,23 @@ class SortByTest {
     void getAllowedValues_formatShouldBeCorrect() {
         String allowed = SortBy.getAllowedValues();
 
-        // Check format: "newest, oldest, mostLiked, mostFavorited"
-        assertEquals("newest, oldest, mostLiked, mostFavorited", allowed);
+        // Check format: "newest, oldest, mostLiked, mostFavorited, trending"
+        assertEquals("newest, oldest, mostLiked, mostFavorited, trending", allowed);
     }
 
     // ========== ENUM VALUES() TESTS ==========
 
     @Test
-    @DisplayName("values() should return all 4 enum constants")
+    @DisplayName("values() should return all 5 enum constants")
     void values_shouldReturnAllEnumConstants() {
         SortBy[] values = SortBy.values();
 
-        assertEquals(4, values.length);
+        assertEquals(5, values.length);
         assertEquals(SortBy.NEWEST, values[0]);
         assertEquals(SortBy.OLDEST, values[1]);
         assertEquals(SortBy.MOST_LIKED, values[2]);
         assertEquals(SortBy.MOST_FAVORITED, values[3]);
+        assertEquals(SortBy.TRENDING, values[4]);
     }
 
     @Test
@@ -207,6 +215,7 @@ class SortByTest {
         assertEquals(SortBy.OLDEST, SortBy.valueOf("OLDEST"));
         assertEquals(SortBy.MOST_LIKED, SortBy.valueOf("MOST_LIKED"));
         assertEquals(SortBy.MOST_FAVORITED, SortBy.valueOf("MOST_FAVORITED"));
+        assertEquals(SortBy.TRENDING, SortBy.valueOf("TRENDING"));
     }
 
     @Test
@@ -0,0 +1,142 @@
+package com.ikplabs.api.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk GalleryEventBus
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Delivery (GEBT-001 to GEBT-002)
+ *    - Semua tipe event sampai ke subscriber, urut, dengan field yang benar
+ *    - Setiap subscriber menerima semua event (thread sendiri)
+ *
+ * 2. Configuration (GEBT-003 to GEBT-004)
+ *    - Tanpa subscriber / disabled → publish no-op
+ *    - Tipe non-engagement ke engaged() → IllegalArgumentException
+ *
+ * TOTAL TEST CASES: 4
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GalleryEventBus Tests")
+public class GalleryEventBusTest {
+
+    @Mock
+    private ObjectProvider<GalleryEventListener> listeners;
+
+    @InjectMocks
+    private GalleryEventBus galleryEventBus;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        galleryEventBus.shutdown();
+    }
+
+    @Test
+    @DisplayName("GEBT-001: publish - every event type reaches the subscriber in order (no transaction → immediately)")
+    void publish_AllTypes_DeliveredInOrder() throws InterruptedException {
+        // Arrange
+        RecordingListener listener = new RecordingListener();
+        when(listeners.orderedStream()).thenReturn(Stream.of(listener));
+        galleryEventBus.afterSingletonsInstantiated();
+
+        // Act
+        galleryEventBus.photoUploaded(10L, 1L, true);
+        galleryEventBus.engaged(GalleryEventType.LIKED, 10L, 1L, 2L, true);
+        galleryEventBus.engaged(GalleryEventType.FAVORITED, 10L, 1L, 2L, true);
+        galleryEventBus.engaged(GalleryEventType.UNLIKED, 10L, 1L, 2L, true);
+        galleryEventBus.engaged(GalleryEventType.UNFAVORITED, 10L, 1L, 2L, true);
+        galleryEventBus.privacyToggled(10L, 1L, false);
+        galleryEventBus.photoDeleted(10L, 1L, false);
+        galleryEventBus.shutdown(); // drains what was published
+
+        // Assert
+        assertEquals(List.of(
+                "PHOTO_UPLOADED 10 1 1 true",
+                "LIKED 10 1 2 true",
+                "FAVORITED 10 1 2 true",
+                "UNLIKED 10 1 2 true",
+                "UNFAVORITED 10 1 2 true",
+                "PRIVACY_TOGGLED 10 1 1 false",
+                "PHOTO_DELETED 10 1 1 false"), listener.received);
+    }
+
+    @Test
+    @DisplayName("GEBT-002: publish - each subscriber receives every event")
+    void publish_TwoSubscribers_BothReceiveAll() throws InterruptedException {
+        // Arrange
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        when(listeners.orderedStream()).thenReturn(Stream.of(first, second));
+        galleryEventBus.afterSingletonsInstantiated();
+
+        // Act
+        for (long photoId = 1; photoId <= 1000; photoId++) {
+            galleryEventBus.engaged(GalleryEventType.LIKED, photoId, 1L, 2L, true);
+        }
+        galleryEventBus.shutdown();
+
+        // Assert
+        assertEquals(1000, first.received.size());
+        assertEquals(first.received, second.received);
+        assertEquals(0, galleryEventBus.backlog());
+    }
+
+    @Test
+    @DisplayName("GEBT-003: no subscribers or disabled - publish is a no-op")
+    void publish_NoSubscribersOrDisabled_NoOp() {
+        // Arrange: no listener beans
+        when(listeners.orderedStream()).thenReturn(Stream.empty());
+        galleryEventBus.afterSingletonsInstantiated();
+
+        // Act & Assert
+        assertDoesNotThrow(() -> galleryEventBus.photoUploaded(10L, 1L, true));
+        assertEquals(0, galleryEventBus.backlog());
+
+        // Disabled: listeners are never even looked up
+        GalleryEventBus disabled = new GalleryEventBus();
+        ReflectionTestUtils.setField(disabled, "enabled", false);
+        ReflectionTestUtils.setField(disabled, "listeners", listeners);
+        disabled.afterSingletonsInstantiated();
+        disabled.photoDeleted(10L, 1L, true);
+        verify(listeners, times(1)).orderedStream();
+    }
+
+    @Test
+    @DisplayName("GEBT-004: engaged - photo event type is rejected")
+    void engaged_PhotoEventType_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> galleryEventBus.engaged(GalleryEventType.PHOTO_UPLOADED, 10L, 1L, 2L, true));
+    }
+
+    /**
+     * Copies every event to a string (events are reused slots, so nothing else is kept)
+     */
+    private static final class RecordingListener implements GalleryEventListener {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvents(List<GalleryEvent> events) {
+            for (GalleryEvent event : events) {
+                received.add(event.getType() + " " + event.getPhotoId() + " " + event.getOwnerId()
+                        + " " + event.getActorId() + " " + event.isPublic());
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.ikplabs.api.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ikplabs.api.dto.BulkEngagementRequest;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
 import com.ikplabs.api.dto.UserRegistrationRequest;
 import com.ikplabs.api.entity.GalleryPhoto;
-import com.ikplabs.api.entity.PhotoFavorite;
 import com.ikplabs.api.entity.User;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementTarget;
 import com.ikplabs.api.repository.GalleryPhotoRepository;
 import com.ikplabs.api.repository.PhotoFavoriteRepository;
 import com.ikplabs.api.repository.PhotoLikeRepository;
@@ -22,6 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -38,7 +42,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Test coverage:
  * 1. POST /api/gallery/photo/{id}/favorite (201, 400)
  * 2. DELETE /api/gallery/photo/{id}/favorite (204, 400)
- * 3. GET /api/gallery/favorited-photos (200, 403)
+ * 3. GET /api/gallery/favorited-photos (200, 403, count-free mode)
+ * 4. POST /api/gallery/photos/favorite (200 with per-ID results, 400)
  *
  * @author Isnendy Ankp
  * @since 2026-02-07
@@ -202,21 +207,9 @@ public class PhotoFavoriteControllerIntegrationTest {
         // ARRANGE: Setup authentication
         String token = registerUserAndGetToken("fav1@test.com", "Fav Test User One");
 
-        // Mock: Photo exists and is public
-        when(galleryPhotoRepository.findById(100L))
-                .thenReturn(Optional.of(publicPhoto));
-
-        // Mock: User has not favorited this photo yet
-        when(photoFavoriteRepository.existsByPhotoIdAndUserId(100L, 1L))
-                .thenReturn(false);
-
-        // Mock: User repository (for getting user entity)
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(favoriterUser));
-
-        // Mock: Save PhotoFavorite
-        when(photoFavoriteRepository.save(any(PhotoFavorite.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        // Mock: Single INSERT ... ON CONFLICT statement inserts the favorite (owner = user 2)
+        when(photoFavoriteRepository.insertFavorite(100L, 1L))
+                .thenReturn(Optional.of(new EngagementChange(2L, true, LocalDateTime.now())));
 
         // ACT & ASSERT: Favorite photo
         mockMvc.perform(post("/api/gallery/photo/100/favorite")
@@ -225,8 +218,9 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .andExpect(status().isCreated()) // 201 Created
                 .andExpect(content().string(isEmptyOrNullString())); // Empty body
 
-        // VERIFY: Repository save method called
-        verify(photoFavoriteRepository, times(1)).save(any(PhotoFavorite.class));
+        // VERIFY: One insert statement, no diagnose query
+        verify(photoFavoriteRepository, times(1)).insertFavorite(100L, 1L);
+        verify(photoFavoriteRepository, never()).findFavoriteTarget(anyLong(), anyLong());
     }
 
     /**
@@ -242,17 +236,13 @@ public class PhotoFavoriteControllerIntegrationTest {
         // ARRANGE: Setup authentication
         String token = registerUserAndGetToken("fav2@test.com", "Fav Test User Two");
 
-        // Mock: Photo exists and is public
-        when(galleryPhotoRepository.findById(100L))
-                .thenReturn(Optional.of(publicPhoto));
+        // Mock: INSERT hits ON CONFLICT DO NOTHING → no row
+        when(photoFavoriteRepository.insertFavorite(100L, 1L))
+                .thenReturn(Optional.empty());
 
-        // Mock: User has ALREADY favorited this photo
-        when(photoFavoriteRepository.existsByPhotoIdAndUserId(100L, 1L))
-                .thenReturn(true); // Already favorited
-
-        // Mock: User repository
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(favoriterUser));
+        // Mock: Diagnose → photo public, user has ALREADY favorited it
+        when(photoFavoriteRepository.findFavoriteTarget(100L, 1L))
+                .thenReturn(Optional.of(new EngagementTarget(2L, true, true, true)));
 
         // ACT & ASSERT: Try to favorite again
         mockMvc.perform(post("/api/gallery/photo/100/favorite")
@@ -261,8 +251,8 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .andExpect(status().isBadRequest()) // 400 Bad Request (IllegalStateException)
                 .andExpect(jsonPath("$.message").value(containsString("already favorited")));
 
-        // VERIFY: Repository save method NOT called
-        verify(photoFavoriteRepository, never()).save(any(PhotoFavorite.class));
+        // VERIFY: Only the rejected insert ran (it changed no row)
+        verify(photoFavoriteRepository, times(1)).insertFavorite(100L, 1L);
     }
 
     /**
@@ -278,7 +268,7 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .andExpect(status().isUnauthorized()); // 401 Unauthorized
 
         // VERIFY: Repository never called
-        verify(photoFavoriteRepository, never()).save(any(PhotoFavorite.class));
+        verify(photoFavoriteRepository, never()).insertFavorite(anyLong(), anyLong());
     }
 
     // ========================================================================
@@ -295,16 +285,9 @@ public class PhotoFavoriteControllerIntegrationTest {
         // ARRANGE: Setup authentication
         String token = registerUserAndGetToken("fav3@test.com", "Fav Test User Three");
 
-        // Mock: Photo exists
-        when(galleryPhotoRepository.existsById(100L))
-                .thenReturn(true);
-
-        // Mock: User has favorited this photo
-        when(photoFavoriteRepository.existsByPhotoIdAndUserId(100L, 1L))
-                .thenReturn(true);
-
-        // Mock: Delete favorite
-        doNothing().when(photoFavoriteRepository).deleteByPhotoIdAndUserId(100L, 1L);
+        // Mock: Single DELETE ... RETURNING statement removes the favorite
+        when(photoFavoriteRepository.deleteFavorite(100L, 1L))
+                .thenReturn(Optional.of(new EngagementChange(2L, true, LocalDateTime.now())));
 
         // ACT & ASSERT: Unfavorite the photo
         mockMvc.perform(delete("/api/gallery/photo/100/favorite")
@@ -313,7 +296,7 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .andExpect(status().isNoContent()); // 204 No Content
 
         // VERIFY: Repository delete method called
-        verify(photoFavoriteRepository, times(1)).deleteByPhotoIdAndUserId(100L, 1L);
+        verify(photoFavoriteRepository, times(1)).deleteFavorite(100L, 1L);
     }
 
     /**
@@ -329,7 +312,7 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .andExpect(status().isUnauthorized()); // 401 Unauthorized
 
         // VERIFY: Repository never called
-        verify(photoFavoriteRepository, never()).deleteByPhotoIdAndUserId(anyLong(), anyLong());
+        verify(photoFavoriteRepository, never()).deleteFavorite(anyLong(), anyLong());
     }
 
     // ========================================================================
@@ -351,10 +334,10 @@ public class PhotoFavoriteControllerIntegrationTest {
                 .thenReturn(Optional.of(favoriterUser));
 
         // Mock: Favorited photos list
-        List<GalleryPhoto> photoList = Arrays.asList(
-                publicPhoto,
-                privatePhoto,
-                publicPhoto
+        List<GalleryPhotoResponse> photoList = Arrays.asList(
+                GalleryPhotoResponse.fromEntity(publicPhoto),
+                GalleryPhotoResponse.fromEntity(privatePhoto),
+                GalleryPhotoResponse.fromEntity(publicPhoto)
         );
 
         // Mock: findFavoritedPhotosByUserIdNewest returns List (for sortBy="newest")
@@ -365,11 +348,11 @@ public class PhotoFavoriteControllerIntegrationTest {
         when(photoFavoriteRepository.countFavoritedPhotosByUserId(1L))
                 .thenReturn(3L);
 
-        // Mock: PhotoLikeService (used in GET endpoint)
-        when(photoLikeRepository.countByPhotoId(anyLong()))
-                .thenReturn(5L); // 5 likes per photo
-        when(photoLikeRepository.existsByPhotoIdAndUserId(anyLong(), eq(1L)))
-                .thenReturn(true); // User has liked all photos
+        // Mock: Batch hydration (one grouped query for likes, one for favorites)
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), eq(1L)))
+                .thenReturn(List.of()); // No likes yet
+        when(photoFavoriteRepository.summarizeByPhotoIds(anyCollection(), eq(1L)))
+                .thenReturn(List.of());
 
         // ACT & ASSERT: Get favorited photos
         mockMvc.perform(get("/api/gallery/favorited-photos")
@@ -392,6 +375,8 @@ public class PhotoFavoriteControllerIntegrationTest {
         // VERIFY: Repository method called
         verify(photoFavoriteRepository, times(1)).findFavoritedPhotosByUserIdNewest(eq(1L), any(Pageable.class));
         verify(photoFavoriteRepository, times(1)).countFavoritedPhotosByUserId(1L);
+        verify(photoLikeRepository, times(1)).summarizeByPhotoIds(anyCollection(), eq(1L));
+        verify(photoLikeRepository, never()).countByPhotoId(anyLong());
     }
 
     /**
@@ -412,6 +397,118 @@ public class PhotoFavoriteControllerIntegrationTest {
         verify(photoFavoriteRepository, never()).findFavoritedPhotosByUserIdNewest(anyLong(), any());
     }
 
+    /**
+     * PFCIT-008: GET /favorited-photos?withTotal=false - Count-free mode
+     */
+    @Test
+    @Order(8)
+    @DisplayName("PFCIT-008: GET /favorited-photos?withTotal=false - Should fetch size + 1 and omit totals (200)")
+    void testGetFavoritedPhotos_CountFreeMode_ShouldOmitTotals() throws Exception {
+        // ARRANGE: Setup authentication
+        String token = registerUserAndGetToken("fav5@test.com", "Fav Test User Five");
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(favoriterUser));
+
+        // Mock: size=2 → repository asked for 3 rows, 3 returned (look-ahead row exists)
+        when(photoFavoriteRepository.findFavoritedPhotosByUserIdNewest(eq(1L), argThat(p -> p.getPageSize() == 3 && p.getOffset() == 0)))
+                .thenReturn(Arrays.asList(
+                        GalleryPhotoResponse.fromEntity(publicPhoto),
+                        GalleryPhotoResponse.fromEntity(privatePhoto),
+                        GalleryPhotoResponse.fromEntity(publicPhoto)));
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), eq(1L)))
+                .thenReturn(List.of());
+        when(photoFavoriteRepository.summarizeByPhotoIds(anyCollection(), eq(1L)))
+                .thenReturn(List.of());
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/gallery/favorited-photos")
+                        .header("Authorization", "Bearer " + token)
+                        .param("page", "0")
+                        .param("size", "2")
+                        .param("withTotal", "false"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.photos", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalPhotos").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        // VERIFY: No COUNT(*) query
+        verify(photoFavoriteRepository, never()).countFavoritedPhotosByUserId(anyLong());
+    }
+
+    // ========================================================================
+    // BULK FAVORITE TESTS
+    // ========================================================================
+
+    /**
+     * PFCIT-009: POST /photos/favorite - Bulk favorite with per-ID results
+     *
+     * Scenario:
+     * 1. Photo 100 (public) → favorited by the multi-row INSERT
+     * 2. Photo 101 (private, owned by user 2) → rejected, diagnosed in ONE query
+     * 3. Photo 999 → does not exist
+     * 4. Returns 200 with one result per ID (duplicate 100 handled once)
+     */
+    @Test
+    @Order(9)
+    @DisplayName("PFCIT-009: POST /photos/favorite - Should return per-ID results (200)")
+    void testFavoritePhotos_Bulk_ShouldReturnPerIdResults() throws Exception {
+        // ARRANGE: Setup authentication
+        String token = registerUserAndGetToken("fav6@test.com", "Fav Test User Six");
+
+        // Mock: one INSERT for all IDs, only photo 100 inserted
+        when(photoFavoriteRepository.insertFavorites(List.of(100L, 101L, 999L), 1L))
+                .thenReturn(Map.of(100L, new EngagementChange(2L, true, LocalDateTime.now())));
+
+        // Mock: one diagnose query for the rejected IDs (999 does not exist → no entry)
+        when(photoFavoriteRepository.findFavoriteTargets(List.of(101L, 999L), 1L))
+                .thenReturn(Map.of(101L, new EngagementTarget(2L, false, false, true)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/gallery/photos/favorite")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkEngagementRequest(List.of(100L, 101L, 999L, 100L)))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].photoId").value(100))
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.results[1].error").value("Cannot favorite private photos of other users"))
+                .andExpect(jsonPath("$.results[2].error").value("Photo not found with id: 999"))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(2));
+
+        // VERIFY: no per-photo statements
+        verify(photoFavoriteRepository, never()).insertFavorite(anyLong(), anyLong());
+        verify(photoFavoriteRepository, never()).findFavoriteTarget(anyLong(), anyLong());
+    }
+
+    /**
+     * PFCIT-010: POST /photos/favorite - Empty photoIds should return 400
+     */
+    @Test
+    @Order(10)
+    @DisplayName("PFCIT-010: POST /photos/favorite - Empty photoIds should return 400")
+    void testFavoritePhotos_Empty_ShouldReturn400() throws Exception {
+        // ARRANGE: Setup authentication
+        String token = registerUserAndGetToken("fav7@test.com", "Fav Test User Seven");
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/gallery/photos/favorite")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkEngagementRequest(List.of()))))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        // VERIFY: nothing written
+        verify(photoFavoriteRepository, never()).insertFavorites(anyCollection(), anyLong());
+    }
+
     // ========================================================================
     // HELPER METHODS FOR ENTITY CREATION
     // ========================================================================
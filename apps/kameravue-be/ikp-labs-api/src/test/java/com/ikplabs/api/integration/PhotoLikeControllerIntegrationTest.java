@@ -3,8 +3,8 @@ package com.ikplabs.api.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ikplabs.api.dto.UserRegistrationRequest;
 import com.ikplabs.api.entity.GalleryPhoto;
-import com.ikplabs.api.entity.PhotoLike;
 import com.ikplabs.api.entity.User;
+import com.ikplabs.api.repository.EngagementChange;
 import com.ikplabs.api.repository.GalleryPhotoRepository;
 import com.ikplabs.api.repository.PhotoLikeRepository;
 import com.ikplabs.api.repository.UserRepository;
@@ -212,8 +212,8 @@ public class PhotoLikeControllerIntegrationTest {
      *
      * Flow:
      * - Controller receives authenticated request
-     * - Service validates photo (exists, public, not owner, not liked)
-     * - Repository saves PhotoLike
+     * - Service runs one INSERT ... ON CONFLICT DO NOTHING (rules in the WHERE clause)
+     * - Repository returns the photo owner (1 row = liked)
      * - Returns 201 with success message
      */
     @Test
@@ -223,21 +223,9 @@ public class PhotoLikeControllerIntegrationTest {
         // ARRANGE: Setup authentication
         String token = registerUserAndGetToken("like1@test.com", "Like Test User One");
 
-        // Mock: Photo exists and is public
-        when(galleryPhotoRepository.findById(100L))
-                .thenReturn(Optional.of(publicPhoto));
-
-        // Mock: User has not liked this photo yet
-        when(photoLikeRepository.existsByPhotoIdAndUserId(100L, 1L))
-                .thenReturn(false);
-
-        // Mock: User repository (for getting user entity)
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(likerUser));
-
-        // Mock: Save PhotoLike
-        when(photoLikeRepository.save(any(PhotoLike.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        // Mock: Single INSERT ... ON CONFLICT statement inserts the like (owner = user 2)
+        when(photoLikeRepository.insertLike(100L, 1L))
+                .thenReturn(Optional.of(new EngagementChange(2L, true, LocalDateTime.now())));
 
         // ACT & ASSERT: Like photo
         mockMvc.perform(post("/api/gallery/photo/100/like")
@@ -246,10 +234,8 @@ public class PhotoLikeControllerIntegrationTest {
                 .andExpect(status().isCreated()); // 201 Created (empty body)
 
         // VERIFY: Repository interactions
-        verify(galleryPhotoRepository).findById(100L);
-        verify(photoLikeRepository).existsByPhotoIdAndUserId(100L, 1L);
-        verify(userRepository).findById(1L);
-        verify(photoLikeRepository).save(any(PhotoLike.class));
+        verify(photoLikeRepository).insertLike(100L, 1L);
+        verify(photoLikeRepository, never()).findLikeTarget(anyLong(), anyLong());
     }
 
     /**
@@ -270,7 +256,7 @@ public class PhotoLikeControllerIntegrationTest {
                 .andExpect(status().isUnauthorized()); // 401 Unauthorized
 
         // VERIFY: Repository never called (Spring Security blocked request)
-        verify(photoLikeRepository, never()).save(any());
+        verify(photoLikeRepository, never()).insertLike(anyLong(), anyLong());
     }
 
     // ========================================================================
@@ -289,8 +275,7 @@ public class PhotoLikeControllerIntegrationTest {
      *
      * Flow:
      * - Controller receives authenticated request
-     * - Service validates (photo exists, is liked)
-     * - Repository deletes PhotoLike
+     * - Service runs one DELETE ... RETURNING (1 row = unliked)
      * - Returns 204 No Content
      */
     @Test
@@ -300,16 +285,9 @@ public class PhotoLikeControllerIntegrationTest {
         // ARRANGE: Setup authentication
         String token = registerUserAndGetToken("unlike1@test.com", "Unlike Test User One");
 
-        // Mock: Photo exists
-        when(galleryPhotoRepository.existsById(100L))
-                .thenReturn(true);
-
-        // Mock: User has liked this photo
-        when(photoLikeRepository.existsByPhotoIdAndUserId(100L, 1L))
-                .thenReturn(true);
-
-        // Mock: Delete PhotoLike
-        doNothing().when(photoLikeRepository).deleteByPhotoIdAndUserId(100L, 1L);
+        // Mock: Single DELETE ... RETURNING statement removes the like
+        when(photoLikeRepository.deleteLike(100L, 1L))
+                .thenReturn(Optional.of(new EngagementChange(2L, true, LocalDateTime.now())));
 
         // ACT & ASSERT: Unlike photo
         mockMvc.perform(delete("/api/gallery/photo/100/like")
@@ -318,9 +296,7 @@ public class PhotoLikeControllerIntegrationTest {
                 .andExpect(status().isNoContent()); // 204 No Content
 
         // VERIFY: Repository interactions
-        verify(galleryPhotoRepository).existsById(100L);
-        verify(photoLikeRepository).existsByPhotoIdAndUserId(100L, 1L);
-        verify(photoLikeRepository).deleteByPhotoIdAndUserId(100L, 1L);
+        verify(photoLikeRepository).deleteLike(100L, 1L);
     }
 
     /**
@@ -340,7 +316,7 @@ public class PhotoLikeControllerIntegrationTest {
                 .andExpect(status().isUnauthorized()); // 401 Unauthorized
 
         // VERIFY: Repository never called
-        verify(photoLikeRepository, never()).deleteByPhotoIdAndUserId(anyLong(), anyLong());
+        verify(photoLikeRepository, never()).deleteLike(anyLong(), anyLong());
     }
 
     // ========================================================================
@@ -0,0 +1,267 @@
+package com.ikplabs.api.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency test untuk counter shards (EngagementWriteQueries *_SHARDED + COMPACT_SHARDS)
+ *
+ * TESTING STRATEGY:
+ * =================
+ * Hot-row contention hanya kelihatan di PostgreSQL asli (row lock sampai commit),
+ * jadi test ini pakai Testcontainers PostgreSQL dengan migration V1-V11 apa adanya.
+ * Setiap writer thread punya Connection sendiri (autocommit = satu transaksi per like,
+ * sama seperti request like di aplikasi).
+ *
+ * Skenario: SATU foto viral, LIKES_PER_RUN user berbeda like bersamaan dengan
+ * 1 / 2 / 4 / 8 writer thread:
+ * - LIKE          → setiap like meng-UPDATE baris gallery_photos yang sama (antri)
+ * - LIKE_SHARDED  → setiap like meng-upsert slot user_id % SHARDS (antrian terbagi)
+ *
+ * Tabel likes/detik dicetak ke stdout. Yang di-assert: throughput sharded naik
+ * dengan jumlah writer thread (angka absolut tergantung mesin, tidak di-assert).
+ *
+ * Test otomatis di-skip kalau Docker tidak tersedia (disabledWithoutDocker).
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Throughput (ECST-001) - sharded likes scale with writer threads on one photo
+ * 2. Correctness (ECST-002) - column + SUM(slots) = COUNT(*) under concurrent likes
+ * 3. Compaction (ECST-003) - slots folded into like_count, unlikes included
+ *
+ * TOTAL TEST CASES: 3
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Engagement Counter Sharding Tests")
+public class EngagementCounterShardingTest {
+
+    private static final String[] MIGRATIONS = {
+        "db/migration/V1__add_profile_picture_column.sql",
+        "db/migration/V2__create_gallery_photos_table.sql",
+        "db/migration/V3__create_photo_likes.sql",
+        "db/migration/V4__create_photo_favorites.sql",
+        "db/migration/V5__add_photo_engagement_counters.sql",
+        "db/migration/V6__add_gallery_feed_partial_indexes.sql",
+        "db/migration/V7__add_trending_hot_score.sql",
+        "db/migration/V8__create_follows_and_home_timeline.sql",
+        "db/migration/V9__add_gallery_photo_search_vector.sql",
+        "db/migration/V10__create_photo_tags.sql",
+        "db/migration/V11__create_photo_counter_shards.sql"
+    };
+
+    private static final long OWNER_ID = 1L;
+
+    private static final int LIKES_PER_RUN = 2000;
+
+    private static final int SHARDS = 16;
+
+    private static final int[] WRITER_THREADS = {1, 2, 4, 8};
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // users table is created by JPA in production (V1 only alters it)
+            statement.execute("CREATE TABLE users (id BIGSERIAL PRIMARY KEY, full_name VARCHAR(100), email VARCHAR(100))");
+            for (String migration : MIGRATIONS) {
+                statement.execute(readResource(migration));
+            }
+            // user 1 = owner of every photo, users 2..LIKES_PER_RUN+1 = likers
+            statement.execute("INSERT INTO users (full_name) SELECT 'user-' || g FROM generate_series(1, "
+                    + (LIKES_PER_RUN + 1) + ") g");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("ECST-001: Throughput - sharded likes on one hot photo scale with writer threads")
+    void shardedLikes_ScaleWithWriterThreads() throws Exception {
+        // Warm up both paths (plans, connections, WAL)
+        likeConcurrently(EngagementWriteQueries.LIKE, newPhoto(), 4);
+        likeConcurrently(EngagementWriteQueries.LIKE_SHARDED, newPhoto(), 4);
+
+        Map<Integer, double[]> likesPerSecond = new LinkedHashMap<>();
+        for (int threads : WRITER_THREADS) {
+            double plain = likeConcurrently(EngagementWriteQueries.LIKE, newPhoto(), threads);
+            double sharded = likeConcurrently(EngagementWriteQueries.LIKE_SHARDED, newPhoto(), threads);
+            likesPerSecond.put(threads, new double[] {plain, sharded});
+        }
+
+        System.out.println("threads | single row likes/s | sharded likes/s");
+        likesPerSecond.forEach((threads, rates) ->
+                System.out.printf("%7d | %18.0f | %15.0f%n", threads, rates[0], rates[1]));
+
+        double oneWriter = likesPerSecond.get(WRITER_THREADS[0])[1];
+        double maxWriters = likesPerSecond.get(WRITER_THREADS[WRITER_THREADS.length - 1])[1];
+        assertTrue(maxWriters > oneWriter,
+                "sharded throughput should grow with writer threads: " + oneWriter + " → " + maxWriters);
+    }
+
+    @Test
+    @DisplayName("ECST-002: Correctness - column + slot deltas equal COUNT(*) after concurrent likes")
+    void shardedLikes_ColumnPlusSlotsEqualsCount() throws Exception {
+        // Act
+        long photoId = newPhoto();
+        likeConcurrently(EngagementWriteQueries.LIKE_SHARDED, photoId, 8);
+
+        // Assert: the photo row was never touched, every like sits in a slot
+        assertEquals(0L, queryLong("SELECT like_count FROM gallery_photos WHERE id = " + photoId));
+        assertEquals(LIKES_PER_RUN, queryLong("SELECT COUNT(*) FROM photo_likes WHERE photo_id = " + photoId));
+        assertEquals(LIKES_PER_RUN, queryLong(
+                "SELECT SUM(like_delta) FROM photo_counter_shards WHERE photo_id = " + photoId));
+        assertTrue(queryLong("SELECT COUNT(*) FROM photo_counter_shards WHERE photo_id = " + photoId) <= SHARDS);
+
+        // Duplicate like → no row, no delta (ON CONFLICT on photo_likes)
+        assertFalse(run(EngagementWriteQueries.LIKE_SHARDED, photoId, 2L));
+        assertEquals(LIKES_PER_RUN, queryLong(
+                "SELECT SUM(like_delta) FROM photo_counter_shards WHERE photo_id = " + photoId));
+    }
+
+    @Test
+    @DisplayName("ECST-003: Compaction - slots are folded into like_count and removed, unlikes included")
+    void compactShards_FoldsIntoColumn() throws Exception {
+        // Arrange: 2000 likes, then 100 unlikes, all sharded
+        long photoId = newPhoto();
+        likeConcurrently(EngagementWriteQueries.LIKE_SHARDED, photoId, 4);
+        for (long userId = 2; userId < 102; userId++) {
+            assertTrue(run(EngagementWriteQueries.UNLIKE_SHARDED, photoId, userId));
+        }
+
+        // Act: small batches, like CounterShardCompactor.compactAll
+        int limit = 5;
+        long drained;
+        do {
+            drained = queryLong(EngagementWriteQueries.COMPACT_SHARDS.replace(":limit", String.valueOf(limit)));
+        } while (drained == limit);
+
+        // Assert
+        long expected = LIKES_PER_RUN - 100;
+        assertEquals(expected, queryLong("SELECT COUNT(*) FROM photo_likes WHERE photo_id = " + photoId));
+        assertEquals(expected, queryLong("SELECT like_count FROM gallery_photos WHERE id = " + photoId));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM photo_counter_shards WHERE photo_id = " + photoId));
+    }
+
+    /**
+     * LIKES_PER_RUN distinct users like one photo from {@code threads} connections
+     *
+     * @return Likes per second
+     */
+    private static double likeConcurrently(String sql, long photoId, int threads) throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                connections.add(DriverManager.getConnection(
+                        POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+            }
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Connection writer = connections.get(i);
+                int first = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int liked = 0;
+                    try (Statement statement = writer.createStatement()) {
+                        for (int k = first; k < LIKES_PER_RUN; k += threads) {
+                            try (ResultSet rs = statement.executeQuery(bind(sql, photoId, 2L + k))) {
+                                liked += rs.next() ? 1 : 0;
+                            }
+                        }
+                    }
+                    return liked;
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            int liked = 0;
+            for (Future<Integer> result : results) {
+                liked += result.get();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            assertEquals(LIKES_PER_RUN, liked, "every like should return one row");
+            return LIKES_PER_RUN * 1_000_000_000.0 / elapsedNanos;
+        } finally {
+            executor.shutdownNow();
+            for (Connection writer : connections) {
+                writer.close();
+            }
+        }
+    }
+
+    private static boolean run(String sql, long photoId, long userId) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(bind(sql, photoId, userId))) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Substitute named parameters with literals (slot = same formula as the repository)
+     */
+    private static String bind(String sql, long photoId, long userId) {
+        return sql.replace(":photoId", String.valueOf(photoId))
+                  .replace(":userId", String.valueOf(userId))
+                  .replace(":shard", String.valueOf(EngagementWriteQueries.shard(userId, SHARDS)));
+    }
+
+    private static long newPhoto() throws SQLException {
+        return queryLong("INSERT INTO gallery_photos (user_id, title, file_path, is_public) "
+                + "VALUES (" + OWNER_ID + ", 'viral', 'gallery/viral.jpg', TRUE) RETURNING id");
+    }
+
+    private static long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next(), "no row for " + sql);
+            return rs.getLong(1);
+        }
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream in = EngagementCounterShardingTest.class.getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(in, "Missing migration " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
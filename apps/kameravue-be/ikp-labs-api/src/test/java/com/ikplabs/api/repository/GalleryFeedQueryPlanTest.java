@@ -0,0 +1,212 @@
+package com.ikplabs.api.repository;
+
+import com.ikplabs.api.enums.SortBy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan test untuk GalleryFeedQueries (EXPLAIN di PostgreSQL asli)
+ *
+ * TESTING STRATEGY:
+ * =================
+ * H2 tidak punya planner yang sama dengan PostgreSQL, jadi test ini pakai
+ * Testcontainers PostgreSQL dan menjalankan migration V1-V9 apa adanya.
+ * Lalu untuk SETIAP statement (scope × SortBy × page/keysFirst/keysAfter):
+ *
+ *   EXPLAIN (COSTS OFF) {statement}
+ *
+ * Plan yang diharapkan:
+ * - Node paling atas = Limit (query berhenti setelah LIMIT baris)
+ * - Ada Index Scan / Index Only Scan
+ * - TIDAK ada Sort node dan TIDAK ada Seq Scan
+ *
+ * Search statements (SEARCH_*) harus di-rank di memory (ada Sort), jadi yang
+ * dicek: kandidat datang dari GIN index (Bitmap Index Scan idx_gallery_photos_search),
+ * bukan Seq Scan.
+ *
+ * Kalau ada yang mengubah ORDER BY atau menghapus index, test ini gagal.
+ *
+ * Test otomatis di-skip kalau Docker tidak tersedia (disabledWithoutDocker).
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Public feed (GFQP-001) - 5 sorts × 3 statement families
+ * 2. Owner / My Gallery (GFQP-002) - 5 sorts × 3 statement families
+ * 3. User's public photos (GFQP-003) - 5 sorts × 3 statement families
+ * 4. Full-text search (GFQP-004) - anonymous/viewer × first/after
+ *
+ * TOTAL TEST CASES: 4 (49 plans)
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Gallery Feed Query Plan Tests")
+public class GalleryFeedQueryPlanTest {
+
+    private static final String[] MIGRATIONS = {
+        "db/migration/V1__add_profile_picture_column.sql",
+        "db/migration/V2__create_gallery_photos_table.sql",
+        "db/migration/V3__create_photo_likes.sql",
+        "db/migration/V4__create_photo_favorites.sql",
+        "db/migration/V5__add_photo_engagement_counters.sql",
+        "db/migration/V6__add_gallery_feed_partial_indexes.sql",
+        "db/migration/V7__add_trending_hot_score.sql",
+        "db/migration/V8__create_follows_and_home_timeline.sql",
+        "db/migration/V9__add_gallery_photo_search_vector.sql",
+        "db/migration/V10__create_photo_tags.sql"
+    };
+
+    private static final long OWNER_ID = 7L;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // users table is created by JPA in production (V1 only alters it)
+            statement.execute("CREATE TABLE users (id BIGSERIAL PRIMARY KEY, full_name VARCHAR(100), email VARCHAR(100))");
+            for (String migration : MIGRATIONS) {
+                statement.execute(readResource(migration));
+            }
+
+            // 50 users, 20,000 photos (2/3 public), spread-out counters and timestamps
+            statement.execute("INSERT INTO users (full_name) SELECT 'user-' || g FROM generate_series(1, 50) g");
+            statement.execute("""
+                INSERT INTO gallery_photos (user_id, title, description, file_path, is_public, created_at, updated_at, like_count, favorite_count, hot_score)
+                SELECT 1 + (g % 50), 'photo ' || g, CASE WHEN g % 10 = 0 THEN 'sunset beach' ELSE 'city street' END,
+                       'gallery/photo-' || g || '.jpg', g % 3 <> 0,
+                       TIMESTAMP '2026-01-01 00:00:00' + g * INTERVAL '1 minute',
+                       TIMESTAMP '2026-01-01 00:00:00' + g * INTERVAL '1 minute',
+                       (g * 7919) % 100, (g * 104729) % 40, ((g * 31) % 500) / 10.0
+                FROM generate_series(1, 20000) g
+                """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("GFQP-001: Public feed - every sort mode is an index scan with a LIMIT stop")
+    void publicFeed_EverySortMode_IndexScanWithLimit() {
+        assertAll(plansFor(GalleryFeedScope.publicFeed()));
+    }
+
+    @Test
+    @DisplayName("GFQP-002: My Gallery - every sort mode is an index scan with a LIMIT stop")
+    void ownerFeed_EverySortMode_IndexScanWithLimit() {
+        assertAll(plansFor(GalleryFeedScope.owner(OWNER_ID)));
+    }
+
+    @Test
+    @DisplayName("GFQP-003: User's public photos - every sort mode is an index scan with a LIMIT stop")
+    void userPublicFeed_EverySortMode_IndexScanWithLimit() {
+        assertAll(plansFor(GalleryFeedScope.userPublic(OWNER_ID)));
+    }
+
+    @Test
+    @DisplayName("GFQP-004: Search - candidates come from the GIN index, never a sequential scan")
+    void search_EveryStatement_UsesGinIndex() {
+        assertAll(
+            () -> assertGinSearch("public first", GalleryFeedQueries.SEARCH_PUBLIC_FIRST),
+            () -> assertGinSearch("public after", GalleryFeedQueries.SEARCH_PUBLIC_AFTER),
+            () -> assertGinSearch("viewer first", GalleryFeedQueries.SEARCH_VIEWER_FIRST),
+            () -> assertGinSearch("viewer after", GalleryFeedQueries.SEARCH_VIEWER_AFTER)
+        );
+    }
+
+    private static void assertGinSearch(String label, String sql) throws SQLException {
+        String plan = explain(sql.replace(":query", "'12345'")
+                                 .replace(":viewerId", String.valueOf(OWNER_ID))
+                                 .replace(":rank", "0.5")
+                                 .replace(":lastId", "10000")
+                                 .replace(":limit", "13"));
+
+        assertTrue(plan.startsWith("Limit"), label + " should stop at LIMIT:\n" + plan);
+        assertTrue(plan.contains("Bitmap Index Scan on idx_gallery_photos_search"), label + " should use the GIN index:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), label + " should not scan the whole table:\n" + plan);
+    }
+
+    private static List<Executable> plansFor(GalleryFeedScope scope) {
+        List<Executable> checks = new ArrayList<>();
+        for (SortBy sortBy : SortBy.values()) {
+            checks.add(() -> assertIndexScanWithLimit(sortBy + " page", GalleryFeedQueries.page(scope, sortBy), sortBy));
+            checks.add(() -> assertIndexScanWithLimit(sortBy + " keysFirst", GalleryFeedQueries.keysFirst(scope, sortBy), sortBy));
+            checks.add(() -> assertIndexScanWithLimit(sortBy + " keysAfter", GalleryFeedQueries.keysAfter(scope, sortBy), sortBy));
+        }
+        return checks;
+    }
+
+    private static void assertIndexScanWithLimit(String label, String sql, SortBy sortBy) throws SQLException {
+        String plan = explain(bindLiterals(sql, sortBy));
+
+        assertTrue(plan.startsWith("Limit"), label + " should stop at LIMIT:\n" + plan);
+        assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"),
+                label + " should use an index:\n" + plan);
+        assertFalse(plan.contains("Sort"), label + " should not sort:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), label + " should not scan the whole table:\n" + plan);
+    }
+
+    /**
+     * Substitute named parameters with literals so EXPLAIN can run without binding
+     */
+    private static String bindLiterals(String sql, SortBy sortBy) {
+        String sortKey = switch (sortBy) {
+            case NEWEST, OLDEST -> "TIMESTAMP '2026-01-05 00:00:00'";
+            case MOST_LIKED, MOST_FAVORITED -> "20";
+            case TRENDING -> "12.5";
+        };
+        return sql.replace(":ownerId", String.valueOf(OWNER_ID))
+                  .replace(":sortKey", sortKey)
+                  .replace(":lastId", "10000")
+                  .replace(":limit", "13")
+                  .replace(":offset", "24");
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (COSTS OFF) " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream in = GalleryFeedQueryPlanTest.class.getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(in, "Missing migration " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.ikplabs.api.repository;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark GET /api/gallery/search di PostgreSQL asli, 1.000.000 foto
+ *
+ * YANG DI-UKUR:
+ * =============
+ * Untuk beberapa query (kata langka, kata umum, dua kata, frasa):
+ * 1. ILIKE    → title ILIKE '%q%' OR description ILIKE '%q%' (cara lama tanpa index)
+ * 2. search   → GalleryFeedQueries.SEARCH_PUBLIC_FIRST (GIN index + ts_rank_cd)
+ * 3. page 2   → GalleryFeedQueries.SEARCH_PUBLIC_AFTER dari (rank, id) baris terakhir
+ * Median dan p95 (ms) dari 20 run setelah 5 run warm-up, plus jumlah foto yang cocok.
+ * Di akhir dicetak EXPLAIN (ANALYZE, BUFFERS) untuk kata umum.
+ *
+ * Data: 1000 user, 1.000.000 foto (2/3 public). Title 2 kata + description 3 kata
+ * dari 40 kata Indonesia/Inggris; "aurora" hanya di 1 dari 5000 foto.
+ * Seeding ikut memelihara GIN index (index dibuat migration V9 sebelum INSERT),
+ * jadi waktu seed juga menunjukkan biaya write tambahan dari search_vector.
+ *
+ * Ada di package repository (bukan benchmark) karena GalleryFeedQueries
+ * package-private. Bukan unit test (nama tidak berakhiran "Test", surefire
+ * tidak menjalankannya). Butuh Docker. Jalankan manual setelah test-compile:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *        com.ikplabs.api.repository.GallerySearchBenchmark
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+public class GallerySearchBenchmark {
+
+    private static final String[] MIGRATIONS = {
+        "db/migration/V1__add_profile_picture_column.sql",
+        "db/migration/V2__create_gallery_photos_table.sql",
+        "db/migration/V3__create_photo_likes.sql",
+        "db/migration/V4__create_photo_favorites.sql",
+        "db/migration/V5__add_photo_engagement_counters.sql",
+        "db/migration/V6__add_gallery_feed_partial_indexes.sql",
+        "db/migration/V7__add_trending_hot_score.sql",
+        "db/migration/V8__create_follows_and_home_timeline.sql",
+        "db/migration/V9__add_gallery_photo_search_vector.sql"
+    };
+
+    private static final int PHOTOS = 1_000_000;
+    private static final int PAGE_SIZE = 12;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+
+    private static final String[] QUERIES = {"aurora", "sunset", "sunset pantai", "\"golden hour\""};
+
+    private static final String ILIKE_BASELINE =
+            "SELECT p.id FROM gallery_photos p "
+            + "WHERE p.is_public = TRUE AND (p.title ILIKE :pattern OR p.description ILIKE :pattern) "
+            + "ORDER BY p.id DESC LIMIT :limit";
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    public static void main(String[] args) throws Exception {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")) {
+            postgres.start();
+            try (Connection connection = DriverManager.getConnection(
+                    postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+                seed(connection);
+
+                System.out.printf("%-16s %9s %14s %14s %14s%n", "query", "matches", "ILIKE ms", "search ms", "page 2 ms");
+                for (String query : QUERIES) {
+                    run(connection, query);
+                }
+
+                System.out.println();
+                System.out.println("EXPLAIN (ANALYZE, BUFFERS) search 'sunset':");
+                System.out.println(explainAnalyze(connection, GalleryFeedQueries.SEARCH_PUBLIC_FIRST
+                        .replace(":query", "'sunset'").replace(":limit", String.valueOf(PAGE_SIZE + 1))));
+                System.out.println("EXPLAIN (ANALYZE, BUFFERS) ILIKE '%sunset%':");
+                System.out.println(explainAnalyze(connection, ILIKE_BASELINE
+                        .replace(":pattern", "'%sunset%'").replace(":limit", String.valueOf(PAGE_SIZE + 1))));
+            }
+        }
+    }
+
+    private static void seed(Connection connection) throws SQLException, IOException {
+        long started = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            // users table is created by JPA in production (V1 only alters it)
+            statement.execute("CREATE TABLE users (id BIGSERIAL PRIMARY KEY, full_name VARCHAR(100), email VARCHAR(100))");
+            for (String migration : MIGRATIONS) {
+                statement.execute(readResource(migration));
+            }
+            statement.execute("INSERT INTO users (full_name) SELECT 'user-' || g FROM generate_series(1, 1000) g");
+            statement.execute("""
+                INSERT INTO gallery_photos (user_id, title, description, file_path, is_public, created_at, updated_at)
+                SELECT 1 + (g % 1000),
+                       w[1 + (g * 7919) % 40] || ' ' || w[1 + (g * 104729) % 40],
+                       w[1 + (g * 31) % 40] || ' ' || w[1 + (g * 613) % 40] || ' ' || w[1 + (g * 2053) % 40]
+                           || CASE WHEN g % 5000 = 0 THEN ' aurora' ELSE '' END,
+                       'gallery/photo-' || g || '.jpg', g % 3 <> 0,
+                       TIMESTAMP '2026-01-01 00:00:00' + g * INTERVAL '1 second',
+                       TIMESTAMP '2026-01-01 00:00:00' + g * INTERVAL '1 second'
+                FROM generate_series(1, {photos}) g,
+                     (SELECT ARRAY['sunset', 'pantai', 'beach', 'gunung', 'mountain', 'kota', 'city', 'malam',
+                                   'night', 'hujan', 'rain', 'street', 'jalan', 'kopi', 'coffee', 'kucing',
+                                   'cat', 'golden', 'hour', 'laut', 'sea', 'bunga', 'flower', 'hutan',
+                                   'forest', 'sawah', 'rice', 'field', 'candi', 'temple', 'pasar', 'market',
+                                   'senja', 'sky', 'langit', 'awan', 'cloud', 'danau', 'lake', 'sungai'] AS w) words
+                """.replace("{photos}", String.valueOf(PHOTOS)));
+            statement.execute("VACUUM ANALYZE gallery_photos");
+        }
+        System.out.printf("Seeded %,d photos (with search_vector + GIN index) in %.1f s%n%n",
+                PHOTOS, (System.nanoTime() - started) / 1e9);
+    }
+
+    private static void run(Connection connection, String query) throws SQLException {
+        long matches = count(connection, query);
+
+        String ilike = "-";
+        if (!query.contains(" ") && !query.contains("\"")) {
+            ilike = time(connection, ILIKE_BASELINE, Map.of("pattern", "%" + query + "%", "limit", PAGE_SIZE + 1));
+        }
+
+        Map<String, Object> first = Map.of("query", query, "limit", PAGE_SIZE + 1);
+        String search = time(connection, GalleryFeedQueries.SEARCH_PUBLIC_FIRST, first);
+
+        String page2 = "-";
+        Object[] last = lastRowOfFirstPage(connection, query);
+        if (last != null) {
+            page2 = time(connection, GalleryFeedQueries.SEARCH_PUBLIC_AFTER,
+                    Map.of("query", query, "rank", last[1], "lastId", last[0], "limit", PAGE_SIZE + 1));
+        }
+
+        System.out.printf("%-16s %,9d %14s %14s %14s%n", query, matches, ilike, search, page2);
+    }
+
+    /**
+     * Median / p95 in milliseconds, e.g. "0.42 / 0.61"
+     */
+    private static String time(Connection connection, String sql, Map<String, Object> params) throws SQLException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            execute(connection, sql, params);
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long started = System.nanoTime();
+            execute(connection, sql, params);
+            millis[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(millis);
+        return String.format("%.2f / %.2f", millis[MEASURED_RUNS / 2], millis[(int) (MEASURED_RUNS * 0.95) - 1]);
+    }
+
+    private static void execute(Connection connection, String sql, Map<String, Object> params) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, params);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * (id, rank) of the 12th row of the first search page, or null if there is no 2nd page
+     */
+    private static Object[] lastRowOfFirstPage(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, GalleryFeedQueries.SEARCH_PUBLIC_FIRST,
+                Map.of("query", query, "limit", PAGE_SIZE + 1));
+             ResultSet rs = statement.executeQuery()) {
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(new Object[] {rs.getLong(1), rs.getFloat(2)});
+            }
+            return rows.size() > PAGE_SIZE ? rows.get(PAGE_SIZE - 1) : null;
+        }
+    }
+
+    private static long count(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM gallery_photos p "
+                + "WHERE p.is_public = TRUE AND p.search_vector @@ websearch_to_tsquery('simple', ?)")) {
+            statement.setString(1, query);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Named parameters (:name, as used by the native queries) → JDBC positional parameters
+     */
+    private static PreparedStatement prepare(Connection connection, String sql, Map<String, Object> params)
+            throws SQLException {
+        List<Object> values = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder jdbc = new StringBuilder();
+        while (matcher.find()) {
+            values.add(params.get(matcher.group(1)));
+            matcher.appendReplacement(jdbc, "?");
+        }
+        matcher.appendTail(jdbc);
+
+        PreparedStatement statement = connection.prepareStatement(jdbc.toString());
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        return statement;
+    }
+
+    private static String explainAnalyze(Connection connection, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            while (rs.next()) {
+                plan.append("  ").append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream in = GallerySearchBenchmark.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Missing migration " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
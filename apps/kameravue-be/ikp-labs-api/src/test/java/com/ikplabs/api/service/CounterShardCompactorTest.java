@@ -0,0 +1,85 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk CounterShardCompactor
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Batching (CSCT-001 to CSCT-002)
+ *    - Batch penuh → lanjut, batch tidak penuh → berhenti, hasil dijumlahkan
+ *    - Hanya versi urutan mostLiked / mostFavorited yang naik, bukan global
+ *    - Tidak ada slot rows → satu query, tanpa ETag baru
+ *
+ * 2. Configuration (CSCT-003)
+ *    - Sharding mati (default) → scheduled run tidak menyentuh database
+ *
+ * TOTAL TEST CASES: 3
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CounterShardCompactor Tests")
+public class CounterShardCompactorTest {
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @InjectMocks
+    private CounterShardCompactor compactor;
+
+    @Test
+    @DisplayName("CSCT-001: compactAll - repeats while batches are full and sums drained rows")
+    void compactAll_RepeatsWhileBatchFull() {
+        // Arrange
+        ReflectionTestUtils.setField(compactor, "batchSize", 100);
+        when(galleryPhotoRepository.compactCounterShards(100)).thenReturn(100L, 100L, 40L);
+
+        // Act
+        long drained = compactor.compactAll();
+
+        // Assert
+        assertEquals(240L, drained);
+        verify(galleryPhotoRepository, times(3)).compactCounterShards(100);
+        verify(galleryVersions).popularityChanged(); // like_count moved → mostLiked order may change
+        verify(galleryVersions, never()).globalChanged();
+    }
+
+    @Test
+    @DisplayName("CSCT-002: compactAll - nothing to fold keeps ETags")
+    void compactAll_NothingToFold_NoNewVersions() {
+        // Arrange
+        when(galleryPhotoRepository.compactCounterShards(anyInt())).thenReturn(0L);
+
+        // Act
+        long drained = compactor.compactAll();
+
+        // Assert
+        assertEquals(0L, drained);
+        verify(galleryPhotoRepository, times(1)).compactCounterShards(anyInt());
+        verifyNoInteractions(galleryVersions);
+    }
+
+    @Test
+    @DisplayName("CSCT-003: scheduledCompact - sharding is off by default and skips the run")
+    void scheduledCompact_Disabled_NoQueries() {
+        // Act (no gallery.counter-shards.enabled: the table may not exist)
+        compactor.scheduledCompact();
+
+        // Assert
+        verifyNoInteractions(galleryPhotoRepository, galleryVersions);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk EngagementCounterReconciler
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Batching (ECRT-001 to ECRT-002)
+ *    - ID range dibagi per batch-size, hasil koreksi dijumlahkan
+ *    - Tabel kosong → tidak ada UPDATE sama sekali
+ *
+ * 2. Configuration (ECRT-003)
+ *    - batch-size tidak valid (0) tetap jalan dengan batch minimal 1
+ *
+ * TOTAL TEST CASES: 3
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EngagementCounterReconciler Tests")
+public class EngagementCounterReconcilerTest {
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @InjectMocks
+    private EngagementCounterReconciler reconciler;
+
+    @Test
+    @DisplayName("ECRT-001: reconcileAll - splits ID range into batches and sums corrections")
+    void reconcileAll_SplitsIntoBatches() {
+        // Arrange
+        ReflectionTestUtils.setField(reconciler, "batchSize", 1000);
+        when(galleryPhotoRepository.findMaxId()).thenReturn(2500L);
+        when(galleryPhotoRepository.reconcileCounters(1L, 1000L)).thenReturn(2);
+        when(galleryPhotoRepository.reconcileCounters(1001L, 2000L)).thenReturn(0);
+        when(galleryPhotoRepository.reconcileCounters(2001L, 3000L)).thenReturn(1);
+
+        // Act
+        long corrected = reconciler.reconcileAll();
+
+        // Assert
+        assertEquals(3L, corrected);
+        verify(galleryPhotoRepository, times(3)).reconcileCounters(anyLong(), anyLong());
+        verify(galleryVersions).globalChanged(); // corrected counters → new ETags
+    }
+
+    @Test
+    @DisplayName("ECRT-002: reconcileAll - empty table issues no updates")
+    void reconcileAll_EmptyTable_NoUpdates() {
+        // Arrange
+        when(galleryPhotoRepository.findMaxId()).thenReturn(null);
+
+        // Act
+        long corrected = reconciler.reconcileAll();
+
+        // Assert
+        assertEquals(0L, corrected);
+        verify(galleryPhotoRepository, never()).reconcileCounters(anyLong(), anyLong());
+        verify(galleryVersions, never()).globalChanged();
+    }
+
+    @Test
+    @DisplayName("ECRT-003: reconcileAll - non-positive batch size falls back to 1")
+    void reconcileAll_InvalidBatchSize_UsesOne() {
+        // Arrange
+        ReflectionTestUtils.setField(reconciler, "batchSize", 0);
+        when(galleryPhotoRepository.findMaxId()).thenReturn(2L);
+
+        // Act
+        reconciler.reconcileAll();
+
+        // Assert
+        verify(galleryPhotoRepository).reconcileCounters(1L, 1L);
+        verify(galleryPhotoRepository).reconcileCounters(2L, 2L);
+    }
+}
@@ -0,0 +1,202 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoCounterRow;
+import com.ikplabs.api.util.StripedCounterMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk EngagementCounters
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Prime (ECNT-001 to ECNT-003)
+ *    - Foto yang belum di memory di-load dalam SATU query, baca berikutnya tanpa query
+ *    - Nilai awal = kolom counter + delta write-behind buffer
+ *    - Foto yang tidak ada → empty (caller fallback ke COUNT query)
+ *
+ * 2. Update (ECNT-004)
+ *    - recordLike / recordFavorite di luar transaksi langsung diterapkan
+ *
+ * 3. Reconcile (ECNT-005 to ECNT-006)
+ *    - Drift dikoreksi, foto yang dihapus dibuang
+ *    - Foto dengan event di write-behind buffer dilewati
+ *
+ * 4. Configuration (ECNT-007)
+ *    - Disabled → tidak ada query, selalu empty
+ *
+ * TOTAL TEST CASES: 7
+ */
+@SuppressWarnings("null")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EngagementCounters Tests")
+public class EngagementCountersTest {
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Mock
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @InjectMocks
+    private EngagementCounters engagementCounters;
+
+    @BeforeEach
+    void setUp() {
+        engagementCounters.init();
+    }
+
+    @Test
+    @DisplayName("ECNT-001: counts - primes missing photos in one query, then serves them from memory")
+    void counts_PrimesOnceThenServesFromMemory() {
+        // Arrange
+        when(galleryPhotoRepository.findCountersByIds(anyCollection()))
+                .thenReturn(List.of(row(10L, 5L, 1L), row(11L, 0L, 2L)));
+
+        // Act
+        Map<Long, StripedCounterMap.Counts> first = engagementCounters.counts(List.of(10L, 11L));
+        Map<Long, StripedCounterMap.Counts> second = engagementCounters.counts(List.of(11L, 10L));
+
+        // Assert
+        assertEquals(5L, first.get(10L).getLikes());
+        assertEquals(2L, first.get(11L).getFavorites());
+        assertEquals(5L, second.get(10L).getLikes());
+        verify(galleryPhotoRepository, times(1)).findCountersByIds(anyCollection());
+        assertEquals(2, engagementCounters.size());
+    }
+
+    @Test
+    @DisplayName("ECNT-002: likeCount - prime includes likes still in the write-behind buffer")
+    void likeCount_PrimeIncludesBufferedDelta() {
+        // Arrange
+        when(galleryPhotoRepository.findCountersByIds(anyCollection())).thenReturn(List.of(row(10L, 5L, 0L)));
+        when(engagementWriteBuffer.countDelta(EngagementKind.LIKE, 10L)).thenReturn(2L);
+
+        // Act
+        OptionalLong count = engagementCounters.likeCount(10L);
+
+        // Assert
+        assertEquals(OptionalLong.of(7L), count);
+    }
+
+    @Test
+    @DisplayName("ECNT-003: likeCount - photo that does not exist is empty and not cached")
+    void likeCount_MissingPhoto_Empty() {
+        // Arrange
+        when(galleryPhotoRepository.findCountersByIds(anyCollection())).thenReturn(List.of());
+
+        // Act
+        OptionalLong count = engagementCounters.likeCount(999L);
+
+        // Assert
+        assertTrue(count.isEmpty());
+        assertEquals(0, engagementCounters.size());
+    }
+
+    @Test
+    @DisplayName("ECNT-004: recordLike/recordFavorite - applied to loaded photos, ignored for others")
+    void record_AppliesToLoadedPhotos() {
+        // Arrange
+        when(galleryPhotoRepository.findCountersByIds(anyCollection())).thenReturn(List.of(row(10L, 5L, 1L)));
+        engagementCounters.counts(List.of(10L));
+
+        // Act (no transaction → applied immediately)
+        engagementCounters.recordLike(10L, 1);
+        engagementCounters.recordFavorite(10L, -1);
+        engagementCounters.recordLike(11L, 1); // not loaded
+
+        // Assert
+        StripedCounterMap.Counts counts = engagementCounters.counts(List.of(10L)).get(10L);
+        assertEquals(6L, counts.getLikes());
+        assertEquals(0L, counts.getFavorites());
+        assertEquals(1, engagementCounters.size());
+    }
+
+    @Test
+    @DisplayName("ECNT-005: reconcile - corrects drift and drops deleted photos")
+    void reconcile_CorrectsDriftAndDropsDeleted() {
+        // Arrange: loaded 10 → 5 likes, 11 → 3 likes
+        when(galleryPhotoRepository.findCountersByIds(anyCollection()))
+                .thenReturn(List.of(row(10L, 5L, 0L), row(11L, 3L, 0L)))  // prime
+                .thenReturn(List.of(row(10L, 4L, 0L)));                   // reconcile: 11 deleted
+        engagementCounters.counts(List.of(10L, 11L));
+
+        // Act
+        int corrected = engagementCounters.reconcile();
+
+        // Assert
+        assertEquals(2, corrected);
+        assertEquals(1, engagementCounters.size());
+        assertEquals(OptionalLong.of(4L), engagementCounters.likeCount(10L));
+    }
+
+    @Test
+    @DisplayName("ECNT-006: reconcile - skips photos with unflushed write-behind events")
+    void reconcile_SkipsBufferedPhotos() {
+        // Arrange
+        when(galleryPhotoRepository.findCountersByIds(anyCollection()))
+                .thenReturn(List.of(row(10L, 5L, 0L)))
+                .thenReturn(List.of(row(10L, 5L, 0L)));
+        engagementCounters.counts(List.of(10L));
+        engagementCounters.recordLike(10L, 1); // buffered like, column still says 5
+        when(engagementWriteBuffer.countDelta(EngagementKind.LIKE, 10L)).thenReturn(1L);
+
+        // Act
+        int corrected = engagementCounters.reconcile();
+
+        // Assert
+        assertEquals(0, corrected);
+        assertEquals(6L, engagementCounters.counts(List.of(10L)).get(10L).getLikes());
+    }
+
+    @Test
+    @DisplayName("ECNT-007: disabled - no queries, counts always empty")
+    void disabled_NoQueries() {
+        // Arrange
+        ReflectionTestUtils.setField(engagementCounters, "enabled", false);
+
+        // Act
+        OptionalLong count = engagementCounters.likeCount(10L);
+        engagementCounters.recordLike(10L, 1);
+
+        // Assert
+        assertTrue(count.isEmpty());
+        assertEquals(0, engagementCounters.reconcile());
+        verifyNoInteractions(galleryPhotoRepository);
+    }
+
+    private static PhotoCounterRow row(Long id, Long likes, Long favorites) {
+        return new PhotoCounterRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getLikeCount() {
+                return likes;
+            }
+
+            @Override
+            public Long getFavoriteCount() {
+                return favorites;
+            }
+        };
+    }
+}
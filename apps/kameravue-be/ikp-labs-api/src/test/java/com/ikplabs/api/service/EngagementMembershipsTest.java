@@ -0,0 +1,181 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk EngagementMemberships
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Exact set (EMST-001 to EMST-003)
+ *    - Satu query per user, jawaban berikutnya tanpa SQL
+ *    - Like/unlike setelah load langsung terlihat
+ *    - Like dan favorite = set terpisah
+ *
+ * 2. Bloom filter (EMST-004 to EMST-005)
+ *    - User berat: "pasti belum" tanpa SQL, "mungkin" → empty
+ *    - Unlike tidak bisa dihapus → tetap "mungkin"
+ *
+ * 3. Race + configuration (EMST-006 to EMST-007)
+ *    - Write selama load → set tidak disimpan
+ *    - Disabled / anonymous → empty, tanpa query
+ *
+ * TOTAL TEST CASES: 7
+ */
+@SuppressWarnings("null")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EngagementMemberships Tests")
+public class EngagementMembershipsTest {
+
+    @Mock
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Mock
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @InjectMocks
+    private EngagementMemberships engagementMemberships;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engagementMemberships, "exactMaxIds", 100);
+        engagementMemberships.init();
+    }
+
+    @Test
+    @DisplayName("EMST-001: isMember - loads the user's set once, then answers without SQL")
+    void isMember_LoadsOnceThenAnswersFromMemory() {
+        // Arrange
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L)).thenReturn(List.of(30L, 10L, 20L));
+
+        // Act
+        Optional<Boolean> liked = engagementMemberships.isMember(EngagementKind.LIKE, 1L, 20L);
+        Optional<Boolean> notLiked = engagementMemberships.isMember(EngagementKind.LIKE, 1L, 25L);
+
+        // Assert
+        assertEquals(Optional.of(true), liked);
+        assertEquals(Optional.of(false), notLiked);
+        verify(photoLikeRepository, times(1)).findAllPhotoIdsByUserId(1L);
+        assertEquals(1, engagementMemberships.size());
+    }
+
+    @Test
+    @DisplayName("EMST-002: record - like/unlike updates the loaded set")
+    void record_UpdatesLoadedSet() {
+        // Arrange
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L)).thenReturn(List.of(10L));
+        engagementMemberships.isMember(EngagementKind.LIKE, 1L, 10L);
+
+        // Act (no transaction → applied immediately)
+        engagementMemberships.record(EngagementKind.LIKE, 1L, 11L, true);
+        engagementMemberships.record(EngagementKind.LIKE, 1L, 10L, false);
+
+        // Assert
+        assertEquals(Optional.of(true), engagementMemberships.isMember(EngagementKind.LIKE, 1L, 11L));
+        assertEquals(Optional.of(false), engagementMemberships.isMember(EngagementKind.LIKE, 1L, 10L));
+        verify(photoLikeRepository, times(1)).findAllPhotoIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("EMST-003: isMember - likes and favorites are separate sets")
+    void isMember_LikesAndFavoritesSeparate() {
+        // Arrange
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L)).thenReturn(List.of(10L));
+        when(photoFavoriteRepository.findAllPhotoIdsByUserId(1L)).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(Optional.of(true), engagementMemberships.isMember(EngagementKind.LIKE, 1L, 10L));
+        assertEquals(Optional.of(false), engagementMemberships.isMember(EngagementKind.FAVORITE, 1L, 10L));
+        assertEquals(2, engagementMemberships.size());
+    }
+
+    @Test
+    @DisplayName("EMST-004: isMember - heavy user gets a Bloom filter: misses are certain, hits are 'maybe'")
+    void isMember_HeavyUser_BloomFilter() {
+        // Arrange: 500 likes > exactMaxIds (100)
+        List<Long> photoIds = LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList());
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L)).thenReturn(photoIds);
+
+        // Act
+        Optional<Boolean> liked = engagementMemberships.isMember(EngagementKind.LIKE, 1L, 250L);
+        long certainMisses = LongStream.rangeClosed(10_001, 11_000)
+                .filter(id -> engagementMemberships.isMember(EngagementKind.LIKE, 1L, id).isPresent())
+                .count();
+
+        // Assert
+        assertTrue(liked.isEmpty()); // caller runs EXISTS
+        assertTrue(certainMisses > 900, "certain misses: " + certainMisses);
+        verify(photoLikeRepository, times(1)).findAllPhotoIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("EMST-005: record - likes are added to a Bloom filter, unlikes stay 'maybe'")
+    void record_BloomFilter_AddOnly() {
+        // Arrange
+        List<Long> photoIds = LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList());
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L)).thenReturn(photoIds);
+        engagementMemberships.isMember(EngagementKind.LIKE, 1L, 1L);
+
+        // Act
+        engagementMemberships.record(EngagementKind.LIKE, 1L, 99_999L, true);
+        engagementMemberships.record(EngagementKind.LIKE, 1L, 250L, false);
+
+        // Assert
+        assertTrue(engagementMemberships.isMember(EngagementKind.LIKE, 1L, 99_999L).isEmpty());
+        assertTrue(engagementMemberships.isMember(EngagementKind.LIKE, 1L, 250L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("EMST-006: isMember - write during the load keeps the loaded set out of memory")
+    void isMember_WriteDuringLoad_NotCached() {
+        // Arrange: the like commits while the set query is running
+        when(photoLikeRepository.findAllPhotoIdsByUserId(1L))
+                .thenAnswer(invocation -> {
+                    engagementMemberships.record(EngagementKind.LIKE, 1L, 11L, true);
+                    return List.of(10L);
+                })
+                .thenReturn(List.of(10L, 11L));
+
+        // Act
+        engagementMemberships.isMember(EngagementKind.LIKE, 1L, 10L);
+        Optional<Boolean> afterRace = engagementMemberships.isMember(EngagementKind.LIKE, 1L, 11L);
+
+        // Assert
+        assertEquals(Optional.of(true), afterRace);
+        verify(photoLikeRepository, times(2)).findAllPhotoIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("EMST-007: disabled or anonymous - always empty, no queries")
+    void disabledOrAnonymous_Empty() {
+        // Act
+        Optional<Boolean> anonymous = engagementMemberships.isMember(EngagementKind.LIKE, null, 10L);
+        ReflectionTestUtils.setField(engagementMemberships, "enabled", false);
+        Optional<Boolean> disabled = engagementMemberships.isMember(EngagementKind.LIKE, 1L, 10L);
+        engagementMemberships.record(EngagementKind.LIKE, 1L, 10L, true);
+
+        // Assert
+        assertTrue(anonymous.isEmpty());
+        assertTrue(disabled.isEmpty());
+        assertEquals(0, engagementMemberships.size());
+        verifyNoInteractions(photoLikeRepository, photoFavoriteRepository);
+    }
+}
@@ -0,0 +1,267 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.repository.EngagementBatchRepository;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementTarget;
+import com.ikplabs.api.repository.EngagementWrite;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk EngagementWriteBuffer
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Append (EWBT-001 to EWBT-002)
+ *    - Like di-journal, overlay (state + delta) langsung terlihat, like kedua ditolak
+ *    - Unlike dari like yang belum di-flush membawa created_at like tersebut
+ *
+ * 2. Flush (EWBT-003 to EWBT-004)
+ *    - Pasangan like + unlike saling menghapus, hanya state akhir yang ditulis
+ *    - Flush gagal → overlay + flushing.log tetap ada, flush berikutnya retry
+ *
+ * 3. Recovery (EWBT-005 to EWBT-006)
+ *    - Journal sisa crash di-replay saat start (event terakhir menang)
+ *    - Baris terakhir yang terpotong (torn write) diabaikan
+ *
+ * 4. Memberships (EWBT-007)
+ *    - Set user yang di-load antara append dan flush tidak basi setelah flush
+ *
+ * TOTAL TEST CASES: 7
+ */
+@SuppressWarnings("null")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EngagementWriteBuffer Tests")
+public class EngagementWriteBufferTest {
+
+    @Mock
+    private EngagementBatchRepository engagementBatchRepository;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @Mock
+    private PhotoDetailCache photoDetailCache;
+
+    @Mock
+    private EngagementMemberships engagementMemberships;
+
+    @Mock
+    private PhotoLikeRepository photoLikeRepository;
+
+    @InjectMocks
+    private EngagementWriteBuffer buffer;
+
+    @TempDir
+    Path journalDir;
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long PHOTO_ID = 100L;
+    private static final EngagementTarget NOT_LIKED = new EngagementTarget(OWNER_ID, true, false, true);
+    private static final EngagementTarget LIKED = new EngagementTarget(OWNER_ID, true, true, true);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "journalDir", journalDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.stop(); // closes the journal channel before @TempDir is deleted
+    }
+
+    @Test
+    @DisplayName("EWBT-001: append - journals the like, overlay sees it, duplicate like rejected")
+    void append_Like_VisibleAndDuplicateRejected() throws Exception {
+        // Arrange
+        buffer.start();
+
+        // Act
+        Optional<EngagementChange> first = buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, true, NOT_LIKED);
+        Optional<EngagementChange> second = buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, true, NOT_LIKED);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertEquals(OWNER_ID, first.get().getOwnerId());
+        assertTrue(second.isEmpty()); // already liked according to the buffer
+        assertEquals(Optional.of(true), buffer.pendingState(EngagementKind.LIKE, PHOTO_ID, 2L));
+        assertEquals(1L, buffer.countDelta(EngagementKind.LIKE, PHOTO_ID));
+        assertEquals(0L, buffer.countDelta(EngagementKind.FAVORITE, PHOTO_ID));
+        assertEquals(1, Files.readAllLines(journalDir.resolve("active.log")).size());
+        verifyNoInteractions(engagementBatchRepository); // nothing written before the flush
+    }
+
+    @Test
+    @DisplayName("EWBT-002: append - unlike of a buffered like returns that like's created_at")
+    void append_UnlikeBufferedLike_KeepsCreatedAt() {
+        // Arrange
+        buffer.start();
+        EngagementChange like = buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, true, NOT_LIKED).orElseThrow();
+
+        // Act
+        Optional<EngagementChange> unlike = buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, false, NOT_LIKED);
+
+        // Assert
+        assertTrue(unlike.isPresent());
+        assertEquals(like.getCreatedAt(), unlike.get().getCreatedAt());
+        assertEquals(Optional.of(false), buffer.pendingState(EngagementKind.LIKE, PHOTO_ID, 2L));
+        assertEquals(0L, buffer.countDelta(EngagementKind.LIKE, PHOTO_ID));
+    }
+
+    @Test
+    @DisplayName("EWBT-003: flush - like/unlike pairs collapse, only the final state is written")
+    void flush_CollapsesPairs_WritesFinalState() {
+        // Arrange
+        buffer.start();
+        buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, true, NOT_LIKED);
+        buffer.append(EngagementKind.LIKE, PHOTO_ID, 3L, true, NOT_LIKED);
+        buffer.append(EngagementKind.LIKE, PHOTO_ID, 3L, false, NOT_LIKED);
+        when(engagementBatchRepository.applyBatch(anyCollection())).thenReturn(1);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        List<EngagementWrite> writes = captureBatches().get(0);
+        assertEquals(1, writes.size());
+        assertEquals(2L, writes.get(0).getUserId());
+        assertTrue(writes.get(0).isEngaged());
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(0L, buffer.countDelta(EngagementKind.LIKE, PHOTO_ID));
+        assertFalse(Files.exists(journalDir.resolve("flushing.log")));
+        verify(galleryVersions, times(1)).photoChanged(PHOTO_ID, OWNER_ID, true);
+        verify(photoDetailCache, times(1)).evict(PHOTO_ID);
+        // Only written pairs are re-recorded (user 3 collapsed, the database never changed)
+        verify(engagementMemberships, times(1)).record(EngagementKind.LIKE, 2L, PHOTO_ID, true);
+        verify(engagementMemberships, never()).record(any(), eq(3L), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("EWBT-004: flush - failed flush keeps overlay and journal, next flush retries")
+    void flush_Failure_KeepsStateAndRetries() {
+        // Arrange
+        buffer.start();
+        buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, false, LIKED);
+        when(engagementBatchRepository.applyBatch(anyCollection()))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(1);
+
+        // Act & Assert: first attempt fails
+        assertThrows(RuntimeException.class, () -> buffer.flush());
+        assertEquals(-1L, buffer.countDelta(EngagementKind.LIKE, PHOTO_ID));
+        assertTrue(Files.exists(journalDir.resolve("flushing.log")));
+        assertTrue(buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, false, LIKED).isEmpty()); // still unliked
+        verify(galleryVersions, never()).photoChanged(any(), any(), anyBoolean());
+
+        // Act & Assert: retry succeeds
+        buffer.flush();
+        assertEquals(0L, buffer.countDelta(EngagementKind.LIKE, PHOTO_ID));
+        assertFalse(Files.exists(journalDir.resolve("flushing.log")));
+        verify(engagementBatchRepository, times(2)).applyBatch(anyCollection());
+    }
+
+    @Test
+    @DisplayName("EWBT-005: start - replays journals left by a crash, last event per key wins")
+    void start_ReplaysJournals() throws Exception {
+        // Arrange: flush interrupted (flushing.log) + newer events (active.log)
+        Files.writeString(journalDir.resolve("flushing.log"),
+                "LIKE + 100 2 2026-10-16T10:00\n"
+                + "FAVORITE + 100 2 2026-10-16T10:01\n");
+        Files.writeString(journalDir.resolve("active.log"),
+                "LIKE - 100 2 2026-10-16T10:00\n");
+        when(engagementBatchRepository.applyBatch(anyCollection())).thenReturn(2);
+
+        // Act
+        buffer.start();
+
+        // Assert
+        List<EngagementWrite> writes = captureBatches().get(0);
+        assertEquals(2, writes.size());
+        assertEquals(EngagementKind.LIKE, writes.get(0).getKind());
+        assertFalse(writes.get(0).isEngaged()); // unlike from active.log wins
+        assertEquals(EngagementKind.FAVORITE, writes.get(1).getKind());
+        assertTrue(writes.get(1).isEngaged());
+
+        assertFalse(Files.exists(journalDir.resolve("flushing.log")));
+        assertEquals(0L, Files.size(journalDir.resolve("active.log")));
+        assertTrue(buffer.isActive());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("EWBT-006: start - torn last journal line is ignored")
+    void start_IgnoresTornLine() throws Exception {
+        // Arrange: crash in the middle of a write
+        Files.writeString(journalDir.resolve("active.log"),
+                "LIKE + 100 2 2026-10-16T10:00\n"
+                + "LIKE + 10");
+        when(engagementBatchRepository.applyBatch(anyCollection())).thenReturn(1);
+
+        // Act
+        buffer.start();
+
+        // Assert
+        List<EngagementWrite> writes = captureBatches().get(0);
+        assertEquals(1, writes.size());
+        assertEquals(LocalDateTime.of(2026, 10, 16, 10, 0), writes.get(0).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("EWBT-007: flush - membership set loaded between append and flush answers 'liked' afterwards")
+    void flush_SetLoadedWhileBuffered_UpdatedAfterCommit() {
+        // Arrange: real membership cache over a database that does not have the like yet
+        EngagementMemberships memberships = new EngagementMemberships();
+        ReflectionTestUtils.setField(memberships, "photoLikeRepository", photoLikeRepository);
+        memberships.init();
+        ReflectionTestUtils.setField(buffer, "engagementMemberships", memberships);
+        when(photoLikeRepository.findAllPhotoIdsByUserId(2L)).thenReturn(List.of());
+        when(engagementBatchRepository.applyBatch(anyCollection())).thenReturn(1);
+        buffer.start();
+
+        // Act: like buffered, then the set is loaded (and cached) without it, then flushed
+        buffer.append(EngagementKind.LIKE, PHOTO_ID, 2L, true, NOT_LIKED);
+        assertEquals(Optional.of(false), memberships.isMember(EngagementKind.LIKE, 2L, PHOTO_ID));
+        buffer.flush();
+
+        // Assert: overlay gone, the cached set now has the committed like (no second load)
+        assertEquals(Optional.empty(), buffer.pendingState(EngagementKind.LIKE, PHOTO_ID, 2L));
+        assertEquals(Optional.of(true), memberships.isMember(EngagementKind.LIKE, 2L, PHOTO_ID));
+        verify(photoLikeRepository, times(1)).findAllPhotoIdsByUserId(2L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<EngagementWrite>> captureBatches() {
+        ArgumentCaptor<Collection<EngagementWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(engagementBatchRepository, atLeastOnce()).applyBatch(captor.capture());
+        List<List<EngagementWrite>> batches = new ArrayList<>();
+        for (Collection<EngagementWrite> batch : captor.getAllValues()) {
+            batches.add(new ArrayList<>(batch));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ikplabs.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ikplabs.api.dto.GalleryPhotoExportRow;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk GalleryExportService
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. NDJSON format (GEST-001)
+ *    - Satu JSON object per baris, urutan dari repository, diakhiri newline
+ *
+ * 2. Edge cases (GEST-002)
+ *    - Galeri kosong → body kosong, stream repository tetap di-close
+ *
+ * TOTAL TEST CASES: 2
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GalleryExportService Tests")
+public class GalleryExportServiceTest {
+
+    private static final Long USER_ID = 83L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 16, 8, 0);
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @InjectMocks
+    private GalleryExportService galleryExportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(galleryExportService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    @DisplayName("GEST-001: exportUserPhotos - Should write one JSON object per line in repository order")
+    void exportUserPhotos_ShouldWriteNdjson() throws Exception {
+        // Arrange
+        when(galleryPhotoRepository.streamOwnerExport(USER_ID)).thenReturn(Stream.of(
+                new GalleryPhotoExportRow(2L, "Sunrise", "Line one\nline two", "gallery/user-83/photo-2.jpg",
+                        true, 5L, 1L, T0.plusHours(1), T0.plusHours(1)),
+                new GalleryPhotoExportRow(1L, null, null, "gallery/user-83/photo-1.jpg",
+                        false, 0L, 0L, T0, T0)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = galleryExportService.exportUserPhotos(USER_ID, out);
+
+        // Assert
+        assertEquals(2L, written);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2L, first.get("id").asLong());
+        assertEquals("Line one\nline two", first.get("description").asText());
+        assertTrue(first.get("isPublic").asBoolean());
+        assertEquals(5L, first.get("likeCount").asLong());
+        assertEquals(1L, first.get("favoriteCount").asLong());
+        assertEquals("2026-10-16T09:00:00", first.get("createdAt").asText());
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(1L, second.get("id").asLong());
+        assertTrue(second.get("title").isNull());
+    }
+
+    @Test
+    @DisplayName("GEST-002: exportUserPhotos - empty gallery - Should write nothing and close the row stream")
+    void exportUserPhotos_EmptyGallery_ShouldWriteNothing() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(galleryPhotoRepository.streamOwnerExport(USER_ID))
+                .thenReturn(Stream.<GalleryPhotoExportRow>empty().onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = galleryExportService.exportUserPhotos(USER_ID, out);
+
+        // Assert
+        assertEquals(0L, written);
+        assertEquals(0, out.size());
+        assertTrue(closed.get(), "JDBC cursor stream must be closed");
+    }
+}
@@ -0,0 +1,148 @@
+package com.ikplabs.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test untuk GalleryVersions
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Version bumps (GVT-001 to GVT-003)
+ *    - Perubahan foto menaikkan versi foto + gallery owner (+ public feed kalau terdampak)
+ *    - Foto private tidak menyentuh versi public feed
+ *    - Global counter terpisah dari counter per scope
+ *
+ * 2. Transaction boundary (GVT-004 to GVT-005)
+ *    - Di dalam transaksi: versi baru terlihat setelah commit, bukan sebelumnya
+ *    - Rollback: versi tidak berubah
+ *
+ * 3. Sort order versions (GVT-006 to GVT-007)
+ *    - trendingChanged hanya mengubah versi sortBy=trending
+ *    - popularityChanged hanya mengubah versi sortBy=mostLiked / mostFavorited
+ *
+ * TOTAL TEST CASES: 7
+ */
+@DisplayName("GalleryVersions Tests")
+public class GalleryVersionsTest {
+
+    private final GalleryVersions versions = new GalleryVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("GVT-001: photoChanged - bumps photo, owner gallery and public feed")
+    void photoChanged_PublicPhoto_BumpsAllScopes() {
+        // Act
+        versions.photoChanged(100L, 1L, true);
+        versions.photoChanged(100L, 1L, true);
+
+        // Assert
+        assertEquals(2L, versions.getPhotoVersion(100L));
+        assertEquals(2L, versions.getUserGalleryVersion(1L));
+        assertEquals(2L, versions.getPublicFeedVersion());
+        assertEquals(0L, versions.getPhotoVersion(101L), "Other photos keep their version");
+        assertEquals(0L, versions.getUserGalleryVersion(2L), "Other galleries keep their version");
+    }
+
+    @Test
+    @DisplayName("GVT-002: photoChanged - private photo leaves public feed version alone")
+    void photoChanged_PrivatePhoto_PublicFeedUnchanged() {
+        // Act
+        versions.photoChanged(100L, 1L, false);
+
+        // Assert
+        assertEquals(1L, versions.getPhotoVersion(100L));
+        assertEquals(1L, versions.getUserGalleryVersion(1L));
+        assertEquals(0L, versions.getPublicFeedVersion());
+    }
+
+    @Test
+    @DisplayName("GVT-003: globalChanged - bumps only the global counter")
+    void globalChanged_BumpsGlobalOnly() {
+        // Act
+        versions.globalChanged();
+
+        // Assert
+        assertEquals(1L, versions.getGlobalVersion());
+        assertEquals(0L, versions.getPublicFeedVersion());
+        assertEquals(0L, versions.getUserGalleryVersion(null));
+    }
+
+    @Test
+    @DisplayName("GVT-004: photoChanged - inside a transaction applies after commit")
+    void photoChanged_InTransaction_AppliesAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versions.photoChanged(100L, 1L, true);
+
+        // Assert: not visible yet (data not committed)
+        assertEquals(0L, versions.getPhotoVersion(100L));
+        assertEquals(0L, versions.getPublicFeedVersion());
+
+        // Act: commit
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(1L, versions.getPhotoVersion(100L));
+        assertEquals(1L, versions.getPublicFeedVersion());
+    }
+
+    @Test
+    @DisplayName("GVT-005: photoChanged - rolled back transaction never bumps")
+    void photoChanged_Rollback_NoBump() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versions.photoChanged(100L, 1L, true);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(0L, versions.getPhotoVersion(100L));
+        assertEquals(0L, versions.getUserGalleryVersion(1L));
+        assertEquals(0L, versions.getPublicFeedVersion());
+    }
+
+    @Test
+    @DisplayName("GVT-006: trendingChanged - bumps only the trending order version")
+    void trendingChanged_BumpsTrendingOnly() {
+        // Act
+        versions.trendingChanged();
+
+        // Assert
+        assertEquals(1L, versions.getSortVersion("trending"));
+        assertEquals(0L, versions.getSortVersion("newest"));
+        assertEquals(0L, versions.getSortVersion(null));
+        assertEquals(0L, versions.getGlobalVersion());
+        assertEquals(0L, versions.getPublicFeedVersion());
+    }
+
+    @Test
+    @DisplayName("GVT-007: popularityChanged - bumps only the mostLiked / mostFavorited order version")
+    void popularityChanged_BumpsCounterSortsOnly() {
+        // Act
+        versions.popularityChanged();
+
+        // Assert
+        assertEquals(1L, versions.getSortVersion("mostLiked"));
+        assertEquals(1L, versions.getSortVersion("mostFavorited"));
+        assertEquals(0L, versions.getSortVersion("trending"));
+        assertEquals(0L, versions.getSortVersion("newest"));
+        assertEquals(0L, versions.getGlobalVersion());
+        assertEquals(0L, versions.getPublicFeedVersion());
+    }
+}
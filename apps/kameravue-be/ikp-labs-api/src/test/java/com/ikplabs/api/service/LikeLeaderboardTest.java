@@ -0,0 +1,190 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.LeaderboardEntry;
+import com.ikplabs.api.enums.LeaderboardPeriod;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.repository.PhotoLikeTally;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk LikeLeaderboard
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Build (LBT-001)
+ *    - Request pertama sebelum ApplicationReadyEvent memicu build, rank 1..n
+ *
+ * 2. Incremental updates (LBT-002 to LBT-004)
+ *    - Like menaikkan kedua papan
+ *    - Unlike like lama hanya mengurangi papan all-time
+ *    - forget → foto hilang dari kedua papan
+ *
+ * 3. Row loading (LBT-005)
+ *    - Row yang sudah tidak public dilewati, rank tetap berurutan
+ *
+ * TOTAL TEST CASES: 5
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeLeaderboard Tests")
+public class LikeLeaderboardTest {
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Mock
+    private PhotoLikeRepository photoLikeRepository;
+
+    @InjectMocks
+    private LikeLeaderboard leaderboard;
+
+    @Test
+    @DisplayName("LBT-001: getLeaderboard - not built yet - Should build and rank by period likes")
+    void getLeaderboard_NotBuilt_ShouldBuildAndRank() {
+        // Arrange: all time photo 1 leads, this week photo 2 leads
+        when(galleryPhotoRepository.findPublicLikeTallies()).thenReturn(List.of(tally(1L, 90L), tally(2L, 12L)));
+        when(photoLikeRepository.countPublicLikesSince(any())).thenReturn(List.of(tally(2L, 10L), tally(1L, 3L)));
+        stubRows(true);
+
+        // Act
+        List<LeaderboardEntry> allTime = leaderboard.getLeaderboard(LeaderboardPeriod.ALL_TIME, 50);
+        List<LeaderboardEntry> week = leaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), photoIds(allTime));
+        assertEquals(List.of(2L, 1L), photoIds(week));
+        assertEquals(1, week.get(0).getRank());
+        assertEquals(10L, week.get(0).getPeriodLikes());
+        verify(galleryPhotoRepository, times(1)).findPublicLikeTallies();
+    }
+
+    @Test
+    @DisplayName("LBT-002: recordLike - Should move photo up on both boards")
+    void recordLike_ShouldUpdateBothBoards() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicLikeTallies()).thenReturn(List.of(tally(1L, 2L), tally(2L, 1L)));
+        when(photoLikeRepository.countPublicLikesSince(any())).thenReturn(List.of(tally(1L, 1L)));
+        leaderboard.rebuild();
+        stubRows(true);
+
+        // Act: two new likes for photo 2
+        leaderboard.recordLike(2L);
+        leaderboard.recordLike(2L);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), photoIds(leaderboard.getLeaderboard(LeaderboardPeriod.ALL_TIME, 50)));
+        assertEquals(List.of(2L, 1L), photoIds(leaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50)));
+    }
+
+    @Test
+    @DisplayName("LBT-003: recordUnlike - like older than the week window - Should only touch all-time board")
+    void recordUnlike_OldLike_ShouldOnlyUpdateAllTime() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicLikeTallies()).thenReturn(List.of(tally(1L, 5L)));
+        when(photoLikeRepository.countPublicLikesSince(any())).thenReturn(List.of(tally(1L, 1L)));
+        leaderboard.rebuild();
+        stubRows(true);
+
+        // Act: like from a month ago removed
+        leaderboard.recordUnlike(1L, LocalDateTime.now().minusDays(30));
+
+        // Assert
+        assertEquals(4L, leaderboard.getLeaderboard(LeaderboardPeriod.ALL_TIME, 50).get(0).getPeriodLikes());
+        assertEquals(1L, leaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50).get(0).getPeriodLikes());
+
+        // Act: the like from this week removed
+        leaderboard.recordUnlike(1L, LocalDateTime.now().minusHours(1));
+
+        // Assert: weekly board empty, no row lookup needed
+        assertTrue(leaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("LBT-004: forget - Should drop photo from both boards")
+    void forget_ShouldDropPhoto() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicLikeTallies()).thenReturn(List.of(tally(1L, 5L), tally(2L, 3L)));
+        when(photoLikeRepository.countPublicLikesSince(any())).thenReturn(List.of(tally(1L, 2L)));
+        leaderboard.rebuild();
+        stubRows(true);
+
+        // Act
+        leaderboard.forget(1L);
+
+        // Assert
+        assertEquals(List.of(2L), photoIds(leaderboard.getLeaderboard(LeaderboardPeriod.ALL_TIME, 50)));
+        assertTrue(leaderboard.getLeaderboard(LeaderboardPeriod.WEEK, 50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("LBT-005: getLeaderboard - row no longer public - Should skip it and keep ranks contiguous")
+    void getLeaderboard_PrivateRow_ShouldBeSkipped() {
+        // Arrange: photo 1 went private on another instance (not forgotten here yet)
+        when(galleryPhotoRepository.findPublicLikeTallies()).thenReturn(List.of(tally(1L, 9L), tally(2L, 4L)));
+        when(photoLikeRepository.countPublicLikesSince(any())).thenReturn(List.of());
+        leaderboard.rebuild();
+        when(galleryPhotoRepository.findGridRowsByIds(anyCollection())).thenReturn(List.of(row(1L, false), row(2L, true)));
+
+        // Act
+        List<LeaderboardEntry> entries = leaderboard.getLeaderboard(LeaderboardPeriod.ALL_TIME, 50);
+
+        // Assert
+        assertEquals(List.of(2L), photoIds(entries));
+        assertEquals(1, entries.get(0).getRank());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(boolean isPublic) {
+        lenient().when(galleryPhotoRepository.findGridRowsByIds(anyCollection())).thenAnswer(invocation -> {
+            List<GalleryPhotoResponse> rows = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                rows.add(row(id, isPublic));
+            }
+            return rows;
+        });
+    }
+
+    private static List<Long> photoIds(List<LeaderboardEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            ids.add(entry.getPhoto().getId());
+        }
+        return ids;
+    }
+
+    private static GalleryPhotoResponse row(Long id, boolean isPublic) {
+        GalleryPhotoResponse row = new GalleryPhotoResponse();
+        row.setId(id);
+        row.setIsPublic(isPublic);
+        return row;
+    }
+
+    private static PhotoLikeTally tally(Long photoId, Long likeCount) {
+        return new PhotoLikeTally() {
+            @Override
+            public Long getPhotoId() {
+                return photoId;
+            }
+
+            @Override
+            public Long getLikeCount() {
+                return likeCount;
+            }
+        };
+    }
+}
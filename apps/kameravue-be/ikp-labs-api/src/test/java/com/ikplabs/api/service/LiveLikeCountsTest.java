@@ -0,0 +1,235 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.event.GalleryEvent;
+import com.ikplabs.api.event.GalleryEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk LiveLikeCounts
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Coalescing & fan-out (LLCT-001 to LLCT-002)
+ *    - Banyak like dalam satu window → satu read + satu event per viewer
+ *    - Semua viewer foto menerima update, foto tanpa viewer diabaikan
+ *
+ * 2. Stream lifecycle (LLCT-003 to LLCT-004)
+ *    - Send gagal (tab ditutup) → emitter dilepas
+ *    - Foto dihapus / dijadikan private → stream ditutup
+ *
+ * 3. Configuration (LLCT-005)
+ *    - Disabled / max-watchers tercapai → tidak ada stream
+ *
+ * 4. Sender pool (LLCT-006 to LLCT-007)
+ *    - Write sebelumnya belum selesai (client lambat) → stream ditutup setelah write itu
+ *    - Antrian sender penuh → stream dilepas, scheduled thread tidak menunggu
+ *
+ * TOTAL TEST CASES: 7
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LiveLikeCounts Tests")
+public class LiveLikeCountsTest {
+
+    @Mock
+    private PhotoLikeService photoLikeService;
+
+    @Spy
+    @InjectMocks
+    private LiveLikeCounts liveLikeCounts;
+
+    @BeforeEach
+    void setUp() {
+        // Emitters are mocks so every send can be verified without a servlet container
+        lenient().doAnswer(invocation -> mock(SseEmitter.class)).when(liveLikeCounts).newEmitter();
+        // Writes run inline so every send is visible right after flush()
+        ReflectionTestUtils.setField(liveLikeCounts, "sender", (Executor) Runnable::run);
+    }
+
+    @Test
+    @DisplayName("LLCT-001: flush - 500 likes in one window become one count read and one event")
+    void flush_ManyLikes_CoalescedIntoOneEvent() throws IOException {
+        // Arrange
+        SseEmitter emitter = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        List<GalleryEvent> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            events.add(event(i % 5 == 0 ? GalleryEventType.UNLIKED : GalleryEventType.LIKED, 10L, true));
+        }
+        liveLikeCounts.onEvents(events);
+        when(photoLikeService.getLikeCount(10L)).thenReturn(305L);
+
+        // Act
+        int pushed = liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert
+        assertEquals(1, pushed);
+        verify(photoLikeService, times(1)).getLikeCount(10L);
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class)); // initial + one update
+
+        // Nothing changed since → next window sends nothing
+        assertEquals(0, liveLikeCounts.flush(System.currentTimeMillis()));
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("LLCT-002: flush - every viewer of a photo gets the update, unwatched photos are skipped")
+    void flush_ThreeViewers_FanOut() throws IOException {
+        // Arrange
+        List<SseEmitter> emitters = List.of(
+                liveLikeCounts.subscribe(10L, 5L).orElseThrow(),
+                liveLikeCounts.subscribe(10L, 5L).orElseThrow(),
+                liveLikeCounts.subscribe(10L, 5L).orElseThrow());
+        liveLikeCounts.onEvents(List.of(
+                event(GalleryEventType.LIKED, 10L, true),
+                event(GalleryEventType.LIKED, 99L, true),       // nobody watching
+                event(GalleryEventType.FAVORITED, 10L, true))); // not a like
+        when(photoLikeService.getLikeCount(10L)).thenReturn(6L);
+
+        // Act
+        int pushed = liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert: one read for three viewers
+        assertEquals(1, pushed);
+        assertEquals(3, liveLikeCounts.watcherCount());
+        verify(photoLikeService, times(1)).getLikeCount(10L);
+        verify(photoLikeService, never()).getLikeCount(99L);
+        for (SseEmitter emitter : emitters) {
+            verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        }
+    }
+
+    @Test
+    @DisplayName("LLCT-003: flush - a failed send (closed tab) drops that emitter only")
+    void flush_SendFails_EmitterDropped() throws IOException {
+        // Arrange
+        SseEmitter gone = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        SseEmitter open = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        doThrow(new IOException("Broken pipe")).when(gone).send(any(SseEmitter.SseEventBuilder.class));
+        when(photoLikeService.getLikeCount(10L)).thenReturn(6L, 7L);
+
+        // Act
+        liveLikeCounts.onEvents(List.of(event(GalleryEventType.LIKED, 10L, true)));
+        liveLikeCounts.flush(System.currentTimeMillis());
+        liveLikeCounts.onEvents(List.of(event(GalleryEventType.LIKED, 10L, true)));
+        liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert
+        assertEquals(1, liveLikeCounts.watcherCount());
+        verify(gone, times(2)).send(any(SseEmitter.SseEventBuilder.class)); // initial + first update
+        verify(open, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("LLCT-004: flush - deleted or now-private photo closes its streams")
+    void flush_DeletedOrPrivate_StreamsClosed() {
+        // Arrange
+        SseEmitter deletedViewer = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        SseEmitter privateViewer = liveLikeCounts.subscribe(20L, 5L).orElseThrow();
+        SseEmitter publicViewer = liveLikeCounts.subscribe(30L, 5L).orElseThrow();
+
+        // Act
+        liveLikeCounts.onEvents(List.of(
+                event(GalleryEventType.LIKED, 10L, true),
+                event(GalleryEventType.PHOTO_DELETED, 10L, true),
+                event(GalleryEventType.PRIVACY_TOGGLED, 20L, false),
+                event(GalleryEventType.PRIVACY_TOGGLED, 30L, true)));
+        int pushed = liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert
+        assertEquals(0, pushed); // no count for a deleted photo
+        verify(deletedViewer).complete();
+        verify(privateViewer).complete();
+        verify(publicViewer, never()).complete();
+        assertEquals(1, liveLikeCounts.watcherCount());
+        verifyNoInteractions(photoLikeService);
+    }
+
+    @Test
+    @DisplayName("LLCT-005: subscribe - disabled or watcher limit reached opens no stream")
+    void subscribe_DisabledOrFull_Empty() {
+        // Arrange
+        ReflectionTestUtils.setField(liveLikeCounts, "maxWatchers", 2);
+
+        // Act & Assert
+        assertTrue(liveLikeCounts.subscribe(10L, 0L).isPresent());
+        assertTrue(liveLikeCounts.subscribe(20L, 0L).isPresent());
+        assertEquals(Optional.empty(), liveLikeCounts.subscribe(30L, 0L));
+        assertEquals(2, liveLikeCounts.watcherCount());
+
+        ReflectionTestUtils.setField(liveLikeCounts, "enabled", false);
+        ReflectionTestUtils.setField(liveLikeCounts, "maxWatchers", 100);
+        assertEquals(Optional.empty(), liveLikeCounts.subscribe(30L, 0L));
+    }
+
+    @Test
+    @DisplayName("LLCT-006: flush - a stream still writing the previous event is closed after that write")
+    void flush_SlowClient_ClosedAfterRunningWrite() throws IOException {
+        // Arrange: writes wait in a queue until the test runs them
+        List<Runnable> queued = new ArrayList<>();
+        ReflectionTestUtils.setField(liveLikeCounts, "sender", (Executor) queued::add);
+        SseEmitter slow = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        when(photoLikeService.getLikeCount(10L)).thenReturn(6L, 7L);
+
+        // Act: second window while the first write is still pending
+        liveLikeCounts.onEvents(List.of(event(GalleryEventType.LIKED, 10L, true)));
+        liveLikeCounts.flush(System.currentTimeMillis());
+        liveLikeCounts.onEvents(List.of(event(GalleryEventType.LIKED, 10L, true)));
+        liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert: dropped at once, but complete() waits for the running write
+        assertEquals(0, liveLikeCounts.watcherCount());
+        assertEquals(1, queued.size());
+        verify(slow, never()).complete();
+
+        queued.get(0).run();
+        verify(slow, times(2)).send(any(SseEmitter.SseEventBuilder.class)); // initial + first update
+        verify(slow, times(1)).complete();
+    }
+
+    @Test
+    @DisplayName("LLCT-007: flush - full sender queue drops the stream instead of blocking")
+    void flush_SenderQueueFull_StreamDropped() throws IOException {
+        // Arrange
+        SseEmitter emitter = liveLikeCounts.subscribe(10L, 5L).orElseThrow();
+        ReflectionTestUtils.setField(liveLikeCounts, "sender", (Executor) task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        when(photoLikeService.getLikeCount(10L)).thenReturn(6L);
+
+        // Act
+        liveLikeCounts.onEvents(List.of(event(GalleryEventType.LIKED, 10L, true)));
+        int pushed = liveLikeCounts.flush(System.currentTimeMillis());
+
+        // Assert
+        assertEquals(1, pushed);
+        assertEquals(0, liveLikeCounts.watcherCount());
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class)); // initial only
+    }
+
+    private static GalleryEvent event(GalleryEventType type, long photoId, boolean isPublic) {
+        GalleryEvent event = mock(GalleryEvent.class);
+        lenient().when(event.getType()).thenReturn(type);
+        lenient().when(event.getPhotoId()).thenReturn(photoId);
+        lenient().when(event.isPublic()).thenReturn(isPublic);
+        return event;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoDetailResponse;
+import com.ikplabs.api.exception.GalleryNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test untuk PhotoDetailCache
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Hit / miss (PDCT-001 to PDCT-002)
+ *    - Miss → loader sekali, berikutnya hit; caller menerima copy (flag viewer tidak bocor)
+ *    - Exception loader (404/403) tidak di-cache
+ *
+ * 2. Invalidation (PDCT-003 to PDCT-004)
+ *    - evict() → miss berikutnya, dihitung sebagai eviction cause=invalidated
+ *    - Versi foto/global naik → entry lama dianggap miss
+ *
+ * 3. Size bound (PDCT-005)
+ *    - Total byte melewati batas → entry least-recently-used dibuang
+ *
+ * 4. Metrics (PDCT-006)
+ *    - cache.gets / cache.evictions / cache.hit.ratio terdaftar dengan tag cache=photoDetail
+ *
+ * TOTAL TEST CASES: 6
+ */
+@DisplayName("PhotoDetailCache Tests")
+public class PhotoDetailCacheTest {
+
+    private PhotoDetailCache cache;
+    private GalleryVersions versions;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        versions = new GalleryVersions();
+        cache = newCache(1024L * 1024);
+    }
+
+    @Test
+    @DisplayName("PDCT-001: getOrLoad - loads once, then serves independent copies")
+    void getOrLoad_MissThenHit_ReturnsCopies() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<GalleryPhotoDetailResponse> loader = () -> {
+            loads.incrementAndGet();
+            return detail(100L, "Sunset");
+        };
+
+        // Act
+        GalleryPhotoDetailResponse first = cache.getOrLoad(100L, loader);
+        first.setIsLikedByUser(true); // viewer flag merged by the controller
+        GalleryPhotoDetailResponse second = cache.getOrLoad(100L, loader);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("Sunset", second.getTitle());
+        assertEquals(5L, second.getLikeCount());
+        assertFalse(second.getIsLikedByUser(), "Viewer flags never leak into the cache");
+        assertNotSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("PDCT-002: getOrLoad - loader exception is not cached")
+    void getOrLoad_LoaderThrows_NothingCached() {
+        // Act & Assert
+        assertThrows(GalleryNotFoundException.class, () -> cache.getOrLoad(404L, () -> {
+            throw new GalleryNotFoundException("Photo not found with id: 404");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+
+    @Test
+    @DisplayName("PDCT-003: evict - next read reloads and counts an invalidation")
+    void evict_NextReadReloads() {
+        // Arrange
+        cache.getOrLoad(100L, () -> detail(100L, "Old"));
+
+        // Act
+        cache.evict(100L);
+        GalleryPhotoDetailResponse reloaded = cache.getOrLoad(100L, () -> detail(100L, "New"));
+
+        // Assert
+        assertEquals("New", reloaded.getTitle());
+        assertEquals(1.0, registry.get("cache.evictions").tag("cause", "invalidated").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("PDCT-004: getOrLoad - newer photo or global version makes the entry stale")
+    void getOrLoad_VersionBumped_TreatsEntryAsMiss() {
+        // Arrange
+        cache.getOrLoad(100L, () -> detail(100L, "Old"));
+
+        // Act: like committed elsewhere (no evict reached this cache yet)
+        versions.photoChanged(100L, 1L, true);
+        GalleryPhotoDetailResponse afterPhotoChange = cache.getOrLoad(100L, () -> detail(100L, "Liked"));
+        versions.globalChanged(); // e.g. owner renamed
+        GalleryPhotoDetailResponse afterGlobalChange = cache.getOrLoad(100L, () -> detail(100L, "Renamed"));
+
+        // Assert
+        assertEquals("Liked", afterPhotoChange.getTitle());
+        assertEquals("Renamed", afterGlobalChange.getTitle());
+        assertEquals("Renamed", cache.getOrLoad(100L, () -> detail(100L, "unused")).getTitle());
+    }
+
+    @Test
+    @DisplayName("PDCT-005: put - evicts least recently used entries beyond max bytes")
+    void put_OverMaxBytes_EvictsLeastRecentlyUsed() {
+        // Arrange: room for exactly two entries
+        long entryBytes = PhotoDetailCache.weigh(detail(1L, "A"));
+        cache = newCache(entryBytes * 2);
+        cache.getOrLoad(1L, () -> detail(1L, "A"));
+        cache.getOrLoad(2L, () -> detail(2L, "B"));
+        cache.getOrLoad(1L, () -> detail(1L, "unused")); // touch 1 → 2 is now eldest
+
+        // Act
+        cache.getOrLoad(3L, () -> detail(3L, "C"));
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(entryBytes * 2, cache.weight());
+        assertEquals("A", cache.getOrLoad(1L, () -> detail(1L, "reloaded")).getTitle());
+        assertEquals("reloaded", cache.getOrLoad(2L, () -> detail(2L, "reloaded")).getTitle());
+        assertTrue(registry.get("cache.evictions").tag("cause", "size").functionCounter().count() >= 1.0);
+    }
+
+    @Test
+    @DisplayName("PDCT-006: metrics - gets by result and hit ratio exposed")
+    void metrics_HitAndMissCounted() {
+        // Act: 1 miss + 3 hits
+        for (int i = 0; i < 4; i++) {
+            cache.getOrLoad(100L, () -> detail(100L, "Sunset"));
+        }
+
+        // Assert
+        assertEquals(3.0, registry.get("cache.gets").tags("cache", "photoDetail", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "photoDetail", "result", "miss").functionCounter().count());
+        assertEquals(0.75, registry.get("cache.hit.ratio").gauge().value(), 1e-9);
+        assertEquals(1.0, registry.get("cache.size").gauge().value());
+    }
+
+    private PhotoDetailCache newCache(long maxBytes) {
+        registry = new SimpleMeterRegistry();
+        PhotoDetailCache detailCache = new PhotoDetailCache();
+        ReflectionTestUtils.setField(detailCache, "galleryVersions", versions);
+        ReflectionTestUtils.setField(detailCache, "meterRegistry", registry);
+        ReflectionTestUtils.setField(detailCache, "maxBytes", maxBytes);
+        detailCache.init();
+        return detailCache;
+    }
+
+    private static GalleryPhotoDetailResponse detail(Long id, String title) {
+        GalleryPhotoDetailResponse detail = new GalleryPhotoDetailResponse(
+                id, 1L, "John Doe", "john@example.com", title, "Description", "gallery/user-1/photo-" + id + ".jpg",
+                true, 0, LocalDateTime.of(2026, 10, 16, 9, 0), LocalDateTime.of(2026, 10, 16, 9, 0));
+        detail.setLikeCount(5L);
+        detail.setIsLikedByUser(false);
+        detail.setIsFavoritedByUser(false);
+        return detail;
+    }
+}
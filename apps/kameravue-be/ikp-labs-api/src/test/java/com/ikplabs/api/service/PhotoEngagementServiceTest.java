@@ -0,0 +1,268 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.ikplabs.api.dto.PhotoEngagement;
+import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.entity.User;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementSummary;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.util.StripedCounterMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk PhotoEngagementService
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Hydration (PEST-001 to PEST-004)
+ *    - Counts + viewer flags merged from 2 grouped queries
+ *    - Photos without likes/favorites are absent (caller uses NONE)
+ *    - Anonymous viewer never gets true flags
+ *    - Empty page does not hit the database
+ *
+ * 2. Grid row enrichment (PEST-005)
+ *    - Rows filled in place, order preserved, exactly 2 queries per page
+ *
+ * 3. Write-behind buffer overlay (PEST-006)
+ *    - Unflushed likes/favorites change counts and viewer flags
+ *
+ * 4. In-memory counters (PEST-007 to PEST-008)
+ *    - Counts from EngagementCounters, viewer flags from the viewer's own rows
+ *    - Anonymous viewer: no like/favorite queries at all
+ *
+ * TOTAL TEST CASES: 8
+ */
+@SuppressWarnings("null")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PhotoEngagementService Batch Hydration Tests")
+public class PhotoEngagementServiceTest {
+
+    @Mock
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Mock
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @Mock
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Mock
+    private EngagementCounters engagementCounters;
+
+    @InjectMocks
+    private PhotoEngagementService photoEngagementService;
+
+    private static final Long VIEWER_ID = 2L;
+
+    @Test
+    @DisplayName("PEST-001: Hydrate merges like and favorite summaries per photo")
+    void hydrate_MergesLikeAndFavoriteSummaries() {
+        // Arrange
+        List<Long> ids = Arrays.asList(10L, 11L, 12L);
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID)))
+                .thenReturn(List.of(summary(10L, 5L, 1L), summary(12L, 2L, 0L)));
+        when(photoFavoriteRepository.summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID)))
+                .thenReturn(List.of(summary(12L, 3L, 1L)));
+
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(ids, VIEWER_ID);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(5L, result.get(10L).getLikeCount());
+        assertTrue(result.get(10L).isLikedByViewer());
+        assertFalse(result.get(10L).isFavoritedByViewer());
+        assertEquals(0L, result.get(10L).getFavoriteCount());
+
+        assertEquals(2L, result.get(12L).getLikeCount());
+        assertFalse(result.get(12L).isLikedByViewer());
+        assertEquals(3L, result.get(12L).getFavoriteCount());
+        assertTrue(result.get(12L).isFavoritedByViewer());
+
+        assertNull(result.get(11L)); // no likes/favorites → caller falls back to NONE
+    }
+
+    @Test
+    @DisplayName("PEST-002: Hydrate passes each photo ID once to the grouped queries")
+    void hydrate_DeduplicatesPhotoIds() {
+        // Act
+        photoEngagementService.hydrate(Arrays.asList(10L, 10L, 11L), VIEWER_ID);
+
+        // Assert
+        verify(photoLikeRepository).summarizeByPhotoIds(argThat((Collection<Long> c) -> c.size() == 2), eq(VIEWER_ID));
+        verify(photoFavoriteRepository).summarizeByPhotoIds(argThat((Collection<Long> c) -> c.size() == 2), eq(VIEWER_ID));
+    }
+
+    @Test
+    @DisplayName("PEST-003: Anonymous viewer never gets liked/favorited flags")
+    void hydrate_AnonymousViewer_FlagsAlwaysFalse() {
+        // Arrange
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), isNull()))
+                .thenReturn(List.of(summary(10L, 4L, 1L)));
+
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(List.of(10L), null);
+
+        // Assert
+        assertEquals(4L, result.get(10L).getLikeCount());
+        assertFalse(result.get(10L).isLikedByViewer());
+        assertFalse(result.get(10L).isFavoritedByViewer());
+    }
+
+    @Test
+    @DisplayName("PEST-004: Empty page does not query the database")
+    void hydrate_EmptyPage_NoQueries() {
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(List.of(), VIEWER_ID);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(photoLikeRepository, photoFavoriteRepository);
+    }
+
+    @Test
+    @DisplayName("PEST-005: applyEngagement fills grid rows in place, keeps order, issues exactly 2 queries")
+    void applyEngagement_PreservesOrder_TwoQueries() {
+        // Arrange
+        List<GalleryPhotoResponse> rows = List.of(
+                GalleryPhotoResponse.fromEntity(photo(12L)),
+                GalleryPhotoResponse.fromEntity(photo(10L)));
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID)))
+                .thenReturn(List.of(summary(10L, 7L, 1L)));
+
+        // Act
+        List<GalleryPhotoResponse> responses = photoEngagementService.applyEngagement(rows, VIEWER_ID);
+
+        // Assert
+        assertSame(rows, responses);
+        assertEquals(2, responses.size());
+        assertEquals(12L, responses.get(0).getId());
+        assertEquals(0L, responses.get(0).getLikeCount());
+        assertFalse(responses.get(0).getIsLikedByUser());
+        assertEquals(10L, responses.get(1).getId());
+        assertEquals(7L, responses.get(1).getLikeCount());
+        assertTrue(responses.get(1).getIsLikedByUser());
+
+        verify(photoLikeRepository, times(1)).summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID));
+        verify(photoFavoriteRepository, times(1)).summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID));
+        verifyNoMoreInteractions(photoLikeRepository, photoFavoriteRepository);
+    }
+
+    @Test
+    @DisplayName("PEST-006: Hydrate overlays unflushed buffered likes and favorites")
+    void hydrate_OverlaysWriteBehindBuffer() {
+        // Arrange: DB has 5 likes (viewer not among them), buffer has the viewer's like
+        // and an unfavorite of photo 11 that exists only in the database so far
+        when(photoLikeRepository.summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID)))
+                .thenReturn(List.of(summary(10L, 5L, 0L)));
+        when(photoFavoriteRepository.summarizeByPhotoIds(anyCollection(), eq(VIEWER_ID)))
+                .thenReturn(List.of(summary(11L, 1L, 1L)));
+        when(engagementWriteBuffer.isEmpty()).thenReturn(false);
+        // Every photo/kind pair is looked up; only the buffered ones differ from "nothing pending"
+        when(engagementWriteBuffer.countDelta(any(), anyLong())).thenReturn(0L);
+        when(engagementWriteBuffer.pendingState(any(), anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(engagementWriteBuffer.countDelta(EngagementKind.LIKE, 10L)).thenReturn(1L);
+        when(engagementWriteBuffer.pendingState(EngagementKind.LIKE, 10L, VIEWER_ID)).thenReturn(Optional.of(true));
+        when(engagementWriteBuffer.countDelta(EngagementKind.FAVORITE, 11L)).thenReturn(-1L);
+        when(engagementWriteBuffer.pendingState(EngagementKind.FAVORITE, 11L, VIEWER_ID)).thenReturn(Optional.of(false));
+
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(List.of(10L, 11L), VIEWER_ID);
+
+        // Assert
+        assertEquals(6L, result.get(10L).getLikeCount());
+        assertTrue(result.get(10L).isLikedByViewer());
+        assertEquals(0L, result.get(11L).getFavoriteCount());
+        assertFalse(result.get(11L).isFavoritedByViewer());
+    }
+
+    @Test
+    @DisplayName("PEST-007: Counters on - counts from memory, viewer flags from the viewer's rows, no COUNT queries")
+    void hydrate_CountersEnabled_NoAggregateQueries() {
+        // Arrange
+        when(engagementCounters.isEnabled()).thenReturn(true);
+        when(engagementCounters.counts(anyCollection())).thenReturn(Map.of(10L, counts(7L, 0L), 11L, counts(0L, 0L)));
+        when(photoLikeRepository.findLikedPhotoIds(eq(VIEWER_ID), anyCollection())).thenReturn(List.of(10L));
+        when(photoFavoriteRepository.findFavoritedPhotoIds(eq(VIEWER_ID), anyCollection())).thenReturn(List.of());
+        when(engagementWriteBuffer.isEmpty()).thenReturn(true);
+
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(List.of(10L, 11L), VIEWER_ID);
+
+        // Assert
+        assertEquals(7L, result.get(10L).getLikeCount());
+        assertTrue(result.get(10L).isLikedByViewer());
+        assertNull(result.get(11L)); // no likes/favorites → caller falls back to NONE
+        verify(photoLikeRepository, never()).summarizeByPhotoIds(anyCollection(), any());
+        verify(photoFavoriteRepository, never()).summarizeByPhotoIds(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("PEST-008: Counters on, anonymous viewer - no like/favorite queries")
+    void hydrate_CountersEnabled_Anonymous_NoQueries() {
+        // Arrange
+        when(engagementCounters.isEnabled()).thenReturn(true);
+        when(engagementCounters.counts(anyCollection())).thenReturn(Map.of(10L, counts(3L, 1L)));
+
+        // Act
+        Map<Long, PhotoEngagement> result = photoEngagementService.hydrate(List.of(10L), null);
+
+        // Assert
+        assertEquals(3L, result.get(10L).getLikeCount());
+        assertEquals(1L, result.get(10L).getFavoriteCount());
+        assertFalse(result.get(10L).isLikedByViewer());
+        verifyNoInteractions(photoLikeRepository, photoFavoriteRepository);
+    }
+
+    private static StripedCounterMap.Counts counts(long likes, long favorites) {
+        return new StripedCounterMap.Counts(likes, favorites);
+    }
+
+    private static GalleryPhoto photo(Long id) {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setFullName("Photo Owner");
+
+        GalleryPhoto photo = new GalleryPhoto();
+        photo.setId(id);
+        photo.setUser(owner);
+        photo.setIsPublic(true);
+        return photo;
+    }
+
+    private static EngagementSummary summary(Long photoId, Long total, Long viewer) {
+        return new EngagementSummary() {
+            @Override
+            public Long getPhotoId() {
+                return photoId;
+            }
+
+            @Override
+            public Long getTotalCount() {
+                return total;
+            }
+
+            @Override
+            public Long getViewerCount() {
+                return viewer;
+            }
+        };
+    }
+}
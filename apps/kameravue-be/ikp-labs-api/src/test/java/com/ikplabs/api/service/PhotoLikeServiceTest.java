@@ -1,11 +1,15 @@
 package com.ikplabs.api.service;
 
+import com.ikplabs.api.dto.BulkEngagementResponse;
+import com.ikplabs.api.dto.GalleryPhotoResponse;
 import com.ikplabs.api.entity.GalleryPhoto;
-import com.ikplabs.api.entity.PhotoLike;
 import com.ikplabs.api.entity.User;
-import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.event.GalleryEventBus;
+import com.ikplabs.api.event.GalleryEventType;
+import com.ikplabs.api.repository.EngagementChange;
+import com.ikplabs.api.repository.EngagementKind;
+import com.ikplabs.api.repository.EngagementTarget;
 import com.ikplabs.api.repository.PhotoLikeRepository;
-import com.ikplabs.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -15,10 +19,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,21 +60,40 @@ import static org.mockito.Mockito.*;
  *
  * YANG DI-TEST:
  * =============
- * 1. Like Operations (PLST-001 to PLST-005)
- *    - Happy path: like photo successfully
+ * 1. Like Operations (PLST-001 to PLST-005, PLST-010)
+ *    - Happy path: like photo in one statement (no diagnose query)
  *    - Photo not found error
  *    - Photo not public error (cannot like private)
  *    - User is owner error (cannot like own photo)
- *    - Already liked error (duplicate prevention)
+ *    - Already liked error (ON CONFLICT DO NOTHING)
+ *    - User not found error
  *
- * 2. Unlike Operations (PLST-006 to PLST-007)
- *    - Happy path: unlike photo successfully
+ * 2. Unlike Operations (PLST-006 to PLST-007, PLST-011)
+ *    - Happy path: unlike photo in one statement
  *    - Photo not liked error
+ *    - Photo not found error
  *
- * 3. Query Operations (PLST-008)
+ * 3. Query Operations (PLST-008 to PLST-009)
  *    - Get liked photos returns correct data
  *
- * TOTAL TEST CASES: 8
+ * 4. Write-behind Buffer (PLST-012 to PLST-013)
+ *    - Like validated by the diagnose query, journaled instead of inserted
+ *    - Already liked according to the buffer
+ *
+ * 5. In-memory Counters (PLST-014)
+ *    - Like count served from EngagementCounters without a COUNT query
+ *
+ * 6. In-memory Memberships (PLST-015)
+ *    - isLikedByUser answered from EngagementMemberships without an EXISTS query
+ *
+ * 7. Bulk Like (PLST-016 to PLST-017)
+ *    - One multi-row statement + one diagnose query for the rejected IDs only
+ *    - Buffer active: one diagnose query for all IDs, journal per ID
+ *
+ * 8. Transaction Boundary (PLST-018)
+ *    - Leaderboard hanya berubah setelah commit, tidak pernah saat rollback
+ *
+ * TOTAL TEST CASES: 18
  *
  * @author Claude Code
  */
@@ -78,10 +106,25 @@ public class PhotoLikeServiceTest {
     private PhotoLikeRepository photoLikeRepository;
 
     @Mock
-    private GalleryPhotoRepository galleryPhotoRepository;
+    private LikeLeaderboard likeLeaderboard;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @Mock
+    private PhotoDetailCache photoDetailCache;
 
     @Mock
-    private UserRepository userRepository;
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Mock
+    private EngagementCounters engagementCounters;
+
+    @Mock
+    private EngagementMemberships engagementMemberships;
+
+    @Mock
+    private GalleryEventBus galleryEventBus;
 
     @InjectMocks
     private PhotoLikeService photoLikeService;
@@ -91,13 +134,13 @@ public class PhotoLikeServiceTest {
     private User likerUser;
     private GalleryPhoto publicPhoto;
     private GalleryPhoto privatePhoto;
-    private PhotoLike testPhotoLike;
 
     private static final Long PHOTO_OWNER_ID = 1L;
     private static final Long LIKER_USER_ID = 2L;
     private static final Long PUBLIC_PHOTO_ID = 100L;
     private static final Long PRIVATE_PHOTO_ID = 101L;
     private static final Long NONEXISTENT_PHOTO_ID = 999L;
+    private static final LocalDateTime LIKED_AT = LocalDateTime.of(2026, 10, 15, 9, 0);
 
     /**
      * Setup test data before each test
@@ -133,56 +176,51 @@ public class PhotoLikeServiceTest {
         privatePhoto.setId(PRIVATE_PHOTO_ID);
         privatePhoto.setTitle("Private Photo");
         privatePhoto.setIsPublic(false);
-
-        // Create test photo like
-        testPhotoLike = new PhotoLike();
-        testPhotoLike.setId(1L);
-        testPhotoLike.setPhoto(publicPhoto);
-        testPhotoLike.setUser(likerUser);
     }
 
     // ============================================================================
-    // LIKE OPERATIONS TESTS (PLST-001 to PLST-005)
+    // LIKE OPERATIONS TESTS (PLST-001 to PLST-005, PLST-010)
     // ============================================================================
 
     /**
      * PLST-001: likePhoto() - Happy path
      *
      * Scenario: User likes a public photo for the first time
-     * Given: Photo exists, is public, user is not owner, not liked yet
+     * Given: The single INSERT ... ON CONFLICT statement inserts one row
      * When: likePhoto() called
-     * Then: PhotoLike saved successfully
+     * Then: No diagnose query, leaderboard + versions updated with the returned owner
      */
     @Test
-    @DisplayName("PLST-001: likePhoto - valid like - Should save successfully")
+    @DisplayName("PLST-001: likePhoto - valid like - Should insert in one statement")
     void testLikePhoto_Success() {
         // ARRANGE
-        when(galleryPhotoRepository.findById(PUBLIC_PHOTO_ID))
-            .thenReturn(Optional.of(publicPhoto));
-        when(photoLikeRepository.existsByPhotoIdAndUserId(PUBLIC_PHOTO_ID, LIKER_USER_ID))
-            .thenReturn(false);
-        when(userRepository.findById(LIKER_USER_ID))
-            .thenReturn(Optional.of(likerUser));
+        when(photoLikeRepository.insertLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
 
         // ACT
         photoLikeService.likePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID);
 
         // ASSERT
-        // Verify save() was called exactly once
-        verify(photoLikeRepository, times(1)).save(any(PhotoLike.class));
-
-        // Verify the PhotoLike object passed to save() has correct properties
-        verify(photoLikeRepository).save(argThat(photoLike ->
-            photoLike.getPhoto().getId().equals(PUBLIC_PHOTO_ID) &&
-            photoLike.getUser().getId().equals(LIKER_USER_ID)
-        ));
+        // One round trip: no entity save, no diagnose query on success
+        verify(photoLikeRepository, times(1)).insertLike(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+        verify(photoLikeRepository, never()).save(any());
+        verify(photoLikeRepository, never()).findLikeTarget(any(), any());
+
+        // Verify leaderboard + in-memory counter counted the like
+        verify(likeLeaderboard, times(1)).recordLike(PUBLIC_PHOTO_ID);
+        verify(engagementCounters, times(1)).recordLike(PUBLIC_PHOTO_ID, 1);
+        verify(engagementMemberships, times(1)).record(EngagementKind.LIKE, LIKER_USER_ID, PUBLIC_PHOTO_ID, true);
+        verify(galleryVersions, times(1)).photoChanged(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID, true);
+        verify(photoDetailCache, times(1)).evict(PUBLIC_PHOTO_ID);
+        verify(galleryEventBus, times(1))
+            .engaged(GalleryEventType.LIKED, PUBLIC_PHOTO_ID, PHOTO_OWNER_ID, LIKER_USER_ID, true);
     }
 
     /**
      * PLST-002: likePhoto() - Photo not found
      *
      * Scenario: User tries to like non-existent photo
-     * Given: Photo ID doesn't exist in database
+     * Given: INSERT changes no row and the photo doesn't exist
      * When: likePhoto() called
      * Then: IllegalArgumentException thrown with "Photo not found" message
      */
@@ -190,7 +228,9 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-002: likePhoto - photo not found - Should throw exception")
     void testLikePhoto_PhotoNotFound() {
         // ARRANGE
-        when(galleryPhotoRepository.findById(NONEXISTENT_PHOTO_ID))
+        when(photoLikeRepository.insertLike(NONEXISTENT_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty());
+        when(photoLikeRepository.findLikeTarget(NONEXISTENT_PHOTO_ID, LIKER_USER_ID))
             .thenReturn(Optional.empty());
 
         // ACT & ASSERT
@@ -200,16 +240,14 @@ public class PhotoLikeServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Photo not found"));
-
-        // Verify save() was never called
-        verify(photoLikeRepository, never()).save(any());
+        verify(likeLeaderboard, never()).recordLike(any());
     }
 
     /**
      * PLST-003: likePhoto() - Photo is private
      *
      * Scenario: User tries to like a private photo
-     * Given: Photo exists but is_public = false
+     * Given: INSERT changes no row, photo exists but is_public = false
      * When: likePhoto() called
      * Then: IllegalArgumentException thrown with "Cannot like private photos" message
      */
@@ -217,8 +255,10 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-003: likePhoto - photo is private - Should throw exception")
     void testLikePhoto_PhotoNotPublic() {
         // ARRANGE
-        when(galleryPhotoRepository.findById(PRIVATE_PHOTO_ID))
-            .thenReturn(Optional.of(privatePhoto));
+        when(photoLikeRepository.insertLike(PRIVATE_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty());
+        when(photoLikeRepository.findLikeTarget(PRIVATE_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementTarget(PHOTO_OWNER_ID, false, false, true)));
 
         // ACT & ASSERT
         IllegalArgumentException exception = assertThrows(
@@ -227,16 +267,14 @@ public class PhotoLikeServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Cannot like private photos"));
-
-        // Verify save() was never called
-        verify(photoLikeRepository, never()).save(any());
+        verify(galleryVersions, never()).photoChanged(any(), any(), anyBoolean());
     }
 
     /**
      * PLST-004: likePhoto() - User is photo owner
      *
      * Scenario: User tries to like their own photo
-     * Given: Photo owner ID == current user ID
+     * Given: INSERT changes no row, photo owner ID == current user ID
      * When: likePhoto() called
      * Then: IllegalArgumentException thrown with "Cannot like your own photo" message
      */
@@ -244,8 +282,10 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-004: likePhoto - user is owner - Should throw exception")
     void testLikePhoto_UserIsOwner() {
         // ARRANGE
-        when(galleryPhotoRepository.findById(PUBLIC_PHOTO_ID))
-            .thenReturn(Optional.of(publicPhoto));
+        when(photoLikeRepository.insertLike(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID))
+            .thenReturn(Optional.empty());
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID))
+            .thenReturn(Optional.of(new EngagementTarget(PHOTO_OWNER_ID, true, false, true)));
 
         // ACT & ASSERT
         // Try to like with photo owner's ID (not liker's ID)
@@ -255,16 +295,13 @@ public class PhotoLikeServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Cannot like your own photo"));
-
-        // Verify save() was never called
-        verify(photoLikeRepository, never()).save(any());
     }
 
     /**
      * PLST-005: likePhoto() - Already liked
      *
-     * Scenario: User tries to like photo twice
-     * Given: User has already liked this photo
+     * Scenario: User tries to like photo twice (or two like requests race)
+     * Given: INSERT hits ON CONFLICT DO NOTHING → no row, like already exists
      * When: likePhoto() called again
      * Then: IllegalStateException thrown with "already liked" message
      */
@@ -272,10 +309,10 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-005: likePhoto - already liked - Should throw exception")
     void testLikePhoto_AlreadyLiked() {
         // ARRANGE
-        when(galleryPhotoRepository.findById(PUBLIC_PHOTO_ID))
-            .thenReturn(Optional.of(publicPhoto));
-        when(photoLikeRepository.existsByPhotoIdAndUserId(PUBLIC_PHOTO_ID, LIKER_USER_ID))
-            .thenReturn(true); // Already liked!
+        when(photoLikeRepository.insertLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty()); // ON CONFLICT DO NOTHING
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementTarget(PHOTO_OWNER_ID, true, true, true)));
 
         // ACT & ASSERT
         IllegalStateException exception = assertThrows(
@@ -285,45 +322,78 @@ public class PhotoLikeServiceTest {
 
         assertTrue(exception.getMessage().contains("already liked"));
 
-        // Verify save() was never called
-        verify(photoLikeRepository, never()).save(any());
+        // Counter is part of the rejected statement: leaderboard + versions untouched
+        verify(likeLeaderboard, never()).recordLike(any());
+        verify(galleryVersions, never()).photoChanged(any(), any(), anyBoolean());
+    }
+
+    /**
+     * PLST-010: likePhoto() - User not found
+     *
+     * Scenario: Token of a deleted user likes a photo
+     * Given: INSERT changes no row, photo is likeable but the user doesn't exist
+     * When: likePhoto() called
+     * Then: IllegalArgumentException thrown with "User not found" message
+     */
+    @Test
+    @DisplayName("PLST-010: likePhoto - user not found - Should throw exception")
+    void testLikePhoto_UserNotFound() {
+        // ARRANGE
+        when(photoLikeRepository.insertLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty());
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementTarget(PHOTO_OWNER_ID, true, false, false)));
+
+        // ACT & ASSERT
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> photoLikeService.likePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID)
+        );
+
+        assertTrue(exception.getMessage().contains("User not found"));
     }
 
     // ============================================================================
-    // UNLIKE OPERATIONS TESTS (PLST-006 to PLST-007)
+    // UNLIKE OPERATIONS TESTS (PLST-006 to PLST-007, PLST-011)
     // ============================================================================
 
     /**
      * PLST-006: unlikePhoto() - Happy path
      *
      * Scenario: User unlikes a previously liked photo
-     * Given: Photo exists and user has liked it
+     * Given: DELETE ... RETURNING removes one row
      * When: unlikePhoto() called
-     * Then: PhotoLike deleted successfully
+     * Then: Leaderboard gets the removed like's created_at, versions the returned owner
      */
     @Test
-    @DisplayName("PLST-006: unlikePhoto - valid unlike - Should delete successfully")
+    @DisplayName("PLST-006: unlikePhoto - valid unlike - Should delete in one statement")
     void testUnlikePhoto_Success() {
         // ARRANGE
-        when(galleryPhotoRepository.existsById(PUBLIC_PHOTO_ID))
-            .thenReturn(true);
-        when(photoLikeRepository.existsByPhotoIdAndUserId(PUBLIC_PHOTO_ID, LIKER_USER_ID))
-            .thenReturn(true);
+        when(photoLikeRepository.deleteLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
 
         // ACT
         photoLikeService.unlikePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID);
 
         // ASSERT
-        // Verify deleteByPhotoIdAndUserId() was called exactly once
-        verify(photoLikeRepository, times(1))
-            .deleteByPhotoIdAndUserId(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+        verify(photoLikeRepository, times(1)).deleteLike(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+        verify(photoLikeRepository, never()).findLikeTarget(any(), any());
+
+        // Verify leaderboard told when the removed like was given (weekly board)
+        verify(likeLeaderboard, times(1)).recordUnlike(PUBLIC_PHOTO_ID, LIKED_AT);
+        verify(engagementCounters, times(1)).recordLike(PUBLIC_PHOTO_ID, -1);
+        verify(engagementMemberships, times(1)).record(EngagementKind.LIKE, LIKER_USER_ID, PUBLIC_PHOTO_ID, false);
+
+        // Verify photo, owner gallery and public feed get a new ETag version
+        verify(galleryVersions, times(1)).photoChanged(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID, true);
+        verify(photoDetailCache, times(1)).evict(PUBLIC_PHOTO_ID);
     }
 
     /**
      * PLST-007: unlikePhoto() - Photo not liked
      *
      * Scenario: User tries to unlike photo they never liked
-     * Given: Photo exists but user hasn't liked it
+     * Given: DELETE removes no row, photo exists
      * When: unlikePhoto() called
      * Then: IllegalArgumentException thrown with "not liked" message
      */
@@ -331,10 +401,10 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-007: unlikePhoto - photo not liked - Should throw exception")
     void testUnlikePhoto_NotLiked() {
         // ARRANGE
-        when(galleryPhotoRepository.existsById(PUBLIC_PHOTO_ID))
-            .thenReturn(true);
-        when(photoLikeRepository.existsByPhotoIdAndUserId(PUBLIC_PHOTO_ID, LIKER_USER_ID))
-            .thenReturn(false); // Not liked!
+        when(photoLikeRepository.deleteLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty()); // Not liked!
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementTarget(PHOTO_OWNER_ID, true, false, true)));
 
         // ACT & ASSERT
         IllegalArgumentException exception = assertThrows(
@@ -343,10 +413,34 @@ public class PhotoLikeServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("not liked"));
+        verify(likeLeaderboard, never()).recordUnlike(any(), any());
+        verify(galleryVersions, never()).photoChanged(any(), any(), anyBoolean());
+    }
+
+    /**
+     * PLST-011: unlikePhoto() - Photo not found
+     *
+     * Scenario: User unlikes a photo that was deleted
+     * Given: DELETE removes no row and the photo doesn't exist
+     * When: unlikePhoto() called
+     * Then: IllegalArgumentException thrown with "Photo not found" message
+     */
+    @Test
+    @DisplayName("PLST-011: unlikePhoto - photo not found - Should throw exception")
+    void testUnlikePhoto_PhotoNotFound() {
+        // ARRANGE
+        when(photoLikeRepository.deleteLike(NONEXISTENT_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty());
+        when(photoLikeRepository.findLikeTarget(NONEXISTENT_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.empty());
 
-        // Verify delete was never called
-        verify(photoLikeRepository, never())
-            .deleteByPhotoIdAndUserId(any(), any());
+        // ACT & ASSERT
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> photoLikeService.unlikePhoto(NONEXISTENT_PHOTO_ID, LIKER_USER_ID)
+        );
+
+        assertTrue(exception.getMessage().contains("Photo not found"));
     }
 
     // ============================================================================
@@ -378,7 +472,10 @@ public class PhotoLikeServiceTest {
         photo3.setId(3L);
         photo3.setTitle("Photo 3");
 
-        List<GalleryPhoto> likedPhotos = Arrays.asList(photo3, photo2, photo1); // Most recent first
+        List<GalleryPhotoResponse> likedPhotos = Arrays.asList(
+            GalleryPhotoResponse.fromEntity(photo3),
+            GalleryPhotoResponse.fromEntity(photo2),
+            GalleryPhotoResponse.fromEntity(photo1)); // Most recent first
 
         Pageable pageable = PageRequest.of(0, 12);
 
@@ -386,7 +483,7 @@ public class PhotoLikeServiceTest {
             .thenReturn(likedPhotos);
 
         // ACT
-        List<GalleryPhoto> result = photoLikeService.getLikedPhotos(LIKER_USER_ID, "newest", pageable);
+        List<GalleryPhotoResponse> result = photoLikeService.getLikedPhotos(LIKER_USER_ID, "newest", pageable);
 
         // ASSERT
         assertNotNull(result);
@@ -412,14 +509,14 @@ public class PhotoLikeServiceTest {
     @DisplayName("PLST-009: getLikedPhotos - sort by mostLiked - Should call repository with sortBy")
     void testGetLikedPhotos_SortByMostLiked_ShouldCallRepository() {
         // ARRANGE
-        List<GalleryPhoto> photos = Arrays.asList(publicPhoto);
+        List<GalleryPhotoResponse> photos = Arrays.asList(GalleryPhotoResponse.fromEntity(publicPhoto));
         Pageable pageable = PageRequest.of(0, 12);
 
         when(photoLikeRepository.findLikedPhotosByUserIdMostLiked(LIKER_USER_ID, pageable))
             .thenReturn(photos);
 
         // ACT
-        List<GalleryPhoto> result = photoLikeService.getLikedPhotos(LIKER_USER_ID, "mostLiked", pageable);
+        List<GalleryPhotoResponse> result = photoLikeService.getLikedPhotos(LIKER_USER_ID, "mostLiked", pageable);
 
         // ASSERT
         assertNotNull(result);
@@ -484,7 +581,7 @@ public class PhotoLikeServiceTest {
      *     - Single method: mvn test -Dtest=PhotoLikeServiceTest#testLikePhoto_Success
      *
      * 11. Test Coverage:
-     *     - These 8 tests cover ALL business logic in PhotoLikeService
+     *     - These 11 tests cover ALL business logic in PhotoLikeService
      *     - All validation rules tested
      *     - All error cases tested
      *     - Happy paths tested
@@ -496,4 +593,233 @@ public class PhotoLikeServiceTest {
      *     - Safe refactoring (tests catch breaking changes)
      *     - No database setup needed
      */
+
+    // ============================================================================
+    // WRITE-BEHIND BUFFER TESTS (PLST-012 to PLST-013)
+    // ============================================================================
+
+    /**
+     * PLST-012: likePhoto() - Write-behind buffer active
+     *
+     * Scenario: gallery.engagement-buffer.enabled=true
+     * Given: Diagnose query says the photo is likeable, buffer accepts the event
+     * When: likePhoto() called
+     * Then: No INSERT (flushed later in a batch), leaderboard + versions still updated
+     */
+    @Test
+    @DisplayName("PLST-012: likePhoto - buffer active - Should journal instead of insert")
+    void testLikePhoto_Buffered() {
+        // ARRANGE
+        EngagementTarget target = new EngagementTarget(PHOTO_OWNER_ID, true, false, true);
+        when(engagementWriteBuffer.isActive()).thenReturn(true);
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(target));
+        when(engagementWriteBuffer.append(EngagementKind.LIKE, PUBLIC_PHOTO_ID, LIKER_USER_ID, true, target))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
+
+        // ACT
+        photoLikeService.likePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+
+        // ASSERT
+        verify(photoLikeRepository, never()).insertLike(any(), any());
+        verify(likeLeaderboard, times(1)).recordLike(PUBLIC_PHOTO_ID);
+        verify(galleryVersions, times(1)).photoChanged(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID, true);
+        verify(photoDetailCache, times(1)).evict(PUBLIC_PHOTO_ID);
+    }
+
+    /**
+     * PLST-013: likePhoto() - Already liked, like still in the buffer
+     *
+     * Scenario: Second like arrives before the first one is flushed
+     * Given: Database says not liked, buffer says liked (append returns empty)
+     * When: likePhoto() called
+     * Then: IllegalStateException thrown with "already liked" message
+     */
+    @Test
+    @DisplayName("PLST-013: likePhoto - buffer active, already liked - Should throw exception")
+    void testLikePhoto_Buffered_AlreadyLiked() {
+        // ARRANGE
+        EngagementTarget target = new EngagementTarget(PHOTO_OWNER_ID, true, false, true);
+        when(engagementWriteBuffer.isActive()).thenReturn(true);
+        when(photoLikeRepository.findLikeTarget(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(target));
+        when(engagementWriteBuffer.append(EngagementKind.LIKE, PUBLIC_PHOTO_ID, LIKER_USER_ID, true, target))
+            .thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        IllegalStateException exception = assertThrows(
+            IllegalStateException.class,
+            () -> photoLikeService.likePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID)
+        );
+
+        assertTrue(exception.getMessage().contains("already liked"));
+        verify(likeLeaderboard, never()).recordLike(any());
+        verify(galleryVersions, never()).photoChanged(any(), any(), anyBoolean());
+    }
+
+    // ============================================================================
+    // IN-MEMORY COUNTERS TESTS (PLST-014)
+    // ============================================================================
+
+    /**
+     * PLST-014: getLikeCount() - Served from EngagementCounters
+     *
+     * Scenario: Photo detail asks for the like count of a loaded photo
+     * Given: EngagementCounters has the photo (7 likes)
+     * When: getLikeCount() called
+     * Then: Returns 7, no COUNT(*) over photo_likes
+     */
+    @Test
+    @DisplayName("PLST-014: getLikeCount - counters loaded - Should not run COUNT query")
+    void testGetLikeCount_FromCounters() {
+        // ARRANGE
+        when(engagementCounters.likeCount(PUBLIC_PHOTO_ID)).thenReturn(OptionalLong.of(7L));
+
+        // ACT
+        long count = photoLikeService.getLikeCount(PUBLIC_PHOTO_ID);
+
+        // ASSERT
+        assertEquals(7L, count);
+        verify(photoLikeRepository, never()).countByPhotoId(any());
+    }
+
+    // ============================================================================
+    // IN-MEMORY MEMBERSHIPS TESTS (PLST-015)
+    // ============================================================================
+
+    /**
+     * PLST-015: isLikedByUser() - Answered from EngagementMemberships
+     *
+     * Scenario: Photo detail shows the heart state for the viewer
+     * Given: No buffered write, the viewer's liked set says "liked"
+     * When: isLikedByUser() called
+     * Then: Returns true, no EXISTS query on photo_likes
+     */
+    @Test
+    @DisplayName("PLST-015: isLikedByUser - liked set loaded - Should not run EXISTS query")
+    void testIsLikedByUser_FromMemberships() {
+        // ARRANGE
+        when(engagementMemberships.isMember(EngagementKind.LIKE, LIKER_USER_ID, PUBLIC_PHOTO_ID))
+                .thenReturn(Optional.of(true));
+
+        // ACT
+        boolean liked = photoLikeService.isLikedByUser(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+
+        // ASSERT
+        assertTrue(liked);
+        verify(photoLikeRepository, never()).existsByPhotoIdAndUserId(any(), any());
+    }
+
+    // ============================================================================
+    // BULK LIKE TESTS (PLST-016 to PLST-017)
+    // ============================================================================
+
+    /**
+     * PLST-016: likePhotos() - One statement, per-ID results
+     *
+     * Scenario: "select many → like" with a public, a private and a missing photo
+     * Given: Multi-row INSERT likes only the public photo
+     * When: likePhotos() called (with a duplicate ID)
+     * Then: One diagnose query for the 2 rejected IDs, same messages as likePhoto
+     */
+    @Test
+    @DisplayName("PLST-016: likePhotos - multi-row insert - Should diagnose only rejected IDs")
+    void testLikePhotos_PerIdResults() {
+        // ARRANGE
+        when(photoLikeRepository.insertLikes(List.of(PUBLIC_PHOTO_ID, PRIVATE_PHOTO_ID, NONEXISTENT_PHOTO_ID), LIKER_USER_ID))
+            .thenReturn(Map.of(PUBLIC_PHOTO_ID, new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
+        when(photoLikeRepository.findLikeTargets(List.of(PRIVATE_PHOTO_ID, NONEXISTENT_PHOTO_ID), LIKER_USER_ID))
+            .thenReturn(Map.of(PRIVATE_PHOTO_ID, new EngagementTarget(PHOTO_OWNER_ID, false, false, true)));
+
+        // ACT
+        BulkEngagementResponse response = photoLikeService.likePhotos(
+            Arrays.asList(PUBLIC_PHOTO_ID, PRIVATE_PHOTO_ID, null, NONEXISTENT_PHOTO_ID, PUBLIC_PHOTO_ID), LIKER_USER_ID);
+
+        // ASSERT
+        assertEquals(3, response.getResults().size());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("Cannot like private photos. Photo must be public.", response.getResults().get(1).getError());
+        assertEquals("Photo not found with id: " + NONEXISTENT_PHOTO_ID, response.getResults().get(2).getError());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+
+        // Side effects only for the liked photo, no per-photo statements
+        verify(likeLeaderboard, times(1)).recordLike(PUBLIC_PHOTO_ID);
+        verify(engagementCounters, times(1)).recordLike(PUBLIC_PHOTO_ID, 1);
+        verify(galleryVersions, times(1)).photoChanged(PUBLIC_PHOTO_ID, PHOTO_OWNER_ID, true);
+        verify(photoLikeRepository, never()).insertLike(any(), any());
+        verify(photoLikeRepository, never()).findLikeTarget(any(), any());
+    }
+
+    /**
+     * PLST-017: likePhotos() - Write-behind buffer active
+     *
+     * Scenario: gallery.engagement-buffer.enabled=true
+     * Given: One diagnose query for all IDs; own photo rejected, the other journaled
+     * When: likePhotos() called
+     * Then: No INSERT, per-ID results from the same validation as likePhoto
+     */
+    @Test
+    @DisplayName("PLST-017: likePhotos - buffer active - Should validate all IDs in one query")
+    void testLikePhotos_Buffered() {
+        // ARRANGE
+        Long ownPhotoId = 102L;
+        EngagementTarget likeable = new EngagementTarget(PHOTO_OWNER_ID, true, false, true);
+        EngagementTarget own = new EngagementTarget(LIKER_USER_ID, true, false, true);
+        when(engagementWriteBuffer.isActive()).thenReturn(true);
+        when(photoLikeRepository.findLikeTargets(List.of(PUBLIC_PHOTO_ID, ownPhotoId), LIKER_USER_ID))
+            .thenReturn(Map.of(PUBLIC_PHOTO_ID, likeable, ownPhotoId, own));
+        when(engagementWriteBuffer.append(EngagementKind.LIKE, PUBLIC_PHOTO_ID, LIKER_USER_ID, true, likeable))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
+
+        // ACT
+        BulkEngagementResponse response = photoLikeService.likePhotos(List.of(PUBLIC_PHOTO_ID, ownPhotoId), LIKER_USER_ID);
+
+        // ASSERT
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("Cannot like your own photo", response.getResults().get(1).getError());
+        verify(photoLikeRepository, never()).insertLikes(any(), any());
+        verify(likeLeaderboard, times(1)).recordLike(PUBLIC_PHOTO_ID);
+    }
+
+    /**
+     * PLST-018: likePhoto() / unlikePhoto() - Inside a transaction
+     *
+     * Scenario: Called from a @Transactional caller (synchronization active)
+     * Given: Like and unlike statements succeed
+     * When: The transaction rolls back, then another one commits
+     * Then: LikeLeaderboard sees nothing until afterCommit, and nothing on rollback
+     */
+    @Test
+    @DisplayName("PLST-018: likePhoto/unlikePhoto - in a transaction - Should update leaderboard after commit only")
+    void testLikeUnlike_LeaderboardAfterCommit() {
+        // ARRANGE
+        when(photoLikeRepository.insertLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
+        when(photoLikeRepository.deleteLike(PUBLIC_PHOTO_ID, LIKER_USER_ID))
+            .thenReturn(Optional.of(new EngagementChange(PHOTO_OWNER_ID, true, LIKED_AT)));
+
+        try {
+            // ACT: rolled-back like
+            TransactionSynchronizationManager.initSynchronization();
+            photoLikeService.likePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+            TransactionSynchronizationManager.clearSynchronization();
+
+            // ASSERT
+            verify(likeLeaderboard, never()).recordLike(any());
+
+            // ACT: committed unlike
+            TransactionSynchronizationManager.initSynchronization();
+            photoLikeService.unlikePhoto(PUBLIC_PHOTO_ID, LIKER_USER_ID);
+            verify(likeLeaderboard, never()).recordUnlike(any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // ASSERT
+            verify(likeLeaderboard, times(1)).recordUnlike(PUBLIC_PHOTO_ID, LIKED_AT);
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
 }
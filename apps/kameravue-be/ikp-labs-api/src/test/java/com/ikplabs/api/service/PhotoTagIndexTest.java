@@ -0,0 +1,172 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.entity.User;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoTagKey;
+import com.ikplabs.api.repository.PhotoTagRepository;
+import com.ikplabs.api.repository.PublicPhotoKey;
+import com.ikplabs.api.util.TagQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk PhotoTagIndex
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Lifecycle (PTIT-001 to PTIT-002)
+ *    - Belum di-build / disabled → Optional.empty (caller pakai SQL)
+ *    - Mutasi selama rebuild tidak hilang
+ *
+ * 2. Query (PTIT-003 to PTIT-004)
+ *    - include ∩ public − exclude, newest first, keyset paging
+ *    - Tag yang tidak dipakai siapa pun → hasil kosong
+ *
+ * 3. Incremental updates (PTIT-005)
+ *    - setTags, privacy upsert, remove
+ *
+ * TOTAL TEST CASES: 5
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PhotoTagIndex Tests")
+public class PhotoTagIndexTest {
+
+    @Mock
+    private PhotoTagRepository photoTagRepository;
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @InjectMocks
+    private PhotoTagIndex index;
+
+    @Test
+    @DisplayName("PTIT-001: query - index not built yet or disabled - Should defer to database")
+    void notBuiltOrDisabled_ShouldReturnEmpty() {
+        assertTrue(index.query(TagQuery.parse("sunset"), Long.MAX_VALUE, 12).isEmpty());
+
+        ReflectionTestUtils.setField(index, "enabled", false);
+        index.rebuild();
+        assertTrue(index.query(TagQuery.parse("sunset"), Long.MAX_VALUE, 12).isEmpty());
+        verifyNoInteractions(photoTagRepository);
+    }
+
+    @Test
+    @DisplayName("PTIT-002: rebuild - tag edit during load - Should be replayed into new index")
+    void rebuild_MutationDuringLoad_ShouldBeReplayed() {
+        // Arrange: photo 2 loses its "sunset" tag while the tag query is still running
+        when(photoTagRepository.findAllKeys()).thenAnswer(invocation -> {
+            index.setTags(2L, List.of("beach"));
+            return List.of(tag("sunset", 1L), tag("sunset", 2L));
+        });
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L), key(2L)));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(Optional.of(List.of(1L)), index.query(TagQuery.parse("sunset"), Long.MAX_VALUE, 12));
+        assertEquals(Optional.of(List.of(2L)), index.query(TagQuery.parse("beach"), Long.MAX_VALUE, 12));
+    }
+
+    @Test
+    @DisplayName("PTIT-003: query - sunset AND beach NOT night - Should intersect with public photos, newest first")
+    void query_IncludeExclude_ShouldIntersectWithPublic() {
+        // Arrange: 1-5 sunset+beach, 3 also night, 4 private
+        when(photoTagRepository.findAllKeys()).thenReturn(List.of(
+                tag("beach", 1L), tag("beach", 2L), tag("beach", 3L), tag("beach", 4L), tag("beach", 5L),
+                tag("night", 3L),
+                tag("sunset", 1L), tag("sunset", 2L), tag("sunset", 3L), tag("sunset", 4L), tag("sunset", 5L),
+                tag("sunset", 6L)));
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(
+                List.of(key(6L), key(5L), key(3L), key(2L), key(1L)));
+        index.rebuild();
+        TagQuery query = TagQuery.parse("sunset AND beach NOT night");
+
+        // Act + Assert: first page, then the page after photo 2
+        assertEquals(Optional.of(List.of(5L, 2L)), index.query(query, Long.MAX_VALUE, 2));
+        assertEquals(Optional.of(List.of(1L)), index.query(query, 2L, 2));
+    }
+
+    @Test
+    @DisplayName("PTIT-004: query - tag nobody uses - Should return an empty page without touching the database")
+    void query_UnknownTag_ShouldReturnEmptyPage() {
+        // Arrange
+        when(photoTagRepository.findAllKeys()).thenReturn(List.of(tag("sunset", 1L)));
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L)));
+        index.rebuild();
+
+        // Act + Assert
+        assertEquals(Optional.of(List.of()), index.query(TagQuery.parse("sunset aurora"), Long.MAX_VALUE, 12));
+        assertEquals(Optional.of(List.of(1L)), index.query(TagQuery.parse("sunset -aurora"), Long.MAX_VALUE, 12));
+    }
+
+    @Test
+    @DisplayName("PTIT-005: setTags / upsert / remove - Should be reflected in the next query")
+    void incrementalUpdates_ShouldBeReflected() {
+        // Arrange
+        when(photoTagRepository.findAllKeys()).thenReturn(List.of(tag("sunset", 1L)));
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L)));
+        index.rebuild();
+        TagQuery sunset = TagQuery.parse("sunset");
+
+        // Act + Assert: new private photo tagged → not visible until it becomes public
+        index.setTags(2L, List.of("sunset"));
+        assertEquals(Optional.of(List.of(1L)), index.query(sunset, Long.MAX_VALUE, 12));
+        index.upsert(photo(2L, true));
+        assertEquals(Optional.of(List.of(2L, 1L)), index.query(sunset, Long.MAX_VALUE, 12));
+
+        // Act + Assert: tags removed, photo 1 deleted
+        index.setTags(2L, List.of());
+        index.remove(1L);
+        assertEquals(Optional.of(List.of()), index.query(sunset, Long.MAX_VALUE, 12));
+    }
+
+    private static PhotoTagKey tag(String tag, Long photoId) {
+        return new PhotoTagKey() {
+            @Override
+            public String getTag() {
+                return tag;
+            }
+
+            @Override
+            public Long getPhotoId() {
+                return photoId;
+            }
+        };
+    }
+
+    private static PublicPhotoKey key(Long id) {
+        return new PublicPhotoKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return LocalDateTime.of(2026, 1, 1, 0, 0);
+            }
+        };
+    }
+
+    private static GalleryPhoto photo(Long id, boolean isPublic) {
+        GalleryPhoto photo = new GalleryPhoto(new User(), "gallery/photo-" + id + ".jpg");
+        photo.setId(id);
+        photo.setIsPublic(isPublic);
+        return photo;
+    }
+}
@@ -0,0 +1,180 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.GalleryPhoto;
+import com.ikplabs.api.entity.User;
+import com.ikplabs.api.enums.SortBy;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PublicPhotoKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk PublicFeedIndex
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Lifecycle (PFIT-001 to PFIT-002)
+ *    - Belum di-build → Optional.empty (caller pakai database)
+ *    - Mutasi selama rebuild tidak hilang
+ *
+ * 2. Ordering (PFIT-003)
+ *    - newest / oldest dengan tie-break id pada created_at yang sama
+ *
+ * 3. Incremental updates (PFIT-004 to PFIT-005)
+ *    - upsert public / private, remove
+ *
+ * 4. Fallback cases (PFIT-006 to PFIT-007)
+ *    - Sort popularitas dan halaman di luar max-offset → Optional.empty
+ *
+ * TOTAL TEST CASES: 7
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PublicFeedIndex Tests")
+public class PublicFeedIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @InjectMocks
+    private PublicFeedIndex index;
+
+    @Test
+    @DisplayName("PFIT-001: page/count - index not built yet - Should defer to database")
+    void notBuilt_ShouldReturnEmpty() {
+        assertTrue(index.page(SortBy.NEWEST, 0, 12).isEmpty());
+        assertTrue(index.count().isEmpty());
+    }
+
+    @Test
+    @DisplayName("PFIT-002: rebuild - mutation during load - Should be replayed into new index")
+    void rebuild_MutationDuringLoad_ShouldBeReplayed() {
+        // Arrange: photo 3 is deleted while the key query is still running
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenAnswer(invocation -> {
+            index.remove(3L);
+            return List.of(key(1L, T0), key(2L, T0.plusMinutes(1)), key(3L, T0.plusMinutes(2)));
+        });
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(OptionalLong.of(2L), index.count());
+        assertEquals(Optional.of(List.of(2L, 1L)), index.page(SortBy.NEWEST, 0, 12));
+    }
+
+    @Test
+    @DisplayName("PFIT-003: page - newest and oldest - Should order by created_at then id")
+    void page_NewestAndOldest_ShouldOrderByCreatedAtThenId() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(
+                key(10L, T0), key(11L, T0), key(5L, T0.plusMinutes(5)), key(7L, T0.minusMinutes(5))));
+        index.rebuild();
+
+        // Act + Assert
+        assertEquals(Optional.of(List.of(5L, 11L, 10L, 7L)), index.page(SortBy.NEWEST, 0, 10));
+        assertEquals(Optional.of(List.of(7L, 10L, 11L, 5L)), index.page(SortBy.OLDEST, 0, 10));
+        assertEquals(Optional.of(List.of(10L, 7L)), index.page(SortBy.NEWEST, 2, 2));
+        assertEquals(Optional.of(List.of()), index.page(SortBy.NEWEST, 4, 2));
+    }
+
+    @Test
+    @DisplayName("PFIT-004: upsert - public then private - Should add then drop the photo")
+    void upsert_PublicThenPrivate_ShouldAddThenDrop() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L, T0)));
+        index.rebuild();
+        GalleryPhoto photo = photo(2L, true, T0.plusMinutes(1));
+
+        // Act + Assert: became public → top of newest
+        index.upsert(photo);
+        assertEquals(Optional.of(List.of(2L, 1L)), index.page(SortBy.NEWEST, 0, 12));
+
+        // Act + Assert: toggled private → gone
+        photo.setIsPublic(false);
+        index.upsert(photo);
+        assertEquals(Optional.of(List.of(1L)), index.page(SortBy.NEWEST, 0, 12));
+        assertEquals(OptionalLong.of(1L), index.count());
+    }
+
+    @Test
+    @DisplayName("PFIT-005: remove - deleted photo - Should leave index and count")
+    void remove_DeletedPhoto_ShouldLeaveIndex() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L, T0), key(2L, T0)));
+        index.rebuild();
+
+        // Act
+        index.remove(1L);
+        index.remove(99L);
+
+        // Assert
+        assertEquals(Optional.of(List.of(2L)), index.page(SortBy.OLDEST, 0, 12));
+        assertEquals(OptionalLong.of(1L), index.count());
+    }
+
+    @Test
+    @DisplayName("PFIT-006: page - popularity sort - Should defer to database")
+    void page_PopularitySort_ShouldReturnEmpty() {
+        // Arrange
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L, T0)));
+        index.rebuild();
+
+        // Act + Assert
+        assertTrue(index.page(SortBy.MOST_LIKED, 0, 12).isEmpty());
+        assertTrue(index.page(SortBy.MOST_FAVORITED, 0, 12).isEmpty());
+    }
+
+    @Test
+    @DisplayName("PFIT-007: page - beyond max-offset or disabled - Should defer to database")
+    void page_BeyondMaxOffsetOrDisabled_ShouldReturnEmpty() {
+        // Arrange
+        ReflectionTestUtils.setField(index, "maxOffset", 24L);
+        when(galleryPhotoRepository.findPublicPhotoKeys()).thenReturn(List.of(key(1L, T0)));
+        index.rebuild();
+
+        // Act + Assert
+        assertTrue(index.page(SortBy.NEWEST, 12, 12).isPresent());
+        assertTrue(index.page(SortBy.NEWEST, 24, 12).isEmpty());
+
+        ReflectionTestUtils.setField(index, "enabled", false);
+        assertTrue(index.page(SortBy.NEWEST, 0, 12).isEmpty());
+        assertTrue(index.count().isEmpty());
+    }
+
+    private static PublicPhotoKey key(Long id, LocalDateTime createdAt) {
+        return new PublicPhotoKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private static GalleryPhoto photo(Long id, boolean isPublic, LocalDateTime createdAt) {
+        GalleryPhoto photo = new GalleryPhoto(new User(), "gallery/photo-" + id + ".jpg");
+        photo.setId(id);
+        photo.setIsPublic(isPublic);
+        photo.setCreatedAt(createdAt);
+        return photo;
+    }
+}
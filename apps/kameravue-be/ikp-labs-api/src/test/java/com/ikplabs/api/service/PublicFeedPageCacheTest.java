@@ -0,0 +1,145 @@
+package com.ikplabs.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test untuk PublicFeedPageCache
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Hit / miss (PFPC-001)
+ *    - put lalu get dengan stamp sama → bytes JSON + gzip dari JSON yang sama
+ *
+ * 2. Invalidation (PFPC-002 to PFPC-004)
+ *    - Stamp lebih baru → seluruh generasi lama dibuang (cause=invalidated)
+ *    - Feed berubah antara stamp dan put → bytes tidak disimpan
+ *    - Request lama (stamp lama) tidak menghapus generasi baru
+ *
+ * 3. Metrics (PFPC-005)
+ *    - cache.gets per result dengan tag cache=publicFeedPages
+ *
+ * TOTAL TEST CASES: 5
+ */
+@DisplayName("PublicFeedPageCache Tests")
+public class PublicFeedPageCacheTest {
+
+    private static final String KEY = PublicFeedPageCache.key("newest", 0, 0, 12, null, true);
+    private static final byte[] JSON = "{\"photos\":[],\"currentPage\":0}".getBytes(StandardCharsets.UTF_8);
+
+    private PublicFeedPageCache cache;
+    private GalleryVersions versions;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        versions = new GalleryVersions();
+        registry = new SimpleMeterRegistry();
+        cache = new PublicFeedPageCache();
+        ReflectionTestUtils.setField(cache, "galleryVersions", versions);
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("PFPC-001: put then get - same JSON bytes and a gzip of them")
+    void putThenGet_ReturnsSerializedPage() throws IOException {
+        // Arrange
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        assertNull(cache.get(KEY, stamp));
+
+        // Act
+        cache.put(KEY, stamp, JSON);
+        PublicFeedPageCache.Page page = cache.get(KEY, cache.currentStamp());
+
+        // Assert
+        assertNotNull(page);
+        assertArrayEquals(JSON, page.getJson());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.getGzip()))) {
+            assertArrayEquals(JSON, in.readAllBytes());
+        }
+        assertEquals(JSON.length + page.getGzip().length, cache.weight());
+    }
+
+    @Test
+    @DisplayName("PFPC-002: get - newer feed version drops the whole generation")
+    void get_NewerStamp_ClearsAllPages() {
+        // Arrange
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        cache.put(KEY, stamp, JSON);
+        cache.put(PublicFeedPageCache.key("mostLiked", 0, 0, 12, null, true), stamp, JSON);
+
+        // Act: a like on a public photo committed
+        versions.photoChanged(100L, 1L, true);
+        PublicFeedPageCache.Page page = cache.get(KEY, cache.currentStamp());
+
+        // Assert
+        assertNull(page);
+        assertEquals(0, cache.size());
+        assertEquals(2.0, registry.get("cache.evictions").tag("cause", "invalidated").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("PFPC-003: put - feed changed after the stamp was read, nothing stored")
+    void put_StaleStamp_NotStored() {
+        // Arrange: stamp read before the controller queried the database
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        cache.get(KEY, stamp);
+
+        // Act: owner renamed while the page was being rendered
+        versions.globalChanged();
+        PublicFeedPageCache.Page page = cache.put(KEY, stamp, JSON);
+
+        // Assert: bytes still usable for this response, but not cached
+        assertArrayEquals(JSON, page.getJson());
+        assertEquals(0, cache.size());
+        assertNull(cache.get(KEY, cache.currentStamp()));
+    }
+
+    @Test
+    @DisplayName("PFPC-004: get - request with an older stamp keeps the newer generation")
+    void get_OlderStamp_DoesNotClearNewerGeneration() {
+        // Arrange
+        PublicFeedPageCache.Stamp oldStamp = cache.currentStamp();
+        versions.photoChanged(100L, 1L, true);
+        PublicFeedPageCache.Stamp newStamp = cache.currentStamp();
+        cache.get(KEY, newStamp);
+        cache.put(KEY, newStamp, JSON);
+
+        // Act
+        PublicFeedPageCache.Page stale = cache.get(KEY, oldStamp);
+
+        // Assert
+        assertNull(stale);
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(KEY, newStamp));
+    }
+
+    @Test
+    @DisplayName("PFPC-005: metrics - gets by result tagged publicFeedPages")
+    void metrics_HitAndMissCounted() {
+        // Arrange
+        PublicFeedPageCache.Stamp stamp = cache.currentStamp();
+        cache.get(KEY, stamp);
+        cache.put(KEY, stamp, JSON);
+
+        // Act
+        cache.get(KEY, stamp);
+        cache.get(KEY, stamp);
+
+        // Assert
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", "publicFeedPages", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "publicFeedPages", "result", "miss").functionCounter().count());
+        assertEquals(2.0 / 3.0, registry.get("cache.hit.ratio").tag("cache", "publicFeedPages").gauge().value(), 1e-9);
+    }
+}
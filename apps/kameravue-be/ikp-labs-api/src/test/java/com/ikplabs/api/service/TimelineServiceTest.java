@@ -0,0 +1,209 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.User;
+import com.ikplabs.api.entity.UserFollow;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.HomeTimelineRepository;
+import com.ikplabs.api.repository.UserFollowRepository;
+import com.ikplabs.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk TimelineService
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. Follow / Unfollow (TLST-001 to TLST-003)
+ *    - Follow → save + follower_count +1 + backfill
+ *    - Follow yourself / duplicate follow rejected
+ *    - Unfollow → follower_count -1 + followee photos removed, not following rejected
+ *
+ * 2. Fan-out on write (TLST-004, TLST-007)
+ *    - Normal account → one INSERT ... SELECT, large account → skipped
+ *    - Deleted photo → removed from every timeline
+ *
+ * 3. Timeline read (TLST-005 to TLST-006)
+ *    - No large followees → pushed IDs only
+ *    - Large followees → merged by ID descending, duplicates dropped, cut at limit
+ *
+ * TOTAL TEST CASES: 7
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@SuppressWarnings("null")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimelineService Tests")
+public class TimelineServiceTest {
+
+    @Mock
+    private UserFollowRepository userFollowRepository;
+
+    @Mock
+    private HomeTimelineRepository homeTimelineRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    private User reader;
+    private User author;
+
+    private static final Long READER_ID = 1L;
+    private static final Long AUTHOR_ID = 2L;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "fanOutMaxFollowers", 100L);
+        ReflectionTestUtils.setField(timelineService, "backfill", 20);
+
+        reader = new User();
+        reader.setId(READER_ID);
+        author = new User();
+        author.setId(AUTHOR_ID);
+    }
+
+    @Test
+    @DisplayName("TLST-001: follow - Should save follow, increment counter and backfill")
+    void follow_ShouldSaveIncrementAndBackfill() {
+        // ARRANGE
+        when(userRepository.findById(READER_ID)).thenReturn(Optional.of(reader));
+        when(userRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(author));
+        when(userFollowRepository.existsByFollowerIdAndFolloweeId(READER_ID, AUTHOR_ID)).thenReturn(false);
+
+        // ACT
+        timelineService.follow(READER_ID, AUTHOR_ID);
+
+        // ASSERT
+        verify(userFollowRepository, times(1)).save(any(UserFollow.class));
+        verify(userRepository, times(1)).adjustFollowerCount(AUTHOR_ID, 1);
+        verify(homeTimelineRepository, times(1)).backfill(READER_ID, AUTHOR_ID, 20);
+
+        System.out.println("✅ TLST-001 PASSED: Follow saved and timeline backfilled");
+    }
+
+    @Test
+    @DisplayName("TLST-002: follow - yourself or duplicate - Should throw and write nothing")
+    void follow_SelfOrDuplicate_ShouldThrow() {
+        // ARRANGE
+        when(userRepository.findById(READER_ID)).thenReturn(Optional.of(reader));
+        when(userRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(author));
+        when(userFollowRepository.existsByFollowerIdAndFolloweeId(READER_ID, AUTHOR_ID)).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class, () -> timelineService.follow(READER_ID, READER_ID));
+        assertThrows(IllegalStateException.class, () -> timelineService.follow(READER_ID, AUTHOR_ID));
+        verify(userFollowRepository, never()).save(any());
+        verify(userRepository, never()).adjustFollowerCount(anyLong(), anyLong());
+
+        System.out.println("✅ TLST-002 PASSED: Self and duplicate follow rejected");
+    }
+
+    @Test
+    @DisplayName("TLST-003: unfollow - Should decrement counter and remove followee photos")
+    void unfollow_ShouldDecrementAndRemove() {
+        // ARRANGE
+        when(userFollowRepository.deleteFollow(READER_ID, AUTHOR_ID)).thenReturn(1);
+        when(userFollowRepository.deleteFollow(READER_ID, 3L)).thenReturn(0);
+
+        // ACT
+        timelineService.unfollow(READER_ID, AUTHOR_ID);
+
+        // ASSERT
+        verify(userRepository, times(1)).adjustFollowerCount(AUTHOR_ID, -1);
+        verify(homeTimelineRepository, times(1)).removeFollowee(READER_ID, AUTHOR_ID);
+        assertThrows(IllegalArgumentException.class, () -> timelineService.unfollow(READER_ID, 3L));
+        verify(homeTimelineRepository, never()).removeFollowee(READER_ID, 3L);
+
+        System.out.println("✅ TLST-003 PASSED: Unfollow cleans counter and timeline");
+    }
+
+    @Test
+    @DisplayName("TLST-004: onPhotoPublished - Should fan out normal accounts and skip large ones")
+    void onPhotoPublished_ShouldSkipLargeAccounts() {
+        // ARRANGE
+        author.setFollowerCount(99L);
+        User celebrity = new User();
+        celebrity.setId(3L);
+        celebrity.setFollowerCount(100L);
+        when(userRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(author));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(celebrity));
+        when(homeTimelineRepository.fanOut(500L, AUTHOR_ID)).thenReturn(99);
+
+        // ACT & ASSERT
+        assertEquals(99, timelineService.onPhotoPublished(500L, AUTHOR_ID));
+        assertEquals(0, timelineService.onPhotoPublished(501L, 3L));
+        verify(homeTimelineRepository, never()).fanOut(eq(501L), anyLong());
+
+        System.out.println("✅ TLST-004 PASSED: Large accounts not fanned out");
+    }
+
+    @Test
+    @DisplayName("TLST-005: findTimelineIds - no large followees - Should return pushed IDs only")
+    void findTimelineIds_NoLargeFollowees_ShouldReturnPushedIds() {
+        // ARRANGE
+        when(homeTimelineRepository.findPhotoIdsBefore(READER_ID, Long.MAX_VALUE, 3)).thenReturn(List.of(30L, 20L, 10L));
+        when(userFollowRepository.findLargeFolloweeIds(READER_ID, 100L)).thenReturn(List.of());
+
+        // ACT
+        List<Long> ids = timelineService.findTimelineIds(READER_ID, Long.MAX_VALUE, 3);
+
+        // ASSERT
+        assertEquals(List.of(30L, 20L, 10L), ids);
+        verify(galleryPhotoRepository, never()).findPublicIdsByOwnersBefore(any(), anyLong(), anyInt());
+
+        System.out.println("✅ TLST-005 PASSED: Pushed timeline read without merge");
+    }
+
+    @Test
+    @DisplayName("TLST-006: findTimelineIds - large followees - Should merge by ID descending and cut at limit")
+    void findTimelineIds_LargeFollowees_ShouldMerge() {
+        // ARRANGE
+        when(homeTimelineRepository.findPhotoIdsBefore(READER_ID, 100L, 4)).thenReturn(List.of(90L, 60L, 40L, 10L));
+        when(userFollowRepository.findLargeFolloweeIds(READER_ID, 100L)).thenReturn(List.of(3L));
+        when(galleryPhotoRepository.findPublicIdsByOwnersBefore(List.of(3L), 100L, 4)).thenReturn(List.of(95L, 60L, 50L));
+
+        // ACT
+        List<Long> ids = timelineService.findTimelineIds(READER_ID, 100L, 4);
+
+        // ASSERT
+        assertEquals(List.of(95L, 90L, 60L, 50L), ids);
+
+        System.out.println("✅ TLST-006 PASSED: Large followees merged at read time");
+    }
+
+    @Test
+    @DisplayName("TLST-007: onPhotoDeleted - Should remove the photo from every timeline")
+    void onPhotoDeleted_ShouldRemovePhotoRows() {
+        // ARRANGE
+        when(homeTimelineRepository.removePhoto(501L)).thenReturn(3);
+
+        // ACT
+        int removed = timelineService.onPhotoDeleted(501L);
+
+        // ASSERT
+        assertEquals(3, removed);
+        verify(homeTimelineRepository, times(1)).removePhoto(501L);
+
+        System.out.println("✅ TLST-007 PASSED: Deleted photo removed from timelines");
+    }
+}
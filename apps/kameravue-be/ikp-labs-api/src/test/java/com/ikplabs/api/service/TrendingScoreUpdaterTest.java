@@ -0,0 +1,186 @@
+package com.ikplabs.api.service;
+
+import com.ikplabs.api.entity.TrendingCheckpoint;
+import com.ikplabs.api.repository.GalleryPhotoRepository;
+import com.ikplabs.api.repository.PhotoFavoriteRepository;
+import com.ikplabs.api.repository.PhotoLikeRepository;
+import com.ikplabs.api.repository.TrendingCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test untuk TrendingScoreUpdater
+ *
+ * YANG DI-TEST:
+ * =============
+ * 1. First run (TSUT-001)
+ *    - Tidak ada decay, semua like/favorite sampai max ID ditambahkan
+ *
+ * 2. Incremental run (TSUT-002 to TSUT-003)
+ *    - Decay factor = 0.5 ^ (elapsed / half-life), hanya ID setelah checkpoint
+ *    - Tidak ada engagement baru → hanya decay, checkpoint ID tidak berubah,
+ *      urutan trending sama → versi tidak naik
+ *
+ * 3. Commit lag + versions (TSUT-004)
+ *    - Batas atas hanya dari like yang lebih tua dari commit lag
+ *    - Foto yang jatuh ke 0 → versi trending naik, global tidak pernah
+ *
+ * TOTAL TEST CASES: 4
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrendingScoreUpdater Tests")
+public class TrendingScoreUpdaterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 16, 12, 0);
+
+    /**
+     * NOW minus the default commit lag (60 seconds)
+     */
+    private static final LocalDateTime SETTLED = NOW.minusSeconds(60);
+
+    @Mock
+    private GalleryPhotoRepository galleryPhotoRepository;
+
+    @Mock
+    private PhotoLikeRepository photoLikeRepository;
+
+    @Mock
+    private PhotoFavoriteRepository photoFavoriteRepository;
+
+    @Mock
+    private TrendingCheckpointRepository trendingCheckpointRepository;
+
+    @Mock
+    private GalleryVersions galleryVersions;
+
+    @InjectMocks
+    private TrendingScoreUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(updater, "halfLifeHours", 12.0);
+        ReflectionTestUtils.setField(updater, "likeWeight", 1.0);
+        ReflectionTestUtils.setField(updater, "favoriteWeight", 2.0);
+    }
+
+    @Test
+    @DisplayName("TSUT-001: updateScores - first run adds all engagement and skips decay")
+    void updateScores_FirstRun_NoDecay() {
+        // Arrange
+        when(trendingCheckpointRepository.findById(TrendingCheckpoint.SINGLETON_ID)).thenReturn(Optional.empty());
+        when(photoLikeRepository.findMaxIdCreatedBefore(0L, SETTLED)).thenReturn(40L);
+        when(photoFavoriteRepository.findMaxIdCreatedBefore(0L, SETTLED)).thenReturn(9L);
+        when(galleryPhotoRepository.addLikeHeat(eq(0L), eq(40L), eq(NOW), any(), eq(43200.0), eq(1.0))).thenReturn(5);
+        when(galleryPhotoRepository.addFavoriteHeat(eq(0L), eq(9L), eq(NOW), any(), eq(43200.0), eq(2.0))).thenReturn(3);
+
+        // Act
+        int heated = updater.updateScores(NOW);
+
+        // Assert
+        assertEquals(8, heated);
+        verify(galleryPhotoRepository, never()).decayHotScores(anyDouble(), anyDouble());
+        TrendingCheckpoint saved = captureSavedCheckpoint();
+        assertEquals(40L, saved.getLastLikeId());
+        assertEquals(9L, saved.getLastFavoriteId());
+        assertEquals(NOW, saved.getScoredAt());
+        verify(galleryVersions).trendingChanged();
+        verify(galleryVersions, never()).globalChanged();
+    }
+
+    @Test
+    @DisplayName("TSUT-002: updateScores - decays by elapsed half-lives and reads only rows after checkpoint")
+    void updateScores_Incremental_DecaysAndAddsNewRows() {
+        // Arrange: last run 6 hours ago = half a half-life
+        TrendingCheckpoint checkpoint = checkpoint(40L, 9L, NOW.minusHours(6));
+        when(trendingCheckpointRepository.findById(TrendingCheckpoint.SINGLETON_ID)).thenReturn(Optional.of(checkpoint));
+        when(photoLikeRepository.findMaxIdCreatedBefore(40L, SETTLED)).thenReturn(55L);
+        when(photoFavoriteRepository.findMaxIdCreatedBefore(9L, SETTLED)).thenReturn(null);
+        when(galleryPhotoRepository.addLikeHeat(eq(40L), eq(55L), eq(NOW), eq(NOW.minusHours(120)), eq(43200.0), eq(1.0)))
+                .thenReturn(2);
+
+        // Act
+        int heated = updater.updateScores(NOW);
+
+        // Assert
+        assertEquals(2, heated);
+        verify(galleryPhotoRepository).decayHotScores(AdditionalMatchers.eq(Math.sqrt(0.5), 1e-12), eq(TrendingScoreUpdater.SCORE_FLOOR));
+        verify(galleryPhotoRepository, never()).addFavoriteHeat(anyLong(), anyLong(), any(), any(), anyDouble(), anyDouble());
+        TrendingCheckpoint saved = captureSavedCheckpoint();
+        assertEquals(55L, saved.getLastLikeId());
+        assertEquals(9L, saved.getLastFavoriteId());
+        verify(galleryVersions).trendingChanged();
+    }
+
+    @Test
+    @DisplayName("TSUT-003: updateScores - no new engagement only decays and moves scoredAt")
+    void updateScores_NoNewEngagement_OnlyDecays() {
+        // Arrange
+        TrendingCheckpoint checkpoint = checkpoint(40L, 9L, NOW.minusHours(12));
+        when(trendingCheckpointRepository.findById(TrendingCheckpoint.SINGLETON_ID)).thenReturn(Optional.of(checkpoint));
+        when(photoLikeRepository.findMaxIdCreatedBefore(40L, SETTLED)).thenReturn(null);
+        when(photoFavoriteRepository.findMaxIdCreatedBefore(9L, SETTLED)).thenReturn(null);
+
+        // Act
+        int heated = updater.updateScores(NOW);
+
+        // Assert
+        assertEquals(0, heated);
+        verify(galleryPhotoRepository).decayHotScores(AdditionalMatchers.eq(0.5, 1e-12), anyDouble());
+        verify(galleryPhotoRepository, never()).addLikeHeat(anyLong(), anyLong(), any(), any(), anyDouble(), anyDouble());
+        verify(galleryPhotoRepository, never()).addFavoriteHeat(anyLong(), anyLong(), any(), any(), anyDouble(), anyDouble());
+        TrendingCheckpoint saved = captureSavedCheckpoint();
+        assertEquals(40L, saved.getLastLikeId());
+        assertEquals(NOW, saved.getScoredAt());
+        verifyNoInteractions(galleryVersions); // uniform decay keeps the trending order
+    }
+
+    @Test
+    @DisplayName("TSUT-004: updateScores - upper bound only from settled rows, cooled photos bump trending only")
+    void updateScores_CommitLag_CooledBumpsTrending() {
+        // Arrange: 5 minutes since the last run, one photo cooled to 0, no settled likes yet
+        ReflectionTestUtils.setField(updater, "commitLagSeconds", 120L);
+        TrendingCheckpoint checkpoint = checkpoint(40L, 9L, NOW.minusMinutes(5));
+        when(trendingCheckpointRepository.findById(TrendingCheckpoint.SINGLETON_ID)).thenReturn(Optional.of(checkpoint));
+        when(galleryPhotoRepository.decayHotScores(anyDouble(), anyDouble())).thenReturn(1L);
+        when(photoLikeRepository.findMaxIdCreatedBefore(40L, NOW.minusSeconds(120))).thenReturn(null);
+        when(photoFavoriteRepository.findMaxIdCreatedBefore(9L, NOW.minusSeconds(120))).thenReturn(null);
+
+        // Act
+        int heated = updater.updateScores(NOW);
+
+        // Assert: checkpoint stays, likes younger than the lag are read next run
+        assertEquals(0, heated);
+        assertEquals(40L, captureSavedCheckpoint().getLastLikeId());
+        verify(galleryVersions).trendingChanged();
+        verify(galleryVersions, never()).globalChanged();
+    }
+
+    private TrendingCheckpoint captureSavedCheckpoint() {
+        ArgumentCaptor<TrendingCheckpoint> captor = ArgumentCaptor.forClass(TrendingCheckpoint.class);
+        verify(trendingCheckpointRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static TrendingCheckpoint checkpoint(long lastLikeId, long lastFavoriteId, LocalDateTime scoredAt) {
+        TrendingCheckpoint checkpoint = new TrendingCheckpoint();
+        checkpoint.setLastLikeId(lastLikeId);
+        checkpoint.setLastFavoriteId(lastFavoriteId);
+        checkpoint.setScoredAt(scoredAt);
+        return checkpoint;
+    }
+}
@@ -71,6 +71,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    /**
+     * @Mock - Fake GalleryVersions (ETag counters)
+     */
+    @Mock
+    private GalleryVersions galleryVersions;
+
     /**
      * @InjectMocks - Real UserService (yang mau kita test)
      * Mockito akan inject mock objects ke dalam userService
@@ -366,6 +372,7 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(galleryVersions, times(1)).globalChanged(); // owner name shown in every feed
 
         System.out.println("✅ Test 9 PASSED: updateUser with valid data");
     }
@@ -455,6 +462,7 @@ public class UserServiceTest {
 
         // ASSERT
         verify(userRepository, times(1)).existsById(userId);
+        verify(userRepository, times(1)).releaseFollowsOf(userId);
         verify(userRepository, times(1)).deleteById(userId);
 
         System.out.println("✅ Test 12 PASSED: deleteUser with existing user");
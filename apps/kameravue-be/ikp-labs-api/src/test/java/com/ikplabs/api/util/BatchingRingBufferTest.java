@@ -0,0 +1,192 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchingRingBuffer
+ *
+ * Tests that every consumer sees every event exactly once in per-producer order
+ * while many producers wrap a small ring, that events arrive in batches, that a
+ * failing handler does not stop its consumer, and capacity rounding.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("BatchingRingBuffer Tests")
+class BatchingRingBufferTest {
+
+    /**
+     * Mutable slot, like GalleryEvent
+     */
+    private static final class Slot {
+        int producer;
+        long value;
+    }
+
+    @Test
+    @DisplayName("Every consumer should see every event once, in order per producer")
+    void publish_ManyProducersSmallRing_EveryConsumerSeesAll() throws Exception {
+        // Given: 64 slots, 4 producers × 20,000 events → the ring wraps over a thousand times
+        int producers = 4;
+        int perProducer = 20_000;
+        BatchingRingBuffer<Slot> ring = new BatchingRingBuffer<>(64, Slot::new);
+        OrderCheckingConsumer first = new OrderCheckingConsumer(producers);
+        OrderCheckingConsumer second = new OrderCheckingConsumer(producers);
+        ring.addConsumer("test-first", first::onBatch);
+        ring.addConsumer("test-second", second::onBatch);
+        ring.start();
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (long value = 1; value <= perProducer; value++) {
+                    long v = value;
+                    ring.publish(slot -> {
+                        slot.producer = producer;
+                        slot.value = v;
+                    });
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ring.stop(10_000);
+
+        // Then
+        for (OrderCheckingConsumer consumer : List.of(first, second)) {
+            assertEquals((long) producers * perProducer, consumer.events);
+            assertEquals(0, consumer.outOfOrder, "events out of order");
+            assertTrue(consumer.batches <= consumer.events);
+        }
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    @DisplayName("Events published while the consumer is busy should arrive as one batch")
+    void publish_WhileConsumerBusy_DeliveredAsBatch() throws Exception {
+        // Given: the handler blocks on its first batch until 100 more events are published
+        BatchingRingBuffer<Slot> ring = new BatchingRingBuffer<>(256, Slot::new);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        ring.addConsumer("test-batch", batch -> {
+            batchSizes.add(batch.size());
+            awaitQuietly(release);
+        });
+        ring.start();
+
+        // When
+        ring.publish(slot -> slot.value = 0);
+        while (batchSizes.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        for (int i = 1; i <= 100; i++) {
+            long v = i;
+            ring.publish(slot -> slot.value = v);
+        }
+        release.countDown();
+        ring.stop(10_000);
+
+        // Then
+        assertEquals(List.of(1, 100), batchSizes);
+    }
+
+    @Test
+    @DisplayName("A throwing handler should skip that batch and keep consuming")
+    void onBatch_HandlerThrows_ConsumerContinues() throws Exception {
+        // Given
+        BatchingRingBuffer<Slot> ring = new BatchingRingBuffer<>(16, Slot::new);
+        AtomicLong sum = new AtomicLong();
+        ring.addConsumer("test-failing", batch -> {
+            for (Slot slot : batch) {
+                if (slot.value == 1) {
+                    throw new IllegalStateException("boom");
+                }
+                sum.addAndGet(slot.value);
+            }
+        });
+        ring.start();
+
+        // When: first event fails alone, the rest arrive after it
+        ring.publish(slot -> slot.value = 1);
+        while (ring.backlog() > 0) {
+            Thread.onSpinWait();
+        }
+        for (int i = 0; i < 50; i++) {
+            ring.publish(slot -> slot.value = 2);
+        }
+        ring.stop(10_000);
+
+        // Then
+        assertEquals(100, sum.get());
+    }
+
+    @Test
+    @DisplayName("Capacity should round up to a power of two and reject invalid sizes")
+    void constructor_Capacity_RoundedOrRejected() {
+        assertEquals(2, new BatchingRingBuffer<>(1, Slot::new).capacity());
+        assertEquals(8, new BatchingRingBuffer<>(8, Slot::new).capacity());
+        assertEquals(16, new BatchingRingBuffer<>(9, Slot::new).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BatchingRingBuffer<>(0, Slot::new));
+    }
+
+    @Test
+    @DisplayName("Consumers cannot be added after start")
+    void addConsumer_AfterStart_Throws() throws Exception {
+        BatchingRingBuffer<Slot> ring = new BatchingRingBuffer<>(8, Slot::new);
+        ring.start();
+        assertThrows(IllegalStateException.class, () -> ring.addConsumer("late", batch -> { }));
+        ring.stop(1000);
+    }
+
+    /**
+     * Counts events and checks each producer's values arrive as 1, 2, 3, ...
+     * (called from one consumer thread only)
+     */
+    private static final class OrderCheckingConsumer {
+
+        private final long[] lastValue;
+        private volatile long events;
+        private volatile long batches;
+        private volatile long outOfOrder;
+
+        OrderCheckingConsumer(int producers) {
+            this.lastValue = new long[producers];
+        }
+
+        void onBatch(List<Slot> batch) {
+            for (Slot slot : batch) {
+                if (slot.value != lastValue[slot.producer] + 1) {
+                    outOfOrder++;
+                }
+                lastValue[slot.producer] = slot.value;
+            }
+            events += batch.size();
+            batches++;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter
+ *
+ * Tests that added IDs are never reported missing, that the false positive
+ * rate stays near the target at the sized capacity, and argument checks.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Added IDs should always be reported as possibly present")
+    void mightContain_AddedIds_NoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id * 7919);
+        }
+
+        // Then
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id * 7919), "false negative for " + id * 7919);
+        }
+    }
+
+    @Test
+    @DisplayName("False positive rate should stay near the target at the expected size")
+    void mightContain_FalsePositiveRate_NearTarget() {
+        // Given: sequential IDs, like photo IDs from a sequence
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (long id = 1; id <= 20_000; id++) {
+            filter.add(id);
+        }
+
+        // When
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (long id = 1_000_000; id < 1_000_000 + probes; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Then: target 1%, allow up to 2%
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+        assertTrue(filter.hashCount() >= 1);
+    }
+
+    @Test
+    @DisplayName("Empty filter should report nothing and have a small footprint")
+    void mightContain_EmptyFilter_False() {
+        // Given
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        // Then
+        assertFalse(filter.mightContain(42L));
+        assertTrue(filter.sizeInBytes() <= 64);
+    }
+
+    @Test
+    @DisplayName("Out of range false positive probability should throw")
+    void constructor_InvalidFpp_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, Double.NaN));
+    }
+}
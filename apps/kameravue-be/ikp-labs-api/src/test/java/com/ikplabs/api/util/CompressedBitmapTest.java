@@ -0,0 +1,136 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompressedBitmap
+ *
+ * Tests both container kinds (sparse char[] and dense long[] chunks) and
+ * the switch between them, immutability of with/without, and and/andNot/topBefore
+ * against a TreeSet model on random data spanning several 65.536-ID chunks.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("CompressedBitmap Tests")
+class CompressedBitmapTest {
+
+    @Test
+    @DisplayName("with/without should return new bitmaps and leave the original untouched")
+    void withWithout_ShouldBeImmutable() {
+        // Given
+        CompressedBitmap original = CompressedBitmap.of(1L, 70_000L);
+
+        // When
+        CompressedBitmap added = original.with(5L);
+        CompressedBitmap removed = original.without(70_000L);
+
+        // Then
+        assertEquals(2, original.cardinality());
+        assertTrue(added.contains(5L));
+        assertFalse(original.contains(5L));
+        assertFalse(removed.contains(70_000L));
+        assertTrue(original.contains(70_000L));
+        assertSame(original, original.with(1L));
+        assertSame(original, original.without(2L));
+    }
+
+    @Test
+    @DisplayName("Chunk growing past 4096 IDs and shrinking back should keep exact contents")
+    void denseChunk_ShouldSwitchContainersTransparently() {
+        // Given: every even ID of the first chunk (32.768 IDs → dense container)
+        CompressedBitmap.Builder builder = CompressedBitmap.builder();
+        for (long id = 0; id < 65_536; id += 2) {
+            builder.add(id);
+        }
+        CompressedBitmap dense = builder.build();
+        CompressedBitmap sparse = CompressedBitmap.of(2L, 3L, 4L, 65_534L, 65_536L);
+
+        // When
+        CompressedBitmap both = dense.and(sparse);
+        CompressedBitmap rest = sparse.andNot(dense);
+
+        // Then
+        assertEquals(32_768, dense.cardinality());
+        assertArrayEquals(new long[] {65_534L, 4L, 2L}, both.topBefore(Long.MAX_VALUE, 10));
+        assertArrayEquals(new long[] {65_536L, 3L}, rest.topBefore(Long.MAX_VALUE, 10));
+        assertArrayEquals(new long[] {98L, 96L}, dense.topBefore(100L, 2));
+    }
+
+    @Test
+    @DisplayName("Operations should match a TreeSet model on random data")
+    void operations_ShouldMatchTreeSetModel() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            // Given: sparse and dense sets over 3-4 chunks
+            int size = round % 3 == 0 ? 20_000 : 300;
+            long range = round % 2 == 0 ? 200_000 : 30_000;
+            TreeSet<Long> modelA = new TreeSet<>();
+            TreeSet<Long> modelB = new TreeSet<>();
+            long[] ids = new long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = (long) (random.nextDouble() * range);
+                modelA.add(ids[i]);
+            }
+            CompressedBitmap a = CompressedBitmap.of(ids);
+            CompressedBitmap b = CompressedBitmap.EMPTY;
+            for (int i = 0; i < size / 2; i++) {
+                long id = (long) (random.nextDouble() * range);
+                b = b.with(id);
+                modelB.add(id);
+            }
+            for (int i = 0; i < 50; i++) {
+                long id = (long) (random.nextDouble() * range);
+                a = a.without(id);
+                modelA.remove(id);
+            }
+
+            // Then
+            TreeSet<Long> and = new TreeSet<>(modelA);
+            and.retainAll(modelB);
+            TreeSet<Long> andNot = new TreeSet<>(modelA);
+            andNot.removeAll(modelB);
+            assertMatches(modelA, a);
+            assertMatches(and, a.and(b));
+            assertMatches(and, b.and(a));
+            assertMatches(andNot, a.andNot(b));
+
+            long beforeId = (long) (random.nextDouble() * range);
+            List<Long> expected = new ArrayList<>();
+            for (Iterator<Long> it = modelA.headSet(beforeId, false).descendingIterator(); it.hasNext() && expected.size() < 13; ) {
+                expected.add(it.next());
+            }
+            assertEquals(expected, toList(a.topBefore(beforeId, 13)));
+        }
+    }
+
+    @Test
+    @DisplayName("Negative or descending IDs should be rejected")
+    void invalidIds_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.EMPTY.with(-1L));
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.builder().add(5L).add(4L));
+        assertFalse(CompressedBitmap.of(1L).contains(-1L));
+    }
+
+    private static void assertMatches(TreeSet<Long> expected, CompressedBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertEquals(new ArrayList<>(expected.descendingSet()), toList(actual.topBefore(Long.MAX_VALUE, expected.size() + 1)));
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ikplabs.api.util;
+
+import com.ikplabs.api.enums.SortBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GalleryCursor
+ *
+ * Tests encode/decode round trip of keyset cursors and rejection of
+ * malformed or mismatched cursors.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("GalleryCursor Tests")
+class GalleryCursorTest {
+
+    @Test
+    @DisplayName("Time-based cursor should round trip created_at and id")
+    void encodeDecode_Newest_ShouldRoundTrip() {
+        // Given: last row of a newest-first page
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 16, 8, 30, 15, 123456000);
+
+        // When: Encode then decode
+        String token = GalleryCursor.encode(SortBy.NEWEST, createdAt, 42L);
+        GalleryCursor cursor = GalleryCursor.decode(token, SortBy.NEWEST);
+
+        // Then: Same position
+        assertEquals(SortBy.NEWEST, cursor.getSortBy());
+        assertEquals(createdAt, cursor.getSortKey());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Count-based cursor should round trip count and id")
+    void encodeDecode_MostFavorited_ShouldRoundTrip() {
+        // When: Encode then decode
+        String token = GalleryCursor.encode(SortBy.MOST_FAVORITED, 7L, 9L);
+        GalleryCursor cursor = GalleryCursor.decode(token, SortBy.MOST_FAVORITED);
+
+        // Then: Count decoded as Long
+        assertEquals(7L, cursor.getSortKey());
+        assertEquals(9L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Score-based cursor should round trip hot score and id")
+    void encodeDecode_Trending_ShouldRoundTrip() {
+        // When: Encode then decode
+        String token = GalleryCursor.encode(SortBy.TRENDING, 3.0517578125E-5, 11L);
+        GalleryCursor cursor = GalleryCursor.decode(token, SortBy.TRENDING);
+
+        // Then: Score decoded as Double, bit-for-bit
+        assertEquals(3.0517578125E-5, cursor.getSortKey());
+        assertEquals(11L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Encoded cursor should be URL-safe and opaque")
+    void encode_ShouldBeUrlSafe() {
+        // When: Encode a cursor containing ':' and '.' characters
+        String token = GalleryCursor.encode(SortBy.OLDEST, LocalDateTime.of(2026, 1, 1, 0, 0, 1), 1L);
+
+        // Then: Only Base64 URL-safe characters
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    @DisplayName("Null or blank cursor should mean first page")
+    void decode_Blank_ShouldReturnNull() {
+        assertNull(GalleryCursor.decode(null, SortBy.NEWEST));
+        assertNull(GalleryCursor.decode("", SortBy.NEWEST));
+    }
+
+    @Test
+    @DisplayName("Cursor issued for another sortBy should be rejected")
+    void decode_SortMismatch_ShouldThrow() {
+        String token = GalleryCursor.encode(SortBy.MOST_LIKED, 3L, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> GalleryCursor.decode(token, SortBy.NEWEST));
+    }
+
+    @Test
+    @DisplayName("Tampered cursor should be rejected")
+    void decode_Malformed_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> GalleryCursor.decode("%%%", SortBy.NEWEST));
+        assertThrows(IllegalArgumentException.class, () -> GalleryCursor.decode("djF8bmV3ZXN0", SortBy.NEWEST)); // "v1|newest"
+        String badKey = GalleryCursor.encode(SortBy.MOST_LIKED, "abc", 1L);
+        assertThrows(IllegalArgumentException.class, () -> GalleryCursor.decode(badKey, SortBy.MOST_LIKED));
+    }
+}
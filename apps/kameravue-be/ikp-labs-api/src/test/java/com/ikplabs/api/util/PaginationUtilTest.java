@@ -2,12 +2,14 @@ package com.ikplabs.api.util;
 
 import com.ikplabs.api.dto.GalleryListResponse;
 import com.ikplabs.api.dto.GalleryPhotoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -203,6 +205,94 @@ class PaginationUtilTest {
 
     // ========== HELPER METHODS ==========
 
+    @Test
+    @DisplayName("buildCursorResponse should expose nextCursor and derive hasNext from it")
+    void buildCursorResponse_WithNextCursor_ShouldSetHasNext() {
+        // Given: 12 photos in a slice, more to come
+        List<GalleryPhotoResponse> photos = createMockPhotos(12);
+
+        // When: Build cursor response
+        GalleryListResponse response = PaginationUtil.buildCursorResponse(photos, 48, 12, "abc", true);
+
+        // Then: hasNext follows nextCursor, no page numbers in cursor mode
+        assertEquals("abc", response.getNextCursor());
+        assertTrue(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        assertEquals(0, response.getCurrentPage());
+        assertEquals(4, response.getTotalPages());
+        assertEquals(48, response.getTotalPhotos());
+    }
+
+    @Test
+    @DisplayName("buildCursorResponse on last slice should have no nextCursor")
+    void buildCursorResponse_LastSlice_ShouldHaveNoNext() {
+        // Given: last slice of a cursor walk
+        List<GalleryPhotoResponse> photos = createMockPhotos(3);
+
+        // When: Build cursor response without next cursor
+        GalleryListResponse response = PaginationUtil.buildCursorResponse(photos, 15, 12, null, true);
+
+        // Then: No next slice
+        assertNull(response.getNextCursor());
+        assertFalse(response.isHasNext());
+    }
+
+    @Test
+    @DisplayName("buildLookAheadResponse without known total should omit totals from JSON")
+    void buildLookAheadResponse_UnknownTotal_ShouldOmitTotalsFromJson() throws Exception {
+        // Given: page 1, look-ahead row found, no cheap total available
+        List<GalleryPhotoResponse> photos = createMockPhotos(2);
+
+        // When: Build count-free response
+        GalleryListResponse response = PaginationUtil.buildLookAheadResponse(photos, 1, 2, true, OptionalLong.empty());
+
+        // Then: Navigation from look-ahead, totals unknown and not serialized
+        assertTrue(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        assertEquals(GalleryListResponse.UNKNOWN_TOTAL, response.getTotalPhotos());
+        assertEquals(GalleryListResponse.UNKNOWN_TOTAL, response.getTotalPages());
+
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(response);
+        assertFalse(json.contains("totalPhotos"), json);
+        assertFalse(json.contains("totalPages"), json);
+        assertTrue(json.contains("\"hasNext\":true"), json);
+    }
+
+    @Test
+    @DisplayName("buildLookAheadResponse with known total should fill totals")
+    void buildLookAheadResponse_KnownTotal_ShouldFillTotals() {
+        // Given: total served from memory (PublicFeedIndex)
+        List<GalleryPhotoResponse> photos = createMockPhotos(10);
+
+        // When: Build count-free response
+        GalleryListResponse response = PaginationUtil.buildLookAheadResponse(photos, 0, 10, true, OptionalLong.of(25));
+
+        // Then: Totals present, hasNext still from look-ahead
+        assertEquals(25, response.getTotalPhotos());
+        assertEquals(3, response.getTotalPages());
+        assertTrue(response.isHasNext());
+        assertFalse(response.isHasPrevious());
+    }
+
+    @Test
+    @DisplayName("withoutLookAhead should drop only the extra row")
+    void withoutLookAhead_ShouldDropOnlyExtraRow() {
+        assertEquals(List.of(1, 2), PaginationUtil.withoutLookAhead(List.of(1, 2, 3), 2));
+        assertEquals(List.of(1, 2), PaginationUtil.withoutLookAhead(List.of(1, 2), 2));
+        assertEquals(List.of(1), PaginationUtil.withoutLookAhead(List.of(1), 2));
+    }
+
+    @Test
+    @DisplayName("LookAheadPageRequest should keep page offset and fetch size + 1")
+    void lookAheadPageRequest_ShouldKeepOffsetAndFetchOneMore() {
+        LookAheadPageRequest pageable = new LookAheadPageRequest(2, 12);
+
+        assertEquals(24, pageable.getOffset());
+        assertEquals(13, pageable.getPageSize());
+        assertEquals(12, pageable.getVisibleSize());
+        assertThrows(IllegalArgumentException.class, () -> new LookAheadPageRequest(0, 0));
+    }
+
     /**
      * Create mock GalleryPhotoResponse list for testing
      */
@@ -0,0 +1,50 @@
+package com.ikplabs.api.util;
+
+import com.ikplabs.api.enums.SortBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchCursor
+ *
+ * Tests encode/decode round trip of search cursors (rank must survive
+ * bit-for-bit) and rejection of malformed cursors.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("SearchCursor Tests")
+class SearchCursorTest {
+
+    @Test
+    @DisplayName("Cursor should round trip rank bit-for-bit and id")
+    void encodeDecode_ShouldRoundTrip() {
+        // Given: a ts_rank_cd value that is not exactly representable in decimal
+        float rank = 0.1f / 3;
+
+        // When: Encode then decode
+        SearchCursor cursor = SearchCursor.decode(SearchCursor.encode(rank, 42L));
+
+        // Then: Same position
+        assertEquals(Float.floatToIntBits(rank), Float.floatToIntBits(cursor.getRank()));
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Null or blank cursor should mean first page")
+    void decode_Blank_ShouldReturnNull() {
+        assertNull(SearchCursor.decode(null));
+        assertNull(SearchCursor.decode("  "));
+    }
+
+    @Test
+    @DisplayName("Malformed or feed cursor should be rejected")
+    void decode_Malformed_ShouldThrow() {
+        String feedCursor = GalleryCursor.encode(SortBy.TRENDING, 1.5, 3L);
+
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not-a-cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(feedCursor));
+    }
+}
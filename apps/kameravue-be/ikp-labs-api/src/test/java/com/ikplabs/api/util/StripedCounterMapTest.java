@@ -0,0 +1,179 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StripedCounterMap
+ *
+ * Tests priming (first value wins), adds to loaded/unknown keys, drift
+ * correction vs. writes newer than the database read (with the write slack), the size bound,
+ * and that concurrent likes on one hot key end in the exact count.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("StripedCounterMap Tests")
+class StripedCounterMapTest {
+
+    @Test
+    @DisplayName("Unknown key should read as null and ignore adds until primed")
+    void add_UnknownKey_Ignored() {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+
+        // When
+        boolean added = map.add(1L, 1, 0);
+
+        // Then
+        assertFalse(added);
+        assertNull(map.get(1L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("Prime should keep the first loaded value, adds apply on top")
+    void prime_FirstValueWins_AddsApply() {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+        map.prime(1L, 5, 2);
+
+        // When
+        StripedCounterMap.Counts again = map.prime(1L, 99, 99); // slower loader lost the race
+        map.add(1L, 1, 0);
+        map.add(1L, 0, -1);
+
+        // Then
+        assertEquals(5L, again.getLikes());
+        assertEquals(6L, map.get(1L).getLikes());
+        assertEquals(1L, map.get(1L).getFavorites());
+    }
+
+    @Test
+    @DisplayName("Counts should never be read as negative")
+    void get_NeverNegative() {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+        map.prime(1L, 0, 0);
+
+        // When
+        map.add(1L, -1, -2);
+
+        // Then
+        assertEquals(0L, map.get(1L).getLikes());
+        assertEquals(0L, map.get(1L).getFavorites());
+    }
+
+    @Test
+    @DisplayName("Correct should fix drift, but skip keys written after the database read started")
+    void correct_SkipsKeysWrittenAfterRead() {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+        map.prime(1L, 5, 0);
+        map.prime(2L, 5, 0);
+        long readStart = System.nanoTime();
+        map.add(2L, 1, 0); // like committed while the reconcile query ran
+
+        // When
+        boolean fixed = map.correct(1L, 7, 1, readStart);
+        boolean skipped = map.correct(2L, 5, 0, readStart);
+
+        // Then
+        assertTrue(fixed);
+        assertEquals(7L, map.get(1L).getLikes());
+        assertEquals(1L, map.get(1L).getFavorites());
+        assertFalse(skipped);
+        assertEquals(6L, map.get(2L).getLikes());
+        assertFalse(map.correct(1L, 7, 1, System.nanoTime())); // already right
+    }
+
+    @Test
+    @DisplayName("Correct should treat a key as written up to one slack after its recorded write")
+    void correct_WriteSlack_SkipsRecentAndFixesOld() {
+        // Given: the second like lands within the slack, so lastWrite keeps the first one's time
+        StripedCounterMap map = new StripedCounterMap(10);
+        map.prime(1L, 5, 0);
+        map.add(1L, 1, 0);
+        long readStart = System.nanoTime();
+        map.add(1L, 1, 0);
+
+        // When
+        boolean skipped = map.correct(1L, 6, 0, readStart);
+        boolean fixed = map.correct(1L, 6, 0, System.nanoTime() + 2_000_000_000L); // read started 2 s later
+
+        // Then
+        assertFalse(skipped);
+        assertTrue(fixed);
+        assertEquals(6L, map.get(1L).getLikes());
+    }
+
+    @Test
+    @DisplayName("Map over its bound should evict the coldest keys down to 90%")
+    void prime_OverBound_EvictsColdest() {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+        for (long id = 1; id <= 10; id++) {
+            map.prime(id, id, 0);
+        }
+
+        // When
+        map.prime(11L, 11, 0);
+
+        // Then
+        assertEquals(9, map.size());
+        assertEquals(2L, map.evictions());
+        assertNotNull(map.get(11L)); // newest key stays
+    }
+
+    @Test
+    @DisplayName("Constructor should reject a bound below 1")
+    void constructor_InvalidBound_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedCounterMap(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent likes and unlikes on one hot key should end in the exact count")
+    void add_ConcurrentHotKey_ExactCount() throws Exception {
+        // Given
+        StripedCounterMap map = new StripedCounterMap(10);
+        map.prime(1L, 1000, 0);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When: every thread likes perThread times and unlikes perThread / 4 times
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    map.add(1L, 1, 0);
+                    if (i % 4 == 0) {
+                        map.add(1L, -1, 0);
+                    }
+                    map.get(1L);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        assertEquals(1000L + threads * (perThread - perThread / 4), map.get(1L).getLikes());
+    }
+}
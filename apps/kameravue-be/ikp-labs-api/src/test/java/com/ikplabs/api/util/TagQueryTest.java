@@ -0,0 +1,55 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TagQuery
+ *
+ * Tests both syntaxes (AND/NOT keywords and "-tag"), tag normalization,
+ * and rejection of queries the bitmap index cannot answer as one intersection.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("TagQuery Tests")
+class TagQueryTest {
+
+    @Test
+    @DisplayName("Keyword and minus syntax should parse to the same normalized query")
+    void parse_KeywordAndMinusSyntax_ShouldMatch() {
+        // When
+        TagQuery keywords = TagQuery.parse("Sunset AND beach NOT night");
+        TagQuery minus = TagQuery.parse("  sunset, #BEACH -night beach ");
+
+        // Then
+        assertEquals(List.of("sunset", "beach"), keywords.getInclude());
+        assertEquals(List.of("night"), keywords.getExclude());
+        assertEquals(keywords.getInclude(), minus.getInclude());
+        assertEquals(keywords.getExclude(), minus.getExclude());
+    }
+
+    @Test
+    @DisplayName("OR, only-NOT, dangling NOT and invalid tags should be rejected")
+    void parse_Unsupported_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("sunset OR beach"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("NOT night"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("sunset NOT"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("sunset pantai!"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("a b c d e f g h i j k"));
+    }
+
+    @Test
+    @DisplayName("normalizeTag should lowercase and reject bad characters or length")
+    void normalizeTag_ShouldLowercaseAndValidate() {
+        assertEquals("golden-hour", TagQuery.normalizeTag(" Golden-Hour "));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.normalizeTag("-night"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.normalizeTag("x".repeat(31)));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.normalizeTag(null));
+    }
+}
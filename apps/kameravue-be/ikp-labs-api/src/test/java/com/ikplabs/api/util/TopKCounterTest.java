@@ -0,0 +1,182 @@
+package com.ikplabs.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopKCounter
+ *
+ * Tests ordering (count DESC, key DESC), entry/exit at the top-K boundary,
+ * bulk build, and that concurrent likes end in the exact counts and the
+ * same top-K a full recount would produce.
+ *
+ * @author Isnendy Ankp
+ * @since 2026-10-16
+ */
+@DisplayName("TopKCounter Tests")
+class TopKCounterTest {
+
+    @Test
+    @DisplayName("Top should be ordered by count desc, then key desc")
+    void top_ShouldOrderByCountThenKey() {
+        // Given
+        TopKCounter counter = new TopKCounter(5);
+        counter.add(10L, 3);
+        counter.add(11L, 5);
+        counter.add(12L, 3);
+
+        // When
+        List<TopKCounter.Entry> top = counter.top(5);
+
+        // Then
+        assertEquals(List.of(11L, 12L, 10L), keys(top));
+        assertEquals(5L, top.get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Key outside a full top-K should enter once it ranks above the last entry")
+    void add_FullSnapshot_NewKeyEntersAboveBoundary() {
+        // Given: K = 2, full with (1 → 5), (2 → 3)
+        TopKCounter counter = new TopKCounter(2);
+        counter.add(1L, 5);
+        counter.add(2L, 3);
+        counter.add(3L, 3); // ties with key 2 but ranks higher (key 3 > 2)
+
+        // Then
+        assertEquals(List.of(1L, 3L), keys(counter.top(2)));
+
+        // When: key 2 climbs above key 1
+        counter.add(2L, 4);
+
+        // Then
+        assertEquals(List.of(2L, 1L), keys(counter.top(2)));
+        assertEquals(7L, counter.count(2L));
+    }
+
+    @Test
+    @DisplayName("Member dropping below the boundary should be replaced by the best outsider")
+    void add_MemberDropsBelowBoundary_ShouldRescan() {
+        // Given: K = 2, outsider key 3 has 4
+        TopKCounter counter = new TopKCounter(2);
+        counter.add(1L, 10);
+        counter.add(2L, 5);
+        counter.add(3L, 4);
+        assertEquals(List.of(1L, 2L), keys(counter.top(2)));
+
+        // When: key 2 loses two likes → 3
+        counter.add(2L, -2);
+
+        // Then: key 3 (4) now outranks key 2 (3)
+        assertEquals(List.of(1L, 3L), keys(counter.top(2)));
+    }
+
+    @Test
+    @DisplayName("Counter reaching zero or removed key should leave the top-K")
+    void addAndRemove_ShouldDropKeys() {
+        // Given
+        TopKCounter counter = new TopKCounter(3);
+        counter.add(1L, 1);
+        counter.add(2L, 2);
+        counter.add(4L, -1); // unknown key: ignored
+
+        // When
+        counter.add(1L, -1);
+        counter.remove(2L);
+
+        // Then
+        assertTrue(counter.top(3).isEmpty());
+        assertEquals(0, counter.size());
+        assertEquals(0L, counter.count(4L));
+    }
+
+    @Test
+    @DisplayName("Bulk build should keep only the K best positive counts")
+    void of_ShouldBuildSnapshot() {
+        // Given
+        Map<Long, Long> initial = new HashMap<>();
+        initial.put(1L, 7L);
+        initial.put(2L, 0L);
+        initial.put(3L, 9L);
+        initial.put(4L, 8L);
+
+        // When
+        TopKCounter counter = TopKCounter.of(2, initial);
+
+        // Then
+        assertEquals(List.of(3L, 4L), keys(counter.top(10)));
+        assertEquals(3, counter.size());
+        assertEquals(List.of(3L), keys(counter.top(1)));
+    }
+
+    @Test
+    @DisplayName("Capacity below 1 should be rejected")
+    void constructor_InvalidCapacity_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKCounter(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent likes should end with exact counts and the same top-K as a recount")
+    void add_ConcurrentLikes_ShouldMatchRecount() throws Exception {
+        // Given: 8 threads × 20 000 likes over 200 keys (skewed towards low keys)
+        TopKCounter counter = new TopKCounter(10);
+        int threads = 8;
+        int keyCount = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                long[] sent = new long[keyCount + 1];
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    double u = random.nextDouble();
+                    int key = 1 + (int) (u * u * (keyCount - 1));
+                    counter.add(key, 1);
+                    sent[key]++;
+                }
+                return sent;
+            }));
+        }
+
+        // When
+        start.countDown();
+        long[] expected = new long[keyCount + 1];
+        for (Future<long[]> future : futures) {
+            long[] sent = future.get(30, TimeUnit.SECONDS);
+            for (int key = 1; key <= keyCount; key++) {
+                expected[key] += sent[key];
+            }
+        }
+        pool.shutdown();
+
+        // Then: no lost update, snapshot equals a recount of the counters
+        Map<Long, Long> recount = new HashMap<>();
+        for (int key = 1; key <= keyCount; key++) {
+            assertEquals(expected[key], counter.count(key), "count of key " + key);
+            recount.put((long) key, expected[key]);
+        }
+        assertEquals(keys(TopKCounter.of(10, recount).top(10)), keys(counter.top(10)));
+    }
+
+    private static List<Long> keys(List<TopKCounter.Entry> entries) {
+        List<Long> keys = new ArrayList<>();
+        for (TopKCounter.Entry entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+}